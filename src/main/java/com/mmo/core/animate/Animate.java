@@ -1,5 +1,6 @@
 package com.mmo.core.animate;
 
+import java.time.OffsetDateTime;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -7,6 +8,7 @@ import com.mmo.core.attribute.Attribute;
 import com.mmo.core.attribute.AttributeModifier;
 import com.mmo.core.attribute.Attributes;
 import com.mmo.core.looper.LooperContext;
+import com.mmo.core.map.ActivityListener;
 import com.mmo.core.map.MapEntity;
 import com.mmo.core.map.Position;
 import com.mmo.core.property.PropertyModifierAction;
@@ -19,6 +21,8 @@ public abstract class Animate implements MapEntity {
     private Long lastMoveStartTime;
     private Animate targetAnimate;
     private Position targetPosition;
+    private volatile ActivityListener activityListener;
+    private volatile long nextExpiration = Long.MIN_VALUE;
 
     public abstract Attributes getAttributes();
 
@@ -56,10 +60,10 @@ public abstract class Animate implements MapEntity {
         clearTargetPosition();
         targetAnimate = target;
         lastAttackStartTime = System.currentTimeMillis();
+        wake();
     }
 
-    private void attack() {
-        Animate target = getTargetAnimate().orElseThrow();
+    private void hit(Animate target) {
         int attack = getAttributes().getFinalAttack();
         int targetDefense = target.getAttributes().getFinalDefense();
         int damage = attack - targetDefense;
@@ -79,6 +83,58 @@ public abstract class Animate implements MapEntity {
         clearTargetAnimate();
         targetPosition = target;
         lastMoveStartTime = System.currentTimeMillis();
+        wake();
+    }
+
+    public void modify(AttributeModifier modifier) {
+        getAttributes().modify(modifier);
+        schedule(modifier.getExpiration());
+    }
+
+    /*
+     * an animate neither attacking nor moving is idle, the map wakes it up
+     * again for its next order or for its next modifier to expire
+     */
+    @Override
+    public boolean isIdle() {
+        return !isAttacking() && !isMoving();
+    }
+
+    @Override
+    public long getWakeUpTick() {
+        return nextExpiration;
+    }
+
+    @Override
+    public void setActivityListener(ActivityListener listener) {
+        this.activityListener = listener;
+    }
+
+    /*
+     * a timed modifier wakes the animate up, it is released on the first
+     * update past its expiration
+     */
+    protected void schedule(OffsetDateTime expiration) {
+        if (Objects.nonNull(expiration)) {
+            nextExpiration = Math.min(nextExpiration, expiration.toInstant().toEpochMilli());
+            wake();
+        }
+    }
+
+    protected long getNextExpiration() {
+        return getAttributes().getNextExpiration();
+    }
+
+    protected void releaseExpiredModifiers(LooperContext context) {
+        getAttributes().update(context);
+    }
+
+    private void wake() {
+        ActivityListener listener = activityListener;
+
+        if (Objects.nonNull(listener)) {
+            listener.onWake(this);
+        }
     }
 
     private void move() {
@@ -123,22 +179,40 @@ public abstract class Animate implements MapEntity {
     }
 
     private boolean hasFinishedMoving(Position current, Position target) {
-        return current.getX().compareTo(target.getX()) == 0 && current.getY().compareTo(target.getY()) == 0;
+        return current.getX() == target.getX() && current.getY() == target.getY();
     }
 
+    /*
+     * chasing reads where the target stands and hits it, both go through
+     * interact so a target updated by another thread is neither read nor hit
+     * before that thread is done with the tick
+     */
     @Override
     public void update(LooperContext context) {
         if (isAttacking()) {
-            if (isInsideAttackRange(targetAnimate.getPosition())) {
-                // we reach our target
-                lastMoveStartTime = null;
-            } else {
-                // we should start moving to getting closer
-                lastMoveStartTime = lastAttackStartTime;
-            }
-
-            update(context, lastAttackStartTime, getAttackUpdateRateInMillis(), this::attack);
+            Animate target = targetAnimate;
+
+            context.interact(target, () -> chase(context, target));
+        } else if (isMoving()) {
+            update(context, lastMoveStartTime, getMoveUpdateRateInMillis(), this::move);
+        }
+
+        if (context.getTick() >= nextExpiration) {
+            releaseExpiredModifiers(context);
+            nextExpiration = getNextExpiration();
         }
+    }
+
+    private void chase(LooperContext context, Animate target) {
+        if (isInsideAttackRange(target.getPosition())) {
+            // we reach our target
+            lastMoveStartTime = null;
+        } else {
+            // we should start moving to getting closer
+            lastMoveStartTime = lastAttackStartTime;
+        }
+
+        update(context, lastAttackStartTime, getAttackUpdateRateInMillis(), () -> hit(target));
 
         if (isMoving()) {
             update(context, lastMoveStartTime, getMoveUpdateRateInMillis(), this::move);
@@ -0,0 +1,10 @@
+package com.mmo.core.animate;
+
+public class AnimateAttackSpeedException extends AnimateException {
+
+    private static final long serialVersionUID = 3915266740358121487L;
+
+    public AnimateAttackSpeedException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+}
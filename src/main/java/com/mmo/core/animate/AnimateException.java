@@ -0,0 +1,16 @@
+package com.mmo.core.animate;
+
+import com.mmo.core.RuntimeException;
+
+public abstract class AnimateException extends RuntimeException {
+
+    private static final long serialVersionUID = 1219657487502531309L;
+
+    public AnimateException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+
+    public AnimateException(Throwable throwable, String messageFormat, Object... arguments) {
+        super(throwable, messageFormat, arguments);
+    }
+}
@@ -0,0 +1,10 @@
+package com.mmo.core.animate;
+
+public class AnimateNotStoredException extends AnimateException {
+
+    private static final long serialVersionUID = 6584480922928863890L;
+
+    public AnimateNotStoredException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+}
@@ -0,0 +1,358 @@
+package com.mmo.core.animate;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.mmo.core.looper.LooperContext;
+import com.mmo.core.looper.LooperUpdater;
+import com.mmo.core.map.Position;
+
+import lombok.Builder;
+import lombok.ToString;
+
+/*
+ * the hot fields of many animates in primitive arrays indexed by a dense
+ * slot, the systems of a tick walk them from the first slot to the last
+ * instead of chasing the attributes and positions of every animate. a
+ * stored animate is a view over its slot, removing one moves the last slot
+ * into the hole so the slots stay dense.
+ * attacks and moves follow the rules of animate, each on a cooldown of its
+ * own. the store owns the coordinates, the position of a view only follows
+ * them for the spatial index of the map. adding, removing, commanding and
+ * updating lock the store, reads do not
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public class AnimateStore implements LooperUpdater {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int MOVE_UPDATE_RATIO_IN_MILLIS = 300;
+
+    @ToString.Include
+    private volatile int size;
+    private StoredAnimate[] views;
+    private Position[] positions;
+    private StoredAnimate[] targets;
+    private Position[] targetPositions;
+    private boolean[] attacking;
+    private boolean[] moving;
+    private long[] x;
+    private long[] y;
+    private long[] z;
+    private long[] targetX;
+    private long[] targetY;
+    private long[] targetZ;
+    private long[] nextAttackTick;
+    private long[] nextMoveTick;
+    private int[] hp;
+    private int[] attack;
+    private int[] defense;
+    private int[] moveSpeed;
+    private int[] attackRange;
+    private int[] attackRateInMillis;
+
+    @Builder
+    private AnimateStore(Integer capacity) {
+        resize(Objects.isNull(capacity) ? DEFAULT_CAPACITY : capacity);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public synchronized void remove(StoredAnimate view) {
+        int slot = getSlot(view);
+        int last = size - 1;
+
+        if (slot != last) {
+            copy(last, slot);
+            views[slot].slot = slot;
+        }
+
+        clear(last);
+        size = last;
+        view.slot = StoredAnimate.NOT_STORED;
+    }
+
+    @Override
+    public synchronized void update(LooperContext context) {
+        long tick = context.getTick();
+
+        updateAttacks(tick);
+        updateMoves(tick);
+    }
+
+    /*
+     * the slot is handed to the view under the lock, a remove moving the view
+     * right after must find the slot it moves it from
+     */
+    synchronized void add(
+            StoredAnimate view,
+            int hp,
+            int attack,
+            int defense,
+            int moveSpeed,
+            int attackRange,
+            int attackSpeed) {
+
+        if (attackSpeed <= 0) {
+            throw new AnimateAttackSpeedException("Attack speed must be positive, got %s", attackSpeed);
+        }
+
+        if (size == views.length) {
+            resize(Math.max(1, size * 2));
+        }
+
+        int slot = size;
+        Position position = view.getPosition();
+
+        views[slot] = view;
+        positions[slot] = position;
+        x[slot] = position.getX();
+        y[slot] = position.getY();
+        z[slot] = position.getZ();
+        this.hp[slot] = hp;
+        this.attack[slot] = attack;
+        this.defense[slot] = defense;
+        this.moveSpeed[slot] = moveSpeed;
+        this.attackRange[slot] = attackRange;
+        this.attackRateInMillis[slot] = Math.max(1, 100_000 / attackSpeed);
+        size = slot + 1;
+        view.slot = slot;
+    }
+
+    synchronized void attack(StoredAnimate view, StoredAnimate target, long now) {
+        int slot = getSlot(view);
+
+        getSlot(target);
+        targetPositions[slot] = null;
+        targets[slot] = target;
+        attacking[slot] = true;
+        nextAttackTick[slot] = now + attackRateInMillis[slot];
+        nextMoveTick[slot] = now + MOVE_UPDATE_RATIO_IN_MILLIS;
+    }
+
+    synchronized void move(StoredAnimate view, Position target, long now) {
+        int slot = getSlot(view);
+
+        targets[slot] = null;
+        attacking[slot] = false;
+        targetPositions[slot] = target;
+        targetX[slot] = target.getX();
+        targetY[slot] = target.getY();
+        targetZ[slot] = target.getZ();
+        moving[slot] = true;
+        nextMoveTick[slot] = now + MOVE_UPDATE_RATIO_IN_MILLIS;
+    }
+
+    int getHP(StoredAnimate view) {
+        return hp[getSlot(view)];
+    }
+
+    boolean isAttacking(StoredAnimate view) {
+        return attacking[getSlot(view)];
+    }
+
+    boolean isMoving(StoredAnimate view) {
+        return moving[getSlot(view)];
+    }
+
+    Optional<StoredAnimate> getTargetAnimate(StoredAnimate view) {
+        return Optional.ofNullable(targets[getSlot(view)]);
+    }
+
+    Optional<Position> getTargetPosition(StoredAnimate view) {
+        int slot = getSlot(view);
+
+        return Objects.nonNull(targets[slot])
+                ? Optional.of(targets[slot].getPosition())
+                : Optional.ofNullable(targetPositions[slot]);
+    }
+
+    /*
+     * an attacker out of range chases its target, one in range stops and
+     * keeps its move cooldown current so a chase picks up where it stands. a
+     * target gone from the store is given up
+     */
+    private void updateAttacks(long tick) {
+        for (int slot = 0; slot < size; slot++) {
+            if (attacking[slot]) {
+                int target = targets[slot].slot;
+
+                if (target == StoredAnimate.NOT_STORED) {
+                    stop(slot);
+                } else {
+                    chase(slot, target, tick);
+
+                    while (attacking[slot] && nextAttackTick[slot] <= tick) {
+                        hit(slot, target);
+                        nextAttackTick[slot] += attackRateInMillis[slot];
+                    }
+                }
+            }
+        }
+    }
+
+    private void chase(int slot, int target, long tick) {
+        int range = attackRange[slot];
+        boolean inside = Math.abs(x[target] - x[slot]) <= range
+                && Math.abs(y[target] - y[slot]) <= range
+                && Math.abs(z[target] - z[slot]) <= range;
+
+        if (inside) {
+            moving[slot] = false;
+            nextMoveTick[slot] = Math.max(nextMoveTick[slot], tick);
+        } else {
+            moving[slot] = true;
+        }
+    }
+
+    private void hit(int slot, int target) {
+        hp[target] -= attack[slot] - defense[target];
+
+        if (hp[target] <= 0) {
+            attacking[slot] = false;
+        }
+    }
+
+    private void updateMoves(long tick) {
+        for (int slot = 0; slot < size; slot++) {
+            if (moving[slot] && nextMoveTick[slot] <= tick) {
+                StoredAnimate targetAnimate = targets[slot];
+
+                if (Objects.isNull(targetAnimate)) {
+                    move(slot, targetX[slot], targetY[slot], targetZ[slot], tick);
+                } else if (targetAnimate.slot == StoredAnimate.NOT_STORED) {
+                    stop(slot);
+                } else {
+                    int target = targetAnimate.slot;
+                    move(slot, x[target], y[target], z[target], tick);
+                }
+            }
+        }
+    }
+
+    private void move(int slot, long toX, long toY, long toZ, long tick) {
+        int speed = moveSpeed[slot];
+
+        while (moving[slot] && nextMoveTick[slot] <= tick) {
+            x[slot] = step(x[slot], toX, speed);
+            y[slot] = step(y[slot], toY, speed);
+            z[slot] = step(z[slot], toZ, speed);
+            nextMoveTick[slot] += MOVE_UPDATE_RATIO_IN_MILLIS;
+
+            if (x[slot] == toX && y[slot] == toY) {
+                moving[slot] = false;
+            }
+        }
+
+        follow(slot);
+    }
+
+    private static long step(long from, long to, int speed) {
+        return from < to
+                ? from + Math.min(speed, to - from)
+                : from - Math.min(speed, from - to);
+    }
+
+    /*
+     * the position of the view is only touched once the animate moved, the
+     * map hears about it the usual way
+     */
+    private void follow(int slot) {
+        Position position = positions[slot];
+
+        if (position.getX() != x[slot]) {
+            position.incrementX(x[slot] - position.getX());
+        }
+
+        if (position.getY() != y[slot]) {
+            position.incrementY(y[slot] - position.getY());
+        }
+
+        if (position.getZ() != z[slot]) {
+            position.incrementZ(z[slot] - position.getZ());
+        }
+    }
+
+    private void stop(int slot) {
+        targets[slot] = null;
+        attacking[slot] = false;
+        moving[slot] = false;
+    }
+
+    private int getSlot(StoredAnimate view) {
+        int slot = view.slot;
+
+        if (slot == StoredAnimate.NOT_STORED || view.getStore() != this) {
+            throw new AnimateNotStoredException("Animate not stored with instanceId %s", view.getInstanceId());
+        }
+
+        return slot;
+    }
+
+    private void copy(int from, int to) {
+        views[to] = views[from];
+        positions[to] = positions[from];
+        targets[to] = targets[from];
+        targetPositions[to] = targetPositions[from];
+        attacking[to] = attacking[from];
+        moving[to] = moving[from];
+        x[to] = x[from];
+        y[to] = y[from];
+        z[to] = z[from];
+        targetX[to] = targetX[from];
+        targetY[to] = targetY[from];
+        targetZ[to] = targetZ[from];
+        nextAttackTick[to] = nextAttackTick[from];
+        nextMoveTick[to] = nextMoveTick[from];
+        hp[to] = hp[from];
+        attack[to] = attack[from];
+        defense[to] = defense[from];
+        moveSpeed[to] = moveSpeed[from];
+        attackRange[to] = attackRange[from];
+        attackRateInMillis[to] = attackRateInMillis[from];
+    }
+
+    private void clear(int slot) {
+        views[slot] = null;
+        positions[slot] = null;
+        targets[slot] = null;
+        targetPositions[slot] = null;
+        attacking[slot] = false;
+        moving[slot] = false;
+    }
+
+    private void resize(int capacity) {
+        views = Objects.isNull(views) ? new StoredAnimate[capacity] : Arrays.copyOf(views, capacity);
+        positions = Objects.isNull(positions) ? new Position[capacity] : Arrays.copyOf(positions, capacity);
+        targets = Objects.isNull(targets) ? new StoredAnimate[capacity] : Arrays.copyOf(targets, capacity);
+        targetPositions = Objects.isNull(targetPositions)
+                ? new Position[capacity]
+                : Arrays.copyOf(targetPositions, capacity);
+        attacking = Objects.isNull(attacking) ? new boolean[capacity] : Arrays.copyOf(attacking, capacity);
+        moving = Objects.isNull(moving) ? new boolean[capacity] : Arrays.copyOf(moving, capacity);
+        x = resize(x, capacity);
+        y = resize(y, capacity);
+        z = resize(z, capacity);
+        targetX = resize(targetX, capacity);
+        targetY = resize(targetY, capacity);
+        targetZ = resize(targetZ, capacity);
+        nextAttackTick = resize(nextAttackTick, capacity);
+        nextMoveTick = resize(nextMoveTick, capacity);
+        hp = resize(hp, capacity);
+        attack = resize(attack, capacity);
+        defense = resize(defense, capacity);
+        moveSpeed = resize(moveSpeed, capacity);
+        attackRange = resize(attackRange, capacity);
+        attackRateInMillis = resize(attackRateInMillis, capacity);
+    }
+
+    private static long[] resize(long[] array, int capacity) {
+        return Objects.isNull(array) ? new long[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static int[] resize(int[] array, int capacity) {
+        return Objects.isNull(array) ? new int[capacity] : Arrays.copyOf(array, capacity);
+    }
+}
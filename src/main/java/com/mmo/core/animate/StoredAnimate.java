@@ -0,0 +1,108 @@
+package com.mmo.core.animate;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.mmo.core.looper.LooperContext;
+import com.mmo.core.map.MapEntity;
+import com.mmo.core.map.Position;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * an animate living in a slot of an animate store. what it is doing and how
+ * healthy it is are read from and written to its slot, the store updates it
+ * along with every other one so updating it alone does nothing
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+public class StoredAnimate implements MapEntity {
+
+    static final int NOT_STORED = -1;
+
+    @ToString.Include
+    private final UUID instanceId;
+    @ToString.Include
+    private final String name;
+    private final Position position;
+    @Getter(AccessLevel.PACKAGE)
+    private final AnimateStore store;
+    @Getter(AccessLevel.NONE)
+    volatile int slot;
+
+    @Builder
+    private StoredAnimate(
+            @NonNull AnimateStore store,
+            UUID instanceId,
+            @NonNull String name,
+            @NonNull Position position,
+            @NonNull Integer hp,
+            @NonNull Integer attack,
+            @NonNull Integer defense,
+            @NonNull Integer moveSpeed,
+            @NonNull Integer attackRange,
+            @NonNull Integer attackSpeed) {
+
+        this.store = store;
+        this.instanceId = Objects.isNull(instanceId) ? UUID.randomUUID() : instanceId;
+        this.name = name;
+        this.position = position;
+        this.slot = NOT_STORED;
+
+        store.add(this, hp, attack, defense, moveSpeed, attackRange, attackSpeed);
+    }
+
+    public boolean isStored() {
+        return slot != NOT_STORED;
+    }
+
+    public int getHP() {
+        return store.getHP(this);
+    }
+
+    public boolean isAlive() {
+        return getHP() > 0;
+    }
+
+    public boolean isAttacking() {
+        return store.isAttacking(this);
+    }
+
+    public boolean isMoving() {
+        return store.isMoving(this);
+    }
+
+    public Optional<StoredAnimate> getTargetAnimate() {
+        return store.getTargetAnimate(this);
+    }
+
+    public Optional<Position> getTargetPosition() {
+        return store.getTargetPosition(this);
+    }
+
+    public void attack(StoredAnimate target) {
+        store.attack(this, target, System.currentTimeMillis());
+    }
+
+    public void move(Position target) {
+        store.move(this, target, System.currentTimeMillis());
+    }
+
+    /*
+     * the store does the work, the map has nothing to update
+     */
+    @Override
+    public boolean isIdle() {
+        return true;
+    }
+
+    @Override
+    public void update(LooperContext context) {
+
+    }
+}
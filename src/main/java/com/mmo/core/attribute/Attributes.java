@@ -157,6 +157,14 @@ public class Attributes implements LooperUpdater {
         properties.modify(modifier.getAttribute().name(), modifier.toPropertyModifier());
     }
 
+    public long getNextExpiration() {
+        return properties.getNextExpiration();
+    }
+
+    public Property getProperty(Attribute attribute) {
+        return properties.getRequired(attribute.name());
+    }
+
     private Integer getValue(Attribute Attribute) {
         return properties.getValue(Attribute.name());
     }
@@ -0,0 +1,10 @@
+package com.mmo.core.game;
+
+public class MapAlreadyHostedException extends GameException {
+
+    private static final long serialVersionUID = -2749123065870631140L;
+
+    public MapAlreadyHostedException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+}
@@ -0,0 +1,10 @@
+package com.mmo.core.game;
+
+public class MapNotHostedException extends GameException {
+
+    private static final long serialVersionUID = 8420954263108723319L;
+
+    public MapNotHostedException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+}
@@ -0,0 +1,99 @@
+package com.mmo.core.game;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+import com.mmo.core.looper.LooperScheduler;
+import com.mmo.core.looper.ScheduledLooper;
+import com.mmo.core.map.Map;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * hosts many maps in one process, identified by their name, every one of
+ * them ticking at its own fps on the shared workers of the scheduler. a
+ * quiet map costs a turn now and then rather than a thread of its own. a map
+ * failing its update stops ticking and is reported to onMapFailure
+ */
+@ToString
+public class World {
+
+    @ToString.Exclude
+    private final ConcurrentHashMap<String, Map> maps = new ConcurrentHashMap<>();
+    @ToString.Exclude
+    private final ConcurrentHashMap<String, ScheduledLooper> loopers = new ConcurrentHashMap<>();
+    private final LooperScheduler scheduler;
+    @ToString.Exclude
+    private final BiConsumer<Map, RuntimeException> onMapFailure;
+
+    @Builder
+    private World(
+            @NonNull Integer workers,
+            Integer maxCatchUpUpdates,
+            BiConsumer<Map, RuntimeException> onMapFailure) {
+
+        this.scheduler = LooperScheduler.builder()
+                .workers(workers)
+                .maxCatchUpUpdates(maxCatchUpUpdates)
+                .build();
+        this.onMapFailure = onMapFailure;
+    }
+
+    public Map getMap(String name) {
+        return findMap(name)
+                .orElseThrow(() -> new MapNotHostedException("Map not hosted with name %s", name));
+    }
+
+    public Optional<Map> findMap(String name) {
+        return Optional.ofNullable(maps.get(name));
+    }
+
+    public Collection<Map> getMaps() {
+        return Collections.unmodifiableCollection(maps.values());
+    }
+
+    public ScheduledLooper getLooper(String name) {
+        return Optional.ofNullable(loopers.get(name))
+                .orElseThrow(() -> new MapNotHostedException("Map not hosted with name %s", name));
+    }
+
+    public synchronized void host(@NonNull Map map, @NonNull Integer fps) {
+        if (maps.containsKey(map.getName())) {
+            throw new MapAlreadyHostedException("Map already hosted with name %s", map.getName());
+        }
+
+        maps.put(map.getName(), map);
+        loopers.put(map.getName(), scheduler.schedule(fps, map, exception -> failed(map, exception)));
+    }
+
+    public synchronized void unhost(String name) {
+        ScheduledLooper looper = loopers.remove(name);
+
+        if (Objects.isNull(looper)) {
+            throw new MapNotHostedException("Map not hosted with name %s", name);
+        }
+
+        looper.cancel();
+        maps.remove(name);
+    }
+
+    public boolean isRunning() {
+        return scheduler.isRunning();
+    }
+
+    public void stop() {
+        scheduler.stop();
+    }
+
+    private void failed(Map map, RuntimeException exception) {
+        if (Objects.nonNull(onMapFailure)) {
+            onMapFailure.accept(map, exception);
+        }
+    }
+}
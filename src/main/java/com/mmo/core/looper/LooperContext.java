@@ -34,4 +34,12 @@ public class LooperContext {
     public Long getMillisDuration() {
         return System.currentTimeMillis() - tick;
     }
+
+    /*
+     * applies what an updater does to another one, a context updating them
+     * in parallel may hold it back until every updater is done with the tick
+     */
+    public void interact(LooperUpdater target, Runnable action) {
+        action.run();
+    }
 }
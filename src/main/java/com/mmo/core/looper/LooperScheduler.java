@@ -0,0 +1,86 @@
+package com.mmo.core.looper;
+
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * ticks many updaters on a bounded pool of workers, each at its own fps.
+ * the pool always serves the earliest deadline first, a turn runs the fixed
+ * steps its updater is due and hands it back for its next deadline, so an
+ * updater never runs on two workers at once and one that falls behind drops
+ * the steps it can not catch up with instead of taking the workers of others
+ */
+@ToString
+public class LooperScheduler {
+
+    private static final int DEFAULT_MAX_CATCH_UP_UPDATES = 5;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final int maxCatchUpUpdates;
+
+    @Builder
+    private LooperScheduler(@NonNull Integer workers, Integer maxCatchUpUpdates) {
+        this.executor = new ScheduledThreadPoolExecutor(workers);
+        this.maxCatchUpUpdates = Objects.isNull(maxCatchUpUpdates)
+                ? DEFAULT_MAX_CATCH_UP_UPDATES
+                : maxCatchUpUpdates;
+
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    public ScheduledLooper schedule(@NonNull Integer fps, @NonNull LooperUpdater updater) {
+        return schedule(fps, updater, null);
+    }
+
+    /*
+     * the listener hears about the failure cancelling the updater, from the
+     * worker it failed on
+     */
+    public ScheduledLooper schedule(
+            @NonNull Integer fps,
+            @NonNull LooperUpdater updater,
+            Consumer<RuntimeException> onFailure) {
+
+        if (!isRunning()) {
+            throw new LooperSchedulerStoppedException("Scheduler is stopped");
+        }
+
+        ScheduledLooper looper = new ScheduledLooper(this, fps, updater, onFailure);
+        looper.start();
+
+        return looper;
+    }
+
+    public boolean isRunning() {
+        return !executor.isShutdown();
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    int getMaxCatchUpUpdates() {
+        return maxCatchUpUpdates;
+    }
+
+    /*
+     * turns handed back while the scheduler stops are dropped, a turn
+     * refused by a running scheduler fails its updater
+     */
+    void schedule(Runnable turn, long delayInMillis) {
+        try {
+            executor.schedule(turn, delayInMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException exception) {
+            if (isRunning()) {
+                throw exception;
+            }
+        }
+    }
+}
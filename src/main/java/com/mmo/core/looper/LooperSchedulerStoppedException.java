@@ -0,0 +1,10 @@
+package com.mmo.core.looper;
+
+public class LooperSchedulerStoppedException extends LooperException {
+
+    private static final long serialVersionUID = -6183409264741193827L;
+
+    public LooperSchedulerStoppedException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+}
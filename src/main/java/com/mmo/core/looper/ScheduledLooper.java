@@ -0,0 +1,124 @@
+package com.mmo.core.looper;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import lombok.ToString;
+
+/*
+ * an updater ticking on a looper scheduler. a turn steps it the same way
+ * the looper does, but at most the catch up limit of the scheduler at once,
+ * the lag left after that is dropped and counted as an overrun. an updater
+ * failing a step, or a turn the running scheduler refuses, is cancelled
+ * without affecting any other and the failure is handed to its listener
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public class ScheduledLooper {
+
+    private final LooperScheduler scheduler;
+    @ToString.Include
+    private final Integer fps;
+    private final LooperUpdater updater;
+    private final Consumer<RuntimeException> onFailure;
+    private final LooperContext context = new LooperContext();
+    private final double msPerUpdate;
+    private final Runnable turn = this::takeTurn;
+    private long lastTick;
+    private long lag;
+    @ToString.Include
+    private volatile long updates;
+    @ToString.Include
+    private volatile long overruns;
+    @ToString.Include
+    private volatile boolean cancelled;
+    private volatile RuntimeException failure;
+
+    ScheduledLooper(
+            LooperScheduler scheduler,
+            Integer fps,
+            LooperUpdater updater,
+            Consumer<RuntimeException> onFailure) {
+
+        this.scheduler = scheduler;
+        this.fps = fps;
+        this.updater = updater;
+        this.onFailure = onFailure;
+        this.msPerUpdate = 1000 / fps;
+    }
+
+    public Integer getFps() {
+        return fps;
+    }
+
+    public long getUpdates() {
+        return updates;
+    }
+
+    public long getOverruns() {
+        return overruns;
+    }
+
+    public Optional<RuntimeException> getFailure() {
+        return Optional.ofNullable(failure);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    void start() {
+        lastTick = getNewTick();
+        context.setDesiredLag(msPerUpdate);
+        scheduler.schedule(turn, (long) msPerUpdate);
+    }
+
+    private void takeTurn() {
+        if (cancelled) {
+            return;
+        }
+
+        long newTick = getNewTick();
+        int steps = 0;
+
+        lag += newTick - lastTick;
+        lastTick = newTick;
+        context.setTick(newTick);
+        context.setLag(lag);
+
+        try {
+            while (lag >= msPerUpdate && steps < scheduler.getMaxCatchUpUpdates()) {
+                updater.update(context);
+                lag -= msPerUpdate;
+                steps++;
+                updates++;
+            }
+
+            if (lag >= msPerUpdate) {
+                lag %= msPerUpdate;
+                overruns++;
+            }
+
+            scheduler.schedule(turn, (long) Math.max(0, msPerUpdate - lag));
+        } catch (RuntimeException exception) {
+            fail(exception);
+        }
+    }
+
+    private void fail(RuntimeException exception) {
+        failure = exception;
+        cancelled = true;
+
+        if (Objects.nonNull(onFailure)) {
+            onFailure.accept(exception);
+        }
+    }
+
+    private static long getNewTick() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,239 @@
+package com.mmo.core.map;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/*
+ * the handles of the entities a map updates on its next tick. an entity
+ * joins when it is added or woken up and leaves once it says it is idle,
+ * waking up on its own from a timer at the tick it asked for, so a tick
+ * costs what is going on rather than how many entities there are.
+ * only the ticking thread touches the handles and the timers, others wake
+ * entities up through a queue drained at the start of every tick. a timer
+ * left behind by an entity woken up earlier only costs it one more update
+ */
+final class ActiveEntities extends AbstractCollection<MapEntity> {
+
+    private static final int MIN_CAPACITY = 64;
+
+    private final EntityRegistry entities;
+    private final ConcurrentLinkedQueue<MapEntity> wokenEntities = new ConcurrentLinkedQueue<>();
+    private int[] handles = new int[MIN_CAPACITY];
+    private int size;
+    private int[] members = newMembers(MIN_CAPACITY);
+    private long[] timerTicks = new long[MIN_CAPACITY];
+    private int[] timerHandles = new int[MIN_CAPACITY];
+    private int timers;
+
+    ActiveEntities(EntityRegistry entities) {
+        this.entities = entities;
+    }
+
+    void wake(MapEntity entity) {
+        wokenEntities.add(entity);
+    }
+
+    /*
+     * the entities woken up since the last tick and the timers due join
+     * before the tick
+     */
+    void prepare(long tick) {
+        MapEntity entity;
+
+        while (Objects.nonNull(entity = wokenEntities.poll())) {
+            int handle = entities.getHandle(entity.getInstanceId());
+
+            if (entities.get(handle) == entity) {
+                activate(handle);
+            }
+        }
+
+        while (timers > 0 && timerTicks[0] <= tick) {
+            int handle = timerHandles[0];
+
+            pollTimer();
+
+            if (Objects.nonNull(entities.get(handle))) {
+                activate(handle);
+            }
+        }
+    }
+
+    /*
+     * entities gone from the map and entities gone idle leave after the
+     * tick, the idle ones leaving a timer behind when they asked for one
+     */
+    void retire() {
+        int kept = 0;
+
+        for (int position = 0; position < size; position++) {
+            int handle = handles[position];
+            MapEntity entity = entities.get(handle);
+
+            if (Objects.isNull(entity)) {
+                leave(handle);
+            } else if (entity.isIdle()) {
+                leave(handle);
+                schedule(handle, entity.getWakeUpTick());
+            } else {
+                handles[kept++] = handle;
+            }
+        }
+
+        size = kept;
+    }
+
+    int getTimers() {
+        return timers;
+    }
+
+    @Override
+    public void forEach(Consumer<? super MapEntity> action) {
+        for (int position = 0; position < size; position++) {
+            MapEntity entity = entities.get(handles[position]);
+
+            if (Objects.nonNull(entity)) {
+                action.accept(entity);
+            }
+        }
+    }
+
+    @Override
+    public Iterator<MapEntity> iterator() {
+        return new HandleIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /*
+     * membership is kept by slot, a slot still holding the handle of an
+     * entity removed since the last tick is taken over by the new one
+     */
+    private void activate(int handle) {
+        int index = EntityRegistry.getIndex(handle);
+
+        if (index >= members.length) {
+            int length = members.length;
+
+            members = Arrays.copyOf(members, Math.max(length * 2, index + 1));
+            Arrays.fill(members, length, members.length, EntityRegistry.NO_HANDLE);
+        }
+
+        if (members[index] == handle) {
+            return;
+        }
+
+        if (size == handles.length) {
+            handles = Arrays.copyOf(handles, size * 2);
+        }
+
+        members[index] = handle;
+        handles[size++] = handle;
+    }
+
+    private void leave(int handle) {
+        int index = EntityRegistry.getIndex(handle);
+
+        if (members[index] == handle) {
+            members[index] = EntityRegistry.NO_HANDLE;
+        }
+    }
+
+    private void schedule(int handle, long tick) {
+        if (tick == Long.MAX_VALUE) {
+            return;
+        }
+
+        if (timers == timerTicks.length) {
+            timerTicks = Arrays.copyOf(timerTicks, timers * 2);
+            timerHandles = Arrays.copyOf(timerHandles, timers * 2);
+        }
+
+        int child = timers++;
+
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+
+            if (timerTicks[parent] <= tick) {
+                break;
+            }
+
+            timerTicks[child] = timerTicks[parent];
+            timerHandles[child] = timerHandles[parent];
+            child = parent;
+        }
+
+        timerTicks[child] = tick;
+        timerHandles[child] = handle;
+    }
+
+    private void pollTimer() {
+        long tick = timerTicks[--timers];
+        int handle = timerHandles[timers];
+        int parent = 0;
+
+        while (true) {
+            int child = parent * 2 + 1;
+
+            if (child >= timers) {
+                break;
+            }
+
+            if (child + 1 < timers && timerTicks[child + 1] < timerTicks[child]) {
+                child++;
+            }
+
+            if (tick <= timerTicks[child]) {
+                break;
+            }
+
+            timerTicks[parent] = timerTicks[child];
+            timerHandles[parent] = timerHandles[child];
+            parent = child;
+        }
+
+        timerTicks[parent] = tick;
+        timerHandles[parent] = handle;
+    }
+
+    private static int[] newMembers(int capacity) {
+        int[] members = new int[capacity];
+
+        Arrays.fill(members, EntityRegistry.NO_HANDLE);
+        return members;
+    }
+
+    private final class HandleIterator implements Iterator<MapEntity> {
+
+        private int position;
+        private MapEntity next;
+
+        @Override
+        public boolean hasNext() {
+            while (Objects.isNull(next) && position < size) {
+                next = entities.get(handles[position++]);
+            }
+
+            return Objects.nonNull(next);
+        }
+
+        @Override
+        public MapEntity next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            MapEntity entity = next;
+            next = null;
+            return entity;
+        }
+    }
+}
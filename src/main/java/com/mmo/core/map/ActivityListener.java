@@ -0,0 +1,7 @@
+package com.mmo.core.map;
+
+@FunctionalInterface
+public interface ActivityListener {
+
+    void onWake(MapEntity entity);
+}
@@ -0,0 +1,104 @@
+package com.mmo.core.map;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*
+ * the entities of a map split by concrete class, each bucket with a spatial
+ * index of its own, so a query for a type only walks the buckets of that
+ * type and its subtypes. which buckets a type resolves to is cached until a
+ * bucket for a new class shows up
+ */
+class EntityBuckets {
+
+    private final Supplier<SpatialIndex> spatialIndexFactory;
+    private final ConcurrentHashMap<Class<?>, Bucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, Resolution> resolutions = new ConcurrentHashMap<>();
+    private volatile Bucket[] all = new Bucket[0];
+
+    EntityBuckets(Supplier<SpatialIndex> spatialIndexFactory) {
+        this.spatialIndexFactory = spatialIndexFactory;
+    }
+
+    Bucket getBucket(Class<?> type) {
+        Bucket bucket = buckets.get(type);
+        return Objects.nonNull(bucket) ? bucket : createBucket(type);
+    }
+
+    Bucket[] getBuckets(Class<?> type) {
+        Bucket[] all = this.all;
+        Resolution resolution = resolutions.get(type);
+
+        if (Objects.isNull(resolution) || resolution.all != all) {
+            Bucket[] matching = Arrays.stream(all)
+                    .filter(bucket -> type.isAssignableFrom(bucket.type))
+                    .toArray(Bucket[]::new);
+
+            resolution = new Resolution(all, matching);
+            resolutions.put(type, resolution);
+        }
+
+        return resolution.buckets;
+    }
+
+    private synchronized Bucket createBucket(Class<?> type) {
+        Bucket bucket = buckets.get(type);
+
+        if (Objects.isNull(bucket)) {
+            bucket = new Bucket(type, spatialIndexFactory.get());
+            buckets.put(type, bucket);
+
+            Bucket[] all = Arrays.copyOf(this.all, this.all.length + 1);
+            all[all.length - 1] = bucket;
+            this.all = all;
+        }
+
+        return bucket;
+    }
+
+    static final class Bucket {
+
+        private final Class<?> type;
+        private final ConcurrentHashMap<UUID, MapEntity> entities = new ConcurrentHashMap<>();
+        private final SpatialIndex spatialIndex;
+
+        private Bucket(Class<?> type, SpatialIndex spatialIndex) {
+            this.type = type;
+            this.spatialIndex = spatialIndex;
+        }
+
+        Collection<MapEntity> getEntities() {
+            return Collections.unmodifiableCollection(entities.values());
+        }
+
+        SpatialIndex getSpatialIndex() {
+            return spatialIndex;
+        }
+
+        void add(MapEntity entity) {
+            entities.put(entity.getInstanceId(), entity);
+            spatialIndex.add(entity);
+        }
+
+        void remove(MapEntity entity) {
+            entities.remove(entity.getInstanceId());
+            spatialIndex.remove(entity);
+        }
+    }
+
+    private static final class Resolution {
+
+        private final Bucket[] all;
+        private final Bucket[] buckets;
+
+        private Resolution(Bucket[] all, Bucket[] buckets) {
+            this.all = all;
+            this.buckets = buckets;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.mmo.core.map;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/*
+ * the entities of a map in a flat array, each one under a handle packing the
+ * index of its slot with the generation of the slot. a freed slot goes to
+ * the back of the free queue and its generation moves on, so a handle kept
+ * past the removal of its entity finds nothing rather than whatever took the
+ * slot after it, until the generation wraps around. instance ids resolve to
+ * handles through an open addressed table of primitives, only the network
+ * and the persistence boundary should need it.
+ * writes happen under the registry lock, lookups and iterations read the
+ * arrays without it and see entities added or removed meanwhile or not
+ */
+final class EntityRegistry extends AbstractCollection<MapEntity> {
+
+    static final int NO_HANDLE = -1;
+
+    private static final int INDEX_BITS = 20;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int GENERATION_MASK = Integer.MAX_VALUE >>> INDEX_BITS;
+    private static final int MAX_CAPACITY = 1 << INDEX_BITS;
+    private static final int MIN_CAPACITY = 64;
+
+    private volatile Slots slots = new Slots(MIN_CAPACITY);
+    private volatile Table table = new Table(MIN_CAPACITY * 2);
+    private volatile int limit;
+    private volatile int size;
+    private int[] free = new int[MIN_CAPACITY];
+    private int freeHead;
+    private int freeCount;
+
+    static int getIndex(int handle) {
+        return handle & INDEX_MASK;
+    }
+
+    static int getGeneration(int handle) {
+        return handle >>> INDEX_BITS;
+    }
+
+    /*
+     * an entity taking the instance id of another one takes its slot too,
+     * under a new generation
+     */
+    synchronized int put(MapEntity entity) {
+        UUID instanceId = entity.getInstanceId();
+        int previous = table.get(instanceId);
+        int index;
+
+        if (previous == NO_HANDLE) {
+            index = allocate();
+            size++;
+        } else {
+            index = getIndex(previous);
+            retire(index);
+        }
+
+        Slots slots = this.slots;
+        int handle = slots.generations.get(index) << INDEX_BITS | index;
+
+        slots.entities.set(index, entity);
+        index(instanceId, handle);
+
+        return handle;
+    }
+
+    synchronized MapEntity remove(UUID instanceId) {
+        int handle = table.remove(instanceId);
+
+        if (handle == NO_HANDLE) {
+            return null;
+        }
+
+        int index = getIndex(handle);
+        MapEntity entity = slots.entities.get(index);
+
+        retire(index);
+        release(index);
+        size--;
+
+        return entity;
+    }
+
+    /*
+     * a handle from another registry or one past its generation finds
+     * nothing, the slot is read before its generation so an entity taking
+     * the slot meanwhile is never mistaken for the one the handle was for.
+     * a lookup the slots grew under reads the new ones again
+     */
+    MapEntity get(int handle) {
+        if (handle < 0) {
+            return null;
+        }
+
+        int index = getIndex(handle);
+
+        while (true) {
+            Slots slots = this.slots;
+            MapEntity entity = index < slots.capacity ? slots.entities.get(index) : null;
+            boolean found = index < slots.capacity && slots.generations.get(index) == getGeneration(handle);
+
+            if (slots == this.slots) {
+                return found ? entity : null;
+            }
+        }
+    }
+
+    MapEntity get(UUID instanceId) {
+        return get(getHandle(instanceId));
+    }
+
+    int getHandle(UUID instanceId) {
+        return table.get(instanceId);
+    }
+
+    @Override
+    public void forEach(Consumer<? super MapEntity> action) {
+        Slots slots = this.slots;
+        int limit = Math.min(this.limit, slots.capacity);
+
+        for (int index = 0; index < limit; index++) {
+            MapEntity entity = slots.entities.get(index);
+
+            if (Objects.nonNull(entity)) {
+                action.accept(entity);
+            }
+        }
+    }
+
+    @Override
+    public Iterator<MapEntity> iterator() {
+        return new SlotIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return object instanceof MapEntity && get(((MapEntity) object).getInstanceId()) == object;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            int index = free[freeHead];
+
+            freeHead = (freeHead + 1) % free.length;
+            freeCount--;
+            return index;
+        }
+
+        if (limit == slots.capacity) {
+            grow();
+        }
+
+        return limit++;
+    }
+
+    /*
+     * the free queue is empty whenever the slots grow, it only has to grow
+     * along with them
+     */
+    private void grow() {
+        if (slots.capacity == MAX_CAPACITY) {
+            throw new MapEntityLimitException("Map can not hold more than %d entities", MAX_CAPACITY);
+        }
+
+        int capacity = Math.min(slots.capacity * 2, MAX_CAPACITY);
+
+        slots = new Slots(slots, capacity);
+        free = new int[capacity];
+        freeHead = 0;
+    }
+
+    private void retire(int index) {
+        Slots slots = this.slots;
+
+        slots.entities.set(index, null);
+        slots.generations.set(index, (slots.generations.get(index) + 1) & GENERATION_MASK);
+    }
+
+    private void release(int index) {
+        free[(freeHead + freeCount) % free.length] = index;
+        freeCount++;
+    }
+
+    private void index(UUID instanceId, int handle) {
+        if ((table.used + 1) * 2 > table.capacity) {
+            table = table.resize(size * 4 > table.capacity ? table.capacity * 2 : table.capacity);
+        }
+
+        table.put(instanceId, handle);
+    }
+
+    private static final class Slots {
+
+        private final int capacity;
+        private final AtomicReferenceArray<MapEntity> entities;
+        private final AtomicIntegerArray generations;
+
+        private Slots(int capacity) {
+            this.capacity = capacity;
+            this.entities = new AtomicReferenceArray<>(capacity);
+            this.generations = new AtomicIntegerArray(capacity);
+        }
+
+        private Slots(Slots slots, int capacity) {
+            this(capacity);
+
+            for (int index = 0; index < slots.capacity; index++) {
+                entities.set(index, slots.entities.get(index));
+                generations.set(index, slots.generations.get(index));
+            }
+        }
+    }
+
+    /*
+     * linear probing over the two halves of the instance ids, a removed
+     * entry is left as a tombstone so readers probing past it without the
+     * lock still find what follows. the handle of an entry is written after
+     * its instance id, a reader finding the handle finds the id too
+     */
+    private static final class Table {
+
+        private static final int TOMBSTONE = -2;
+        private static final long MIX = 0x9E3779B97F4A7C15L;
+
+        private final int capacity;
+        private final AtomicLongArray mostSignificantBits;
+        private final AtomicLongArray leastSignificantBits;
+        private final AtomicIntegerArray handles;
+        private int used;
+
+        private Table(int capacity) {
+            this.capacity = capacity;
+            this.mostSignificantBits = new AtomicLongArray(capacity);
+            this.leastSignificantBits = new AtomicLongArray(capacity);
+            this.handles = new AtomicIntegerArray(capacity);
+
+            for (int slot = 0; slot < capacity; slot++) {
+                handles.set(slot, NO_HANDLE);
+            }
+        }
+
+        private int get(UUID instanceId) {
+            long most = instanceId.getMostSignificantBits();
+            long least = instanceId.getLeastSignificantBits();
+            int mask = capacity - 1;
+
+            int slot = getSlot(most, least, mask);
+
+            for (int probes = 0; probes < capacity; probes++, slot = (slot + 1) & mask) {
+                int handle = handles.get(slot);
+
+                if (handle == NO_HANDLE) {
+                    return NO_HANDLE;
+                }
+
+                if (handle != TOMBSTONE
+                        && mostSignificantBits.get(slot) == most
+                        && leastSignificantBits.get(slot) == least) {
+
+                    return handle;
+                }
+            }
+
+            return NO_HANDLE;
+        }
+
+        /*
+         * an entry for the instance id is updated in place, a new one takes
+         * the first tombstone on the way
+         */
+        private void put(UUID instanceId, int handle) {
+            put(instanceId.getMostSignificantBits(), instanceId.getLeastSignificantBits(), handle);
+        }
+
+        private void put(long most, long least, int handle) {
+            int mask = capacity - 1;
+            int target = NO_HANDLE;
+            int slot = getSlot(most, least, mask);
+
+            for (int current = handles.get(slot); current != NO_HANDLE; current = handles.get(slot)) {
+                if (current == TOMBSTONE) {
+                    target = target == NO_HANDLE ? slot : target;
+                } else if (mostSignificantBits.get(slot) == most && leastSignificantBits.get(slot) == least) {
+                    handles.set(slot, handle);
+                    return;
+                }
+
+                slot = (slot + 1) & mask;
+            }
+
+            if (target == NO_HANDLE) {
+                target = slot;
+                used++;
+            }
+
+            mostSignificantBits.set(target, most);
+            leastSignificantBits.set(target, least);
+            handles.set(target, handle);
+        }
+
+        private int remove(UUID instanceId) {
+            long most = instanceId.getMostSignificantBits();
+            long least = instanceId.getLeastSignificantBits();
+            int mask = capacity - 1;
+
+            for (int slot = getSlot(most, least, mask); ; slot = (slot + 1) & mask) {
+                int handle = handles.get(slot);
+
+                if (handle == NO_HANDLE) {
+                    return NO_HANDLE;
+                }
+
+                if (handle != TOMBSTONE
+                        && mostSignificantBits.get(slot) == most
+                        && leastSignificantBits.get(slot) == least) {
+
+                    handles.set(slot, TOMBSTONE);
+                    return handle;
+                }
+            }
+        }
+
+        /*
+         * tombstones are left behind, the live entries are probed into a
+         * fresh table
+         */
+        private Table resize(int capacity) {
+            Table table = new Table(capacity);
+
+            for (int slot = 0; slot < this.capacity; slot++) {
+                int handle = handles.get(slot);
+
+                if (handle != NO_HANDLE && handle != TOMBSTONE) {
+                    table.put(mostSignificantBits.get(slot), leastSignificantBits.get(slot), handle);
+                }
+            }
+
+            return table;
+        }
+
+        private static int getSlot(long most, long least, int mask) {
+            long hash = (most ^ least) * MIX;
+            return (int) (hash ^ hash >>> 32) & mask;
+        }
+    }
+
+    private final class SlotIterator implements Iterator<MapEntity> {
+
+        private final Slots slots = EntityRegistry.this.slots;
+        private final int limit = Math.min(EntityRegistry.this.limit, slots.capacity);
+        private int index;
+        private MapEntity next;
+
+        @Override
+        public boolean hasNext() {
+            while (Objects.isNull(next) && index < limit) {
+                next = slots.entities.get(index++);
+            }
+
+            return Objects.nonNull(next);
+        }
+
+        @Override
+        public MapEntity next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            MapEntity entity = next;
+            next = null;
+            return entity;
+        }
+    }
+}
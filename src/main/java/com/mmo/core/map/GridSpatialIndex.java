@@ -0,0 +1,449 @@
+package com.mmo.core.map;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * uniform grid of cubic cells hashed by their packed coordinates, only
+ * occupied cells are kept. a query visits the cells its box overlaps, or
+ * every occupied cell when that is fewer, and tests the exact box on the
+ * entities found there, so two cells packing to the same key only cost an
+ * extra test. cells are copied on write under the index lock, queries read
+ * them without it
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public class GridSpatialIndex implements SpatialIndex {
+
+    private static final int AXIS_BITS = 21;
+    private static final long AXIS_MASK = (1L << AXIS_BITS) - 1;
+    private static final long KEY_MIX = 0x9E3779B97F4A7C15L;
+    private static final long KEY_UNMIX = 0xF1DE83E19937733DL;
+
+    @ToString.Include
+    private final int cellSize;
+    private final CellTable cells = new CellTable();
+    private final ConcurrentHashMap<UUID, Cell> entityCells = new ConcurrentHashMap<>();
+
+    @Builder
+    private GridSpatialIndex(@NonNull Integer cellSize) {
+        if (cellSize <= 0) {
+            throw new SpatialIndexException("Cell size must be positive, got %s", cellSize);
+        }
+
+        this.cellSize = cellSize;
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    @Override
+    public synchronized void add(MapEntity entity) {
+        Cell previous = entityCells.get(entity.getInstanceId());
+
+        if (Objects.nonNull(previous)) {
+            removeFromCell(previous, entity);
+        }
+
+        entityCells.put(entity.getInstanceId(), addToCell(getKey(entity.getPosition()), entity));
+        bound(entity.getPosition());
+    }
+
+    @Override
+    public synchronized void remove(MapEntity entity) {
+        Cell cell = entityCells.remove(entity.getInstanceId());
+
+        if (Objects.nonNull(cell)) {
+            removeFromCell(cell, entity);
+        }
+    }
+
+    /*
+     * the position is bounded to its cell, so this is only reached once an
+     * entity crossed into another one
+     */
+    @Override
+    public synchronized void move(MapEntity entity) {
+        Cell cell = entityCells.get(entity.getInstanceId());
+
+        if (Objects.isNull(cell)) {
+            return;
+        }
+
+        long target = getKey(entity.getPosition());
+
+        if (cell.key != target) {
+            removeFromCell(cell, entity);
+            entityCells.put(entity.getInstanceId(), addToCell(target, entity));
+        }
+
+        bound(entity.getPosition());
+    }
+
+    @Override
+    public <T extends MapEntity, C> void query(
+            Position center,
+            int ratio,
+            Class<T> type,
+            C context,
+            BiConsumer<? super C, ? super T> visitor) {
+
+        long minX = getCell(center.getX() - ratio);
+        long maxX = getCell(center.getX() + ratio);
+        long minY = getCell(center.getY() - ratio);
+        long maxY = getCell(center.getY() + ratio);
+        long minZ = getCell(center.getZ() - ratio);
+        long maxZ = getCell(center.getZ() + ratio);
+        long visited = (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+
+        if (visited <= 0 || visited > cells.size()) {
+            AtomicReferenceArray<Cell> slots = cells.getSlots();
+
+            for (int i = 0; i < slots.length(); i++) {
+                Cell cell = slots.get(i);
+
+                if (CellTable.isLive(cell)) {
+                    accept(cell, center, ratio, type, context, visitor);
+                }
+            }
+
+            return;
+        }
+
+        for (long x = minX; x <= maxX; x++) {
+            for (long y = minY; y <= maxY; y++) {
+                for (long z = minZ; z <= maxZ; z++) {
+                    Cell cell = cells.get(getKey(x, y, z));
+
+                    if (Objects.nonNull(cell)) {
+                        accept(cell, center, ratio, type, context, visitor);
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * walks rings of cells around the cell of the center, a ring done, no
+     * entity outside it can be closer than the distance from the center to
+     * the edge of the rings, so the search ends once the result can not be
+     * improved past it or the ratio is reached. once the next ring would
+     * take the walk past as many cells as are occupied, the occupied cells
+     * the rings have not covered yet are walked instead
+     */
+    @Override
+    public void findNearest(Position center, int ratio, Predicate<MapEntity> predicate, NearestEntities<?> result) {
+        long x = getCell(center.getX());
+        long y = getCell(center.getY());
+        long z = getCell(center.getZ());
+        long rings = Math.max(getRings(center.getX(), ratio),
+                Math.max(getRings(center.getY(), ratio), getRings(center.getZ(), ratio)));
+
+        for (long ring = 0; ring <= rings; ring++) {
+            long span = 2 * ring + 1;
+
+            if (span * span * span > cells.size()) {
+                offerOutsideRings(x, y, z, ring - 1, center, ratio, predicate, result);
+                return;
+            }
+
+            for (long dx = -ring; dx <= ring; dx++) {
+                for (long dy = -ring; dy <= ring; dy++) {
+                    long step = Math.abs(dx) == ring || Math.abs(dy) == ring ? 1 : 2 * ring;
+
+                    for (long dz = -ring; dz <= ring; dz += step) {
+                        Cell cell = cells.get(getKey(x + dx, y + dy, z + dz));
+
+                        if (Objects.nonNull(cell)) {
+                            offer(cell, center, ratio, predicate, result);
+                        }
+                    }
+                }
+            }
+
+            long outside = Math.min(getRingDistance(center.getX(), ring),
+                    Math.min(getRingDistance(center.getY(), ring), getRingDistance(center.getZ(), ring)));
+
+            if (outside > ratio || result.getWorstDistance() <= outside) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return entityCells.size();
+    }
+
+    private void offerOutsideRings(long x, long y, long z, long rings, Position center, int ratio,
+            Predicate<MapEntity> predicate, NearestEntities<?> result) {
+
+        AtomicReferenceArray<Cell> slots = cells.getSlots();
+
+        for (int i = 0; i < slots.length(); i++) {
+            Cell cell = slots.get(i);
+
+            if (CellTable.isLive(cell) && !isInsideRings(cell.key, x, y, z, rings)) {
+                offer(cell, center, ratio, predicate, result);
+            }
+        }
+    }
+
+    /*
+     * whether walking the rings around the cell looked the key up, the key
+     * unmixed gives back the coordinates it packed, which wrap around along
+     * with the packing
+     */
+    private static boolean isInsideRings(long key, long x, long y, long z, long rings) {
+        long packed = key * KEY_UNMIX;
+
+        return rings >= 0
+                && isInsideRings(packed >>> (AXIS_BITS * 2), x, rings)
+                && isInsideRings(packed >>> AXIS_BITS, y, rings)
+                && isInsideRings(packed, z, rings);
+    }
+
+    private static boolean isInsideRings(long packed, long cell, long rings) {
+        long offset = (packed - cell) & AXIS_MASK;
+        return offset <= rings || offset >= AXIS_MASK + 1 - rings;
+    }
+
+    private long getRings(long coordinate, int ratio) {
+        long cell = getCell(coordinate);
+        return Math.max(cell - getCell(coordinate - ratio), getCell(coordinate + ratio) - cell);
+    }
+
+    /*
+     * distance along one axis from the coordinate to the first one outside
+     * the rings around its cell
+     */
+    private long getRingDistance(long coordinate, long ring) {
+        long cell = getCell(coordinate);
+        return Math.min(coordinate - (cell - ring) * cellSize + 1, (cell + ring + 1) * cellSize - coordinate);
+    }
+
+    private void bound(Position position) {
+        long x = getCell(position.getX()) * cellSize;
+        long y = getCell(position.getY()) * cellSize;
+        long z = getCell(position.getZ()) * cellSize;
+
+        position.setBounds(x, y, z, x + cellSize - 1, y + cellSize - 1, z + cellSize - 1);
+    }
+
+    private Cell addToCell(long key, MapEntity entity) {
+        Cell cell = cells.getOrCreate(key);
+        cell.add(entity);
+        return cell;
+    }
+
+    private void removeFromCell(Cell cell, MapEntity entity) {
+        if (cell.remove(entity)) {
+            cells.remove(cell);
+        }
+    }
+
+    private long getKey(Position position) {
+        return getKey(getCell(position.getX()), getCell(position.getY()), getCell(position.getZ()));
+    }
+
+    private long getCell(long coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    /*
+     * the packed coordinates leave the low bits nearly constant, multiplying
+     * by an odd constant spreads them into the high bits the cell table folds
+     * in, without making two keys equal
+     */
+    private static long getKey(long x, long y, long z) {
+        return ((x & AXIS_MASK) << (AXIS_BITS * 2) | (y & AXIS_MASK) << AXIS_BITS | (z & AXIS_MASK)) * KEY_MIX;
+    }
+
+    private static <T extends MapEntity, C> void accept(
+            Cell cell,
+            Position center,
+            int ratio,
+            Class<T> type,
+            C context,
+            BiConsumer<? super C, ? super T> visitor) {
+
+        for (MapEntity entity : cell.entities) {
+            if (type.isInstance(entity) && center.isNearby(entity.getPosition(), ratio)) {
+                visitor.accept(context, type.cast(entity));
+            }
+        }
+    }
+
+    private static void offer(Cell cell, Position center, int ratio, Predicate<MapEntity> predicate,
+            NearestEntities<?> result) {
+
+        for (MapEntity entity : cell.entities) {
+            long distance = center.getDistance(entity.getPosition());
+
+            if (distance <= ratio && distance < result.getWorstDistance() && predicate.test(entity)) {
+                result.offer(entity, distance);
+            }
+        }
+    }
+
+    /*
+     * a handful of entities per cell, copying the array on change is cheaper
+     * than a set and lets queries iterate a snapshot
+     */
+    private static final class Cell {
+
+        private static final MapEntity[] EMPTY = new MapEntity[0];
+
+        private final long key;
+        private volatile MapEntity[] entities = EMPTY;
+
+        private Cell(long key) {
+            this.key = key;
+        }
+
+        private void add(MapEntity entity) {
+            MapEntity[] entities = new MapEntity[this.entities.length + 1];
+            System.arraycopy(this.entities, 0, entities, 0, this.entities.length);
+            entities[this.entities.length] = entity;
+            this.entities = entities;
+        }
+
+        /*
+         * true when the cell became empty
+         */
+        private boolean remove(MapEntity entity) {
+            MapEntity[] entities = this.entities;
+
+            for (int i = 0; i < entities.length; i++) {
+                if (entities[i] == entity) {
+                    MapEntity[] remaining = new MapEntity[entities.length - 1];
+                    System.arraycopy(entities, 0, remaining, 0, i);
+                    System.arraycopy(entities, i + 1, remaining, i, remaining.length - i);
+                    this.entities = remaining;
+                    break;
+                }
+            }
+
+            return this.entities.length == 0;
+        }
+    }
+
+    /*
+     * open addressing from keys to cells, looking a cell up boxes nothing.
+     * written under the index lock and read without it, a removed cell
+     * leaves a tombstone until the next resize publishes a new array
+     */
+    private static final class CellTable {
+
+        private static final int MIN_CAPACITY = 64;
+        private static final Cell TOMBSTONE = new Cell(0);
+
+        private volatile AtomicReferenceArray<Cell> slots = new AtomicReferenceArray<>(MIN_CAPACITY);
+        private volatile int size;
+        private int used;
+
+        private static boolean isLive(Cell cell) {
+            return Objects.nonNull(cell) && cell != TOMBSTONE;
+        }
+
+        private AtomicReferenceArray<Cell> getSlots() {
+            return slots;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private Cell get(long key) {
+            AtomicReferenceArray<Cell> slots = this.slots;
+            int mask = slots.length() - 1;
+
+            for (int i = getIndex(key, mask); ; i = (i + 1) & mask) {
+                Cell cell = slots.get(i);
+
+                if (Objects.isNull(cell) || cell != TOMBSTONE && cell.key == key) {
+                    return cell;
+                }
+            }
+        }
+
+        private Cell getOrCreate(long key) {
+            Cell cell = get(key);
+
+            if (Objects.nonNull(cell)) {
+                return cell;
+            }
+
+            if ((used + 1) * 2 > slots.length()) {
+                resize();
+            }
+
+            cell = new Cell(key);
+
+            if (Objects.isNull(insert(slots, cell))) {
+                used++;
+            }
+
+            size++;
+            return cell;
+        }
+
+        private void remove(Cell cell) {
+            AtomicReferenceArray<Cell> slots = this.slots;
+            int mask = slots.length() - 1;
+
+            for (int i = getIndex(cell.key, mask); Objects.nonNull(slots.get(i)); i = (i + 1) & mask) {
+                if (slots.get(i) == cell) {
+                    slots.set(i, TOMBSTONE);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        /*
+         * the slot replaced, null or a tombstone
+         */
+        private static Cell insert(AtomicReferenceArray<Cell> slots, Cell cell) {
+            int mask = slots.length() - 1;
+
+            for (int i = getIndex(cell.key, mask); ; i = (i + 1) & mask) {
+                Cell previous = slots.get(i);
+
+                if (!isLive(previous)) {
+                    slots.set(i, cell);
+                    return previous;
+                }
+            }
+        }
+
+        private void resize() {
+            AtomicReferenceArray<Cell> slots = this.slots;
+            int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit((size + 1) * 4 - 1) << 1);
+            AtomicReferenceArray<Cell> resized = new AtomicReferenceArray<>(capacity);
+
+            for (int i = 0; i < slots.length(); i++) {
+                Cell cell = slots.get(i);
+
+                if (isLive(cell)) {
+                    insert(resized, cell);
+                }
+            }
+
+            this.used = size;
+            this.slots = resized;
+        }
+
+        private static int getIndex(long key, int mask) {
+            return (int) (key ^ key >>> 32) & mask;
+        }
+    }
+}
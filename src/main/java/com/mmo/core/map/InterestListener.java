@@ -0,0 +1,10 @@
+package com.mmo.core.map;
+
+import java.util.UUID;
+
+public interface InterestListener {
+
+    void onEnter(UUID observer, MapEntity entity);
+
+    void onLeave(UUID observer, UUID entity);
+}
@@ -0,0 +1,96 @@
+package com.mmo.core.map;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+public class InterestManager {
+
+    private static final int DEFAULT_HYSTERESIS = 2;
+
+    private final ConcurrentHashMap<UUID, Set<UUID>> views = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Set<UUID>> observers = new ConcurrentHashMap<>();
+    private final Map map;
+    private final InterestListener listener;
+    private final int enterRatio;
+    private final int leaveRatio;
+
+    @Builder
+    private InterestManager(@NonNull Map map, @NonNull InterestListener listener, Integer hysteresis) {
+        this.map = map;
+        this.listener = listener;
+        this.enterRatio = map.getNearbyRatio();
+        this.leaveRatio = enterRatio + (Objects.isNull(hysteresis) ? DEFAULT_HYSTERESIS : hysteresis);
+    }
+
+    public Set<UUID> getView(UUID observer) {
+        return Collections.unmodifiableSet(views.getOrDefault(observer, Collections.emptySet()));
+    }
+
+    public Set<UUID> getObservers(UUID entity) {
+        return Collections.unmodifiableSet(observers.getOrDefault(entity, Collections.emptySet()));
+    }
+
+    /*
+     * the view of the observer is drawn again from a nearby query of the
+     * leave ratio, costing what is around the observer on every call. moves
+     * can not drive it, a position only reports leaving the cell of its
+     * spatial index and an entity crosses the enter ratio of an observer
+     * within a cell unnoticed
+     */
+    public void update(MapEntity observer) {
+        UUID observerId = observer.getInstanceId();
+        Set<UUID> view = views.computeIfAbsent(observerId, key -> ConcurrentHashMap.newKeySet());
+        Set<UUID> retained = new HashSet<>();
+
+        map.forEachNearbyEntity(observer, leaveRatio, MapEntity.class, entity -> {
+            UUID entityId = entity.getInstanceId();
+
+            if (view.contains(entityId)) {
+                retained.add(entityId);
+            } else if (observer.getPosition().isNearby(entity.getPosition(), enterRatio)) {
+                retained.add(entityId);
+                enter(observerId, entity);
+            }
+        });
+
+        for (UUID entityId : view) {
+            if (!retained.contains(entityId)) {
+                leave(observerId, entityId);
+            }
+        }
+    }
+
+    public void removeObserver(UUID observer) {
+        Set<UUID> view = views.remove(observer);
+
+        if (Objects.nonNull(view)) {
+            view.forEach(entity -> removeFromObservers(entity, observer));
+        }
+    }
+
+    private void enter(UUID observer, MapEntity entity) {
+        views.get(observer).add(entity.getInstanceId());
+        observers.computeIfAbsent(entity.getInstanceId(), key -> ConcurrentHashMap.newKeySet()).add(observer);
+        listener.onEnter(observer, entity);
+    }
+
+    private void leave(UUID observer, UUID entity) {
+        views.get(observer).remove(entity);
+        removeFromObservers(entity, observer);
+        listener.onLeave(observer, entity);
+    }
+
+    private void removeFromObservers(UUID entity, UUID observer) {
+        observers.computeIfPresent(entity, (key, entityObservers) -> {
+            entityObservers.remove(observer);
+            return entityObservers.isEmpty() ? null : entityObservers;
+        });
+    }
+}
@@ -1,16 +1,27 @@
 package com.mmo.core.map;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import com.mmo.core.looper.LooperContext;
 import com.mmo.core.looper.LooperUpdater;
+import com.mmo.core.map.EntityBuckets.Bucket;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -22,20 +33,64 @@ import lombok.ToString;
 @ToString
 public class Map implements LooperUpdater {
 
-    private final ConcurrentHashMap<UUID, MapEntity> entities = new ConcurrentHashMap<>();
+    private static final int DEFAULT_REGION_SIZE_IN_NEARBY_RATIOS = 4;
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 2048;
+
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final EntityRegistry entities = new EntityRegistry();
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final ActiveEntities activeEntities = new ActiveEntities(entities);
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final ConcurrentLinkedQueue<MapEntity> movedEntities = new ConcurrentLinkedQueue<>();
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final CopyOnWriteArrayList<LooperUpdater> systems = new CopyOnWriteArrayList<>();
     private final String name;
     private final String description;
     private final Integer nearbyRatio;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final EntityBuckets buckets;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final RegionUpdater regionUpdater;
 
+    /*
+     * every class of entity gets a spatial index from the factory, the
+     * default grid has one nearby ratio per cell, a nearby query then visits
+     * at most three cells along each axis.
+     * ticks of at least parallelThreshold entities are updated by regions of
+     * regionSize on the update pool
+     */
     @Builder
     private Map(
             @NonNull String name,
             @NonNull String description,
-            @NonNull Integer nearbyRatio) {
+            @NonNull Integer nearbyRatio,
+            Supplier<SpatialIndex> spatialIndexFactory,
+            Integer regionSize,
+            Integer parallelThreshold,
+            ForkJoinPool updatePool) {
 
         this.name = name;
         this.description = description;
         this.nearbyRatio = nearbyRatio;
+        this.buckets = new EntityBuckets(Objects.isNull(spatialIndexFactory)
+                ? () -> GridSpatialIndex.builder().cellSize(nearbyRatio).build()
+                : spatialIndexFactory);
+        this.regionUpdater = new RegionUpdater(
+                Objects.isNull(regionSize) ? nearbyRatio * DEFAULT_REGION_SIZE_IN_NEARBY_RATIOS : regionSize,
+                Objects.isNull(parallelThreshold) ? DEFAULT_PARALLEL_THRESHOLD : parallelThreshold,
+                Objects.isNull(updatePool) ? ForkJoinPool.commonPool() : updatePool);
     }
 
     public <T extends MapEntity> T getEntity(UUID instanceId, Class<T> type) {
@@ -51,7 +106,7 @@ public class Map implements LooperUpdater {
     @SuppressWarnings("unchecked")
     public <T extends MapEntity> Optional<T> findEntity(UUID instanceId, Class<T> type) {
         return findEntity(instanceId)
-                .filter(entity -> type.isAssignableFrom(entity.getClass()))
+                .filter(type::isInstance)
                 .map(entity -> (T) entity);
     }
 
@@ -59,39 +114,229 @@ public class Map implements LooperUpdater {
         return Optional.ofNullable(entities.get(instanceId));
     }
 
+    public <T extends MapEntity> T getEntity(int handle, Class<T> type) {
+        MapEntity entity = entities.get(handle);
+
+        if (!type.isInstance(entity)) {
+            throw new MapEntityNotFoundException("Entity not found with handle %d", handle);
+        }
+
+        return type.cast(entity);
+    }
+
+    public MapEntity getEntity(int handle) {
+        return getEntity(handle, MapEntity.class);
+    }
+
+    public Optional<MapEntity> findEntity(int handle) {
+        return Optional.ofNullable(entities.get(handle));
+    }
+
+    /*
+     * the handle the entity was added under, it stays valid until the entity
+     * is removed. callers inside the server should keep handles rather than
+     * instance ids, resolving one costs an array read and no hashing
+     */
+    public int getHandle(UUID instanceId) {
+        int handle = entities.getHandle(instanceId);
+
+        if (handle == EntityRegistry.NO_HANDLE) {
+            throw new MapEntityNotFoundException("Entity not found with instanceId %s", instanceId);
+        }
+
+        return handle;
+    }
+
+    public OptionalInt findHandle(UUID instanceId) {
+        int handle = entities.getHandle(instanceId);
+        return handle == EntityRegistry.NO_HANDLE ? OptionalInt.empty() : OptionalInt.of(handle);
+    }
+
     public Collection<MapEntity> getEntities() {
-        return Collections.unmodifiableCollection(entities.values());
+        return Collections.unmodifiableCollection(entities);
+    }
+
+    public void forEachEntity(Consumer<? super MapEntity> visitor) {
+        entities.forEach(visitor);
     }
 
+    @SuppressWarnings("unchecked")
+    public <T extends MapEntity> List<T> getEntities(Class<T> type) {
+        List<T> result = new ArrayList<>();
+
+        for (Bucket bucket : buckets.getBuckets(type)) {
+            result.addAll((Collection<T>) bucket.getEntities());
+        }
+
+        return result;
+    }
+
+    /*
+     * entities moving during the tick are only queued, the index catches up
+     * once per tick, after every region is done, or earlier when someone
+     * queries it. systems go first, each of them updating a whole store of
+     * entities at once. only the active entities are updated, the ones gone
+     * idle are left alone until they are woken up
+     */
     @Override
     public void update(LooperContext context) {
-        entities.values().forEach(animate -> animate.update(context));
+        activeEntities.prepare(context.getTick());
+
+        for (LooperUpdater system : systems) {
+            system.update(context);
+        }
+
+        regionUpdater.update(activeEntities, context);
+        activeEntities.retire();
+        reindexMovedEntities();
+    }
+
+    public int getActiveEntitiesSize() {
+        return activeEntities.size();
     }
 
-    public void addEntity(MapEntity entity) {
-        entities.put(entity.getInstanceId(), entity);
+    public int addEntity(MapEntity entity) {
+        unindex(entities.get(entity.getInstanceId()));
+
+        int handle = entities.put(entity);
+
+        entity.getPosition().setListener(position -> movedEntities.add(entity));
+        entity.setActivityListener(activeEntities::wake);
+        buckets.getBucket(entity.getClass()).add(entity);
+        activeEntities.wake(entity);
+
+        return handle;
     }
 
     public void removeEntity(MapEntity entity) {
-        entities.remove(entity.getInstanceId());
+        unindex(entities.remove(entity.getInstanceId()));
+    }
+
+    public void addSystem(LooperUpdater system) {
+        systems.addIfAbsent(system);
+    }
+
+    public void removeSystem(LooperUpdater system) {
+        systems.remove(system);
     }
 
-    @SuppressWarnings("unchecked")
     public <T extends MapEntity> Set<T> getNearbyEntities(MapEntity baseEntity, Class<T> type) {
-        return getNearbyEntities(baseEntity)
-                .stream()
-                .filter(entity -> type.isAssignableFrom(entity.getClass()))
-                .map(entity -> (T) entity)
-                .collect(Collectors.toSet());
+        return getNearbyEntities(baseEntity, nearbyRatio, type, new HashSet<>());
     }
 
     public Set<MapEntity> getNearbyEntities(MapEntity baseEntity) {
-        return entities.values().stream()
-                .filter(entity -> isNearby(baseEntity, entity))
-                .collect(Collectors.toSet());
+        return getNearbyEntities(baseEntity, nearbyRatio);
+    }
+
+    public Set<MapEntity> getNearbyEntities(MapEntity baseEntity, int ratio) {
+        return getNearbyEntities(baseEntity, ratio, MapEntity.class, new HashSet<>());
     }
 
-    private boolean isNearby(MapEntity baseEntity, MapEntity testingEntity) {
-        return baseEntity.getPosition().isNearby(testingEntity.getPosition(), nearbyRatio);
+    /*
+     * adds the nearby entities of the type to a collection the caller can
+     * clear and reuse between queries
+     */
+    public <T extends MapEntity, C extends Collection<? super T>> C getNearbyEntities(
+            MapEntity baseEntity,
+            int ratio,
+            Class<T> type,
+            C result) {
+
+        reindexMovedEntities();
+
+        for (Bucket bucket : buckets.getBuckets(type)) {
+            bucket.getSpatialIndex().query(baseEntity.getPosition(), ratio, type, result, Collection::add);
+        }
+
+        return result;
+    }
+
+    public void forEachNearbyEntity(MapEntity baseEntity, Consumer<? super MapEntity> visitor) {
+        forEachNearbyEntity(baseEntity, nearbyRatio, MapEntity.class, visitor);
+    }
+
+    /*
+     * visits the nearby entities of the type without collecting them, none
+     * of the hot paths broadcasting or hitting what is around an entity has
+     * to allocate for the query
+     */
+    public <T extends MapEntity> void forEachNearbyEntity(
+            MapEntity baseEntity,
+            int ratio,
+            Class<T> type,
+            Consumer<? super T> visitor) {
+
+        reindexMovedEntities();
+
+        for (Bucket bucket : buckets.getBuckets(type)) {
+            bucket.getSpatialIndex().query(baseEntity.getPosition(), ratio, type, visitor, Consumer::accept);
+        }
+    }
+
+    public <T extends MapEntity> Optional<T> findNearestEntity(MapEntity baseEntity, int ratio, Class<T> type) {
+        return findNearestEntity(baseEntity, ratio, type, entity -> true);
+    }
+
+    public <T extends MapEntity> Optional<T> findNearestEntity(
+            MapEntity baseEntity,
+            int ratio,
+            Class<T> type,
+            Predicate<? super T> predicate) {
+
+        NearestEntities<T> nearestEntities = getNearestEntities(baseEntity, ratio, type, predicate,
+                NearestEntities.<T>builder().capacity(1).build());
+
+        return nearestEntities.isEmpty() ? Optional.empty() : Optional.of(nearestEntities.get(0));
+    }
+
+    public <T extends MapEntity> NearestEntities<T> getNearestEntities(
+            MapEntity baseEntity,
+            int ratio,
+            Class<T> type,
+            NearestEntities<T> result) {
+
+        return getNearestEntities(baseEntity, ratio, type, entity -> true, result);
+    }
+
+    /*
+     * the k closest entities of the type to the base entity, k being the
+     * capacity of the result the caller keeps between queries. the base
+     * entity is never its own neighbour
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends MapEntity> NearestEntities<T> getNearestEntities(
+            MapEntity baseEntity,
+            int ratio,
+            Class<T> type,
+            Predicate<? super T> predicate,
+            NearestEntities<T> result) {
+
+        Predicate<MapEntity> filter = entity -> entity != baseEntity && predicate.test((T) entity);
+
+        result.clear();
+        reindexMovedEntities();
+
+        for (Bucket bucket : buckets.getBuckets(type)) {
+            bucket.getSpatialIndex().findNearest(baseEntity.getPosition(), ratio, filter, result);
+        }
+
+        return result;
+    }
+
+    private void unindex(MapEntity entity) {
+        if (Objects.nonNull(entity)) {
+            entity.getPosition().setListener(null);
+            entity.setActivityListener(null);
+            buckets.getBucket(entity.getClass()).remove(entity);
+        }
+    }
+
+    private void reindexMovedEntities() {
+        MapEntity entity;
+
+        while (Objects.nonNull(entity = movedEntities.poll())) {
+            entity.getPosition().clean();
+            buckets.getBucket(entity.getClass()).getSpatialIndex().move(entity);
+        }
     }
 }
@@ -7,4 +7,28 @@ public interface MapEntity extends MapInstance, LooperUpdater {
     String getName();
 
     Position getPosition();
+
+    /*
+     * an idle entity has nothing to do until it is woken up, the map stops
+     * updating it. an entity that never says so is updated on every tick
+     */
+    default boolean isIdle() {
+        return false;
+    }
+
+    /*
+     * the tick an idle entity wants to be woken up at on its own, the map
+     * keeps a timer for it instead of polling it
+     */
+    default long getWakeUpTick() {
+        return Long.MAX_VALUE;
+    }
+
+    /*
+     * the map the entity lives in listens for it to wake up, an entity
+     * that never goes idle can ignore it
+     */
+    default void setActivityListener(ActivityListener listener) {
+
+    }
 }
@@ -0,0 +1,10 @@
+package com.mmo.core.map;
+
+public class MapEntityLimitException extends MapException {
+
+    private static final long serialVersionUID = 2933848023994108479L;
+
+    public MapEntityLimitException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+}
@@ -0,0 +1,84 @@
+package com.mmo.core.map;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * splits a map into columns of cells along x, dealt to the nodes in turn,
+ * every node simulates the entities standing on its own cells. an entity
+ * within the ghost range of a cell owned by another node is replicated
+ * there so the observers of that node can still see it
+ */
+@Getter
+@ToString
+public class MapPartition {
+
+    private final long cellSize;
+    private final long ghostRange;
+    private final List<String> nodes;
+    private final String localNode;
+
+    @Builder
+    private MapPartition(
+            @NonNull Long cellSize,
+            @NonNull Long ghostRange,
+            @NonNull List<String> nodes,
+            @NonNull String localNode) {
+
+        if (cellSize <= 0) {
+            throw new MapPartitionException("Cell size must be positive, got %s", cellSize);
+        }
+
+        if (!nodes.contains(localNode)) {
+            throw new MapPartitionException("Node %s is not one of %s", localNode, nodes);
+        }
+
+        this.cellSize = cellSize;
+        this.ghostRange = ghostRange;
+        this.nodes = List.copyOf(nodes);
+        this.localNode = localNode;
+    }
+
+    public String getOwner(Position position) {
+        return getOwner(Math.floorDiv(position.getX(), cellSize));
+    }
+
+    public boolean isLocal(Position position) {
+        return localNode.equals(getOwner(position));
+    }
+
+    /*
+     * the other nodes that should hold a ghost of an entity this node
+     * simulates on the position, none for the most part of every cell
+     */
+    public Set<String> getGhostNodes(Position position) {
+        long lowCell = Math.floorDiv(position.getX() - ghostRange, cellSize);
+        long highCell = Math.floorDiv(position.getX() + ghostRange, cellSize);
+
+        if (lowCell == highCell) {
+            return Set.of();
+        }
+
+        Set<String> ghostNodes = new HashSet<>();
+
+        for (long cell = lowCell; cell <= highCell && ghostNodes.size() < nodes.size() - 1; cell++) {
+            String node = getOwner(cell);
+
+            if (!node.equals(localNode)) {
+                ghostNodes.add(node);
+            }
+        }
+
+        return ghostNodes;
+    }
+
+    private String getOwner(long cell) {
+        return nodes.get((int) Math.floorMod(cell, (long) nodes.size()));
+    }
+}
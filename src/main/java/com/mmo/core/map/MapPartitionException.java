@@ -0,0 +1,10 @@
+package com.mmo.core.map;
+
+public class MapPartitionException extends MapException {
+
+    private static final long serialVersionUID = 3390418537252670173L;
+
+    public MapPartitionException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+}
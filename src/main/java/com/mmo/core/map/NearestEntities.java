@@ -0,0 +1,87 @@
+package com.mmo.core.map;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * the k nearest entities a query found, ordered by distance. meant to be
+ * kept by the caller and handed to every query, its capacity is the k
+ */
+public class NearestEntities<T extends MapEntity> {
+
+    private final MapEntity[] entities;
+    private final long[] distances;
+    private int size;
+
+    @Builder
+    private NearestEntities(@NonNull Integer capacity) {
+        if (capacity <= 0) {
+            throw new SpatialIndexException("Capacity must be positive, got %s", capacity);
+        }
+
+        this.entities = new MapEntity[capacity];
+        this.distances = new long[capacity];
+    }
+
+    public int getCapacity() {
+        return entities.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == entities.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) entities[Objects.checkIndex(index, size)];
+    }
+
+    public long getDistance(int index) {
+        return distances[Objects.checkIndex(index, size)];
+    }
+
+    public void clear() {
+        Arrays.fill(entities, 0, size, null);
+        size = 0;
+    }
+
+    /*
+     * the distance a candidate has to beat once full, farther rings of the
+     * search are skipped when they can not
+     */
+    long getWorstDistance() {
+        return isFull() ? distances[size - 1] : Long.MAX_VALUE;
+    }
+
+    /*
+     * insertion keeps the order, k is small enough for it to beat a heap,
+     * ties keep the entity offered first
+     */
+    void offer(MapEntity entity, long distance) {
+        if (distance >= getWorstDistance()) {
+            return;
+        }
+
+        int index = isFull() ? size - 1 : size++;
+
+        while (index > 0 && distances[index - 1] > distance) {
+            entities[index] = entities[index - 1];
+            distances[index] = distances[index - 1];
+            index--;
+        }
+
+        entities[index] = entity;
+        distances[index] = distance;
+    }
+}
@@ -1,5 +1,8 @@
 package com.mmo.core.map;
 
+import java.util.Objects;
+
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -11,39 +14,119 @@ import lombok.ToString;
 @ToString
 public class Position {
 
-    private Long x;
-    private Long y;
-    private Long z;
+    private long x;
+    private long y;
+    private long z;
+
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private PositionListener listener;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile boolean dirty;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long lowX;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long lowY;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long lowZ;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long highX;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long highY;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long highZ;
 
     @Builder
     private Position(@NonNull Long x, @NonNull Long y, @NonNull Long z) {
         this.x = x;
         this.y = y;
         this.z = z;
+        clearBounds();
     }
 
     public void incrementX(long x) {
         this.x += x;
+        changed();
     }
 
     public void incrementY(long y) {
         this.y += y;
+        changed();
     }
 
     public void incrementZ(long z) {
         this.z += z;
+        changed();
     }
 
     public void decrementX(long x) {
         this.x -= x;
+        changed();
     }
 
     public void decrementY(long y) {
         this.y -= y;
+        changed();
     }
 
     public void decrementZ(long z) {
         this.z -= z;
+        changed();
+    }
+
+    /*
+     * the map the owning entity lives in listens so its spatial index can
+     * follow the entity, a position belongs to one map at a time. only the
+     * first change leaving the bounds the index placed the entity in is
+     * reported, every other step costs a few comparisons
+     */
+    void setListener(PositionListener listener) {
+        this.listener = listener;
+        this.dirty = false;
+        clearBounds();
+    }
+
+    void setBounds(long lowX, long lowY, long lowZ, long highX, long highY, long highZ) {
+        this.lowX = lowX;
+        this.lowY = lowY;
+        this.lowZ = lowZ;
+        this.highX = highX;
+        this.highY = highY;
+        this.highZ = highZ;
+    }
+
+    /*
+     * empty bounds, every change is reported
+     */
+    void clearBounds() {
+        setBounds(0, 0, 0, -1, -1, -1);
+    }
+
+    void clean() {
+        dirty = false;
+    }
+
+    /*
+     * chebyshev distance, the one the nearby box of isNearby is drawn with
+     */
+    public long getDistance(Position position) {
+        return Math.max(Math.abs(position.getX() - x),
+                Math.max(Math.abs(position.getY() - y), Math.abs(position.getZ() - z)));
     }
 
     public boolean isNearby(Position position, int ratio) {
@@ -58,4 +141,19 @@ public class Position {
                 && position.getY() >= minY && position.getY() <= maxY
                 && position.getZ() >= minZ && position.getZ() <= maxZ;
     }
+
+    private boolean isInsideBounds() {
+        return x >= lowX && x <= highX && y >= lowY && y <= highY && z >= lowZ && z <= highZ;
+    }
+
+    private void changed() {
+        PositionListener listener = this.listener;
+
+        if (Objects.isNull(listener) || isInsideBounds() || dirty) {
+            return;
+        }
+
+        dirty = true;
+        listener.onChange(this);
+    }
 }
@@ -0,0 +1,7 @@
+package com.mmo.core.map;
+
+@FunctionalInterface
+interface PositionListener {
+
+    void onChange(Position position);
+}
@@ -0,0 +1,154 @@
+package com.mmo.core.map;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.mmo.core.looper.LooperContext;
+import com.mmo.core.looper.LooperUpdater;
+
+/*
+ * splits the entities of a map into shards of whole regions and updates the
+ * shards in parallel. an entity only reads and touches the entities of its
+ * own shard directly, whatever involves an entity of another shard waits for
+ * the merge, which runs shard after shard on the ticking thread
+ */
+class RegionUpdater {
+
+    private static final int SHARDS_BY_WORKER = 4;
+
+    private final int regionSize;
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+    private final Shard[] shards;
+    private final IdentityHashMap<LooperUpdater, Shard> owners = new IdentityHashMap<>();
+
+    RegionUpdater(int regionSize, int parallelThreshold, ForkJoinPool pool) {
+        this.regionSize = regionSize;
+        this.parallelThreshold = parallelThreshold;
+        this.pool = pool;
+        this.shards = new Shard[Integer.highestOneBit(pool.getParallelism() * SHARDS_BY_WORKER * 2 - 1)];
+
+        for (int index = 0; index < shards.length; index++) {
+            shards[index] = new Shard();
+        }
+    }
+
+    /*
+     * a single worker or a handful of entities gain nothing from the shards,
+     * those ticks run in place
+     */
+    void update(Collection<MapEntity> entities, LooperContext context) {
+        if (pool.getParallelism() == 1 || entities.size() < parallelThreshold) {
+            entities.forEach(entity -> entity.update(context));
+            return;
+        }
+
+        split(entities, context);
+
+        try {
+            pool.invoke(new ShardTask(0, shards.length));
+        } finally {
+            merge();
+        }
+    }
+
+    private void split(Collection<MapEntity> entities, LooperContext context) {
+        owners.clear();
+
+        for (Shard shard : shards) {
+            shard.reset(context);
+        }
+
+        for (MapEntity entity : entities) {
+            Shard shard = shards[getShardIndex(entity.getPosition())];
+            shard.entities.add(entity);
+            owners.put(entity, shard);
+        }
+    }
+
+    private void merge() {
+        for (Shard shard : shards) {
+            shard.entities.clear();
+
+            for (Runnable action : shard.deferred) {
+                action.run();
+            }
+
+            shard.deferred.clear();
+        }
+    }
+
+    private int getShardIndex(Position position) {
+        long x = Math.floorDiv(position.getX(), regionSize);
+        long y = Math.floorDiv(position.getY(), regionSize);
+        long z = Math.floorDiv(position.getZ(), regionSize);
+        long key = x * 0x9E3779B97F4A7C15L ^ y * 0xC2B2AE3D27D4EB4FL ^ z * 0x165667B19E3779F9L;
+
+        return (int) (key ^ key >>> 32) & (shards.length - 1);
+    }
+
+    private class Shard extends LooperContext {
+
+        private final ArrayList<MapEntity> entities = new ArrayList<>();
+        private final ArrayList<Runnable> deferred = new ArrayList<>();
+
+        private void reset(LooperContext context) {
+            setTick(context.getTick());
+            setLag(context.getLag());
+            setDesiredLag(context.getDesiredLag());
+        }
+
+        private void update() {
+            for (MapEntity entity : entities) {
+                entity.update(this);
+            }
+        }
+
+        @Override
+        public void interact(LooperUpdater target, Runnable action) {
+            if (owners.get(target) == this) {
+                action.run();
+            } else {
+                deferred.add(action);
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
+    private class ShardTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        private ShardTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                shards[from].update();
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+
+            invokeAll(new ShardTask(from, middle), new ShardTask(middle, to));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.mmo.core.map;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import lombok.Builder;
+import lombok.ToString;
+
+/*
+ * tests every entity on each query, fine for a handful of entities and the
+ * baseline the other indexes are measured against. positions are unbounded
+ * so moves never reach it
+ */
+@ToString
+public class ScanSpatialIndex implements SpatialIndex {
+
+    private final Set<MapEntity> entities = ConcurrentHashMap.newKeySet();
+
+    @Builder
+    private ScanSpatialIndex() {
+
+    }
+
+    @Override
+    public void add(MapEntity entity) {
+        entities.add(entity);
+        entity.getPosition().setBounds(Long.MIN_VALUE, Long.MIN_VALUE, Long.MIN_VALUE,
+                Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    @Override
+    public void remove(MapEntity entity) {
+        entities.remove(entity);
+    }
+
+    @Override
+    public void move(MapEntity entity) {
+
+    }
+
+    @Override
+    public <T extends MapEntity, C> void query(
+            Position center,
+            int ratio,
+            Class<T> type,
+            C context,
+            BiConsumer<? super C, ? super T> visitor) {
+
+        for (MapEntity entity : entities) {
+            if (type.isInstance(entity) && center.isNearby(entity.getPosition(), ratio)) {
+                visitor.accept(context, type.cast(entity));
+            }
+        }
+    }
+
+    @Override
+    public void findNearest(Position center, int ratio, Predicate<MapEntity> predicate, NearestEntities<?> result) {
+        for (MapEntity entity : entities) {
+            long distance = center.getDistance(entity.getPosition());
+
+            if (distance <= ratio && distance < result.getWorstDistance() && predicate.test(entity)) {
+                result.offer(entity, distance);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return entities.size();
+    }
+}
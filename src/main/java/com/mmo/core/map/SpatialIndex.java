@@ -0,0 +1,44 @@
+package com.mmo.core.map;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/*
+ * where the map looks up entities by position, implementations only have to
+ * keep up with add, remove and move, the exact nearby test is theirs as well.
+ * an index bounds the position of what it adds, move is only called once
+ * per tick for entities that left those bounds
+ */
+public interface SpatialIndex {
+
+    void add(MapEntity entity);
+
+    void remove(MapEntity entity);
+
+    void move(MapEntity entity);
+
+    default void query(Position center, int ratio, Consumer<? super MapEntity> consumer) {
+        query(center, ratio, MapEntity.class, consumer, Consumer::accept);
+    }
+
+    /*
+     * visits the entities of the type inside the box around the center. the
+     * context is handed to the visitor, with a visitor capturing nothing the
+     * query allocates nothing either
+     */
+    <T extends MapEntity, C> void query(
+            Position center,
+            int ratio,
+            Class<T> type,
+            C context,
+            BiConsumer<? super C, ? super T> visitor);
+
+    /*
+     * fills the result with the entities matching the predicate that are
+     * closest to the center by chebyshev distance, none farther than ratio
+     */
+    void findNearest(Position center, int ratio, Predicate<MapEntity> predicate, NearestEntities<?> result);
+
+    int size();
+}
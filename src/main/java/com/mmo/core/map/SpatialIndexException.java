@@ -0,0 +1,10 @@
+package com.mmo.core.map;
+
+public class SpatialIndexException extends MapException {
+
+    private static final long serialVersionUID = -6113042377659126364L;
+
+    public SpatialIndexException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+}
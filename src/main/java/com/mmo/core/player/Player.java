@@ -1,10 +1,13 @@
 package com.mmo.core.player;
 
+import java.util.Objects;
 import java.util.UUID;
 
 import com.mmo.core.animate.Animate;
 import com.mmo.core.attribute.Attributes;
+import com.mmo.core.looper.LooperContext;
 import com.mmo.core.map.Position;
+import com.mmo.core.stat.StatModifier;
 import com.mmo.core.stat.Stats;
 
 import lombok.Builder;
@@ -18,22 +21,43 @@ import lombok.ToString;
 @ToString
 public class Player extends Animate {
 
-    private final UUID instanceId = UUID.randomUUID();
+    private final UUID instanceId;
     private final String name;
     private final Position position;
     private final Stats stats;
     private final Attributes attributes;
 
+    /*
+     * a player handed over by another node keeps the instance id it had there
+     */
     @Builder
     private Player(
+            UUID instanceId,
             @NonNull String name,
             @NonNull Position position,
             @NonNull Stats stats,
             @NonNull Attributes attributes) {
 
+        this.instanceId = Objects.isNull(instanceId) ? UUID.randomUUID() : instanceId;
         this.name = name;
         this.position = position;
         this.stats = stats;
         this.attributes = attributes;
     }
+
+    public void modify(StatModifier modifier) {
+        stats.modify(modifier);
+        schedule(modifier.getExpiration());
+    }
+
+    @Override
+    protected long getNextExpiration() {
+        return Math.min(super.getNextExpiration(), stats.getNextExpiration());
+    }
+
+    @Override
+    protected void releaseExpiredModifiers(LooperContext context) {
+        super.releaseExpiredModifiers(context);
+        stats.update(context);
+    }
 }
@@ -45,6 +45,16 @@ public class Properties implements Iterable<Property> {
         getRequired(propertyName).modify(modifier);
     }
 
+    public long getNextExpiration() {
+        long nextExpiration = Long.MAX_VALUE;
+
+        for (Property property : values.values()) {
+            nextExpiration = Math.min(nextExpiration, property.getNextExpiration());
+        }
+
+        return nextExpiration;
+    }
+
     private void put(Property property) {
         values.put(property.getName(), property);
     }
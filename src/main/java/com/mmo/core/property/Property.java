@@ -3,6 +3,7 @@ package com.mmo.core.property;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.mmo.core.looper.LooperContext;
 import com.mmo.core.looper.LooperUpdater;
@@ -92,14 +93,36 @@ public class Property implements LooperUpdater {
         finalValue -= value;
     }
 
+    /*
+     * the expired modifiers are collected first, releaving one removes it
+     * from the modifiers being walked
+     */
     private void releaveExpiredModifiers() {
         modifiers
                 .stream()
                 .filter(modifier -> modifier.getExpiration().isPresent())
                 .filter(PropertyModifier::isExpired)
+                .collect(Collectors.toList())
                 .forEach(this::releaveModifier);
     }
 
+    /*
+     * the earliest expiration among the modifiers in epoch millis,
+     * Long.MAX_VALUE when none of them expires
+     */
+    public long getNextExpiration() {
+        long nextExpiration = Long.MAX_VALUE;
+
+        for (PropertyModifier modifier : modifiers) {
+            if (modifier.getExpiration().isPresent()) {
+                long expiration = modifier.getExpiration().get().toInstant().toEpochMilli();
+                nextExpiration = Math.min(nextExpiration, expiration);
+            }
+        }
+
+        return nextExpiration;
+    }
+
     @Override
     public void update(LooperContext context) {
         releaveExpiredModifiers();
@@ -0,0 +1,103 @@
+package com.mmo.core.security;
+
+import java.nio.ByteBuffer;
+import java.security.spec.AlgorithmParameterSpec;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+public class ChannelCipher {
+
+    public static final int TAG_SIZE = 16;
+
+    private static final int NONCE_SIZE = 12;
+
+    private final ChannelCipherAlgorithm algorithm;
+    private final SecretKeySpec key;
+    private final Cipher cipher;
+    private final int mode;
+    private final byte[] nonce = new byte[NONCE_SIZE];
+    private final ByteBuffer nonceBuffer = ByteBuffer.wrap(nonce);
+    private long counter;
+
+    @Builder
+    private ChannelCipher(@NonNull byte[] key, @NonNull ChannelCipherAlgorithm algorithm, boolean encrypting) {
+        try {
+            this.algorithm = algorithm;
+            this.key = new SecretKeySpec(key, algorithm.getKeyAlgorithm());
+            this.cipher = Cipher.getInstance(algorithm.getTransformation());
+            this.mode = encrypting ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE;
+        } catch (Exception exception) {
+            throw new CipherInitializationException(exception, "Failed to init channel cipher %s", algorithm);
+        }
+    }
+
+    public ChannelCipherAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public byte[] encrypt(byte[] bytes) {
+        try {
+            cipher.init(mode, key, nextNonce());
+            return cipher.doFinal(bytes);
+        } catch (Exception exception) {
+            throw new EncryptionException(exception, "Failed to encrypt frame %s", counter);
+        }
+    }
+
+    /*
+     * associated data is authenticated but travels in clear, so frame headers
+     * can be inspected before decrypting and still can not be tampered with
+     */
+    public byte[] encrypt(byte[] bytes, byte[] associatedData) {
+        try {
+            cipher.init(mode, key, nextNonce());
+            cipher.updateAAD(associatedData);
+            return cipher.doFinal(bytes);
+        } catch (Exception exception) {
+            throw new EncryptionException(exception, "Failed to encrypt frame %s", counter);
+        }
+    }
+
+    public byte[] decrypt(byte[] bytes) {
+        return decrypt(bytes, 0, bytes.length);
+    }
+
+    public byte[] decrypt(byte[] bytes, int offset, int length) {
+        try {
+            cipher.init(mode, key, nextNonce());
+            return cipher.doFinal(bytes, offset, length);
+        } catch (Exception exception) {
+            throw new DecryptionException(exception, "Failed to decrypt frame %s", counter);
+        }
+    }
+
+    public int decrypt(byte[] bytes, int offset, int length, byte[] associatedData, byte[] output, int outputOffset) {
+        try {
+            cipher.init(mode, key, nextNonce());
+            cipher.updateAAD(associatedData);
+            return cipher.doFinal(bytes, offset, length, output, outputOffset);
+        } catch (Exception exception) {
+            throw new DecryptionException(exception, "Failed to decrypt frame %s", counter);
+        }
+    }
+
+    /*
+     * both peers count frames per direction, so the nonce never travels on the
+     * wire and is never reused under the same session key
+     */
+    private AlgorithmParameterSpec nextNonce() {
+        nonceBuffer.putLong(NONCE_SIZE - Long.BYTES, ++counter);
+
+        if (algorithm == ChannelCipherAlgorithm.AES_GCM) {
+            return new GCMParameterSpec(TAG_SIZE * Byte.SIZE, nonce);
+        }
+
+        return new IvParameterSpec(nonce);
+    }
+}
@@ -0,0 +1,43 @@
+package com.mmo.core.security;
+
+import java.util.Optional;
+
+public enum ChannelCipherAlgorithm {
+
+    AES_GCM("AES/GCM/NoPadding", "AES"),
+    CHACHA20_POLY1305("ChaCha20-Poly1305", "ChaCha20");
+
+    private static final String ALGORITHM_PROPERTY = "mmo.channel.cipher";
+
+    private final String transformation;
+    private final String keyAlgorithm;
+
+    private ChannelCipherAlgorithm(String transformation, String keyAlgorithm) {
+        this.transformation = transformation;
+        this.keyAlgorithm = keyAlgorithm;
+    }
+
+    public String getTransformation() {
+        return transformation;
+    }
+
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    /*
+     * AES-GCM is only fast with hardware AES support, which the JVM intrinsifies
+     * on x86_64 and aarch64. Elsewhere ChaCha20-Poly1305 is faster in software.
+     */
+    public static ChannelCipherAlgorithm getPreferred() {
+        return Optional.ofNullable(System.getProperty(ALGORITHM_PROPERTY))
+                .map(ChannelCipherAlgorithm::valueOf)
+                .orElseGet(() -> hasHardwareAES() ? AES_GCM : CHACHA20_POLY1305);
+    }
+
+    private static boolean hasHardwareAES() {
+        String arch = System.getProperty("os.arch", "");
+
+        return arch.equals("amd64") || arch.equals("x86_64") || arch.equals("aarch64");
+    }
+}
@@ -0,0 +1,71 @@
+package com.mmo.core.security;
+
+import java.security.SecureRandom;
+import java.util.Objects;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+public class ChannelHandshake {
+
+    public static final int NONCE_SIZE = 16;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final byte[] INITIATOR_LABEL = "initiator".getBytes();
+    private static final byte[] ACCEPTOR_LABEL = "acceptor".getBytes();
+    private static final SecureRandom random = new SecureRandom();
+
+    private final byte[] key;
+    private final boolean initiator;
+    private final ChannelCipherAlgorithm algorithm;
+    private final byte[] nonce = new byte[NONCE_SIZE];
+
+    @Builder
+    private ChannelHandshake(@NonNull String key, boolean initiator, ChannelCipherAlgorithm algorithm) {
+        this.key = key.getBytes();
+        this.initiator = initiator;
+        this.algorithm = Objects.isNull(algorithm) ? ChannelCipherAlgorithm.getPreferred() : algorithm;
+
+        random.nextBytes(nonce);
+    }
+
+    public byte[] getNonce() {
+        return nonce.clone();
+    }
+
+    public ChannelCipher newSendingCipher(byte[] peerNonce) {
+        return ChannelCipher.builder()
+                .key(deriveKey(peerNonce, initiator ? INITIATOR_LABEL : ACCEPTOR_LABEL))
+                .algorithm(algorithm)
+                .encrypting(true)
+                .build();
+    }
+
+    public ChannelCipher newReceivingCipher(byte[] peerNonce) {
+        return ChannelCipher.builder()
+                .key(deriveKey(peerNonce, initiator ? ACCEPTOR_LABEL : INITIATOR_LABEL))
+                .algorithm(algorithm)
+                .encrypting(false)
+                .build();
+    }
+
+    private byte[] deriveKey(byte[] peerNonce, byte[] label) {
+        byte[] initiatorNonce = initiator ? nonce : peerNonce;
+        byte[] acceptorNonce = initiator ? peerNonce : nonce;
+
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key, MAC_ALGORITHM));
+            mac.update(label);
+            mac.update(initiatorNonce);
+            mac.update(acceptorNonce);
+
+            return mac.doFinal();
+        } catch (Exception exception) {
+            throw new CipherInitializationException(exception, "Failed to derive session key");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.mmo.core.security;
+
+public class TokenClock {
+
+    private static final long ORIGIN_MILLIS = System.currentTimeMillis();
+    private static final long ORIGIN_NANOS = System.nanoTime();
+
+    private TokenClock() {
+
+    }
+
+    /*
+     * wall clock read once, advanced by the monotonic nano clock, so checking
+     * a token never goes through time zones or calendar arithmetic
+     */
+    public static long nowInSeconds() {
+        return (ORIGIN_MILLIS + (System.nanoTime() - ORIGIN_NANOS) / 1_000_000) / 1000;
+    }
+}
@@ -1,6 +1,5 @@
 package com.mmo.core.security;
 
-import java.time.OffsetDateTime;
 import java.util.UUID;
 
 import lombok.AccessLevel;
@@ -15,48 +14,38 @@ import lombok.ToString;
 @ToString
 public class TokenData {
 
-    private static final int TOKEN_EXPIRATION_MINUTES = 15;
+    private static final int TOKEN_EXPIRATION_SECONDS = 15 * 60;
 
     private final UUID source;
-    private final OffsetDateTime creation;
-    private final OffsetDateTime expiration;
+    private final long creation;
+    private final long expiration;
 
     @Builder(access = AccessLevel.PROTECTED)
-    private TokenData(
-            @NonNull UUID source,
-            @NonNull OffsetDateTime creation,
-            @NonNull OffsetDateTime expiration) {
-
+    private TokenData(@NonNull UUID source, long creation, long expiration) {
         this.source = source;
         this.creation = creation;
         this.expiration = expiration;
     }
 
     public boolean isExpired() {
-        return expiration.isBefore(OffsetDateTime.now());
-    }
-
-    public String getToken() {
-        return String.format("%s@%s@%s", source, creation, expiration);
+        return expiration < TokenClock.nowInSeconds();
     }
 
-    public static TokenData parse(String token) {
-        String[] parts = token.split("\\@");
-
+    public static TokenData read(byte[] token, int offset) {
         return TokenData.builder()
-                .source(UUID.fromString(parts[0]))
-                .creation(OffsetDateTime.parse(parts[1]))
-                .expiration(OffsetDateTime.parse(parts[2]))
+                .source(TokenSigner.getSource(token, offset))
+                .creation(TokenSigner.getCreation(token, offset))
+                .expiration(TokenSigner.getExpiration(token, offset))
                 .build();
     }
 
     public static TokenData create(UUID source) {
-        OffsetDateTime now = OffsetDateTime.now();
+        long now = TokenClock.nowInSeconds();
 
         return TokenData.builder()
                 .source(source)
                 .creation(now)
-                .expiration(now.plusMinutes(TOKEN_EXPIRATION_MINUTES))
+                .expiration(now + TOKEN_EXPIRATION_SECONDS)
                 .build();
     }
 }
@@ -0,0 +1,113 @@
+package com.mmo.core.security;
+
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * token layout: source (16) | creation seconds (8) | expiration seconds (8) |
+ * truncated HMAC-SHA256 of the previous 32 bytes (16)
+ *
+ * instances reuse one Mac and are not thread safe, keep one per thread
+ */
+public class TokenSigner {
+
+    public static final int TOKEN_SIZE = Long.BYTES * 4 + 16;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int SIGNED_SIZE = Long.BYTES * 4;
+    private static final int SIGNATURE_SIZE = TOKEN_SIZE - SIGNED_SIZE;
+    private static final int CREATION_OFFSET = Long.BYTES * 2;
+    private static final int EXPIRATION_OFFSET = Long.BYTES * 3;
+
+    private final Mac mac;
+    private final byte[] signature;
+
+    @Builder
+    private TokenSigner(@NonNull String key) {
+        try {
+            mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key.getBytes(), MAC_ALGORITHM));
+            signature = new byte[mac.getMacLength()];
+        } catch (Exception exception) {
+            throw new CipherInitializationException(exception, "Failed to init token mac");
+        }
+    }
+
+    public byte[] sign(TokenData tokenData) {
+        byte[] token = new byte[TOKEN_SIZE];
+        sign(tokenData, token, 0);
+
+        return token;
+    }
+
+    public void sign(TokenData tokenData, byte[] token, int offset) {
+        putLong(token, offset, tokenData.getSource().getMostSignificantBits());
+        putLong(token, offset + Long.BYTES, tokenData.getSource().getLeastSignificantBits());
+        putLong(token, offset + CREATION_OFFSET, tokenData.getCreation());
+        putLong(token, offset + EXPIRATION_OFFSET, tokenData.getExpiration());
+
+        try {
+            mac.update(token, offset, SIGNED_SIZE);
+            mac.doFinal(signature, 0);
+        } catch (Exception exception) {
+            throw new EncryptionException(exception, "Failed to sign token");
+        }
+
+        System.arraycopy(signature, 0, token, offset + SIGNED_SIZE, SIGNATURE_SIZE);
+    }
+
+    public boolean verify(byte[] token, int offset) {
+        try {
+            mac.update(token, offset, SIGNED_SIZE);
+            mac.doFinal(signature, 0);
+        } catch (Exception exception) {
+            throw new DecryptionException(exception, "Failed to verify token");
+        }
+
+        int difference = 0;
+
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            difference |= signature[i] ^ token[offset + SIGNED_SIZE + i];
+        }
+
+        return difference == 0;
+    }
+
+    public static boolean isExpired(byte[] token, int offset) {
+        return getExpiration(token, offset) < TokenClock.nowInSeconds();
+    }
+
+    public static UUID getSource(byte[] token, int offset) {
+        return new UUID(getLong(token, offset), getLong(token, offset + Long.BYTES));
+    }
+
+    public static long getCreation(byte[] token, int offset) {
+        return getLong(token, offset + CREATION_OFFSET);
+    }
+
+    public static long getExpiration(byte[] token, int offset) {
+        return getLong(token, offset + EXPIRATION_OFFSET);
+    }
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= Byte.SIZE;
+        }
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+        long value = 0;
+
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << Byte.SIZE) | (bytes[offset + i] & 0xFF);
+        }
+
+        return value;
+    }
+}
@@ -87,6 +87,14 @@ public class Stats implements LooperUpdater {
         properties.modify(modifier.getStat().name(), modifier.toPropertyModifier());
     }
 
+    public long getNextExpiration() {
+        return properties.getNextExpiration();
+    }
+
+    public Property getProperty(Stat stat) {
+        return properties.getRequired(stat.name());
+    }
+
     private Integer getValue(Stat stat) {
         return properties.getValue(stat.name());
     }
@@ -0,0 +1,205 @@
+package com.mmo.infrastructure.map;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+import com.mmo.core.map.Map;
+import com.mmo.core.map.MapEntity;
+import com.mmo.core.map.MapPartition;
+import com.mmo.core.map.Position;
+import com.mmo.core.player.Player;
+import com.mmo.infrastructure.map.packet.GhostPacket;
+import com.mmo.infrastructure.map.packet.MigrateAckPacket;
+import com.mmo.infrastructure.map.packet.MigratePacket;
+import com.mmo.infrastructure.map.packet.SnapshotEntity;
+import com.mmo.infrastructure.server.Packet;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * keeps the part of a partitioned map this node owns. every replication
+ * hands the players that walked off its cells to their new owner, sends the
+ * entities along its borders as ghosts to the nodes next to them, and drops
+ * the ghosts their owner stopped sending. entities no other node could
+ * rebuild stay here and are ghosted to the owner of their cell instead.
+ * the sender tells whether a packet could be handed to the link of a node
+ */
+public class MapCluster {
+
+    private static final long DEFAULT_GHOST_TIMEOUT_IN_MILLIS = 1000;
+    private static final long DEFAULT_MIGRATE_TIMEOUT_IN_MILLIS = 1000;
+
+    private final HashMap<UUID, MapGhost> ghosts = new HashMap<>();
+    private final HashMap<UUID, Long> migrations = new HashMap<>();
+    private final Map map;
+    private final MapPartition partition;
+    private final UUID source;
+    private final BiPredicate<String, Packet> sender;
+    private final BiConsumer<Player, String> onMigrate;
+    private final long ghostTimeout;
+    private final long migrateTimeout;
+
+    @Builder
+    private MapCluster(
+            @NonNull Map map,
+            @NonNull MapPartition partition,
+            @NonNull UUID source,
+            @NonNull BiPredicate<String, Packet> sender,
+            BiConsumer<Player, String> onMigrate,
+            Long ghostTimeoutInMillis,
+            Long migrateTimeoutInMillis) {
+
+        this.map = map;
+        this.partition = partition;
+        this.source = source;
+        this.sender = sender;
+        this.onMigrate = Objects.isNull(onMigrate) ? (player, node) -> {} : onMigrate;
+        this.ghostTimeout = Objects.isNull(ghostTimeoutInMillis)
+                ? DEFAULT_GHOST_TIMEOUT_IN_MILLIS
+                : ghostTimeoutInMillis;
+        this.migrateTimeout = Objects.isNull(migrateTimeoutInMillis)
+                ? DEFAULT_MIGRATE_TIMEOUT_IN_MILLIS
+                : migrateTimeoutInMillis;
+    }
+
+    public MapPartition getPartition() {
+        return partition;
+    }
+
+    public synchronized Optional<MapGhost> findGhost(UUID instanceId) {
+        return Optional.ofNullable(ghosts.get(instanceId));
+    }
+
+    public synchronized boolean isMigrating(UUID instanceId) {
+        return migrations.containsKey(instanceId);
+    }
+
+    public synchronized void replicate() {
+        HashMap<String, List<SnapshotEntity>> borders = new HashMap<>();
+        long now = System.currentTimeMillis();
+
+        for (MapEntity entity : map.getEntities()) {
+            if (entity instanceof MapGhost) {
+                continue;
+            }
+
+            Position position = entity.getPosition();
+
+            if (entity instanceof Player && !partition.isLocal(position)) {
+                migrate((Player) entity, partition.getOwner(position), now);
+                continue;
+            }
+
+            for (String node : partition.getGhostNodes(position)) {
+                borders.computeIfAbsent(node, key -> new ArrayList<>()).add(SnapshotEntity.of(entity));
+            }
+        }
+
+        borders.forEach((node, entities) -> sender.test(node, GhostPacket.builder().build(source, entities)));
+        dropStaleGhosts(now);
+        migrations.values().removeIf(deadline -> deadline <= now);
+    }
+
+    public void receive(String node, Packet packet) {
+        if (packet instanceof MigratePacket) {
+            receive(node, (MigratePacket) packet);
+        } else if (packet instanceof MigrateAckPacket) {
+            receive(node, (MigrateAckPacket) packet);
+        } else if (packet instanceof GhostPacket) {
+            receive((GhostPacket) packet);
+        } else {
+            throw new MapClusterException("Node %s sent unexpected packet %s", node, packet.getAlias());
+        }
+    }
+
+    /*
+     * the ghost the player leaves behind on its way here makes room for it. a
+     * handoff sent again because its ack got lost replaces the player taken
+     * over the first time
+     */
+    public synchronized void receive(String node, MigratePacket packet) {
+        Player player = packet.toPlayer();
+
+        removeGhost(player.getInstanceId());
+        map.addEntity(player);
+        sender.test(node, MigrateAckPacket.builder().build(player.getInstanceId()));
+    }
+
+    /*
+     * the new owner has the player, the client can follow it there
+     */
+    public synchronized void receive(String node, MigrateAckPacket packet) {
+        if (Objects.isNull(migrations.remove(packet.getSource()))) {
+            return;
+        }
+
+        map.findEntity(packet.getSource(), Player.class).ifPresent(player -> {
+            map.removeEntity(player);
+            onMigrate.accept(player, node);
+        });
+    }
+
+    public synchronized void receive(GhostPacket packet) {
+        long now = System.currentTimeMillis();
+
+        for (SnapshotEntity entity : packet.getEntities()) {
+            MapGhost ghost = ghosts.get(entity.getInstanceId());
+
+            if (Objects.nonNull(ghost)) {
+                ghost.refresh(entity, now);
+            } else if (map.findEntity(entity.getInstanceId()).isEmpty()) {
+                ghost = new MapGhost(entity, now);
+                ghosts.put(ghost.getInstanceId(), ghost);
+                map.addEntity(ghost);
+            }
+        }
+    }
+
+    /*
+     * the player keeps playing here until its new owner acks the handoff. a
+     * handoff the sender could not hand to a link, or nobody acked before
+     * the migrate timeout, is sent again on a later replication
+     */
+    private void migrate(Player player, String node, long now) {
+        Long deadline = migrations.get(player.getInstanceId());
+
+        if (Objects.nonNull(deadline) && deadline > now) {
+            return;
+        }
+
+        migrations.put(player.getInstanceId(), now + migrateTimeout);
+
+        if (!sender.test(node, MigratePacket.builder().build(player))) {
+            migrations.remove(player.getInstanceId());
+        }
+    }
+
+    private void removeGhost(UUID instanceId) {
+        MapGhost ghost = ghosts.remove(instanceId);
+
+        if (Objects.nonNull(ghost)) {
+            map.removeEntity(ghost);
+        }
+    }
+
+    private void dropStaleGhosts(long now) {
+        Iterator<MapGhost> iterator = ghosts.values().iterator();
+
+        while (iterator.hasNext()) {
+            MapGhost ghost = iterator.next();
+
+            if (ghost.isStale(now, ghostTimeout)) {
+                iterator.remove();
+                map.removeEntity(ghost);
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.mmo.infrastructure.map;
+
+public class MapClusterException extends MapServerException {
+
+    private static final long serialVersionUID = 7731290468815462207L;
+
+    public MapClusterException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+}
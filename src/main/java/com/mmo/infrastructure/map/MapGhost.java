@@ -0,0 +1,68 @@
+package com.mmo.infrastructure.map;
+
+import java.util.UUID;
+
+import com.mmo.core.looper.LooperContext;
+import com.mmo.core.map.MapEntity;
+import com.mmo.core.map.Position;
+import com.mmo.infrastructure.map.packet.SnapshotEntity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * read only copy of an entity another node simulates next to the cells of
+ * this one, it only moves when the ghost packets of that node say so
+ */
+@Getter
+@ToString
+public class MapGhost implements MapEntity {
+
+    private final UUID instanceId;
+    private final Position position;
+    private volatile int hp;
+    @Getter(AccessLevel.NONE)
+    private volatile long lastSeen;
+
+    MapGhost(SnapshotEntity entity, long now) {
+        this.instanceId = entity.getInstanceId();
+        this.position = Position.builder()
+                .x(entity.getX())
+                .y(entity.getY())
+                .z(entity.getZ())
+                .build();
+        this.hp = entity.getHp();
+        this.lastSeen = now;
+    }
+
+    @Override
+    public String getName() {
+        return instanceId.toString();
+    }
+
+    /*
+     * a ghost only changes when the node owning it replicates it
+     */
+    @Override
+    public boolean isIdle() {
+        return true;
+    }
+
+    @Override
+    public void update(LooperContext context) {
+
+    }
+
+    void refresh(SnapshotEntity entity, long now) {
+        position.incrementX(entity.getX() - position.getX());
+        position.incrementY(entity.getY() - position.getY());
+        position.incrementZ(entity.getZ() - position.getZ());
+        hp = entity.getHp();
+        lastSeen = now;
+    }
+
+    boolean isStale(long now, long timeout) {
+        return now - lastSeen > timeout;
+    }
+}
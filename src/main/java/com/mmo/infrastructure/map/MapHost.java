@@ -0,0 +1,27 @@
+package com.mmo.infrastructure.map;
+
+import com.mmo.core.map.InterestManager;
+import com.mmo.core.map.Map;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+/*
+ * a map of the world with the interest and snapshot stages of the clients
+ * playing on it
+ */
+@Getter
+class MapHost {
+
+    private final Map map;
+    private final InterestManager interest;
+    private final SnapshotStage snapshotStage;
+
+    @Builder
+    private MapHost(@NonNull Map map, @NonNull InterestManager interest, @NonNull SnapshotStage snapshotStage) {
+        this.map = map;
+        this.interest = interest;
+        this.snapshotStage = snapshotStage;
+    }
+}
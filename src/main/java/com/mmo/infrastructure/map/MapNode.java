@@ -0,0 +1,59 @@
+package com.mmo.infrastructure.map;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * a map server process sharing a partitioned map, written id@host:port
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class MapNode {
+
+    private final String id;
+    private final String host;
+    private final int port;
+
+    @Builder
+    private MapNode(@NonNull String id, @NonNull String host, @NonNull Integer port) {
+        this.id = id;
+        this.host = host;
+        this.port = port;
+    }
+
+    public static MapNode parse(String value) {
+        int at = value.indexOf('@');
+        int colon = value.lastIndexOf(':');
+
+        if (at <= 0 || colon <= at + 1 || colon == value.length() - 1) {
+            throw new MapClusterException("Node %s is not written id@host:port", value);
+        }
+
+        try {
+            return MapNode.builder()
+                    .id(value.substring(0, at))
+                    .host(value.substring(at + 1, colon))
+                    .port(Integer.parseInt(value.substring(colon + 1)))
+                    .build();
+        } catch (NumberFormatException exception) {
+            throw new MapClusterException("Node %s has no valid port", value);
+        }
+    }
+
+    public static List<MapNode> parseAll(String values) {
+        List<MapNode> nodes = new ArrayList<>();
+
+        for (String value : values.split(",")) {
+            nodes.add(parse(value.trim()));
+        }
+
+        return nodes;
+    }
+}
@@ -0,0 +1,156 @@
+package com.mmo.infrastructure.map;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mmo.infrastructure.map.packet.NodeHelloPacket;
+import com.mmo.infrastructure.server.Client;
+import com.mmo.infrastructure.server.Packet;
+import com.mmo.infrastructure.server.transport.Transport;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * the links between the nodes of a cluster. packets to another node go
+ * through a link this node opens on first use and drops when it fails, the
+ * next send opens it again. packets from another node come in on the link
+ * it opened here, once its hello carried the key of the cluster
+ */
+public class MapNodeLinks {
+
+    private static final Logger logger = LoggerFactory.getLogger(MapNodeLinks.class);
+
+    private final ConcurrentHashMap<String, MapNode> nodes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Client> links = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Client, String> linked = new ConcurrentHashMap<>();
+    private final String localNode;
+    private final String key;
+    private final String cipherKey;
+    private final UUID source;
+    private final BiConsumer<String, Packet> onReceive;
+    private final Transport transport;
+
+    @Builder
+    private MapNodeLinks(
+            @NonNull List<MapNode> nodes,
+            @NonNull String localNode,
+            @NonNull String key,
+            @NonNull String cipherKey,
+            @NonNull UUID source,
+            @NonNull BiConsumer<String, Packet> onReceive,
+            Transport transport) {
+
+        nodes.forEach(node -> this.nodes.put(node.getId(), node));
+        this.localNode = localNode;
+        this.key = key;
+        this.cipherKey = cipherKey;
+        this.source = source;
+        this.onReceive = onReceive;
+        this.transport = transport;
+    }
+
+    public Optional<MapNode> findNode(String node) {
+        return Optional.ofNullable(nodes.get(node));
+    }
+
+    public boolean isLinked(Client client) {
+        return linked.containsKey(client);
+    }
+
+    /*
+     * false when the packet could not be handed to a live link
+     */
+    public boolean send(String node, Packet packet) {
+        try {
+            Client link = links.computeIfAbsent(node, this::connect);
+
+            if (!link.isConnected()) {
+                links.remove(node, link);
+                return false;
+            }
+
+            link.send(packet);
+            return true;
+        } catch (Exception exception) {
+            logger.error("Failed to send {} to node {}", packet.getAlias(), node, exception);
+
+            Optional.ofNullable(links.remove(node)).ifPresent(Client::disconnect);
+            return false;
+        }
+    }
+
+    /*
+     * takes the packets of the links other nodes opened here, false for
+     * whatever else the client sends
+     */
+    public boolean receive(Client client, Packet packet) {
+        String node = linked.get(client);
+
+        if (Objects.nonNull(node)) {
+            try {
+                onReceive.accept(node, packet);
+            } catch (MapClusterException exception) {
+                logger.info(exception.getMessage());
+            }
+
+            return true;
+        }
+
+        if (!(packet instanceof NodeHelloPacket)) {
+            return false;
+        }
+
+        NodeHelloPacket hello = (NodeHelloPacket) packet;
+
+        if (isKey(hello.getKey())) {
+            linked.put(client, hello.getNode());
+
+            logger.info("Node {} has linked", hello.getNode());
+        } else {
+            logger.info("Node {} sent a wrong cluster key, forcing disconnect", hello.getNode());
+
+            client.disconnect();
+        }
+
+        return true;
+    }
+
+    public void unlink(Client client) {
+        Optional.ofNullable(linked.remove(client))
+                .ifPresent(node -> logger.info("Node {} has disconnected", node));
+    }
+
+    private Client connect(String node) {
+        MapNode target = findNode(node)
+                .orElseThrow(() -> new MapClusterException("Node %s is not part of the cluster", node));
+
+        Client link = Client.clientBuilder()
+                .host(target.getHost())
+                .port(target.getPort())
+                .tokenKey(cipherKey)
+                .channelKey(cipherKey)
+                .transport(transport)
+                .onDisconnect(client -> links.remove(node, client))
+                .clientBuild();
+
+        link.send(NodeHelloPacket.builder().build(source, localNode, key));
+
+        return link;
+    }
+
+    private boolean isKey(String key) {
+        return MessageDigest.isEqual(
+                key.getBytes(StandardCharsets.UTF_8),
+                this.key.getBytes(StandardCharsets.UTF_8));
+    }
+}
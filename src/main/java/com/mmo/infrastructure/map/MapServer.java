@@ -1,94 +1,311 @@
 package com.mmo.infrastructure.map;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.mmo.core.game.Game;
+import com.mmo.core.game.World;
+import com.mmo.core.map.InterestListener;
+import com.mmo.core.map.InterestManager;
 import com.mmo.core.map.Map;
 import com.mmo.core.map.MapEntity;
+import com.mmo.core.map.MapPartition;
 import com.mmo.core.player.Player;
-import com.mmo.core.security.Decryptor;
-import com.mmo.core.security.Encryptor;
+import com.mmo.infrastructure.map.packet.AttackPacket;
+import com.mmo.infrastructure.map.packet.AttackPacketHandler;
+import com.mmo.infrastructure.map.packet.DespawnPacket;
 import com.mmo.infrastructure.map.packet.GoodByePacket;
 import com.mmo.infrastructure.map.packet.HelloPacket;
 import com.mmo.infrastructure.map.packet.PacketHandlerDelegator;
+import com.mmo.infrastructure.map.packet.RedirectPacket;
+import com.mmo.infrastructure.map.packet.SnapshotAckPacket;
+import com.mmo.infrastructure.map.packet.SnapshotAckPacketHandler;
+import com.mmo.infrastructure.map.packet.SnapshotEntity;
+import com.mmo.infrastructure.map.packet.SpawnPacket;
 import com.mmo.infrastructure.server.Client;
 import com.mmo.infrastructure.server.Packet;
+import com.mmo.infrastructure.server.PacketCapture;
+import com.mmo.infrastructure.server.PacketFactory;
+import com.mmo.infrastructure.server.PacketReplayer;
 import com.mmo.infrastructure.server.Server;
 
 public class MapServer {
 
-    @SuppressWarnings("unused")
     private static final UUID SERVER_SOURCE = UUID.fromString("39bb6712-db5c-4cae-9e67-143c3a97115d");
-    private static final int SERVER_PORT = 5555;
+    private static final String SERVER_PORT_PROPERTY = "mmo.server.port";
+    private static final int DEFAULT_SERVER_PORT = 5555;
     private static final String SERVER_CIPHER_KEY = "Bar12345Bar12345";
     private static final int HELLO_PACKET_WAITING_DELAY_IN_MINUTES = 5;
+    private static final String CAPTURE_PATH_PROPERTY = "mmo.capture.path";
+    private static final String SNAPSHOT_RATE_PROPERTY = "mmo.snapshot.rate";
+    private static final int DEFAULT_SNAPSHOT_RATE_IN_HZ = 20;
+    private static final String SNAPSHOT_BANDWIDTH_PROPERTY = "mmo.snapshot.bandwidth";
+    private static final int DEFAULT_SNAPSHOT_BANDWIDTH_IN_BYTES = 64 * 1024;
+    private static final int INTEREST_HYSTERESIS = 2;
+    private static final String ACCEPTORS_PROPERTY = "mmo.server.acceptors";
+    private static final String MAP_WORKERS_PROPERTY = "mmo.map.workers";
+    private static final String WORLD_WORKERS_PROPERTY = "mmo.world.workers";
+    private static final String DEFAULT_MAP = "adventure_plains";
+    private static final int MAP_FPS = 120;
+    private static final String CLUSTER_NODE_PROPERTY = "mmo.cluster.node";
+    private static final String CLUSTER_NODES_PROPERTY = "mmo.cluster.nodes";
+    private static final String CLUSTER_KEY_PROPERTY = "mmo.cluster.key";
+    private static final String CLUSTER_CELL_SIZE_PROPERTY = "mmo.cluster.cellSize";
+    private static final int DEFAULT_CLUSTER_CELL_SIZE = 1000;
+    private static final String CLUSTER_RATE_PROPERTY = "mmo.cluster.rate";
+    private static final int DEFAULT_CLUSTER_RATE_IN_HZ = 10;
     private static final Logger logger = LoggerFactory.getLogger(MapServer.class);
 
     private final ConcurrentHashMap<Client, UUID> clients = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, Client> instanceIds = new ConcurrentHashMap<>();
-    private final Map map;
+    private final ConcurrentHashMap<UUID, MapHost> routes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, MapHost> hosts = new ConcurrentHashMap<>();
+    private final World world;
+    private final ForkJoinPool updatePool;
+    private final MapNodeLinks links;
+    private final MapCluster cluster;
     private final Server server;
 
     private MapServer() {
-        logger.info("Loading map");
+        logger.info("Loading packets");
 
-        map = loadMap();
+        loadPackets();
+        bindPacketHandlers();
+
+        logger.info("Loading maps");
+
+        updatePool = new ForkJoinPool(Integer.getInteger(MAP_WORKERS_PROPERTY,
+                Runtime.getRuntime().availableProcessors()));
+        world = World.builder()
+                .workers(Integer.getInteger(WORLD_WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors()))
+                .onMapFailure((map, exception) -> logger.error("Map {} stopped ticking", map.getName(), exception))
+                .build();
+
+        loadMaps().forEach(this::host);
+
+        links = createLinks();
+        cluster = createCluster();
+
+        logger.info("Starting snapshot stage");
+
+        scheduleSnapshots();
 
         logger.info("Starting server");
 
         server = createServer();
         server.run();
+    }
 
-        logger.info("Running game");
+    /*
+     * the map the entity plays on, entities no client brought in, like the
+     * ones of a replay, play on the default map
+     */
+    public Map getMap(UUID instanceId) {
+        return getHost(instanceId).getMap();
+    }
 
-        Game.getInstance().run(map);
+    public Optional<MapCluster> getCluster() {
+        return Optional.ofNullable(cluster);
     }
 
-    public Map getMap() {
-        return map;
+    private void loadPackets() {
+        PacketFactory.getInstance().loadModules();
+        PacketFactory.getInstance().freeze();
     }
 
-    private Map loadMap() {
-        return Map.builder()
-                .name("adventure_plains")
+    private void bindPacketHandlers() {
+        PacketHandlerDelegator.getInstance().bind(AttackPacket.class, new AttackPacketHandler());
+        PacketHandlerDelegator.getInstance().bind(SnapshotAckPacket.class, new SnapshotAckPacketHandler());
+    }
+
+    private List<Map> loadMaps() {
+        return List.of(Map.builder()
+                .name(DEFAULT_MAP)
                 .description("Located at the southern end, these plains were quiet and peaceful.")
                 .nearbyRatio(10)
+                .updatePool(updatePool)
+                .build());
+    }
+
+    private void host(Map map) {
+        InterestManager interest = createInterestManager(map);
+
+        hosts.put(map.getName(), MapHost.builder()
+                .map(map)
+                .interest(interest)
+                .snapshotStage(createSnapshotStage(map, interest))
+                .build());
+
+        world.host(map, MAP_FPS);
+
+        logger.info("Hosting map {}", map.getName());
+    }
+
+    private MapHost getHost(UUID instanceId) {
+        return Optional.ofNullable(routes.get(instanceId))
+                .orElseGet(() -> hosts.get(DEFAULT_MAP));
+    }
+
+    private MapNodeLinks createLinks() {
+        String localNode = System.getProperty(CLUSTER_NODE_PROPERTY);
+
+        if (Objects.isNull(localNode)) {
+            return null;
+        }
+
+        if (Objects.isNull(System.getProperty(CLUSTER_KEY_PROPERTY))) {
+            throw new MapClusterException("Property %s is required to join a cluster", CLUSTER_KEY_PROPERTY);
+        }
+
+        return MapNodeLinks.builder()
+                .nodes(MapNode.parseAll(System.getProperty(CLUSTER_NODES_PROPERTY, "")))
+                .localNode(localNode)
+                .key(System.getProperty(CLUSTER_KEY_PROPERTY))
+                .cipherKey(SERVER_CIPHER_KEY)
+                .source(SERVER_SOURCE)
+                .onReceive((node, packet) -> cluster.receive(node, packet))
                 .build();
     }
 
-    private Server createServer() {
-        Encryptor encryptor = Encryptor.builder()
-                .key(SERVER_CIPHER_KEY)
+    /*
+     * the default map is shared with the other nodes listed, each one
+     * simulating its own cells of it. ghosts reach as far as an observer of
+     * another node can see
+     */
+    private MapCluster createCluster() {
+        if (Objects.isNull(links)) {
+            return null;
+        }
+
+        String localNode = System.getProperty(CLUSTER_NODE_PROPERTY);
+        List<MapNode> clusterNodes = MapNode.parseAll(System.getProperty(CLUSTER_NODES_PROPERTY, ""));
+        Map map = hosts.get(DEFAULT_MAP).getMap();
+        MapCluster cluster = MapCluster.builder()
+                .map(map)
+                .partition(MapPartition.builder()
+                        .cellSize((long) Integer.getInteger(CLUSTER_CELL_SIZE_PROPERTY, DEFAULT_CLUSTER_CELL_SIZE))
+                        .ghostRange((long) map.getNearbyRatio() + INTEREST_HYSTERESIS)
+                        .nodes(clusterNodes.stream()
+                                .map(MapNode::getId)
+                                .collect(Collectors.toList()))
+                        .localNode(localNode)
+                        .build())
+                .source(SERVER_SOURCE)
+                .sender(links::send)
+                .onMigrate(this::redirect)
+                .build();
+
+        long period = 1000 / Integer.getInteger(CLUSTER_RATE_PROPERTY, DEFAULT_CLUSTER_RATE_IN_HZ);
+
+        Executors.newSingleThreadScheduledExecutor()
+                .scheduleAtFixedRate(this::replicate, period, period, TimeUnit.MILLISECONDS);
+
+        logger.info("Joined cluster as node {} of {}", localNode, clusterNodes);
+
+        return cluster;
+    }
+
+    private void replicate() {
+        try {
+            cluster.replicate();
+        } catch (Exception exception) {
+            logger.error("Failed to replicate map cells", exception);
+        }
+    }
+
+    private void redirect(Player player, String node) {
+        MapNode target = links.findNode(node).orElseThrow();
+
+        logger.info("Player {} migrated to node {}", player.getInstanceId(), node);
+
+        send(RedirectPacket.builder().build(player.getInstanceId(), target.getHost(), target.getPort()),
+                Set.of(player.getInstanceId()));
+    }
+
+    private InterestManager createInterestManager(Map map) {
+        return InterestManager.builder()
+                .map(map)
+                .hysteresis(INTEREST_HYSTERESIS)
+                .listener(new InterestListener() {
+
+                    @Override
+                    public void onEnter(UUID observer, MapEntity entity) {
+                        send(SpawnPacket.builder().build(SnapshotEntity.of(entity)), Set.of(observer));
+                    }
+
+                    @Override
+                    public void onLeave(UUID observer, UUID entity) {
+                        send(DespawnPacket.builder().build(entity, new byte[0]), Set.of(observer));
+                    }
+                })
                 .build();
+    }
 
-        Decryptor decryptor = Decryptor.builder()
-                .key(SERVER_CIPHER_KEY)
+    private SnapshotStage createSnapshotStage(Map map, InterestManager interest) {
+        return SnapshotStage.builder()
+                .map(map)
+                .interest(interest)
+                .source(SERVER_SOURCE)
+                .budget(Integer.getInteger(SNAPSHOT_BANDWIDTH_PROPERTY, DEFAULT_SNAPSHOT_BANDWIDTH_IN_BYTES)
+                        / Integer.getInteger(SNAPSHOT_RATE_PROPERTY, DEFAULT_SNAPSHOT_RATE_IN_HZ))
                 .build();
+    }
+
+    private void scheduleSnapshots() {
+        long period = 1000 / Integer.getInteger(SNAPSHOT_RATE_PROPERTY, DEFAULT_SNAPSHOT_RATE_IN_HZ);
+
+        Executors.newSingleThreadScheduledExecutor()
+                .scheduleAtFixedRate(this::flushSnapshots, period, period, TimeUnit.MILLISECONDS);
+    }
 
+    private void flushSnapshots() {
+        try {
+            clients.forEach((client, instanceId) -> getHost(instanceId).getSnapshotStage().flush(client, instanceId));
+        } catch (Exception exception) {
+            logger.error("Failed to flush snapshots", exception);
+        }
+    }
+
+    private Server createServer() {
         return Server.builder()
-                .port(SERVER_PORT)
-                .encryptor(encryptor)
-                .decryptor(decryptor)
+                .port(Integer.getInteger(SERVER_PORT_PROPERTY, DEFAULT_SERVER_PORT))
+                .tokenKey(SERVER_CIPHER_KEY)
                 .onClientConnect(this::confirmClientConnected)
                 .onClientDisconnect(this::removeClient)
                 .sendSubscriber(this::onSend)
                 .receiveSubscriber(this::onReceive)
+                .capture(createCapture())
+                .channelKey(SERVER_CIPHER_KEY)
+                .acceptors(Integer.getInteger(ACCEPTORS_PROPERTY, Runtime.getRuntime().availableProcessors()))
                 .build();
     }
 
+    private PacketCapture createCapture() {
+        return Optional.ofNullable(System.getProperty(CAPTURE_PATH_PROPERTY))
+                .map(path -> PacketCapture.builder()
+                        .path(Paths.get(path))
+                        .build())
+                .orElse(null);
+    }
+
     private void confirmClientConnected(Client client) {
         logger.info("Client bound {}, waiting for HelloPacket", client);
 
         Executors.newSingleThreadScheduledExecutor()
                 .schedule(() -> {
-                    if (isConnected(client)) {
+                    if (isConnected(client) || isNode(client)) {
                         logger.info("Client sent HelloPacket");
                     } else {
                         disconnect(client);
@@ -96,19 +313,28 @@ public class MapServer {
                 }, HELLO_PACKET_WAITING_DELAY_IN_MINUTES, TimeUnit.MINUTES);
     }
 
-    private synchronized void addClient(Client client, UUID instanceId) {
+    private synchronized void addClient(Client client, UUID instanceId, MapHost host) {
+        routes.put(instanceId, host);
         clients.put(client, instanceId);
         instanceIds.put(instanceId, client);
     }
 
     private synchronized void removeClient(Client client) {
+        if (Objects.nonNull(links)) {
+            links.unlink(client);
+        }
+
         if (isConnected(client)) {
             UUID instanceId = clients.remove(client);
+            MapHost host = getHost(instanceId);
             instanceIds.remove(instanceId);
+            host.getSnapshotStage().remove(client);
+            host.getInterest().removeObserver(instanceId);
 
             logger.info("Client has disconnected {}", client);
 
             sendNearby(GoodByePacket.builder().build(instanceId, new byte[0]));
+            routes.remove(instanceId);
         }
     }
 
@@ -117,8 +343,22 @@ public class MapServer {
 
         boolean connected = isConnected(client);
 
+        if (!connected && Objects.nonNull(links) && links.receive(client, packet)) {
+            return;
+        }
+
         if (!connected && packet instanceof HelloPacket) {
-            addClient(client, packet.getSource());
+            String name = ((HelloPacket) packet).getMap().orElse(DEFAULT_MAP);
+            MapHost host = hosts.get(name);
+
+            if (Objects.isNull(host)) {
+                logger.info("Client asked for unknown map {}, forcing disconnect", name);
+
+                client.disconnect();
+                return;
+            }
+
+            addClient(client, packet.getSource(), host);
 
             logger.info("Client has sent HelloPacket, it is now connected");
 
@@ -144,28 +384,49 @@ public class MapServer {
         return clients.containsKey(client);
     }
 
+    private boolean isNode(Client client) {
+        return Objects.nonNull(links) && links.isLinked(client);
+    }
+
     private void disconnect(Client client) {
         logger.info("Client did not send HelloPacket, it will disconnect", client);
         client.disconnect();
     }
 
+    public void acknowledgeSnapshot(UUID instanceId, int sequence) {
+        Optional.ofNullable(instanceIds.get(instanceId))
+                .ifPresent(client -> getHost(instanceId).getSnapshotStage().acknowledge(client, sequence));
+    }
+
     public void send(Packet packet, UUID target) {
-        Player player = map.getEntity(target, Player.class);
-        send(packet, Set.of(player));
+        Player player = getMap(target).getEntity(target, Player.class);
+        send(packet, Set.of(player.getInstanceId()));
     }
 
     public void sendNearby(Packet packet) {
-        MapEntity entity = map.getEntity(packet.getSource());
-        Set<Player> players = map.getNearbyEntities(entity, Player.class);
-        send(packet, players);
+        send(packet, getHost(packet.getSource()).getInterest().getObservers(packet.getSource()));
     }
 
-    private void send(Packet packet, Set<? extends MapEntity> targets) {
-        targets.parallelStream()
-                .map(MapEntity::getInstanceId)
-                .map(instanceIds::get)
-                .filter(this::isConnected)
-                .forEach(client -> client.send(packet));
+    private void send(Packet packet, Set<UUID> targets) {
+        for (UUID target : targets) {
+            Client client = instanceIds.get(target);
+
+            if (Objects.nonNull(client) && isConnected(client)) {
+                getHost(target).getSnapshotStage().enqueue(client, packet);
+            }
+        }
+    }
+
+    public void replay(Path path, boolean realTime) {
+        PacketReplayer.builder()
+                .path(path)
+                .realTime(realTime)
+                .build()
+                .replay((client, packet) -> {
+                    if (!(packet instanceof HelloPacket)) {
+                        PacketHandlerDelegator.getInstance().delegate(this, packet);
+                    }
+                });
     }
 
     public static void main(String... args) {
@@ -0,0 +1,91 @@
+package com.mmo.infrastructure.map;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import com.mmo.infrastructure.map.packet.SnapshotAckPacket;
+import com.mmo.infrastructure.map.packet.SnapshotBaselineNotFoundException;
+import com.mmo.infrastructure.map.packet.SnapshotDelta;
+import com.mmo.infrastructure.map.packet.SnapshotEntity;
+import com.mmo.infrastructure.map.packet.SnapshotPacket;
+
+import lombok.Builder;
+
+/*
+ * the client side of delta snapshots, rebuilds the full view of every
+ * snapshot from the baseline it was encoded against and keeps the last ones
+ * around since the server may still encode against any unacknowledged one
+ */
+public class SnapshotReceiver {
+
+    private static final int DEFAULT_HISTORY_SIZE = 32;
+
+    private final Map<UUID, SnapshotEntity>[] history;
+    private final int[] historySequences;
+    private Map<UUID, SnapshotEntity> entities = Map.of();
+    private int sequence = SnapshotPacket.NO_BASELINE;
+
+    @Builder
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private SnapshotReceiver(Integer historySize) {
+        int size = Objects.isNull(historySize) ? DEFAULT_HISTORY_SIZE : historySize;
+
+        this.history = new Map[size];
+        this.historySequences = new int[size];
+    }
+
+    public Map<UUID, SnapshotEntity> getEntities() {
+        return entities;
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+
+    public Map<UUID, SnapshotEntity> apply(SnapshotPacket packet) {
+        if (packet.getSequence() <= sequence) {
+            return entities;
+        }
+
+        Map<UUID, SnapshotEntity> baseline = getBaseline(packet.getBaseline());
+        HashMap<UUID, SnapshotEntity> view = new HashMap<>(baseline);
+
+        packet.getRemoved().forEach(view::remove);
+
+        for (SnapshotDelta delta : packet.getEntities()) {
+            view.put(delta.getInstanceId(), delta.apply(baseline.get(delta.getInstanceId())));
+        }
+
+        int index = index(packet.getSequence());
+
+        history[index] = view;
+        historySequences[index] = packet.getSequence();
+        sequence = packet.getSequence();
+        entities = Collections.unmodifiableMap(view);
+
+        return entities;
+    }
+
+    public SnapshotAckPacket acknowledge(UUID source) {
+        return SnapshotAckPacket.builder().build(source, sequence);
+    }
+
+    private Map<UUID, SnapshotEntity> getBaseline(int baseline) {
+        if (baseline == SnapshotPacket.NO_BASELINE) {
+            return Map.of();
+        }
+
+        if (historySequences[index(baseline)] != baseline) {
+            throw new SnapshotBaselineNotFoundException("Baseline snapshot %s not found", baseline);
+        }
+
+        return history[index(baseline)];
+    }
+
+    private int index(int sequence) {
+        return Math.floorMod(sequence, history.length);
+    }
+}
@@ -0,0 +1,174 @@
+package com.mmo.infrastructure.map;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.mmo.core.map.InterestManager;
+import com.mmo.core.map.Map;
+import com.mmo.core.map.MapEntity;
+import com.mmo.infrastructure.map.packet.SnapshotDelta;
+import com.mmo.infrastructure.map.packet.SnapshotEntity;
+import com.mmo.infrastructure.map.packet.SnapshotPacket;
+import com.mmo.infrastructure.server.Client;
+import com.mmo.infrastructure.server.Packet;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+public class SnapshotStage {
+
+    private static final int DEFAULT_HISTORY_SIZE = 32;
+    private static final int HEADER_SIZE = Integer.BYTES * 5;
+    private static final int REMOVED_SIZE = Long.BYTES * 2;
+    private static final int EVENT_HEADER_SIZE = Long.BYTES * 4 + Integer.BYTES;
+
+    private final ConcurrentHashMap<Client, SnapshotState> states = new ConcurrentHashMap<>();
+    private final Map map;
+    private final InterestManager interest;
+    private final UUID source;
+    private final int historySize;
+    private final int budget;
+
+    @Builder
+    private SnapshotStage(
+            @NonNull Map map,
+            @NonNull InterestManager interest,
+            @NonNull UUID source,
+            Integer historySize,
+            Integer budget) {
+
+        this.map = map;
+        this.interest = interest;
+        this.source = source;
+        this.historySize = Objects.isNull(historySize) ? DEFAULT_HISTORY_SIZE : historySize;
+        this.budget = Objects.isNull(budget) ? Integer.MAX_VALUE : budget;
+    }
+
+    public void enqueue(Client client, Packet packet) {
+        getState(client).enqueue(packet);
+    }
+
+    public void acknowledge(Client client, int sequence) {
+        getState(client).acknowledge(sequence);
+    }
+
+    public void remove(Client client) {
+        states.remove(client);
+    }
+
+    /*
+     * entities are encoded against the last snapshot the client acknowledged,
+     * everything it has not confirmed yet is sent again until it does, when
+     * the changes do not fit the budget of the client only the entities with
+     * the highest accumulated priority are sent and the rest keep their
+     * baseline value in the view this snapshot is recorded with
+     */
+    public void flush(Client client, UUID instanceId) {
+        SnapshotState state = getState(client);
+        int baselineSequence = state.getBaselineSequence();
+        HashMap<UUID, SnapshotEntity> baseline = state.getBaseline(baselineSequence);
+        HashMap<UUID, SnapshotEntity> view = new HashMap<>();
+        List<SnapshotDelta> pending = new ArrayList<>();
+        List<SnapshotDelta> entities = new ArrayList<>();
+        List<UUID> removed = new ArrayList<>();
+        Set<UUID> visible = new HashSet<>();
+
+        map.findEntity(instanceId).ifPresent(observer -> {
+            interest.update(observer);
+
+            interest.getView(instanceId).stream()
+                    .map(map::findEntity)
+                    .flatMap(Optional::stream)
+                    .forEach(entity -> {
+                        UUID entityId = entity.getInstanceId();
+                        SnapshotEntity known = baseline.get(entityId);
+                        SnapshotDelta delta = SnapshotDelta.of(known, SnapshotEntity.of(entity));
+
+                        visible.add(entityId);
+
+                        if (Objects.nonNull(known)) {
+                            view.put(entityId, known);
+                        }
+
+                        if (delta.isEmpty()) {
+                            state.clearPriority(entityId);
+                            return;
+                        }
+
+                        state.accumulate(entityId, getWeight(observer, entity));
+                        pending.add(delta);
+                    });
+        });
+
+        state.retainPriorities(visible);
+
+        baseline.keySet().stream()
+                .filter(entity -> !visible.contains(entity))
+                .forEach(removed::add);
+
+        List<Packet> events = state.drainEvents();
+        List<byte[]> eventBytes = toBytes(events);
+        long remaining = (long) budget - HEADER_SIZE - (long) removed.size() * REMOVED_SIZE - getSize(eventBytes);
+
+        pending.sort(Comparator.comparingDouble((SnapshotDelta delta) -> state.getPriority(delta.getInstanceId())).reversed());
+
+        for (SnapshotDelta delta : pending) {
+            if (delta.getSize() > remaining) {
+                continue;
+            }
+
+            remaining -= delta.getSize();
+            entities.add(delta);
+            view.put(delta.getInstanceId(), delta.apply(baseline.get(delta.getInstanceId())));
+            state.clearPriority(delta.getInstanceId());
+        }
+
+        if (entities.isEmpty() && removed.isEmpty() && events.isEmpty()) {
+            return;
+        }
+
+        int sequence = state.sent(view);
+
+        client.send(SnapshotPacket.builder()
+                .build(source, sequence, baselineSequence, entities, removed, events, eventBytes));
+    }
+
+    /*
+     * closer entities gain priority faster, the observer itself the fastest
+     */
+    private static double getWeight(MapEntity observer, MapEntity entity) {
+        return 1D / (1 + observer.getPosition().getDistance(entity.getPosition()));
+    }
+
+    /*
+     * events are serialized once, the same bytes are measured against the
+     * budget and written into the snapshot
+     */
+    private static List<byte[]> toBytes(List<Packet> events) {
+        List<byte[]> eventBytes = new ArrayList<>(events.size());
+
+        for (Packet event : events) {
+            eventBytes.add(event.toBytes());
+        }
+
+        return eventBytes;
+    }
+
+    private static long getSize(List<byte[]> eventBytes) {
+        return eventBytes.stream()
+                .mapToLong(bytes -> EVENT_HEADER_SIZE + bytes.length)
+                .sum();
+    }
+
+    private SnapshotState getState(Client client) {
+        return states.computeIfAbsent(client, key -> new SnapshotState(historySize));
+    }
+}
@@ -0,0 +1,112 @@
+package com.mmo.infrastructure.map;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mmo.infrastructure.map.packet.SnapshotEntity;
+import com.mmo.infrastructure.map.packet.SnapshotPacket;
+import com.mmo.infrastructure.server.Packet;
+
+/*
+ * keeps the view sent in each of the last snapshots of a client, the one the
+ * client acknowledged last is the baseline deltas are encoded against, once it
+ * falls out of the history snapshots go out full again. only the flushing
+ * thread sends, acknowledgements come from the receiving threads
+ */
+class SnapshotState {
+
+    private final Queue<Packet> events = new ConcurrentLinkedQueue<>();
+    private final HashMap<UUID, SnapshotEntity>[] history;
+    private final int[] historySequences;
+    private final HashMap<UUID, Double> priorities = new HashMap<>();
+    private final AtomicInteger acknowledged = new AtomicInteger(SnapshotPacket.NO_BASELINE);
+    private volatile int sequence = SnapshotPacket.NO_BASELINE;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    SnapshotState(int historySize) {
+        this.history = new HashMap[historySize];
+        this.historySequences = new int[historySize];
+    }
+
+    void enqueue(Packet packet) {
+        events.add(packet);
+    }
+
+    List<Packet> drainEvents() {
+        List<Packet> drained = new ArrayList<>();
+        Packet packet;
+
+        while (Objects.nonNull(packet = events.poll())) {
+            drained.add(packet);
+        }
+
+        return drained;
+    }
+
+    /*
+     * an entity waiting to be sent gains priority every interval it is held
+     * back, weighted by how much it matters to the observer right now
+     */
+    double accumulate(UUID instanceId, double weight) {
+        return priorities.merge(instanceId, weight, Double::sum);
+    }
+
+    double getPriority(UUID instanceId) {
+        return priorities.getOrDefault(instanceId, 0D);
+    }
+
+    void clearPriority(UUID instanceId) {
+        priorities.remove(instanceId);
+    }
+
+    void retainPriorities(Set<UUID> instanceIds) {
+        priorities.keySet().retainAll(instanceIds);
+    }
+
+    /*
+     * acknowledgements may arrive out of order or for sequences never sent,
+     * only the newest sent one counts
+     */
+    void acknowledge(int acknowledgedSequence) {
+        acknowledged.accumulateAndGet(acknowledgedSequence,
+                (current, candidate) -> candidate > current && candidate <= sequence ? candidate : current);
+    }
+
+    int getBaselineSequence() {
+        int baseline = acknowledged.get();
+
+        if (baseline == SnapshotPacket.NO_BASELINE || historySequences[index(baseline)] != baseline) {
+            return SnapshotPacket.NO_BASELINE;
+        }
+
+        return baseline;
+    }
+
+    HashMap<UUID, SnapshotEntity> getBaseline(int baselineSequence) {
+        if (baselineSequence == SnapshotPacket.NO_BASELINE) {
+            return new HashMap<>();
+        }
+
+        return history[index(baselineSequence)];
+    }
+
+    int sent(HashMap<UUID, SnapshotEntity> view) {
+        int sent = ++sequence;
+
+        history[index(sent)] = view;
+        historySequences[index(sent)] = sent;
+
+        return sent;
+    }
+
+    private int index(int sequence) {
+        return Math.floorMod(sequence, history.length);
+    }
+}
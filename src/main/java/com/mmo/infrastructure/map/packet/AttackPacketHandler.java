@@ -1,14 +1,16 @@
 package com.mmo.infrastructure.map.packet;
 
 import com.mmo.core.animate.Animate;
+import com.mmo.core.map.Map;
 import com.mmo.infrastructure.map.MapServer;
 
 public class AttackPacketHandler implements PacketHandler<AttackPacket> {
 
     @Override
     public void handle(MapServer server, AttackPacket packet) {
-        Animate source = server.getMap().getEntity(packet.getSource(), Animate.class);
-        Animate target = server.getMap().getEntity(packet.getTarget(), Animate.class);
+        Map map = server.getMap(packet.getSource());
+        Animate source = map.getEntity(packet.getSource(), Animate.class);
+        Animate target = map.getEntity(packet.getTarget(), Animate.class);
 
         source.attack(target);
     }
@@ -0,0 +1,49 @@
+package com.mmo.infrastructure.map.packet;
+
+import java.util.UUID;
+
+import com.mmo.infrastructure.server.Packet;
+import com.mmo.infrastructure.server.PacketBuilder;
+import com.mmo.infrastructure.server.PacketWriter;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@EqualsAndHashCode
+@ToString
+public class DespawnPacket implements Packet {
+
+    public static final String ALIAS = "DESPAWN";
+
+    private final UUID source;
+
+    protected DespawnPacket(UUID source) {
+        this.source = source;
+    }
+
+    public static DespawnPacketBuilder builder() {
+        return new DespawnPacketBuilder();
+    }
+
+    @Override
+    public String getAlias() {
+        return ALIAS;
+    }
+
+    @Override
+    public byte[] toBytes() {
+        try (PacketWriter writer = new PacketWriter()) {
+            return writer.toBytes();
+        }
+    }
+
+    public static class DespawnPacketBuilder implements PacketBuilder<DespawnPacket> {
+
+        @Override
+        public DespawnPacket build(UUID source, byte[] bytes) {
+            return new DespawnPacket(source);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.mmo.infrastructure.map.packet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.mmo.infrastructure.server.Packet;
+import com.mmo.infrastructure.server.PacketBuilder;
+import com.mmo.infrastructure.server.PacketReader;
+import com.mmo.infrastructure.server.PacketWriter;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * the entities a node simulates close enough to the cells of another node
+ * to be seen from there, sent to that node every replication
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class GhostPacket implements Packet {
+
+    public static final String ALIAS = "GHOST";
+
+    private final UUID source;
+    private final List<SnapshotEntity> entities;
+
+    protected GhostPacket(UUID source, List<SnapshotEntity> entities) {
+        this.source = source;
+        this.entities = entities;
+    }
+
+    public static GhostPacketBuilder builder() {
+        return new GhostPacketBuilder();
+    }
+
+    @Override
+    public String getAlias() {
+        return ALIAS;
+    }
+
+    @Override
+    public byte[] toBytes() {
+        try (PacketWriter writer = new PacketWriter()) {
+            writer.writeInt(entities.size());
+            entities.forEach(entity -> entity.write(writer));
+            return writer.toBytes();
+        }
+    }
+
+    public static class GhostPacketBuilder implements PacketBuilder<GhostPacket> {
+
+        public GhostPacket build(UUID source, List<SnapshotEntity> entities) {
+            return new GhostPacket(source, List.copyOf(entities));
+        }
+
+        @Override
+        public GhostPacket build(UUID source, byte[] bytes) {
+            try (PacketReader reader = new PacketReader(bytes)) {
+                int size = reader.readInt();
+                List<SnapshotEntity> entities = new ArrayList<>(size);
+
+                for (int i = 0; i < size; i++) {
+                    entities.add(SnapshotEntity.read(reader));
+                }
+
+                return new GhostPacket(source, entities);
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.mmo.infrastructure.map.packet;
 
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 import com.mmo.infrastructure.server.Packet;
@@ -7,6 +9,7 @@ import com.mmo.infrastructure.server.PacketBuilder;
 import com.mmo.infrastructure.server.PacketReader;
 import com.mmo.infrastructure.server.PacketWriter;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -16,18 +19,33 @@ import lombok.ToString;
 @ToString
 public class HelloPacket implements Packet {
 
-    private static final String ALIAS = "HELLO";
+    public static final String ALIAS = "HELLO";
 
     private final UUID source;
+    @Getter(AccessLevel.NONE)
+    private final String map;
 
     protected HelloPacket(UUID source) {
+        this(source, null);
+    }
+
+    protected HelloPacket(UUID source, String map) {
         this.source = source;
+        this.map = map;
     }
 
     public static HelloPacketBuilder builder() {
         return new HelloPacketBuilder();
     }
 
+    /*
+     * name of the map the client joins, the default map of the server when
+     * it does not ask for any
+     */
+    public Optional<String> getMap() {
+        return Optional.ofNullable(map);
+    }
+
     @Override
     public String getAlias() {
         return ALIAS;
@@ -36,6 +54,10 @@ public class HelloPacket implements Packet {
     @Override
     public byte[] toBytes() {
         try (PacketWriter writer = new PacketWriter()) {
+            if (Objects.nonNull(map)) {
+                writer.writeUTF(map);
+            }
+
             return writer.toBytes();
         }
     }
@@ -45,7 +67,8 @@ public class HelloPacket implements Packet {
         @Override
         public HelloPacket build(UUID source, byte[] bytes) {
             try (PacketReader reader = new PacketReader(bytes)) {
-                return new HelloPacket(source);
+                String map = reader.available() > 0 ? reader.readUTF() : null;
+                return new HelloPacket(source, map);
             }
         }
     }
@@ -0,0 +1,27 @@
+package com.mmo.infrastructure.map.packet;
+
+import com.mmo.infrastructure.server.PacketFactory;
+import com.mmo.infrastructure.server.PacketModule;
+
+public class MapPacketModule implements PacketModule {
+
+    private static final int CONTROL_MAX_SIZE = 1024;
+    private static final int SNAPSHOT_MAX_SIZE = 1024 * 1024;
+    private static final int MIGRATE_MAX_SIZE = 64 * 1024;
+
+    @Override
+    public void register(PacketFactory factory) {
+        factory.register(HelloPacket.class, HelloPacket.ALIAS, HelloPacket.builder(), CONTROL_MAX_SIZE);
+        factory.register(GoodByePacket.class, GoodByePacket.ALIAS, GoodByePacket.builder(), CONTROL_MAX_SIZE);
+        factory.register(AttackPacket.class, AttackPacket.ALIAS, AttackPacket.builder(), CONTROL_MAX_SIZE);
+        factory.register(SnapshotPacket.class, SnapshotPacket.ALIAS, SnapshotPacket.builder(), SNAPSHOT_MAX_SIZE);
+        factory.register(SpawnPacket.class, SpawnPacket.ALIAS, SpawnPacket.builder(), CONTROL_MAX_SIZE);
+        factory.register(SnapshotAckPacket.class, SnapshotAckPacket.ALIAS, SnapshotAckPacket.builder(), CONTROL_MAX_SIZE);
+        factory.register(DespawnPacket.class, DespawnPacket.ALIAS, DespawnPacket.builder(), CONTROL_MAX_SIZE);
+        factory.register(NodeHelloPacket.class, NodeHelloPacket.ALIAS, NodeHelloPacket.builder(), CONTROL_MAX_SIZE);
+        factory.register(MigratePacket.class, MigratePacket.ALIAS, MigratePacket.builder(), MIGRATE_MAX_SIZE);
+        factory.register(MigrateAckPacket.class, MigrateAckPacket.ALIAS, MigrateAckPacket.builder(), CONTROL_MAX_SIZE);
+        factory.register(GhostPacket.class, GhostPacket.ALIAS, GhostPacket.builder(), SNAPSHOT_MAX_SIZE);
+        factory.register(RedirectPacket.class, RedirectPacket.ALIAS, RedirectPacket.builder(), CONTROL_MAX_SIZE);
+    }
+}
@@ -0,0 +1,57 @@
+package com.mmo.infrastructure.map.packet;
+
+import java.util.UUID;
+
+import com.mmo.infrastructure.server.Packet;
+import com.mmo.infrastructure.server.PacketBuilder;
+import com.mmo.infrastructure.server.PacketWriter;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * sent back by the node a player migrated to once it took the player over,
+ * only then the node it came from lets it go
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class MigrateAckPacket implements Packet {
+
+    public static final String ALIAS = "MIGRATE_ACK";
+
+    private final UUID source;
+
+    protected MigrateAckPacket(UUID source) {
+        this.source = source;
+    }
+
+    public static MigrateAckPacketBuilder builder() {
+        return new MigrateAckPacketBuilder();
+    }
+
+    @Override
+    public String getAlias() {
+        return ALIAS;
+    }
+
+    @Override
+    public byte[] toBytes() {
+        try (PacketWriter writer = new PacketWriter()) {
+            return writer.toBytes();
+        }
+    }
+
+    public static class MigrateAckPacketBuilder implements PacketBuilder<MigrateAckPacket> {
+
+        public MigrateAckPacket build(UUID source) {
+            return new MigrateAckPacket(source);
+        }
+
+        @Override
+        public MigrateAckPacket build(UUID source, byte[] bytes) {
+            return new MigrateAckPacket(source);
+        }
+    }
+}
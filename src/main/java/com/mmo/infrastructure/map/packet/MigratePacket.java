@@ -0,0 +1,190 @@
+package com.mmo.infrastructure.map.packet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.mmo.core.attribute.Attribute;
+import com.mmo.core.attribute.Attributes;
+import com.mmo.core.map.Position;
+import com.mmo.core.player.Player;
+import com.mmo.core.stat.Stat;
+import com.mmo.core.stat.Stats;
+import com.mmo.infrastructure.server.Packet;
+import com.mmo.infrastructure.server.PacketBuilder;
+import com.mmo.infrastructure.server.PacketReader;
+import com.mmo.infrastructure.server.PacketWriter;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * hands a player over to the node owning the cell it walked into, with
+ * everything needed to rebuild it there under the same instance id
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class MigratePacket implements Packet {
+
+    public static final String ALIAS = "MIGRATE";
+
+    private final UUID source;
+    private final String name;
+    private final long x;
+    private final long y;
+    private final long z;
+    private final List<PropertyState> stats;
+    private final List<PropertyState> attributes;
+
+    protected MigratePacket(
+            UUID source,
+            String name,
+            long x,
+            long y,
+            long z,
+            List<PropertyState> stats,
+            List<PropertyState> attributes) {
+
+        this.source = source;
+        this.name = name;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.stats = stats;
+        this.attributes = attributes;
+    }
+
+    public static MigratePacketBuilder builder() {
+        return new MigratePacketBuilder();
+    }
+
+    @Override
+    public String getAlias() {
+        return ALIAS;
+    }
+
+    public Player toPlayer() {
+        Player player = Player.builder()
+                .instanceId(source)
+                .name(name)
+                .position(Position.builder()
+                        .x(x)
+                        .y(y)
+                        .z(z)
+                        .build())
+                .stats(Stats.builder()
+                        .strength(getValue(stats, Stat.STRENGTH.name()))
+                        .dexterity(getValue(stats, Stat.DEXTERITY.name()))
+                        .intelligence(getValue(stats, Stat.INTELLIGENCE.name()))
+                        .concentration(getValue(stats, Stat.CONCENTRATION.name()))
+                        .sense(getValue(stats, Stat.SENSE.name()))
+                        .charm(getValue(stats, Stat.CHARM.name()))
+                        .build())
+                .attributes(Attributes.builder()
+                        .hp(getValue(attributes, Attribute.HP.name()))
+                        .mp(getValue(attributes, Attribute.MP.name()))
+                        .attack(getValue(attributes, Attribute.ATTACK.name()))
+                        .defense(getValue(attributes, Attribute.DEFENSE.name()))
+                        .magicDefense(getValue(attributes, Attribute.MAGIC_DEFENSE.name()))
+                        .hitRate(getValue(attributes, Attribute.HIT_RATE.name()))
+                        .critical(getValue(attributes, Attribute.CRITICAL.name()))
+                        .dodgeRate(getValue(attributes, Attribute.DODGE_RATE.name()))
+                        .attackSpeed(getValue(attributes, Attribute.ATTACK_SPEED.name()))
+                        .moveSpeed(getValue(attributes, Attribute.MOVE_SPEED.name()))
+                        .hpRecovery(getValue(attributes, Attribute.HP_RECOVERY.name()))
+                        .mpRecovery(getValue(attributes, Attribute.MP_RECOVERY.name()))
+                        .attackRange(getValue(attributes, Attribute.ATTACK_RANGE.name()))
+                        .build())
+                .build();
+
+        for (PropertyState state : stats) {
+            state.restore(player.getStats().getProperty(Stat.valueOf(state.getName())));
+        }
+
+        for (PropertyState state : attributes) {
+            state.restore(player.getAttributes().getProperty(Attribute.valueOf(state.getName())));
+        }
+
+        return player;
+    }
+
+    @Override
+    public byte[] toBytes() {
+        try (PacketWriter writer = new PacketWriter()) {
+            writer.writeUTF(name);
+            writer.writeLong(x);
+            writer.writeLong(y);
+            writer.writeLong(z);
+            write(writer, stats);
+            write(writer, attributes);
+            return writer.toBytes();
+        }
+    }
+
+    private static int getValue(List<PropertyState> states, String name) {
+        for (PropertyState state : states) {
+            if (state.getName().equals(name)) {
+                return state.getValue();
+            }
+        }
+
+        throw new MigrateStateNotFoundException("Migrated state has no property %s", name);
+    }
+
+    private static void write(PacketWriter writer, List<PropertyState> states) {
+        writer.writeShort((short) states.size());
+        states.forEach(state -> state.write(writer));
+    }
+
+    private static List<PropertyState> read(PacketReader reader) {
+        int size = reader.readShort();
+        List<PropertyState> states = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            states.add(PropertyState.read(reader));
+        }
+
+        return states;
+    }
+
+    public static class MigratePacketBuilder implements PacketBuilder<MigratePacket> {
+
+        public MigratePacket build(Player player) {
+            Position position = player.getPosition();
+            List<PropertyState> stats = new ArrayList<>();
+            List<PropertyState> attributes = new ArrayList<>();
+
+            for (Stat stat : Stat.values()) {
+                stats.add(PropertyState.of(player.getStats().getProperty(stat)));
+            }
+
+            for (Attribute attribute : Attribute.values()) {
+                attributes.add(PropertyState.of(player.getAttributes().getProperty(attribute)));
+            }
+
+            return new MigratePacket(
+                    player.getInstanceId(),
+                    player.getName(),
+                    position.getX(),
+                    position.getY(),
+                    position.getZ(),
+                    stats,
+                    attributes);
+        }
+
+        @Override
+        public MigratePacket build(UUID source, byte[] bytes) {
+            try (PacketReader reader = new PacketReader(bytes)) {
+                String name = reader.readUTF();
+                long x = reader.readLong();
+                long y = reader.readLong();
+                long z = reader.readLong();
+                List<PropertyState> stats = read(reader);
+                List<PropertyState> attributes = read(reader);
+                return new MigratePacket(source, name, x, y, z, stats, attributes);
+            }
+        }
+    }
+}
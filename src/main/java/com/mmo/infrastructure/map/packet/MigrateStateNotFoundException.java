@@ -0,0 +1,12 @@
+package com.mmo.infrastructure.map.packet;
+
+import com.mmo.infrastructure.map.MapServerException;
+
+public class MigrateStateNotFoundException extends MapServerException {
+
+    private static final long serialVersionUID = -4861527300915476083L;
+
+    public MigrateStateNotFoundException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+}
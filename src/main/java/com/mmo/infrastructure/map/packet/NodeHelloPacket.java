@@ -0,0 +1,70 @@
+package com.mmo.infrastructure.map.packet;
+
+import java.util.UUID;
+
+import com.mmo.infrastructure.server.Packet;
+import com.mmo.infrastructure.server.PacketBuilder;
+import com.mmo.infrastructure.server.PacketReader;
+import com.mmo.infrastructure.server.PacketWriter;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * first packet of a link opened by another node of the map, once the key
+ * of the cluster checks out the connection carries node packets instead
+ * of the ones of a player
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class NodeHelloPacket implements Packet {
+
+    public static final String ALIAS = "NODE_HELLO";
+
+    private final UUID source;
+    private final String node;
+    @ToString.Exclude
+    private final String key;
+
+    protected NodeHelloPacket(UUID source, String node, String key) {
+        this.source = source;
+        this.node = node;
+        this.key = key;
+    }
+
+    public static NodeHelloPacketBuilder builder() {
+        return new NodeHelloPacketBuilder();
+    }
+
+    @Override
+    public String getAlias() {
+        return ALIAS;
+    }
+
+    @Override
+    public byte[] toBytes() {
+        try (PacketWriter writer = new PacketWriter()) {
+            writer.writeUTF(node);
+            writer.writeUTF(key);
+            return writer.toBytes();
+        }
+    }
+
+    public static class NodeHelloPacketBuilder implements PacketBuilder<NodeHelloPacket> {
+
+        public NodeHelloPacket build(UUID source, String node, String key) {
+            return new NodeHelloPacket(source, node, key);
+        }
+
+        @Override
+        public NodeHelloPacket build(UUID source, byte[] bytes) {
+            try (PacketReader reader = new PacketReader(bytes)) {
+                String node = reader.readUTF();
+                String key = reader.readUTF();
+                return new NodeHelloPacket(source, node, key);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.mmo.infrastructure.map.packet;
+
+import java.util.List;
+
+import com.mmo.infrastructure.map.MapServer;
+import com.mmo.infrastructure.server.Packet;
+
+class PacketHandlerBinding {
+
+    private final PacketHandler<Packet> handler;
+    private final PacketHandlerMetrics metrics;
+    private final PacketInterceptorChain chain;
+
+    @SuppressWarnings("unchecked")
+    PacketHandlerBinding(PacketHandler<?> handler, PacketHandlerMetrics metrics, List<PacketInterceptor> interceptors) {
+        this.handler = (PacketHandler<Packet>) handler;
+        this.metrics = metrics;
+        this.chain = link(interceptors);
+    }
+
+    PacketHandler<?> getHandler() {
+        return handler;
+    }
+
+    PacketHandlerMetrics getMetrics() {
+        return metrics;
+    }
+
+    void handle(MapServer server, Packet packet) {
+        chain.proceed(server, packet);
+    }
+
+    private PacketInterceptorChain link(List<PacketInterceptor> interceptors) {
+        PacketInterceptorChain chain = this::invoke;
+
+        for (int i = interceptors.size() - 1; i >= 0; i--) {
+            PacketInterceptor interceptor = interceptors.get(i);
+            PacketInterceptorChain next = chain;
+
+            chain = (server, packet) -> interceptor.intercept(server, packet, next);
+        }
+
+        return chain;
+    }
+
+    private void invoke(MapServer server, Packet packet) {
+        long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+            handler.handle(server, packet);
+            failed = false;
+        } finally {
+            metrics.record(System.nanoTime() - start, failed);
+        }
+    }
+}
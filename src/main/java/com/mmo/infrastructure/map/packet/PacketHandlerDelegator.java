@@ -1,7 +1,12 @@
 package com.mmo.infrastructure.map.packet;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.mmo.infrastructure.map.MapServer;
@@ -14,32 +19,82 @@ import lombok.ToString;
 @ToString
 public class PacketHandlerDelegator {
 
-    private static PacketHandlerDelegator instance;
+    private static final PacketHandlerDelegator instance = new PacketHandlerDelegator();
+    private static final int UNBOUND_SLOT = -1;
 
-    private final ConcurrentHashMap<Class<? extends Packet>, PacketHandler<?>> handlers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<? extends Packet>, Integer> slots = new ConcurrentHashMap<>();
+    private final List<PacketInterceptor> interceptors = new ArrayList<>();
+    private volatile PacketHandlerBinding[] bindings = new PacketHandlerBinding[0];
 
-    public static PacketHandlerDelegator getInstance() {
-        if (Objects.isNull(instance)) {
-            instance = new PacketHandlerDelegator();
+    private final ClassValue<Integer> slotCache = new ClassValue<>() {
+
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return slots.getOrDefault(type, UNBOUND_SLOT);
         }
+    };
 
+    public static PacketHandlerDelegator getInstance() {
         return instance;
     }
 
-    private PacketHandlerDelegator() {
+    PacketHandlerDelegator() {
 
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public void delegate(MapServer server, Packet packet) {
-        PacketHandler handler = Optional.ofNullable(handlers.get(packet.getClass()))
-                .orElseThrow(
-                        () -> new PacketHandlerNotBindedException("There is no packet handler for packet %s", packet));
+        int slot = slotCache.get(packet.getClass());
+        PacketHandlerBinding[] bindings = this.bindings;
+
+        if (slot == UNBOUND_SLOT || slot >= bindings.length) {
+            throw new PacketHandlerNotBindedException("There is no packet handler for packet %s", packet);
+        }
+
+        bindings[slot].handle(server, packet);
+    }
+
+    public synchronized <T extends Packet> void bind(Class<T> type, PacketHandler<T> handler) {
+        Integer slot = slots.get(type);
+        PacketHandlerBinding[] newBindings;
+
+        if (Objects.isNull(slot)) {
+            slot = bindings.length;
+            newBindings = Arrays.copyOf(bindings, slot + 1);
+        } else {
+            newBindings = Arrays.copyOf(bindings, bindings.length);
+        }
+
+        newBindings[slot] = new PacketHandlerBinding(handler, new PacketHandlerMetrics(), interceptors);
+        bindings = newBindings;
 
-        handler.handle(server, packet);
+        slots.put(type, slot);
+        slotCache.remove(type);
     }
 
-    public <T extends Packet> void bind(Class<T> type, PacketHandler<T> handler) {
-        handlers.put(type, handler);
+    public synchronized void intercept(PacketInterceptor interceptor) {
+        interceptors.add(interceptor);
+
+        bindings = Arrays.stream(bindings)
+                .map(binding -> new PacketHandlerBinding(binding.getHandler(), binding.getMetrics(), interceptors))
+                .toArray(PacketHandlerBinding[]::new);
+    }
+
+    public PacketHandlerMetrics getMetrics(Class<? extends Packet> type) {
+        int slot = slotCache.get(type);
+
+        if (slot == UNBOUND_SLOT) {
+            throw new PacketHandlerNotBindedException("There is no packet handler for packet type %s", type);
+        }
+
+        return bindings[slot].getMetrics();
+    }
+
+    public Map<Class<? extends Packet>, PacketHandlerMetrics> getMetrics() {
+        Map<Class<? extends Packet>, PacketHandlerMetrics> metrics = new LinkedHashMap<>();
+        PacketHandlerBinding[] bindings = this.bindings;
+
+        slots.forEach((type, slot) -> metrics.put(type, bindings[slot].getMetrics()));
+
+        return Collections.unmodifiableMap(metrics);
     }
 }
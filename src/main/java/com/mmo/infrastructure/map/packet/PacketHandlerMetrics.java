@@ -0,0 +1,80 @@
+package com.mmo.infrastructure.map.packet;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.ToString;
+
+@ToString
+public class PacketHandlerMetrics {
+
+    private static final int HISTOGRAM_BUCKETS = Long.SIZE;
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalTimeInNanos = new LongAdder();
+    private final LongAdder[] histogram = new LongAdder[HISTOGRAM_BUCKETS];
+
+    PacketHandlerMetrics() {
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getTotalTimeInNanos() {
+        return totalTimeInNanos.sum();
+    }
+
+    /*
+     * bucket i counts invocations that took [2^(i-1), 2^i) nanos, bucket 0
+     * counts invocations that took 0 nanos
+     */
+    public long[] getHistogram() {
+        long[] values = new long[histogram.length];
+
+        for (int i = 0; i < histogram.length; i++) {
+            values[i] = histogram[i].sum();
+        }
+
+        return values;
+    }
+
+    public long getPercentileInNanos(double percentile) {
+        long[] values = getHistogram();
+        long total = 0;
+
+        for (long value : values) {
+            total += value;
+        }
+
+        long threshold = (long) Math.ceil(total * percentile);
+        long accumulated = 0;
+
+        for (int i = 0; i < values.length; i++) {
+            accumulated += values[i];
+
+            if (accumulated >= threshold && accumulated > 0) {
+                return i == 0 ? 0 : 1L << (i - 1);
+            }
+        }
+
+        return 0;
+    }
+
+    void record(long elapsedInNanos, boolean failed) {
+        invocations.increment();
+        totalTimeInNanos.add(elapsedInNanos);
+        histogram[HISTOGRAM_BUCKETS - Long.numberOfLeadingZeros(Math.max(elapsedInNanos, 0))].increment();
+
+        if (failed) {
+            errors.increment();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.mmo.infrastructure.map.packet;
+
+import com.mmo.infrastructure.map.MapServer;
+import com.mmo.infrastructure.server.Packet;
+
+@FunctionalInterface
+public interface PacketInterceptor {
+
+    void intercept(MapServer server, Packet packet, PacketInterceptorChain chain);
+}
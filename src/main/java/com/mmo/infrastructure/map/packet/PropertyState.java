@@ -0,0 +1,146 @@
+package com.mmo.infrastructure.map.packet;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mmo.core.property.Property;
+import com.mmo.core.property.PropertyModifier;
+import com.mmo.core.property.PropertyModifierAction;
+import com.mmo.infrastructure.server.PacketReader;
+import com.mmo.infrastructure.server.PacketWriter;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * a property as another node needs it to carry on where this one stopped,
+ * the base value, the persisted modifiers with their expiration and the
+ * final value whatever the unpersisted ones added up to
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class PropertyState {
+
+    private static final long NO_EXPIRATION = -1;
+
+    private final String name;
+    private final int value;
+    private final int finalValue;
+    private final List<Modifier> modifiers;
+
+    @Builder
+    private PropertyState(@NonNull String name, int value, int finalValue, @NonNull List<Modifier> modifiers) {
+        this.name = name;
+        this.value = value;
+        this.finalValue = finalValue;
+        this.modifiers = List.copyOf(modifiers);
+    }
+
+    public static PropertyState of(Property property) {
+        List<Modifier> modifiers = new ArrayList<>();
+
+        for (PropertyModifier modifier : property.getModifiers()) {
+            modifiers.add(new Modifier(
+                    modifier.getAction(),
+                    modifier.getValue(),
+                    modifier.getExpiration()
+                            .map(expiration -> expiration.toInstant().toEpochMilli())
+                            .orElse(NO_EXPIRATION)));
+        }
+
+        return PropertyState.builder()
+                .name(property.getName())
+                .value(property.getValue())
+                .finalValue(property.getFinalValue())
+                .modifiers(modifiers)
+                .build();
+    }
+
+    /*
+     * the property must have been built with the base value of the state
+     */
+    public void restore(Property property) {
+        for (Modifier modifier : modifiers) {
+            property.modify(modifier.toPropertyModifier());
+        }
+
+        int difference = finalValue - property.getFinalValue();
+
+        if (difference != 0) {
+            property.modify(PropertyModifier.builder()
+                    .action(difference > 0 ? PropertyModifierAction.INCREMENT : PropertyModifierAction.DECREMENT)
+                    .value(Math.abs(difference))
+                    .build());
+        }
+    }
+
+    public void write(PacketWriter writer) {
+        writer.writeUTF(name);
+        writer.writeInt(value);
+        writer.writeInt(finalValue);
+        writer.writeShort((short) modifiers.size());
+
+        for (Modifier modifier : modifiers) {
+            writer.write(modifier.action.ordinal());
+            writer.writeInt(modifier.value);
+            writer.writeLong(modifier.expiration);
+        }
+    }
+
+    public static PropertyState read(PacketReader reader) {
+        String name = reader.readUTF();
+        int value = reader.readInt();
+        int finalValue = reader.readInt();
+        int size = reader.readShort();
+        List<Modifier> modifiers = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            modifiers.add(new Modifier(
+                    PropertyModifierAction.values()[reader.read()],
+                    reader.readInt(),
+                    reader.readLong()));
+        }
+
+        return PropertyState.builder()
+                .name(name)
+                .value(value)
+                .finalValue(finalValue)
+                .modifiers(modifiers)
+                .build();
+    }
+
+    @EqualsAndHashCode
+    @ToString
+    public static class Modifier {
+
+        private final PropertyModifierAction action;
+        private final int value;
+        private final long expiration;
+
+        private Modifier(PropertyModifierAction action, int value, long expiration) {
+            this.action = action;
+            this.value = value;
+            this.expiration = expiration;
+        }
+
+        private PropertyModifier toPropertyModifier() {
+            OffsetDateTime expiration = this.expiration == NO_EXPIRATION
+                    ? null
+                    : OffsetDateTime.ofInstant(Instant.ofEpochMilli(this.expiration), ZoneId.systemDefault());
+
+            return PropertyModifier.builder()
+                    .action(action)
+                    .value(value)
+                    .expiration(expiration)
+                    .persisted(true)
+                    .build();
+        }
+    }
+}
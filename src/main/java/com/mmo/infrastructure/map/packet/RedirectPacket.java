@@ -0,0 +1,68 @@
+package com.mmo.infrastructure.map.packet;
+
+import java.util.UUID;
+
+import com.mmo.infrastructure.server.Packet;
+import com.mmo.infrastructure.server.PacketBuilder;
+import com.mmo.infrastructure.server.PacketReader;
+import com.mmo.infrastructure.server.PacketWriter;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * tells a client its player now lives on another node, it says hello
+ * there with the same instance id
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class RedirectPacket implements Packet {
+
+    public static final String ALIAS = "REDIRECT";
+
+    private final UUID source;
+    private final String host;
+    private final int port;
+
+    protected RedirectPacket(UUID source, String host, int port) {
+        this.source = source;
+        this.host = host;
+        this.port = port;
+    }
+
+    public static RedirectPacketBuilder builder() {
+        return new RedirectPacketBuilder();
+    }
+
+    @Override
+    public String getAlias() {
+        return ALIAS;
+    }
+
+    @Override
+    public byte[] toBytes() {
+        try (PacketWriter writer = new PacketWriter()) {
+            writer.writeUTF(host);
+            writer.writeInt(port);
+            return writer.toBytes();
+        }
+    }
+
+    public static class RedirectPacketBuilder implements PacketBuilder<RedirectPacket> {
+
+        public RedirectPacket build(UUID source, String host, int port) {
+            return new RedirectPacket(source, host, port);
+        }
+
+        @Override
+        public RedirectPacket build(UUID source, byte[] bytes) {
+            try (PacketReader reader = new PacketReader(bytes)) {
+                String host = reader.readUTF();
+                int port = reader.readInt();
+                return new RedirectPacket(source, host, port);
+            }
+        }
+    }
+}
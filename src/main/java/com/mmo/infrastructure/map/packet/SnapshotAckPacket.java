@@ -0,0 +1,59 @@
+package com.mmo.infrastructure.map.packet;
+
+import java.util.UUID;
+
+import com.mmo.infrastructure.server.Packet;
+import com.mmo.infrastructure.server.PacketBuilder;
+import com.mmo.infrastructure.server.PacketReader;
+import com.mmo.infrastructure.server.PacketWriter;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@EqualsAndHashCode
+@ToString
+public class SnapshotAckPacket implements Packet {
+
+    public static final String ALIAS = "SNAPSHOT_ACK";
+
+    private final UUID source;
+    private final int sequence;
+
+    protected SnapshotAckPacket(UUID source, int sequence) {
+        this.source = source;
+        this.sequence = sequence;
+    }
+
+    public static SnapshotAckPacketBuilder builder() {
+        return new SnapshotAckPacketBuilder();
+    }
+
+    @Override
+    public String getAlias() {
+        return ALIAS;
+    }
+
+    @Override
+    public byte[] toBytes() {
+        try (PacketWriter writer = new PacketWriter()) {
+            writer.writeInt(sequence);
+            return writer.toBytes();
+        }
+    }
+
+    public static class SnapshotAckPacketBuilder implements PacketBuilder<SnapshotAckPacket> {
+
+        public SnapshotAckPacket build(UUID source, int sequence) {
+            return new SnapshotAckPacket(source, sequence);
+        }
+
+        @Override
+        public SnapshotAckPacket build(UUID source, byte[] bytes) {
+            try (PacketReader reader = new PacketReader(bytes)) {
+                return new SnapshotAckPacket(source, reader.readInt());
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.mmo.infrastructure.map.packet;
+
+import com.mmo.infrastructure.map.MapServer;
+
+public class SnapshotAckPacketHandler implements PacketHandler<SnapshotAckPacket> {
+
+    @Override
+    public void handle(MapServer server, SnapshotAckPacket packet) {
+        server.acknowledgeSnapshot(packet.getSource(), packet.getSequence());
+    }
+}
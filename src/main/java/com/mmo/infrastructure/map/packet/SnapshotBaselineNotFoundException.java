@@ -0,0 +1,12 @@
+package com.mmo.infrastructure.map.packet;
+
+import com.mmo.infrastructure.map.MapServerException;
+
+public class SnapshotBaselineNotFoundException extends MapServerException {
+
+    private static final long serialVersionUID = 4410398562230876151L;
+
+    public SnapshotBaselineNotFoundException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+}
@@ -0,0 +1,138 @@
+package com.mmo.infrastructure.map.packet;
+
+import java.util.Objects;
+import java.util.UUID;
+
+import com.mmo.infrastructure.server.PacketReader;
+import com.mmo.infrastructure.server.PacketWriter;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * the fields of an entity that differ from the baseline the client already
+ * holds, only the fields flagged in the mask are written
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class SnapshotDelta {
+
+    public static final int X = 1;
+    public static final int Y = 1 << 1;
+    public static final int Z = 1 << 2;
+    public static final int HP = 1 << 3;
+    public static final int ALL = X | Y | Z | HP;
+
+    private final UUID instanceId;
+    private final int mask;
+    private final long x;
+    private final long y;
+    private final long z;
+    private final int hp;
+
+    @Builder
+    private SnapshotDelta(@NonNull UUID instanceId, int mask, long x, long y, long z, int hp) {
+        this.instanceId = instanceId;
+        this.mask = mask;
+        this.x = has(mask, X) ? x : 0;
+        this.y = has(mask, Y) ? y : 0;
+        this.z = has(mask, Z) ? z : 0;
+        this.hp = has(mask, HP) ? hp : 0;
+    }
+
+    public static SnapshotDelta of(SnapshotEntity baseline, SnapshotEntity entity) {
+        int mask = ALL;
+
+        if (Objects.nonNull(baseline)) {
+            mask = (baseline.getX() != entity.getX() ? X : 0)
+                    | (baseline.getY() != entity.getY() ? Y : 0)
+                    | (baseline.getZ() != entity.getZ() ? Z : 0)
+                    | (baseline.getHp() != entity.getHp() ? HP : 0);
+        }
+
+        return SnapshotDelta.builder()
+                .instanceId(entity.getInstanceId())
+                .mask(mask)
+                .x(entity.getX())
+                .y(entity.getY())
+                .z(entity.getZ())
+                .hp(entity.getHp())
+                .build();
+    }
+
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    /*
+     * bytes the delta takes once written
+     */
+    public int getSize() {
+        return Long.BYTES * 2 + 1
+                + (has(mask, X) ? Long.BYTES : 0)
+                + (has(mask, Y) ? Long.BYTES : 0)
+                + (has(mask, Z) ? Long.BYTES : 0)
+                + (has(mask, HP) ? Integer.BYTES : 0);
+    }
+
+    /*
+     * fields left out of the mask are taken from the baseline, a delta without
+     * baseline has to carry every field
+     */
+    public SnapshotEntity apply(SnapshotEntity baseline) {
+        if (Objects.isNull(baseline) && mask != ALL) {
+            throw new SnapshotBaselineNotFoundException("Baseline of entity %s not found", instanceId);
+        }
+
+        return SnapshotEntity.builder()
+                .instanceId(instanceId)
+                .x(has(mask, X) ? x : baseline.getX())
+                .y(has(mask, Y) ? y : baseline.getY())
+                .z(has(mask, Z) ? z : baseline.getZ())
+                .hp(has(mask, HP) ? hp : baseline.getHp())
+                .build();
+    }
+
+    public void write(PacketWriter writer) {
+        writer.writeUUID(instanceId);
+        writer.write(mask);
+
+        if (has(mask, X)) {
+            writer.writeLong(x);
+        }
+
+        if (has(mask, Y)) {
+            writer.writeLong(y);
+        }
+
+        if (has(mask, Z)) {
+            writer.writeLong(z);
+        }
+
+        if (has(mask, HP)) {
+            writer.writeInt(hp);
+        }
+    }
+
+    public static SnapshotDelta read(PacketReader reader) {
+        UUID instanceId = reader.readUUID();
+        int mask = reader.read();
+
+        return SnapshotDelta.builder()
+                .instanceId(instanceId)
+                .mask(mask)
+                .x(has(mask, X) ? reader.readLong() : 0)
+                .y(has(mask, Y) ? reader.readLong() : 0)
+                .z(has(mask, Z) ? reader.readLong() : 0)
+                .hp(has(mask, HP) ? reader.readInt() : 0)
+                .build();
+    }
+
+    private static boolean has(int mask, int field) {
+        return (mask & field) != 0;
+    }
+}
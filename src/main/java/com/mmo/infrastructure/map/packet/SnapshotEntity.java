@@ -0,0 +1,85 @@
+package com.mmo.infrastructure.map.packet;
+
+import java.util.UUID;
+
+import com.mmo.core.animate.Animate;
+import com.mmo.core.animate.StoredAnimate;
+import com.mmo.core.map.MapEntity;
+import com.mmo.core.map.Position;
+import com.mmo.infrastructure.map.MapGhost;
+import com.mmo.infrastructure.server.PacketReader;
+import com.mmo.infrastructure.server.PacketWriter;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+@Getter
+@EqualsAndHashCode
+@ToString
+public class SnapshotEntity {
+
+    private final UUID instanceId;
+    private final long x;
+    private final long y;
+    private final long z;
+    private final int hp;
+
+    @Builder
+    private SnapshotEntity(@NonNull UUID instanceId, long x, long y, long z, int hp) {
+        this.instanceId = instanceId;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.hp = hp;
+    }
+
+    public static SnapshotEntity of(MapEntity entity) {
+        Position position = entity.getPosition();
+        int hp = getHP(entity);
+
+        return SnapshotEntity.builder()
+                .instanceId(entity.getInstanceId())
+                .x(position.getX())
+                .y(position.getY())
+                .z(position.getZ())
+                .hp(hp)
+                .build();
+    }
+
+    private static int getHP(MapEntity entity) {
+        if (entity instanceof Animate) {
+            return ((Animate) entity).getAttributes().getFinalHP();
+        }
+
+        if (entity instanceof StoredAnimate) {
+            return ((StoredAnimate) entity).getHP();
+        }
+
+        if (entity instanceof MapGhost) {
+            return ((MapGhost) entity).getHp();
+        }
+
+        return 0;
+    }
+
+    public void write(PacketWriter writer) {
+        writer.writeUUID(instanceId);
+        writer.writeLong(x);
+        writer.writeLong(y);
+        writer.writeLong(z);
+        writer.writeInt(hp);
+    }
+
+    public static SnapshotEntity read(PacketReader reader) {
+        return SnapshotEntity.builder()
+                .instanceId(reader.readUUID())
+                .x(reader.readLong())
+                .y(reader.readLong())
+                .z(reader.readLong())
+                .hp(reader.readInt())
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.mmo.infrastructure.map.packet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import com.mmo.infrastructure.server.Packet;
+import com.mmo.infrastructure.server.PacketBuilder;
+import com.mmo.infrastructure.server.PacketFactory;
+import com.mmo.infrastructure.server.PacketReader;
+import com.mmo.infrastructure.server.PacketWriter;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@EqualsAndHashCode
+@ToString
+public class SnapshotPacket implements Packet {
+
+    public static final String ALIAS = "SNAPSHOT";
+
+    public static final int NO_BASELINE = 0;
+
+    private final UUID source;
+    private final int sequence;
+    private final int baseline;
+    private final List<SnapshotDelta> entities;
+    private final List<UUID> removed;
+    private final List<Packet> events;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final List<byte[]> eventBytes;
+
+    protected SnapshotPacket(
+            UUID source,
+            int sequence,
+            int baseline,
+            List<SnapshotDelta> entities,
+            List<UUID> removed,
+            List<Packet> events) {
+
+        this(source, sequence, baseline, entities, removed, events, null);
+    }
+
+    /*
+     * the bytes of the events, one entry per event, when the caller has
+     * serialized them already
+     */
+    protected SnapshotPacket(
+            UUID source,
+            int sequence,
+            int baseline,
+            List<SnapshotDelta> entities,
+            List<UUID> removed,
+            List<Packet> events,
+            List<byte[]> eventBytes) {
+
+        this.source = source;
+        this.sequence = sequence;
+        this.baseline = baseline;
+        this.entities = Collections.unmodifiableList(entities);
+        this.removed = Collections.unmodifiableList(removed);
+        this.events = Collections.unmodifiableList(events);
+        this.eventBytes = eventBytes;
+    }
+
+    public boolean isFull() {
+        return baseline == NO_BASELINE;
+    }
+
+    public static SnapshotPacketBuilder builder() {
+        return new SnapshotPacketBuilder();
+    }
+
+    @Override
+    public String getAlias() {
+        return ALIAS;
+    }
+
+    @Override
+    public byte[] toBytes() {
+        try (PacketWriter writer = new PacketWriter()) {
+            writer.writeInt(sequence);
+            writer.writeInt(baseline);
+
+            writer.writeInt(entities.size());
+            entities.forEach(entity -> entity.write(writer));
+
+            writer.writeInt(removed.size());
+            removed.forEach(writer::writeUUID);
+
+            writer.writeInt(events.size());
+
+            for (int i = 0; i < events.size(); i++) {
+                Packet event = events.get(i);
+                byte[] bytes = Objects.isNull(eventBytes) ? event.toBytes() : eventBytes.get(i);
+
+                writer.writeUUID(event.getAliasAsUUID());
+                writer.writeUUID(event.getSource());
+                writer.writeInt(bytes.length);
+                writer.write(bytes);
+            }
+
+            return writer.toBytes();
+        }
+    }
+
+    public static class SnapshotPacketBuilder implements PacketBuilder<SnapshotPacket> {
+
+        public SnapshotPacket build(
+                UUID source,
+                int sequence,
+                int baseline,
+                List<SnapshotDelta> entities,
+                List<UUID> removed,
+                List<Packet> events) {
+
+            return new SnapshotPacket(source, sequence, baseline, entities, removed, events);
+        }
+
+        public SnapshotPacket build(
+                UUID source,
+                int sequence,
+                int baseline,
+                List<SnapshotDelta> entities,
+                List<UUID> removed,
+                List<Packet> events,
+                List<byte[]> eventBytes) {
+
+            return new SnapshotPacket(source, sequence, baseline, entities, removed, events, eventBytes);
+        }
+
+        @Override
+        public SnapshotPacket build(UUID source, byte[] bytes) {
+            try (PacketReader reader = new PacketReader(bytes)) {
+                int sequence = reader.readInt();
+                int baseline = reader.readInt();
+                int entitiesSize = reader.readInt();
+                List<SnapshotDelta> entities = new ArrayList<>(entitiesSize);
+
+                for (int i = 0; i < entitiesSize; i++) {
+                    entities.add(SnapshotDelta.read(reader));
+                }
+
+                int removedSize = reader.readInt();
+                List<UUID> removed = new ArrayList<>(removedSize);
+
+                for (int i = 0; i < removedSize; i++) {
+                    removed.add(reader.readUUID());
+                }
+
+                int eventsSize = reader.readInt();
+                List<Packet> events = new ArrayList<>(eventsSize);
+                List<byte[]> eventBytes = new ArrayList<>(eventsSize);
+
+                for (int i = 0; i < eventsSize; i++) {
+                    UUID alias = reader.readUUID();
+                    UUID eventSource = reader.readUUID();
+                    byte[] event = reader.read(reader.readInt());
+
+                    events.add(PacketFactory.getInstance().getPacket(alias, eventSource, event));
+                    eventBytes.add(event);
+                }
+
+                return new SnapshotPacket(source, sequence, baseline, entities, removed, events, eventBytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.mmo.infrastructure.map.packet;
+
+import java.util.UUID;
+
+import com.mmo.infrastructure.server.Packet;
+import com.mmo.infrastructure.server.PacketBuilder;
+import com.mmo.infrastructure.server.PacketReader;
+import com.mmo.infrastructure.server.PacketWriter;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@EqualsAndHashCode
+@ToString
+public class SpawnPacket implements Packet {
+
+    public static final String ALIAS = "SPAWN";
+
+    private final UUID source;
+    private final SnapshotEntity entity;
+
+    protected SpawnPacket(UUID source, SnapshotEntity entity) {
+        this.source = source;
+        this.entity = entity;
+    }
+
+    public static SpawnPacketBuilder builder() {
+        return new SpawnPacketBuilder();
+    }
+
+    @Override
+    public String getAlias() {
+        return ALIAS;
+    }
+
+    @Override
+    public byte[] toBytes() {
+        try (PacketWriter writer = new PacketWriter()) {
+            entity.write(writer);
+            return writer.toBytes();
+        }
+    }
+
+    public static class SpawnPacketBuilder implements PacketBuilder<SpawnPacket> {
+
+        public SpawnPacket build(SnapshotEntity entity) {
+            return new SpawnPacket(entity.getInstanceId(), entity);
+        }
+
+        @Override
+        public SpawnPacket build(UUID source, byte[] bytes) {
+            try (PacketReader reader = new PacketReader(bytes)) {
+                SnapshotEntity entity = SnapshotEntity.read(reader);
+                return new SpawnPacket(source, entity);
+            }
+        }
+    }
+}
@@ -1,87 +1,158 @@
 package com.mmo.infrastructure.server;
 
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
-import com.mmo.core.security.Decryptor;
-import com.mmo.core.security.Encryptor;
+import com.mmo.core.security.ChannelCipher;
+import com.mmo.core.security.ChannelHandshake;
 import com.mmo.core.security.TokenData;
+import com.mmo.core.security.TokenSigner;
+import com.mmo.infrastructure.server.transport.SocketTransport;
+import com.mmo.infrastructure.server.transport.Transport;
+import com.mmo.infrastructure.server.transport.TransportConnection;
 
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 import lombok.ToString;
 
-@EqualsAndHashCode
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString
 public class Client {
 
+    public static final int DEFAULT_RECEIVE_BUDGET = 4 * 1024 * 1024;
+    public static final int DEFAULT_HANDSHAKE_TIMEOUT_IN_MILLIS = 10_000;
+
+    private static final int ALIAS_SIZE = Long.BYTES * 2;
+
+    /*
+     * every client shares these pools, a client only holds a thread while it has
+     * packets to write or bytes to decode. connections unable to tell when bytes
+     * arrive keep one thread blocked reading them
+     */
+    private static final ExecutorService SENDING_POOL = Executors.newCachedThreadPool(daemonThreads("client-sender"));
+    private static final ExecutorService RECEIVING_POOL = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), daemonThreads("client-receiver"));
+    private static final ExecutorService BLOCKING_RECEIVING_POOL =
+            Executors.newCachedThreadPool(daemonThreads("client-blocking-receiver"));
+
+    @EqualsAndHashCode.Include
     private final UUID id = UUID.randomUUID();
-    private final Socket socket;
-    private final Encryptor encryptor;
-    private final Decryptor decryptor;
+    private final TransportConnection connection;
+    private final TokenSigner tokenSigner;
+    private final TokenSigner tokenVerifier;
     private final DataInputStream inputStream;
     private final DataOutputStream outputStream;
     private final Consumer<Client> onDisconnect;
     private final ClientPacketSendSubscriber sendSubscriber;
     private final ClientPacketReceiveSubscriber receiveSubscriber;
+    private final PacketCapture capture;
+    private final FrameBufferPool bufferPool;
+    private final FrameMetrics frameMetrics;
+    private final FrameDecoder decoder;
+    private final int handshakeTimeout;
     private final BlockingQueue<Packet> sendingQueue = new LinkedBlockingQueue<>();
-    private final ExecutorService sendingPool = Executors.newSingleThreadExecutor();
-    private final ExecutorService receivingPool = Executors.newSingleThreadExecutor();
-    private boolean connected;
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final AtomicBoolean receiving = new AtomicBoolean();
+    private ChannelCipher sendingCipher;
+    private ChannelCipher receivingCipher;
+    private List<Packet> receivedPackets = new ArrayList<>();
+    private volatile boolean connected;
 
     @Builder(builderMethodName = "serverBuilder", buildMethodName = "serverBuild")
     private Client(
-            @NonNull Socket socket,
-            @NonNull Encryptor encryptor,
-            @NonNull Decryptor decryptor,
+            @NonNull TransportConnection connection,
+            @NonNull String tokenKey,
             Consumer<Client> onDisconnect,
             ClientPacketSendSubscriber sendSubscriber,
-            ClientPacketReceiveSubscriber receiveSubscriber) {
-
-        this.socket = socket;
-        this.encryptor = encryptor;
-        this.decryptor = decryptor;
+            ClientPacketReceiveSubscriber receiveSubscriber,
+            PacketCapture capture,
+            String channelKey,
+            FrameBufferPool bufferPool,
+            FrameMetrics frameMetrics,
+            Integer receiveBudget,
+            Integer handshakeTimeout) {
+
+        this.connection = connection;
+        this.tokenSigner = TokenSigner.builder().key(tokenKey).build();
+        this.tokenVerifier = TokenSigner.builder().key(tokenKey).build();
         this.inputStream = getDataInputStream();
         this.outputStream = getDataOutputStream();
         this.onDisconnect = onDisconnect;
         this.sendSubscriber = sendSubscriber;
         this.receiveSubscriber = receiveSubscriber;
+        this.capture = capture;
+        this.bufferPool = Objects.isNull(bufferPool) ? FrameBufferPool.builder().build() : bufferPool;
+        this.frameMetrics = Objects.isNull(frameMetrics) ? new FrameMetrics() : frameMetrics;
+        this.decoder = FrameDecoder.builder()
+                .bufferPool(this.bufferPool)
+                .metrics(this.frameMetrics)
+                .budget(receiveBudget)
+                .build();
+        this.handshakeTimeout = Objects.isNull(handshakeTimeout)
+                ? DEFAULT_HANDSHAKE_TIMEOUT_IN_MILLIS
+                : handshakeTimeout;
         this.connected = true;
 
-        startPools();
+        handshake(channelKey, false);
+        startReceiving();
     }
 
     @Builder(builderMethodName = "clientBuilder", buildMethodName = "clientBuild")
     private Client(
             @NonNull String host,
             @NonNull Integer port,
-            @NonNull Encryptor encryptor,
-            @NonNull Decryptor decryptor,
+            @NonNull String tokenKey,
             Consumer<Client> onDisconnect,
             ClientPacketSendSubscriber sendSubscriber,
-            ClientPacketReceiveSubscriber receiveSubscriber) {
-
-        this.socket = connect(host, port);
-        this.encryptor = encryptor;
-        this.decryptor = decryptor;
+            ClientPacketReceiveSubscriber receiveSubscriber,
+            String channelKey,
+            Transport transport,
+            FrameBufferPool bufferPool,
+            FrameMetrics frameMetrics,
+            Integer receiveBudget,
+            Integer handshakeTimeout) {
+
+        this.connection = connect(Objects.isNull(transport) ? new SocketTransport() : transport, host, port);
+        this.tokenSigner = TokenSigner.builder().key(tokenKey).build();
+        this.tokenVerifier = TokenSigner.builder().key(tokenKey).build();
         this.inputStream = getDataInputStream();
         this.outputStream = getDataOutputStream();
         this.onDisconnect = onDisconnect;
         this.sendSubscriber = sendSubscriber;
         this.receiveSubscriber = receiveSubscriber;
+        this.capture = null;
+        this.bufferPool = Objects.isNull(bufferPool) ? FrameBufferPool.builder().build() : bufferPool;
+        this.frameMetrics = Objects.isNull(frameMetrics) ? new FrameMetrics() : frameMetrics;
+        this.decoder = FrameDecoder.builder()
+                .bufferPool(this.bufferPool)
+                .metrics(this.frameMetrics)
+                .budget(receiveBudget)
+                .build();
+        this.handshakeTimeout = Objects.isNull(handshakeTimeout)
+                ? DEFAULT_HANDSHAKE_TIMEOUT_IN_MILLIS
+                : handshakeTimeout;
         this.connected = true;
 
-        startPools();
+        handshake(channelKey, true);
+        startReceiving();
     }
 
     public UUID getId() {
@@ -92,6 +163,10 @@ public class Client {
         return connected;
     }
 
+    public FrameMetrics getFrameMetrics() {
+        return frameMetrics;
+    }
+
     private Optional<Consumer<Client>> getOnDisconnect() {
         return Optional.ofNullable(onDisconnect);
     }
@@ -104,9 +179,21 @@ public class Client {
         return Optional.ofNullable(receiveSubscriber);
     }
 
+    private Optional<PacketCapture> getCapture() {
+        return Optional.ofNullable(capture);
+    }
+
+    private Optional<ChannelCipher> getSendingCipher() {
+        return Optional.ofNullable(sendingCipher);
+    }
+
+    private Optional<ChannelCipher> getReceivingCipher() {
+        return Optional.ofNullable(receivingCipher);
+    }
+
     private DataInputStream getDataInputStream() {
         try {
-            return new DataInputStream(socket.getInputStream());
+            return new DataInputStream(connection.getInputStream());
         } catch (Exception exception) {
             throw new ClientConnectException(exception, "Failed to get input stream");
         }
@@ -114,102 +201,390 @@ public class Client {
 
     private DataOutputStream getDataOutputStream() {
         try {
-            return new DataOutputStream(socket.getOutputStream());
+            return new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
         } catch (Exception exception) {
             throw new ClientConnectException(exception, "Failed to get output stream");
         }
     }
 
-    private Socket connect(String host, Integer port) {
+    private TransportConnection connect(Transport transport, String host, Integer port) {
         try {
-            return new Socket(host, port);
+            return transport.connect(host, port);
         } catch (Exception exception) {
-            throw new ClientConnectException(exception, "Failed to create socket");
+            throw new ClientConnectException(exception, "Failed to connect to %s:%s", host, port);
         }
     }
 
+    /*
+     * a peer connecting and saying nothing must not hold the thread setting
+     * it up, the reads of the handshake give up after the handshake timeout
+     */
+    private void handshake(String channelKey, boolean initiator) {
+        if (Objects.isNull(channelKey)) {
+            return;
+        }
+
+        ChannelHandshake handshake = ChannelHandshake.builder()
+                .key(channelKey)
+                .initiator(initiator)
+                .build();
+
+        try {
+            connection.setReadTimeout(handshakeTimeout);
+            outputStream.write(handshake.getNonce());
+            outputStream.flush();
+
+            byte[] peerNonce = new byte[ChannelHandshake.NONCE_SIZE];
+            inputStream.readFully(peerNonce);
+            connection.setReadTimeout(0);
+
+            sendingCipher = handshake.newSendingCipher(peerNonce);
+            receivingCipher = handshake.newReceivingCipher(peerNonce);
+        } catch (Exception exception) {
+            throw new ClientConnectException(exception, "Failed to handshake channel");
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+
+            thread.setDaemon(true);
+
+            return thread;
+        };
+    }
+
+    /*
+     * sending and receiving both end up here when the connection dies, only the
+     * first call tears the connection down so the callback runs once. closing
+     * the connection fails whatever write or read is still blocked on it
+     */
     public void disconnect() {
+        synchronized (connection) {
+            if (!connected) {
+                return;
+            }
+
+            connected = false;
+        }
+
         try {
-            socket.close();
+            connection.close();
         } catch (Exception exception) {
-            throw new ClientDisconnectException(exception, "Failed to close socket");
+            throw new ClientDisconnectException(exception, "Failed to close connection");
         } finally {
-            connected = false;
             getOnDisconnect().ifPresent(consumer -> consumer.accept(this));
         }
     }
 
     public void send(Packet packet) {
         sendingQueue.add(packet);
+        scheduleSend();
     }
 
-    private void startPools() {
-        sendingPool.execute(this::send);
-        receivingPool.execute(this::receive);
-
+    private void scheduleSend() {
+        if (connected && sending.compareAndSet(false, true)) {
+            SENDING_POOL.execute(this::send);
+        }
     }
 
+    /*
+     * every run drains whatever piled up in the queue meanwhile, so bursts go out
+     * in envelopes and reach the transport with a single flush. one run at a time
+     * per client, a packet queued while it finishes schedules the next one
+     */
     private void send() {
-        Packet packet;
+        List<Packet> packets = new ArrayList<>();
 
         try {
-            while ((packet = sendingQueue.take()) != null) {
-                sendPacket(packet);
+            while (sendingQueue.drainTo(packets, PacketEnvelope.MAX_PACKETS) > 0) {
+                sendPackets(packets);
+                packets.clear();
             }
         } catch (Exception exception) {
-            throw new ClientSendException(exception, "Failed to send packet");
-        } finally {
+            boolean failed = connected;
+
             disconnect();
+
+            if (failed) {
+                throw new ClientSendException(exception, "Failed to send packet");
+            }
+
+            return;
+        }
+
+        sending.set(false);
+
+        if (!sendingQueue.isEmpty()) {
+            scheduleSend();
         }
     }
 
+    private void startReceiving() {
+        decoder.setFrameOverhead(
+                TokenSigner.TOKEN_SIZE + (Objects.isNull(receivingCipher) ? 0 : ChannelCipher.TAG_SIZE));
+
+        if (connection.setReadListener(this::scheduleReceive)) {
+            scheduleReceive();
+        } else {
+            BLOCKING_RECEIVING_POOL.execute(this::receive);
+        }
+    }
+
+    private void scheduleReceive() {
+        if (receiving.compareAndSet(false, true)) {
+            RECEIVING_POOL.execute(this::receiveAvailable);
+        }
+    }
+
+    /*
+     * only reads what already arrived so the pool thread never waits, the
+     * connection calls the listener again when more does. one run at a time per
+     * client, bytes arriving while it finishes schedule the next one
+     */
+    private void receiveAvailable() {
+        try {
+            int available;
+
+            while ((available = connection.available()) != 0) {
+                if (available < 0) {
+                    decoder.release();
+                    disconnect();
+                    return;
+                }
+
+                decoder.read(inputStream);
+                decodeReceived();
+            }
+
+            receiving.set(false);
+
+            if (connection.available() != 0) {
+                scheduleReceive();
+            }
+        } catch (Exception exception) {
+            boolean failed = connected;
+
+            decoder.release();
+            disconnect();
+
+            if (failed) {
+                throw new ClientReadException(exception, "Failed to receive packet");
+            }
+        }
+    }
+
+    /*
+     * the blocking counterpart of receiveAvailable, holding its thread for as
+     * long as the connection lives
+     */
     private void receive() {
         try {
-            while (true) {
-                receivePacket();
+            while (decoder.read(inputStream) >= 0) {
+                decodeReceived();
             }
         } catch (Exception exception) {
-            throw new ClientReadException(exception, "Failed to receive packet");
+            if (connected) {
+                throw new ClientReadException(exception, "Failed to receive packet");
+            }
         } finally {
+            decoder.release();
             disconnect();
         }
     }
 
-    private void sendPacket(Packet packet) throws IOException {
-        byte[] bytes = packet.toBytes();
-        UUID source = packet.getSource();
-        UUID alias = packet.getAliasAsUUID();
-        String token = encryptor.encrypt(TokenData.create(source).getToken());
+    /*
+     * every read may carry several frames, the packets decoded from it are
+     * handed to the subscriber as one batch
+     */
+    private void decodeReceived() {
+        decoder.decode(this::receiveFrame);
+
+        if (!receivedPackets.isEmpty()) {
+            List<Packet> packets = receivedPackets;
+            receivedPackets = new ArrayList<>();
+
+            getReceiveSubscriber().ifPresent(subscriber -> subscriber.onReceive(this, packets));
+        }
+    }
+
+    private void sendPackets(List<Packet> packets) throws IOException {
+        if (packets.size() == 1) {
+            writeFrame(packets.get(0).getAliasAsUUID(), toFrame(packets.get(0)));
+        } else {
+            sendEnvelopes(packets);
+        }
+
+        outputStream.flush();
+
+        getSendSubscriber().ifPresent(subscriber -> packets.forEach(packet -> subscriber.onSend(this, packet)));
+    }
+
+    /*
+     * packets are appended to the open envelope until it would outgrow the
+     * envelope size or the source changes, the token signs the source of every
+     * entry. a packet too big for any envelope keeps its own frame
+     */
+    private void sendEnvelopes(List<Packet> packets) throws IOException {
+        PacketWriter envelope = null;
+        UUID envelopeSource = null;
+        int envelopeSize = 0;
+
+        for (Packet packet : packets) {
+            byte[] bytes = packet.toBytes();
+            int entrySize = PacketEnvelope.ENTRY_HEADER_SIZE + bytes.length;
+
+            if (Objects.nonNull(envelope) && (envelopeSize + entrySize > PacketEnvelope.MAX_SIZE
+                    || !envelopeSource.equals(packet.getSource()))) {
+                writeFrame(PacketEnvelope.ALIAS, envelope.toBytes());
+                envelope.close();
+                envelope = null;
+            }
 
-        outputStream.writeUTF(token);
+            if (TokenSigner.TOKEN_SIZE + entrySize > PacketEnvelope.MAX_SIZE) {
+                writeFrame(packet.getAliasAsUUID(), toFrame(packet.getSource(), bytes));
+                continue;
+            }
+
+            if (Objects.isNull(envelope)) {
+                envelope = new PacketWriter();
+                envelope.write(tokenSigner.sign(TokenData.create(packet.getSource())));
+                envelopeSource = packet.getSource();
+                envelopeSize = TokenSigner.TOKEN_SIZE;
+            }
+
+            envelope.writeUUID(packet.getAliasAsUUID());
+            envelope.writeInt(bytes.length);
+            envelope.write(bytes);
+            envelopeSize += entrySize;
+        }
+
+        if (Objects.nonNull(envelope)) {
+            writeFrame(PacketEnvelope.ALIAS, envelope.toBytes());
+            envelope.close();
+        }
+    }
+
+    private void writeFrame(UUID alias, byte[] frame) throws IOException {
+        byte[] sealedFrame = getSendingCipher()
+                .map(cipher -> cipher.encrypt(frame, toBytes(alias)))
+                .orElse(frame);
+
+        outputStream.writeInt(sealedFrame.length);
         outputStream.writeLong(alias.getMostSignificantBits());
         outputStream.writeLong(alias.getLeastSignificantBits());
-        outputStream.writeInt(bytes.length);
-        outputStream.write(bytes);
+        outputStream.write(sealedFrame);
+    }
 
-        getSendSubscriber().ifPresent(subscriber -> subscriber.onSend(this, packet));
+    private byte[] toFrame(Packet packet) {
+        return toFrame(packet.getSource(), packet.toBytes());
     }
 
-    private void receivePacket() throws IOException {
-        String token = decryptor.decrypt(inputStream.readUTF());
-        long aliasHigh = inputStream.readLong();
-        long aliasLow = inputStream.readLong();
-        int size = inputStream.readInt();
+    private byte[] toFrame(UUID source, byte[] bytes) {
+        byte[] frame = new byte[TokenSigner.TOKEN_SIZE + bytes.length];
 
-        TokenData tokenData = TokenData.parse(token);
+        tokenSigner.sign(TokenData.create(source), frame, 0);
+        System.arraycopy(bytes, 0, frame, TokenSigner.TOKEN_SIZE, bytes.length);
 
-        if (tokenData.isExpired()) {
-            throw new ClientReadException("Token is expired %s", tokenData);
+        return frame;
+    }
+
+    private void receiveFrame(int packetId, UUID alias, byte[] aliasBytes, byte[] buffer, int offset, int length) {
+        if (Objects.isNull(receivingCipher)) {
+            receiveFrame(packetId, alias, buffer, offset, length);
+            return;
         }
 
-        UUID source = tokenData.getSource();
-        UUID alias = new UUID(aliasHigh, aliasLow);
+        byte[] frame = decoder.acquireWorkingBuffer(length);
 
-        byte[] bytes = new byte[size];
-        inputStream.readFully(bytes);
+        try {
+            int frameLength = receivingCipher.decrypt(buffer, offset, length, aliasBytes, frame, 0);
+            receiveFrame(packetId, alias, frame, 0, frameLength);
+        } finally {
+            decoder.releaseWorkingBuffer(frame);
+        }
+    }
+
+    private void receiveFrame(int packetId, UUID alias, byte[] frame, int offset, int length) {
+        if (!tokenVerifier.verify(frame, offset)) {
+            throw new ClientReadException("Token signature is invalid");
+        }
+
+        if (TokenSigner.isExpired(frame, offset)) {
+            throw new ClientReadException("Token is expired %s", TokenData.read(frame, offset));
+        }
+
+        UUID source = TokenSigner.getSource(frame, offset);
+
+        if (packetId == PacketEnvelope.ID) {
+            receiveEnvelope(source, frame, offset + TokenSigner.TOKEN_SIZE, length - TokenSigner.TOKEN_SIZE);
+            return;
+        }
+
+        byte[] bytes = Arrays.copyOfRange(frame, offset + TokenSigner.TOKEN_SIZE, offset + length);
+
+        getCapture().ifPresent(capture -> capture.record(id, source, alias, bytes));
+
+        receivedPackets.add(PacketFactory.getInstance().getPacket(packetId, source, bytes));
+    }
+
+    /*
+     * one token covers the whole envelope and gives every entry its source,
+     * every entry is still bounded by the max size of its own packet type
+     */
+    private void receiveEnvelope(UUID source, byte[] frame, int offset, int length) {
+        PacketFactory factory = PacketFactory.getInstance();
+        int remaining = length;
+
+        frameMetrics.enveloped();
 
-        Packet packet = PacketFactory.getInstance().getPacket(alias, source, bytes);
+        try (PacketReader reader = new PacketReader(frame, offset, length)) {
+            while (remaining > 0) {
+                if (remaining < PacketEnvelope.ENTRY_HEADER_SIZE) {
+                    throw rejectEntry("Envelope entry header truncated to %s bytes", remaining);
+                }
+
+                UUID alias = reader.readUUID();
+                int size = reader.readInt();
+                int packetId = getEnvelopedPacketId(alias);
+
+                remaining -= PacketEnvelope.ENTRY_HEADER_SIZE;
+
+                if (size < 0 || size > remaining || size > factory.getMaxSize(packetId)) {
+                    throw rejectEntry("Envelope entry of %s bytes out of bounds for alias %s", size, alias);
+                }
+
+                byte[] bytes = reader.read(size);
+                remaining -= size;
+
+                getCapture().ifPresent(capture -> capture.record(id, source, alias, bytes));
+
+                receivedPackets.add(factory.getPacket(packetId, source, bytes));
+            }
+        }
+    }
+
+    private int getEnvelopedPacketId(UUID alias) {
+        try {
+            return PacketFactory.getInstance().getId(alias);
+        } catch (PacketBuilderNotFoundException exception) {
+            frameMetrics.rejected();
+            throw exception;
+        }
+    }
+
+    private ClientFrameRejectedException rejectEntry(String messageFormat, Object... arguments) {
+        frameMetrics.rejected();
+        return new ClientFrameRejectedException(messageFormat, arguments);
+    }
 
-        getReceiveSubscriber().ifPresent(subscriber -> subscriber.onReceive(this, packet));
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(ALIAS_SIZE)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
     }
 }
@@ -0,0 +1,10 @@
+package com.mmo.infrastructure.server;
+
+public class ClientFrameRejectedException extends ClientException {
+
+    private static final long serialVersionUID = 2247910632711875370L;
+
+    public ClientFrameRejectedException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+}
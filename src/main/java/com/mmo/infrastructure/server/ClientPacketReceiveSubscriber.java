@@ -1,7 +1,17 @@
 package com.mmo.infrastructure.server;
 
+import java.util.List;
+
 @FunctionalInterface
 public interface ClientPacketReceiveSubscriber {
 
     void onReceive(Client client, Packet packet);
+
+    /*
+     * packets decoded from the same read arrive together, subscribers able to
+     * handle them as a batch override this instead of paying a call per packet
+     */
+    default void onReceive(Client client, List<Packet> packets) {
+        packets.forEach(packet -> onReceive(client, packet));
+    }
 }
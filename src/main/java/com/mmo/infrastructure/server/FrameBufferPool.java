@@ -0,0 +1,90 @@
+package com.mmo.infrastructure.server;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Builder;
+import lombok.ToString;
+
+@ToString
+public class FrameBufferPool {
+
+    private static final int MIN_SIZE_SHIFT = 8;
+    private static final int DEFAULT_MAX_POOLED_SIZE = 64 * 1024;
+    private static final int DEFAULT_MAX_BUFFERS_PER_SIZE = 64;
+
+    private final int maxPooledSize;
+    private final int maxBuffersPerSize;
+    private final Queue<byte[]>[] buffers;
+    private final AtomicInteger[] counts;
+
+    @Builder
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private FrameBufferPool(Integer maxPooledSize, Integer maxBuffersPerSize) {
+        this.maxPooledSize = Integer.highestOneBit(
+                Objects.isNull(maxPooledSize) ? DEFAULT_MAX_POOLED_SIZE : maxPooledSize);
+        this.maxBuffersPerSize = Objects.isNull(maxBuffersPerSize) ? DEFAULT_MAX_BUFFERS_PER_SIZE : maxBuffersPerSize;
+
+        int sizes = getSizeIndex(this.maxPooledSize) + 1;
+
+        buffers = new Queue[sizes];
+        counts = new AtomicInteger[sizes];
+
+        for (int i = 0; i < sizes; i++) {
+            buffers[i] = new ConcurrentLinkedQueue<>();
+            counts[i] = new AtomicInteger();
+        }
+    }
+
+    public int getMaxPooledSize() {
+        return maxPooledSize;
+    }
+
+    /*
+     * returns a buffer of at least the given size, buffers are size classed by
+     * powers of two so any released buffer can serve any request of its class
+     */
+    public byte[] acquire(int size) {
+        if (size > maxPooledSize) {
+            return new byte[size];
+        }
+
+        int index = getSizeIndex(size);
+        byte[] buffer = buffers[index].poll();
+
+        if (Objects.isNull(buffer)) {
+            return new byte[1 << (index + MIN_SIZE_SHIFT)];
+        }
+
+        counts[index].decrementAndGet();
+
+        return buffer;
+    }
+
+    public boolean release(byte[] buffer) {
+        int length = buffer.length;
+
+        if (length > maxPooledSize || length < (1 << MIN_SIZE_SHIFT) || Integer.bitCount(length) != 1) {
+            return false;
+        }
+
+        int index = getSizeIndex(length);
+
+        if (counts[index].incrementAndGet() > maxBuffersPerSize) {
+            counts[index].decrementAndGet();
+            return false;
+        }
+
+        buffers[index].offer(buffer);
+
+        return true;
+    }
+
+    private static int getSizeIndex(int size) {
+        int shift = Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1);
+
+        return Math.max(shift - MIN_SIZE_SHIFT, 0);
+    }
+}
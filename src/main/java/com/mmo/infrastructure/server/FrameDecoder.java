@@ -0,0 +1,265 @@
+package com.mmo.infrastructure.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * reads the socket in large chunks and splits them into frames, a frame is an
+ * int length and the alias of its packet followed by length sealed bytes,
+ * incomplete frames stay in the buffer until the rest of them arrives.
+ * the budget bounds every byte the connection holds at once, the read buffer
+ * along with the working buffers its frames are decrypted into
+ */
+@ToString
+public class FrameDecoder {
+
+    public static final int HEADER_SIZE = Integer.BYTES + Long.BYTES * 2;
+
+    private static final int DEFAULT_READ_AHEAD_SIZE = 64 * 1024;
+
+    private final FrameBufferPool bufferPool;
+    private final FrameMetrics metrics;
+    private final int budget;
+    private final int readAheadSize;
+    private final byte[] aliasBytes = new byte[Long.BYTES * 2];
+    private byte[] buffer;
+    private int start;
+    private int end;
+    private int frameOverhead;
+    private int heldBytes;
+
+    @Builder
+    private FrameDecoder(
+            @NonNull FrameBufferPool bufferPool,
+            @NonNull FrameMetrics metrics,
+            Integer budget,
+            Integer readAheadSize) {
+
+        this.bufferPool = bufferPool;
+        this.metrics = metrics;
+        this.budget = Objects.isNull(budget) ? Client.DEFAULT_RECEIVE_BUDGET : budget;
+        this.buffer = bufferPool.acquire(Math.min(
+                Objects.isNull(readAheadSize) ? DEFAULT_READ_AHEAD_SIZE : readAheadSize,
+                bufferPool.getMaxPooledSize()));
+        this.readAheadSize = buffer.length;
+        this.heldBytes = buffer.length;
+    }
+
+    /*
+     * bytes a sealed frame carries besides the packet payload, used to bound
+     * the claimed length by the max size of the packet type
+     */
+    public void setFrameOverhead(int frameOverhead) {
+        this.frameOverhead = frameOverhead;
+    }
+
+    public int getBufferedBytes() {
+        return end - start;
+    }
+
+    public int getHeldBytes() {
+        return heldBytes;
+    }
+
+    /*
+     * a single read call into the free space of the buffer, returns -1 once the
+     * stream is exhausted
+     */
+    public int read(InputStream inputStream) throws IOException {
+        compact();
+
+        int count = inputStream.read(buffer, end, buffer.length - end);
+
+        if (count > 0) {
+            end += count;
+        }
+
+        return count;
+    }
+
+    /*
+     * for transports handing over their own buffers, copies as much as fits
+     * and leaves the rest in the source for the next call
+     */
+    public int feed(ByteBuffer source) {
+        compact();
+
+        int count = Math.min(source.remaining(), buffer.length - end);
+        source.get(buffer, end, count);
+        end += count;
+
+        return count;
+    }
+
+    /*
+     * hands every complete frame in the buffer to the handler, the frame bytes
+     * are only valid during the call
+     */
+    public int decode(FrameHandler handler) {
+        int frames = 0;
+        int pendingFrameSize = 0;
+
+        while (end - start >= HEADER_SIZE) {
+            int length = getInt(buffer, start);
+            System.arraycopy(buffer, start + Integer.BYTES, aliasBytes, 0, aliasBytes.length);
+
+            UUID alias = getUUID(aliasBytes);
+            int packetId = getPacketId(alias);
+
+            validate(packetId, alias, length);
+
+            int frameSize = HEADER_SIZE + length;
+
+            if (end - start < frameSize) {
+                pendingFrameSize = frameSize;
+                ensureCapacity(frameSize);
+                break;
+            }
+
+            metrics.received(length);
+            handler.onFrame(packetId, alias, aliasBytes, buffer, start + HEADER_SIZE, length);
+
+            start += frameSize;
+            frames++;
+        }
+
+        if (start == end) {
+            start = 0;
+            end = 0;
+        }
+
+        shrink(pendingFrameSize);
+
+        return frames;
+    }
+
+    /*
+     * a buffer for working on a frame during its handler call, charged to the
+     * connection until it is released
+     */
+    public byte[] acquireWorkingBuffer(int size) {
+        charge(size);
+
+        byte[] workingBuffer = bufferPool.acquire(size);
+        heldBytes += workingBuffer.length;
+
+        return workingBuffer;
+    }
+
+    public void releaseWorkingBuffer(byte[] workingBuffer) {
+        heldBytes -= workingBuffer.length;
+        bufferPool.release(workingBuffer);
+    }
+
+    public void release() {
+        heldBytes -= buffer.length;
+        bufferPool.release(buffer);
+        buffer = new byte[0];
+        start = 0;
+        end = 0;
+    }
+
+    private int getPacketId(UUID alias) {
+        if (PacketEnvelope.ALIAS.equals(alias)) {
+            return PacketEnvelope.ID;
+        }
+
+        try {
+            return PacketFactory.getInstance().getId(alias);
+        } catch (PacketBuilderNotFoundException exception) {
+            metrics.rejected();
+            throw exception;
+        }
+    }
+
+    private void validate(int packetId, UUID alias, int length) {
+        int maxSize = packetId == PacketEnvelope.ID
+                ? PacketEnvelope.MAX_SIZE
+                : PacketFactory.getInstance().getMaxSize(packetId);
+        int maxLength = maxSize + frameOverhead;
+
+        if (length < frameOverhead || length > maxLength) {
+            metrics.rejected();
+            throw new ClientFrameRejectedException("Frame of %s bytes out of bounds %s for alias %s", length, maxLength, alias);
+        }
+    }
+
+    /*
+     * frames bigger than the read ahead buffer are reassembled in a buffer
+     * that doubles as bytes arrive rather than being sized by the claimed
+     * length up front, every growth is checked against the budget
+     */
+    private void ensureCapacity(int frameSize) {
+        compact();
+
+        if (frameSize <= buffer.length || end < buffer.length) {
+            return;
+        }
+
+        int size = (int) Math.min(frameSize, buffer.length * 2L);
+
+        charge(size - buffer.length);
+
+        if (buffer.length == readAheadSize) {
+            metrics.streamed();
+        }
+
+        byte[] reassembly = buffer;
+        buffer = Arrays.copyOf(reassembly, size);
+        heldBytes += size - reassembly.length;
+        bufferPool.release(reassembly);
+    }
+
+    private void shrink(int pendingFrameSize) {
+        if (buffer.length <= readAheadSize || Math.max(end - start, pendingFrameSize) > readAheadSize) {
+            return;
+        }
+
+        byte[] readAhead = bufferPool.acquire(readAheadSize);
+        System.arraycopy(buffer, start, readAhead, 0, end - start);
+
+        end -= start;
+        start = 0;
+        heldBytes += readAhead.length - buffer.length;
+        bufferPool.release(buffer);
+        buffer = readAhead;
+    }
+
+    private void charge(int size) {
+        if ((long) heldBytes + size > budget) {
+            metrics.budgetOverflowed();
+            throw new ClientFrameRejectedException("Receive budget of %s bytes exceeded", budget);
+        }
+    }
+
+    private void compact() {
+        if (start == 0) {
+            return;
+        }
+
+        System.arraycopy(buffer, start, buffer, 0, end - start);
+        end -= start;
+        start = 0;
+    }
+
+    private static int getInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24)
+                | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8)
+                | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static UUID getUUID(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,9 @@
+package com.mmo.infrastructure.server;
+
+import java.util.UUID;
+
+@FunctionalInterface
+public interface FrameHandler {
+
+    void onFrame(int packetId, UUID alias, byte[] aliasBytes, byte[] buffer, int offset, int length);
+}
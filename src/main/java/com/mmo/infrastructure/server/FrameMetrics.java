@@ -0,0 +1,61 @@
+package com.mmo.infrastructure.server;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.ToString;
+
+@ToString
+public class FrameMetrics {
+
+    private final LongAdder receivedFrames = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+    private final LongAdder rejectedFrames = new LongAdder();
+    private final LongAdder budgetOverflows = new LongAdder();
+    private final LongAdder streamedFrames = new LongAdder();
+    private final LongAdder receivedEnvelopes = new LongAdder();
+
+    public long getReceivedFrames() {
+        return receivedFrames.sum();
+    }
+
+    public long getReceivedBytes() {
+        return receivedBytes.sum();
+    }
+
+    public long getRejectedFrames() {
+        return rejectedFrames.sum();
+    }
+
+    public long getBudgetOverflows() {
+        return budgetOverflows.sum();
+    }
+
+    public long getStreamedFrames() {
+        return streamedFrames.sum();
+    }
+
+    public long getReceivedEnvelopes() {
+        return receivedEnvelopes.sum();
+    }
+
+    void received(int bytes) {
+        receivedFrames.increment();
+        receivedBytes.add(bytes);
+    }
+
+    void rejected() {
+        rejectedFrames.increment();
+    }
+
+    void budgetOverflowed() {
+        budgetOverflows.increment();
+    }
+
+    void streamed() {
+        streamedFrames.increment();
+    }
+
+    void enveloped() {
+        receivedEnvelopes.increment();
+    }
+}
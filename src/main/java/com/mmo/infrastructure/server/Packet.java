@@ -7,7 +7,7 @@ public interface Packet {
     String getAlias();
 
     default UUID getAliasAsUUID() {
-        return UUID.nameUUIDFromBytes(getAlias().getBytes());
+        return PacketFactory.getInstance().getAliasAsUUID(this);
     }
 
     UUID getSource();
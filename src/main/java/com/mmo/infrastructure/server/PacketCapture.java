@@ -0,0 +1,117 @@
+package com.mmo.infrastructure.server;
+
+import java.io.Closeable;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.UUID;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.ToString;
+
+@ToString
+public class PacketCapture implements Closeable {
+
+    static final int RECORD_HEADER_SIZE = Long.BYTES * 7 + Integer.BYTES;
+
+    private static final int DEFAULT_REGION_SIZE = 16 * 1024 * 1024;
+
+    private final Path path;
+    private final int regionSize;
+    private final FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private boolean closed;
+
+    @Builder
+    private PacketCapture(@NonNull Path path, Integer regionSize) {
+        this.path = path;
+        this.regionSize = Objects.isNull(regionSize) ? DEFAULT_REGION_SIZE : regionSize;
+        this.channel = open(path);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public synchronized void record(UUID client, UUID source, UUID alias, byte[] bytes) {
+        if (closed) {
+            throw new PacketCaptureException("Capture %s is closed", path);
+        }
+
+        int size = RECORD_HEADER_SIZE + bytes.length;
+
+        if (Objects.isNull(region) || region.remaining() < size) {
+            map(size);
+        }
+
+        region.putLong(System.nanoTime());
+        region.putLong(client.getMostSignificantBits());
+        region.putLong(client.getLeastSignificantBits());
+        region.putLong(source.getMostSignificantBits());
+        region.putLong(source.getLeastSignificantBits());
+        region.putLong(alias.getMostSignificantBits());
+        region.putLong(alias.getLeastSignificantBits());
+        region.putInt(bytes.length);
+        region.put(bytes);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+
+        try {
+            long size = getWrittenSize();
+
+            if (Objects.nonNull(region)) {
+                region.force();
+            }
+
+            region = null;
+            channel.truncate(size);
+            channel.close();
+        } catch (Exception exception) {
+            throw new PacketCaptureException(exception, "Failed to close capture %s", path);
+        } finally {
+            closed = true;
+        }
+    }
+
+    private long getWrittenSize() {
+        return Objects.isNull(region) ? 0 : regionStart + region.position();
+    }
+
+    private void map(int minimumSize) {
+        try {
+            long start = getWrittenSize();
+
+            if (Objects.nonNull(region)) {
+                region.force();
+            }
+
+            region = channel.map(MapMode.READ_WRITE, start, Math.max(regionSize, minimumSize));
+            regionStart = start;
+        } catch (Exception exception) {
+            throw new PacketCaptureException(exception, "Failed to map capture region of %s", path);
+        }
+    }
+
+    private static FileChannel open(Path path) {
+        try {
+            return FileChannel.open(
+                    path,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        } catch (Exception exception) {
+            throw new PacketCaptureException(exception, "Failed to open capture %s", path);
+        }
+    }
+}
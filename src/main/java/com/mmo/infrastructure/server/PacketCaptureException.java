@@ -0,0 +1,14 @@
+package com.mmo.infrastructure.server;
+
+public class PacketCaptureException extends PacketException {
+
+    private static final long serialVersionUID = -2738117454927351706L;
+
+    public PacketCaptureException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+
+    public PacketCaptureException(Throwable throwable, String messageFormat, Object... arguments) {
+        super(throwable, messageFormat, arguments);
+    }
+}
@@ -0,0 +1,103 @@
+package com.mmo.infrastructure.server;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+
+/*
+ * a capture never closed still has the zeros of its last mapped region
+ * after the records, the first header with neither an alias nor a payload
+ * ends it
+ */
+public class PacketCaptureReader implements Iterator<PacketCaptureRecord>, Closeable {
+
+    private final Path path;
+    private final DataInputStream inputStream;
+    private PacketCaptureRecord next;
+    private boolean ended;
+
+    public PacketCaptureReader(Path path) {
+        this.path = path;
+        this.inputStream = open(path);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (Objects.isNull(next) && !ended) {
+            next = read();
+            ended = Objects.isNull(next);
+        }
+
+        return Objects.nonNull(next);
+    }
+
+    @Override
+    public PacketCaptureRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        PacketCaptureRecord record = next;
+        next = null;
+        return record;
+    }
+
+    @Override
+    public void close() {
+        try {
+            inputStream.close();
+        } catch (Exception exception) {
+            throw new PacketCaptureException(exception, "Failed to close capture %s", path);
+        }
+    }
+
+    private PacketCaptureRecord read() {
+        try {
+            inputStream.mark(1);
+
+            if (inputStream.read() == -1) {
+                return null;
+            }
+
+            inputStream.reset();
+
+            long timestamp = inputStream.readLong();
+            UUID client = new UUID(inputStream.readLong(), inputStream.readLong());
+            UUID source = new UUID(inputStream.readLong(), inputStream.readLong());
+            long aliasMostSignificantBits = inputStream.readLong();
+            long aliasLeastSignificantBits = inputStream.readLong();
+            int length = inputStream.readInt();
+
+            if (aliasMostSignificantBits == 0 && aliasLeastSignificantBits == 0 && length == 0) {
+                return null;
+            }
+
+            byte[] bytes = new byte[length];
+            inputStream.readFully(bytes);
+
+            return PacketCaptureRecord.builder()
+                    .timestamp(timestamp)
+                    .client(client)
+                    .source(source)
+                    .alias(new UUID(aliasMostSignificantBits, aliasLeastSignificantBits))
+                    .bytes(bytes)
+                    .build();
+        } catch (Exception exception) {
+            throw new PacketCaptureException(exception, "Failed to read capture %s", path);
+        }
+    }
+
+    private static DataInputStream open(Path path) {
+        try {
+            return new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+        } catch (Exception exception) {
+            throw new PacketCaptureException(exception, "Failed to open capture %s", path);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.mmo.infrastructure.server;
+
+import java.util.UUID;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+@Getter
+@EqualsAndHashCode
+@ToString
+public class PacketCaptureRecord {
+
+    private final long timestamp;
+    private final UUID client;
+    private final UUID source;
+    private final UUID alias;
+    private final byte[] bytes;
+
+    @Builder
+    private PacketCaptureRecord(
+            long timestamp,
+            @NonNull UUID client,
+            @NonNull UUID source,
+            @NonNull UUID alias,
+            @NonNull byte[] bytes) {
+
+        this.timestamp = timestamp;
+        this.client = client;
+        this.source = source;
+        this.alias = alias;
+        this.bytes = bytes;
+    }
+
+    public <T extends Packet> T toPacket() {
+        return PacketFactory.getInstance().getPacket(alias, source, bytes);
+    }
+}
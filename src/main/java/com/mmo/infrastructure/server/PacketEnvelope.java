@@ -0,0 +1,22 @@
+package com.mmo.infrastructure.server;
+
+import java.util.UUID;
+
+/*
+ * a frame carrying many packets of the same source back to back under a
+ * single header and token, every entry is the alias of its packet followed by
+ * the payload and takes its source from the signed token. envelopes are
+ * framing only and are never registered as packets
+ */
+final class PacketEnvelope {
+
+    static final UUID ALIAS = UUID.nameUUIDFromBytes("ENVELOPE".getBytes());
+    static final int ID = -1;
+    static final int MAX_SIZE = 256 * 1024;
+    static final int MAX_PACKETS = 1024;
+    static final int ENTRY_HEADER_SIZE = Long.BYTES * 2 + Integer.BYTES;
+
+    private PacketEnvelope() {
+
+    }
+}
@@ -1,67 +1,159 @@
 package com.mmo.infrastructure.server;
 
-import java.util.LinkedHashMap;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.ServiceLoader;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PacketFactory {
 
-    private static PacketFactory instance;
-    private final Map<UUID, PacketBuilder<? extends Packet>> builders = new LinkedHashMap<>();
+    public static final int DEFAULT_MAX_SIZE = 64 * 1024;
+
+    private static final PacketFactory instance = new PacketFactory();
+
+    private final ConcurrentHashMap<Class<?>, UUID> classAliases = new ConcurrentHashMap<>();
+    private volatile Map<UUID, Integer> ids = Map.of();
+    private volatile PacketBuilder<?>[] builders = new PacketBuilder<?>[0];
+    private volatile int[] maxSizes = new int[0];
+    private volatile boolean frozen;
 
     public static PacketFactory getInstance() {
-        if (Objects.isNull(instance)) {
-            instance = new PacketFactory();
+        return instance;
+    }
+
+    PacketFactory() {
+
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    public synchronized void freeze() {
+        frozen = true;
+    }
+
+    public synchronized void loadModules() {
+        ServiceLoader.load(PacketModule.class).forEach(module -> module.register(this));
+    }
+
+    public int getId(UUID alias) {
+        Integer id = ids.get(alias);
+
+        if (Objects.isNull(id)) {
+            throw new PacketBuilderNotFoundException("PacketBuilder not registered for alias %s", alias);
         }
 
-        return instance;
+        return id;
     }
 
-    private PacketFactory() {
+    public int getId(String alias) {
+        return getId(getAliasAsUUID(alias));
+    }
 
+    public UUID getAliasAsUUID(Packet packet) {
+        return classAliases.computeIfAbsent(packet.getClass(), type -> getAliasAsUUID(packet.getAlias()));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends Packet> PacketBuilder<T> getBuilder(int id) {
+        PacketBuilder<?>[] builders = this.builders;
+
+        if (id < 0 || id >= builders.length) {
+            throw new PacketBuilderNotFoundException("PacketBuilder not registered for id %s", id);
+        }
+
+        return (PacketBuilder<T>) builders[id];
     }
 
     public <T extends Packet> PacketBuilder<T> getBuilder(UUID alias) {
-        return Optional.ofNullable(builders.get(alias))
-                .map(builder -> this.<T>cast(builder))
-                .orElseThrow(
-                        () -> new PacketBuilderNotFoundException("PacketBuilder not registered for alias %s", alias));
+        return getBuilder(getId(alias));
     }
 
-    public <T extends Packet> void register(Packet packet, PacketBuilder<T> builder) {
-        register(packet.getAliasAsUUID(), builder);
+    /*
+     * upper bound of the serialized payload of the packet, frames claiming
+     * more are rejected before any buffer is allocated for them
+     */
+    public int getMaxSize(int id) {
+        int[] maxSizes = this.maxSizes;
+
+        if (id < 0 || id >= maxSizes.length) {
+            throw new PacketBuilderNotFoundException("PacketBuilder not registered for id %s", id);
+        }
+
+        return maxSizes[id];
     }
 
-    public <T extends Packet> void register(String alias, PacketBuilder<T> builder) {
-        register(getAliasAsUUID(alias), builder);
+    public <T extends Packet> int register(Class<T> type, String alias, PacketBuilder<T> builder) {
+        return register(type, alias, builder, DEFAULT_MAX_SIZE);
     }
 
-    public <T extends Packet> T getPacket(String alias, UUID source, byte[] bytes) {
-        return getPacket(getAliasAsUUID(alias), source, bytes);
+    public <T extends Packet> int register(Class<T> type, String alias, PacketBuilder<T> builder, int maxSize) {
+        UUID aliasAsUUID = getAliasAsUUID(alias);
+        int id = register(aliasAsUUID, builder, maxSize);
+
+        classAliases.put(type, aliasAsUUID);
+
+        return id;
     }
 
-    public <T extends Packet> void register(UUID alias, PacketBuilder<T> builder) {
-        builders.put(alias, builder);
+    public <T extends Packet> int register(Packet packet, PacketBuilder<T> builder) {
+        return register(packet.getAliasAsUUID(), builder);
     }
 
-    public <T extends Packet> T getPacket(UUID alias, UUID source, byte[] bytes) {
-        PacketBuilder<T> builder = this.<T>getBuilder(alias);
+    public <T extends Packet> int register(String alias, PacketBuilder<T> builder) {
+        return register(getAliasAsUUID(alias), builder);
+    }
 
-        return builder.build(source, bytes);
+    public <T extends Packet> int register(UUID alias, PacketBuilder<T> builder) {
+        return register(alias, builder, DEFAULT_MAX_SIZE);
     }
 
-    @SuppressWarnings("unchecked")
-    private <T extends Packet> PacketBuilder<T> cast(PacketBuilder<?> builder) {
-        try {
-            return (PacketBuilder<T>) builder;
-        } catch (Exception exception) {
-            throw new PacketBuilderCastException(exception, "Failed to cast builder");
+    public synchronized <T extends Packet> int register(UUID alias, PacketBuilder<T> builder, int maxSize) {
+        if (frozen) {
+            throw new PacketFactoryFrozenException("PacketFactory is frozen, can not register alias %s", alias);
         }
+
+        Integer id = ids.get(alias);
+
+        if (Objects.isNull(id)) {
+            id = builders.length;
+
+            Map<UUID, Integer> newIds = new HashMap<>(ids);
+            newIds.put(alias, id);
+            ids = Map.copyOf(newIds);
+        }
+
+        PacketBuilder<?>[] newBuilders = Arrays.copyOf(builders, Math.max(builders.length, id + 1));
+        newBuilders[id] = builder;
+
+        int[] newMaxSizes = Arrays.copyOf(maxSizes, newBuilders.length);
+        newMaxSizes[id] = maxSize;
+
+        maxSizes = newMaxSizes;
+        builders = newBuilders;
+
+        return id;
+    }
+
+    public <T extends Packet> T getPacket(String alias, UUID source, byte[] bytes) {
+        return getPacket(getAliasAsUUID(alias), source, bytes);
+    }
+
+    public <T extends Packet> T getPacket(UUID alias, UUID source, byte[] bytes) {
+        return getPacket(getId(alias), source, bytes);
+    }
+
+    public <T extends Packet> T getPacket(int id, UUID source, byte[] bytes) {
+        PacketBuilder<T> builder = this.<T>getBuilder(id);
+
+        return builder.build(source, bytes);
     }
 
-    private UUID getAliasAsUUID(String alias) {
+    private static UUID getAliasAsUUID(String alias) {
         return UUID.nameUUIDFromBytes(alias.getBytes());
     }
 }
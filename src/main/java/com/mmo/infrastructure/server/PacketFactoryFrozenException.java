@@ -0,0 +1,10 @@
+package com.mmo.infrastructure.server;
+
+public class PacketFactoryFrozenException extends PacketException {
+
+    private static final long serialVersionUID = -6318890514371270437L;
+
+    public PacketFactoryFrozenException(String messageFormat, Object... arguments) {
+        super(messageFormat, arguments);
+    }
+}
@@ -0,0 +1,7 @@
+package com.mmo.infrastructure.server;
+
+@FunctionalInterface
+public interface PacketModule {
+
+    void register(PacketFactory factory);
+}
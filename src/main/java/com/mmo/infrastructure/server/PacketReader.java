@@ -11,7 +11,11 @@ public class PacketReader implements Closeable {
     private DataInputStream dataInputStream;
 
     public PacketReader(byte[] bytes) {
-        byteArrayInputStream = new ByteArrayInputStream(bytes);
+        this(bytes, 0, bytes.length);
+    }
+
+    public PacketReader(byte[] bytes, int offset, int length) {
+        byteArrayInputStream = new ByteArrayInputStream(bytes, offset, length);
         dataInputStream = new DataInputStream(byteArrayInputStream);
     }
 
@@ -25,10 +29,22 @@ public class PacketReader implements Closeable {
         }
     }
 
+    public int available() {
+        return read(() -> dataInputStream.available());
+    }
+
     public int read() {
         return read(() -> dataInputStream.read());
     }
 
+    public byte[] read(int length) {
+        return read(() -> {
+            byte[] bytes = new byte[length];
+            dataInputStream.readFully(bytes);
+            return bytes;
+        });
+    }
+
     public short readShort() {
         return read(() -> dataInputStream.readShort());
     }
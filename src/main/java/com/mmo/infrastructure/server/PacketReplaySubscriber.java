@@ -0,0 +1,9 @@
+package com.mmo.infrastructure.server;
+
+import java.util.UUID;
+
+@FunctionalInterface
+public interface PacketReplaySubscriber {
+
+    void onReplay(UUID client, Packet packet);
+}
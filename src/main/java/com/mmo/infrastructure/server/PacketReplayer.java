@@ -0,0 +1,82 @@
+package com.mmo.infrastructure.server;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.ToString;
+
+@EqualsAndHashCode
+@ToString
+public class PacketReplayer {
+
+    private final Path path;
+    private final boolean realTime;
+
+    @Builder
+    private PacketReplayer(@NonNull Path path, boolean realTime) {
+        this.path = path;
+        this.realTime = realTime;
+    }
+
+    public void replay(PacketReplaySubscriber subscriber) {
+        try (PacketCaptureReader reader = new PacketCaptureReader(path)) {
+            long replayStart = System.nanoTime();
+            Long captureStart = null;
+
+            while (reader.hasNext()) {
+                PacketCaptureRecord record = reader.next();
+
+                if (Objects.isNull(captureStart)) {
+                    captureStart = record.getTimestamp();
+                }
+
+                if (realTime) {
+                    waitUntil(replayStart + (record.getTimestamp() - captureStart));
+                }
+
+                subscriber.onReplay(record.getClient(), record.toPacket());
+            }
+        }
+    }
+
+    public Collection<Client> replay(
+            @NonNull String host,
+            @NonNull Integer port,
+            @NonNull String tokenKey,
+            String channelKey) {
+
+        ConcurrentHashMap<UUID, Client> clients = new ConcurrentHashMap<>();
+
+        replay((client, packet) -> clients
+                .computeIfAbsent(client, id -> Client.clientBuilder()
+                        .host(host)
+                        .port(port)
+                        .tokenKey(tokenKey)
+                        .channelKey(channelKey)
+                        .clientBuild())
+                .send(packet));
+
+        return clients.values();
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long delay = nanoTime - System.nanoTime();
+
+        if (delay <= 0) {
+            return;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        } catch (InterruptedException exception) {
+            throw new PacketCaptureException(exception, "Replay was interrupted");
+        }
+    }
+}
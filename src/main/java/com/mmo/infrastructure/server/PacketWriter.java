@@ -33,6 +33,10 @@ public class PacketWriter implements Closeable {
         write(() -> dataOutputStream.write(value));
     }
 
+    public void write(byte[] value) {
+        write(() -> dataOutputStream.write(value));
+    }
+
     public void writeShort(short value) {
         write(() -> dataOutputStream.writeShort(value));
     }
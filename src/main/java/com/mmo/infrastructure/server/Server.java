@@ -1,13 +1,24 @@
 package com.mmo.infrastructure.server;
 
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
-import com.mmo.core.security.Decryptor;
-import com.mmo.core.security.Encryptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mmo.infrastructure.server.transport.SocketTransport;
+import com.mmo.infrastructure.server.transport.Transport;
+import com.mmo.infrastructure.server.transport.TransportConnection;
+import com.mmo.infrastructure.server.transport.TransportListener;
 
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -18,34 +29,62 @@ import lombok.ToString;
 @ToString
 public class Server {
 
+    private static final Logger logger = LoggerFactory.getLogger(Server.class);
+    private static final int DEFAULT_SETUP_THREADS = 32;
+    private static final int DEFAULT_SETUP_QUEUE_SIZE = 1024;
+    private static final long SETUP_THREAD_KEEP_ALIVE_IN_SECONDS = 60;
+
     private final Integer port;
-    private final Encryptor encryptor;
-    private final Decryptor decryptor;
-    private final Set<Client> clients = new HashSet<>();
+    private final String tokenKey;
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
     private final Consumer<Client> onClientConnect;
     private final Consumer<Client> onClientDisconnect;
     private final ClientPacketSendSubscriber sendSubscriber;
     private final ClientPacketReceiveSubscriber receiveSubscriber;
-    private ServerSocket serverSocket;
-    private boolean running;
+    private final PacketCapture capture;
+    private final String channelKey;
+    private final Integer receiveBudget;
+    private final Integer handshakeTimeout;
+    private final FrameBufferPool bufferPool = FrameBufferPool.builder().build();
+    private final FrameMetrics frameMetrics = new FrameMetrics();
+    private final int acceptors;
+    private final Transport transport;
+    private List<TransportListener> listeners = List.of();
+    private final ExecutorService setupPool;
+    private volatile boolean running;
 
     @Builder
     private Server(
             @NonNull Integer port,
-            @NonNull Encryptor encryptor,
-            @NonNull Decryptor decryptor,
+            @NonNull String tokenKey,
             @NonNull Consumer<Client> onClientConnect,
             @NonNull Consumer<Client> onClientDisconnect,
             @NonNull ClientPacketSendSubscriber sendSubscriber,
-            @NonNull ClientPacketReceiveSubscriber receiveSubscriber) {
+            @NonNull ClientPacketReceiveSubscriber receiveSubscriber,
+            PacketCapture capture,
+            String channelKey,
+            Integer receiveBudget,
+            Integer handshakeTimeout,
+            Integer acceptors,
+            Integer setupThreads,
+            Integer setupQueueSize,
+            Transport transport) {
 
         this.port = port;
-        this.encryptor = encryptor;
-        this.decryptor = decryptor;
+        this.tokenKey = tokenKey;
         this.onClientConnect = onClientConnect;
         this.onClientDisconnect = onClientDisconnect;
         this.sendSubscriber = sendSubscriber;
         this.receiveSubscriber = receiveSubscriber;
+        this.capture = capture;
+        this.channelKey = channelKey;
+        this.receiveBudget = receiveBudget;
+        this.handshakeTimeout = handshakeTimeout;
+        this.acceptors = Objects.isNull(acceptors) ? 1 : acceptors;
+        this.transport = Objects.isNull(transport) ? new SocketTransport() : transport;
+        this.setupPool = newSetupPool(
+                Objects.isNull(setupThreads) ? DEFAULT_SETUP_THREADS : setupThreads,
+                Objects.isNull(setupQueueSize) ? DEFAULT_SETUP_QUEUE_SIZE : setupQueueSize);
     }
 
     public Integer getPort() {
@@ -56,51 +95,131 @@ public class Server {
         return running;
     }
 
+    public Optional<PacketCapture> getCapture() {
+        return Optional.ofNullable(capture);
+    }
+
+    public FrameMetrics getFrameMetrics() {
+        return frameMetrics;
+    }
+
+    public int getAcceptors() {
+        return acceptors;
+    }
+
+    /*
+     * the transport opens as many listeners as it can shard the port into and
+     * the acceptors share them, the calling thread runs the first acceptor
+     */
     public void run() {
         try {
-            serverSocket = new ServerSocket(port);
+            listeners = transport.listen(port, acceptors);
             running = true;
-            acceptClients();
         } catch (Exception exception) {
             throw new ServerStartException(exception, "Failed to start server socket");
         }
+
+        for (int i = 1; i < acceptors; i++) {
+            TransportListener listener = listeners.get(i % listeners.size());
+            Thread acceptor = new Thread(() -> acceptClientsInBackground(listener), "server-acceptor-" + i);
+
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        acceptClients(listeners.get(0));
     }
 
-    public void stop() {
+    public synchronized void stop() {
+        running = false;
+
         try {
-            serverSocket.close();
+            for (TransportListener listener : listeners) {
+                listener.close();
+            }
         } catch (Exception exception) {
             throw new ServerStopException(exception, "Failed to stop server socket");
         } finally {
-            running = false;
+            setupPool.shutdown();
             clients.forEach(Client::disconnect);
+            getCapture().ifPresent(PacketCapture::close);
         }
     }
 
-    private void acceptClients() {
-        Socket socket;
+    /*
+     * the accept loop only accepts, the client handshake and streams are set
+     * up on the setup pool so a slow peer never stalls the next accept. a
+     * connection the pool has no room for is closed right away
+     */
+    private void acceptClients(TransportListener listener) {
+        TransportConnection connection;
 
         try {
-            while ((socket = serverSocket.accept()) != null) {
-                Client client = newClient(socket);
-                clients.add(client);
-                onClientConnect.accept(client);
+            while ((connection = listener.accept()) != null) {
+                setup(connection);
             }
         } catch (Exception exception) {
-            throw new ServerListeningException(exception, "Server stoped listening");
+            if (running) {
+                throw new ServerListeningException(exception, "Server stoped listening");
+            }
         } finally {
             stop();
         }
     }
 
-    private Client newClient(Socket socket) {
+    /*
+     * the other acceptors have no caller to throw to, the failure that stopped
+     * the server is logged instead
+     */
+    private void acceptClientsInBackground(TransportListener listener) {
+        try {
+            acceptClients(listener);
+        } catch (ServerException exception) {
+            logger.error("Acceptor {} failed, server stopped", Thread.currentThread().getName(), exception);
+        }
+    }
+
+    private void setup(TransportConnection connection) {
+        try {
+            setupPool.execute(() -> setupClient(connection));
+        } catch (RejectedExecutionException exception) {
+            logger.warn("Client setup is saturated, closing {}", connection.getRemoteAddress());
+            close(connection);
+        }
+    }
+
+    private void setupClient(TransportConnection connection) {
+        try {
+            Client client = newClient(connection);
+            clients.add(client);
+            onClientConnect.accept(client);
+        } catch (Exception exception) {
+            logger.warn("Failed to set up client {}", connection.getRemoteAddress(), exception);
+            close(connection);
+        }
+    }
+
+    private void close(TransportConnection connection) {
+        try {
+            connection.close();
+        } catch (Exception exception) {
+            logger.debug("Failed to close connection {}", connection.getRemoteAddress(), exception);
+        }
+    }
+
+    private Client newClient(TransportConnection connection) {
         return Client.serverBuilder()
-                .socket(socket)
-                .encryptor(encryptor)
-                .decryptor(decryptor)
+                .connection(connection)
+                .tokenKey(tokenKey)
                 .onDisconnect(this::removeClient)
                 .sendSubscriber(sendSubscriber)
                 .receiveSubscriber(receiveSubscriber)
+                .capture(capture)
+                .channelKey(channelKey)
+                .bufferPool(bufferPool)
+                .frameMetrics(frameMetrics)
+                .receiveBudget(receiveBudget)
+                .handshakeTimeout(handshakeTimeout)
                 .serverBuild();
     }
 
@@ -108,4 +227,21 @@ public class Server {
         clients.remove(client);
         onClientDisconnect.accept(client);
     }
+
+    /*
+     * a burst of connections queues up behind the setup threads rather than
+     * spawning one thread each, threads idle for a while are let go
+     */
+    private static ExecutorService newSetupPool(int threads, int queueSize) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                threads,
+                threads,
+                SETUP_THREAD_KEEP_ALIVE_IN_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueSize));
+
+        pool.allowCoreThreadTimeOut(true);
+
+        return pool;
+    }
 }
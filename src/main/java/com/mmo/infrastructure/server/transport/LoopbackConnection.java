@@ -0,0 +1,107 @@
+package com.mmo.infrastructure.server.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+class LoopbackConnection implements TransportConnection {
+
+    private final LoopbackRing inbound;
+    private final LoopbackRing outbound;
+    private final String remoteAddress;
+    private final InputStream inputStream = new LoopbackInputStream();
+    private final OutputStream outputStream = new LoopbackOutputStream();
+
+    LoopbackConnection(LoopbackRing inbound, LoopbackRing outbound, String remoteAddress) {
+        this.inbound = inbound;
+        this.outbound = outbound;
+        this.remoteAddress = remoteAddress;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    @Override
+    public void setReadTimeout(int timeoutInMillis) {
+        inbound.setReadTimeout(timeoutInMillis);
+    }
+
+    @Override
+    public boolean setReadListener(Runnable listener) {
+        inbound.setReadListener(listener);
+        return true;
+    }
+
+    @Override
+    public int available() {
+        return inbound.available();
+    }
+
+    /*
+     * closing either end closes both directions, the peer still reads what was
+     * already written and then sees the end of the stream
+     */
+    @Override
+    public void close() {
+        inbound.close();
+        outbound.close();
+    }
+
+    private class LoopbackInputStream extends InputStream {
+
+        private final byte[] single = new byte[1];
+
+        @Override
+        public int read() throws IOException {
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            return inbound.read(bytes, offset, length);
+        }
+
+        @Override
+        public int available() {
+            return Math.max(inbound.available(), 0);
+        }
+
+        @Override
+        public void close() {
+            LoopbackConnection.this.close();
+        }
+    }
+
+    private class LoopbackOutputStream extends OutputStream {
+
+        private final byte[] single = new byte[1];
+
+        @Override
+        public void write(int value) throws IOException {
+            single[0] = (byte) value;
+            write(single, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            outbound.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() {
+            LoopbackConnection.this.close();
+        }
+    }
+}
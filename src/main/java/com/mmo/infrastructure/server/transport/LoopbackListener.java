@@ -0,0 +1,52 @@
+package com.mmo.infrastructure.server.transport;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+class LoopbackListener implements TransportListener {
+
+    private static final LoopbackConnection CLOSED = new LoopbackConnection(null, null, null);
+
+    private final BlockingQueue<LoopbackConnection> pending = new LinkedBlockingQueue<>();
+    private final Consumer<LoopbackListener> onClose;
+
+    LoopbackListener(Consumer<LoopbackListener> onClose) {
+        this.onClose = onClose;
+    }
+
+    void offer(LoopbackConnection connection) {
+        pending.add(connection);
+    }
+
+    @Override
+    public TransportConnection accept() throws IOException {
+        LoopbackConnection connection;
+
+        try {
+            connection = pending.take();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SocketException("Interrupted while accepting");
+        }
+
+        if (connection == CLOSED) {
+            pending.add(CLOSED);
+            throw new SocketException("Listener is closed");
+        }
+
+        return connection;
+    }
+
+    /*
+     * leaves the closed marker in the queue so every acceptor blocked on the
+     * listener wakes up and fails like on a closed server socket
+     */
+    @Override
+    public void close() {
+        onClose.accept(this);
+        pending.add(CLOSED);
+    }
+}
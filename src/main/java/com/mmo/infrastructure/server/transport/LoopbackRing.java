@@ -0,0 +1,186 @@
+package com.mmo.infrastructure.server.transport;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * single producer single consumer byte ring, positions only ever grow and the
+ * side that finds the ring empty or full spins briefly and then parks until
+ * the other side publishes and wakes it. a reader with a listener never
+ * waits, the writer calls the listener whenever it publishes
+ */
+class LoopbackRing {
+
+    private static final int SPINS = 64;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final byte[] buffer;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile Thread waitingReader;
+    private volatile Thread waitingWriter;
+    private volatile boolean closed;
+    private volatile long readTimeoutNanos;
+    private volatile Runnable readListener;
+
+    LoopbackRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+
+        this.buffer = new byte[size];
+        this.mask = size - 1;
+    }
+
+    void setReadTimeout(int timeoutInMillis) {
+        this.readTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutInMillis);
+    }
+
+    void setReadListener(Runnable listener) {
+        this.readListener = listener;
+    }
+
+    /*
+     * the tail is read again after seeing the ring closed, the last bytes
+     * written before closing must not be mistaken for the end of the stream
+     */
+    int available() {
+        long available = tail.get() - head.get();
+
+        if (available == 0 && closed) {
+            available = tail.get() - head.get();
+
+            if (available == 0) {
+                return -1;
+            }
+        }
+
+        return (int) Math.min(available, Integer.MAX_VALUE);
+    }
+
+    /*
+     * a reader never parks longer than MAX_PARK_NANOS, it looks at the clock
+     * every time it wakes up empty handed
+     */
+    int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+
+        long position = head.get();
+        long available;
+        long timeout = readTimeoutNanos;
+        long deadline = System.nanoTime() + timeout;
+        int idle = 0;
+
+        while ((available = tail.get() - position) == 0) {
+            if (closed) {
+                return -1;
+            }
+
+            if (timeout > 0 && System.nanoTime() - deadline >= 0) {
+                throw new SocketTimeoutException("Loopback read timed out");
+            }
+
+            idle = awaitWriter(position, idle);
+        }
+
+        int count = (int) Math.min(available, length);
+        int index = (int) position & mask;
+        int first = Math.min(count, buffer.length - index);
+
+        System.arraycopy(buffer, index, bytes, offset, first);
+        System.arraycopy(buffer, 0, bytes, offset + first, count - first);
+
+        head.set(position + count);
+        LockSupport.unpark(waitingWriter);
+
+        return count;
+    }
+
+    void write(byte[] bytes, int offset, int length) throws IOException {
+        int idle = 0;
+
+        while (length > 0) {
+            if (closed) {
+                throw new IOException("Loopback connection is closed");
+            }
+
+            long position = tail.get();
+            long free = buffer.length - (position - head.get());
+
+            if (free == 0) {
+                idle = awaitReader(position, idle);
+                continue;
+            }
+
+            int count = (int) Math.min(free, length);
+            int index = (int) position & mask;
+            int first = Math.min(count, buffer.length - index);
+
+            System.arraycopy(bytes, offset, buffer, index, first);
+            System.arraycopy(bytes, offset + first, buffer, 0, count - first);
+
+            tail.set(position + count);
+            notifyReader();
+
+            offset += count;
+            length -= count;
+            idle = 0;
+        }
+    }
+
+    void close() {
+        closed = true;
+
+        notifyReader();
+        LockSupport.unpark(waitingWriter);
+    }
+
+    private void notifyReader() {
+        LockSupport.unpark(waitingReader);
+
+        Runnable listener = readListener;
+
+        if (Objects.nonNull(listener)) {
+            listener.run();
+        }
+    }
+
+    private int awaitWriter(long position, int idle) {
+        if (idle < SPINS) {
+            Thread.onSpinWait();
+            return idle + 1;
+        }
+
+        waitingReader = Thread.currentThread();
+
+        if (tail.get() == position && !closed) {
+            LockSupport.parkNanos(this, MAX_PARK_NANOS);
+        }
+
+        waitingReader = null;
+
+        return idle;
+    }
+
+    private int awaitReader(long position, int idle) {
+        if (idle < SPINS) {
+            Thread.onSpinWait();
+            return idle + 1;
+        }
+
+        waitingWriter = Thread.currentThread();
+
+        if (position - head.get() == buffer.length && !closed) {
+            LockSupport.parkNanos(this, MAX_PARK_NANOS);
+        }
+
+        waitingWriter = null;
+
+        return idle;
+    }
+}
@@ -0,0 +1,58 @@
+package com.mmo.infrastructure.server.transport;
+
+import java.io.IOException;
+import java.net.BindException;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Builder;
+
+/*
+ * connects a server and its clients inside the same process, each direction
+ * of a connection is a ring buffer carrying the very same byte stream a socket
+ * would, the server and the clients have to share the transport instance
+ */
+public class LoopbackTransport implements Transport {
+
+    private static final int DEFAULT_RING_SIZE = 64 * 1024;
+
+    private final int ringSize;
+    private final ConcurrentHashMap<Integer, LoopbackListener> listeners = new ConcurrentHashMap<>();
+    private final AtomicLong connections = new AtomicLong();
+
+    @Builder
+    private LoopbackTransport(Integer ringSize) {
+        this.ringSize = Objects.isNull(ringSize) ? DEFAULT_RING_SIZE : ringSize;
+    }
+
+    @Override
+    public List<TransportListener> listen(int port, int listeners) throws IOException {
+        LoopbackListener listener = new LoopbackListener(closed -> this.listeners.remove(port, closed));
+
+        if (Objects.nonNull(this.listeners.putIfAbsent(port, listener))) {
+            throw new BindException(String.format("Loopback port %s already in use", port));
+        }
+
+        return List.of(listener);
+    }
+
+    @Override
+    public TransportConnection connect(String host, int port) throws IOException {
+        LoopbackListener listener = listeners.get(port);
+
+        if (Objects.isNull(listener)) {
+            throw new ConnectException(String.format("Nothing listening on loopback port %s", port));
+        }
+
+        long connection = connections.incrementAndGet();
+        LoopbackRing toServer = new LoopbackRing(ringSize);
+        LoopbackRing toClient = new LoopbackRing(ringSize);
+
+        listener.offer(new LoopbackConnection(toServer, toClient, String.format("loopback:%s#client-%s", port, connection)));
+
+        return new LoopbackConnection(toClient, toServer, String.format("loopback:%s#server-%s", port, connection));
+    }
+}
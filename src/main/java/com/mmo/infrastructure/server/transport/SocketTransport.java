@@ -0,0 +1,77 @@
+package com.mmo.infrastructure.server.transport;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SocketTransport implements Transport {
+
+    /*
+     * with SO_REUSEPORT every listener owns a socket bound to the port and the
+     * kernel spreads incoming connections among them, otherwise a single
+     * socket is returned. a bind failing closes the sockets opened before it
+     */
+    @Override
+    public List<TransportListener> listen(int port, int listeners) throws IOException {
+        List<ServerSocket> sockets = new ArrayList<>();
+
+        try {
+            ServerSocket first = open(sockets);
+            boolean reusePort = listeners > 1
+                    && first.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+
+            bind(first, port, reusePort);
+
+            for (int i = 1; reusePort && i < listeners; i++) {
+                bind(open(sockets), port, true);
+            }
+        } catch (IOException | RuntimeException exception) {
+            close(sockets, exception);
+            throw exception;
+        }
+
+        List<TransportListener> result = new ArrayList<>();
+
+        for (ServerSocket socket : sockets) {
+            result.add(new SocketTransportListener(socket));
+        }
+
+        return result;
+    }
+
+    @Override
+    public TransportConnection connect(String host, int port) throws IOException {
+        return new SocketTransportConnection(new Socket(host, port));
+    }
+
+    private static ServerSocket open(List<ServerSocket> sockets) throws IOException {
+        ServerSocket serverSocket = new ServerSocket();
+        sockets.add(serverSocket);
+
+        return serverSocket;
+    }
+
+    private static void close(List<ServerSocket> sockets, Exception failure) {
+        for (ServerSocket socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException exception) {
+                failure.addSuppressed(exception);
+            }
+        }
+    }
+
+    private static ServerSocket bind(ServerSocket serverSocket, int port, boolean reusePort) throws IOException {
+        if (reusePort) {
+            serverSocket.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+        }
+
+        serverSocket.bind(new InetSocketAddress(port));
+
+        return serverSocket;
+    }
+}
@@ -0,0 +1,44 @@
+package com.mmo.infrastructure.server.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+class SocketTransportConnection implements TransportConnection {
+
+    private final Socket socket;
+    private final InputStream inputStream;
+    private final OutputStream outputStream;
+
+    SocketTransportConnection(Socket socket) throws IOException {
+        this.socket = socket;
+        this.inputStream = socket.getInputStream();
+        this.outputStream = socket.getOutputStream();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return String.valueOf(socket.getRemoteSocketAddress());
+    }
+
+    @Override
+    public void setReadTimeout(int timeoutInMillis) throws IOException {
+        socket.setSoTimeout(timeoutInMillis);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,23 @@
+package com.mmo.infrastructure.server.transport;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+class SocketTransportListener implements TransportListener {
+
+    private final ServerSocket serverSocket;
+
+    SocketTransportListener(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+    }
+
+    @Override
+    public TransportConnection accept() throws IOException {
+        return new SocketTransportConnection(serverSocket.accept());
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
@@ -0,0 +1,19 @@
+package com.mmo.infrastructure.server.transport;
+
+import java.io.IOException;
+import java.util.List;
+
+/*
+ * what Server and Client run on, connections are plain byte streams so every
+ * transport carries exactly the same frames
+ */
+public interface Transport {
+
+    /*
+     * opens up to the given number of listeners on the port, transports that
+     * can not shard a port return fewer and the acceptors share them
+     */
+    List<TransportListener> listen(int port, int listeners) throws IOException;
+
+    TransportConnection connect(String host, int port) throws IOException;
+}
@@ -0,0 +1,38 @@
+package com.mmo.infrastructure.server.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface TransportConnection extends Closeable {
+
+    InputStream getInputStream();
+
+    OutputStream getOutputStream();
+
+    String getRemoteAddress();
+
+    /*
+     * a read waiting longer than the timeout fails with a
+     * SocketTimeoutException, zero waits forever
+     */
+    void setReadTimeout(int timeoutInMillis) throws IOException;
+
+    /*
+     * connections knowing when bytes arrive call the listener every time they
+     * do and once when they close, so no thread has to block reading them.
+     * false when only a blocked read can follow the connection
+     */
+    default boolean setReadListener(Runnable listener) {
+        return false;
+    }
+
+    /*
+     * bytes readable without blocking, -1 once the connection is closed and
+     * everything written before was read
+     */
+    default int available() throws IOException {
+        return getInputStream().available();
+    }
+}
@@ -0,0 +1,9 @@
+package com.mmo.infrastructure.server.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface TransportListener extends Closeable {
+
+    TransportConnection accept() throws IOException;
+}
@@ -0,0 +1,252 @@
+package com.mmo.core.animate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mmo.core.attribute.Attributes;
+import com.mmo.core.looper.LooperContext;
+import com.mmo.core.map.Map;
+import com.mmo.core.map.Position;
+
+/*
+ * one tick of a map full of animates, half of them hitting a neighbour, the
+ * other half walking to a far away spot, once as animates with attributes
+ * and once as stored animates, both doing a second worth of hits and steps
+ * on every tick. the heap counter is what the map and its animates retain,
+ * divided by the animates
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class AnimateStoreBenchmark {
+
+    private static final int NEARBY_RATIO = 50;
+    private static final int AREA_PER_ENTITY = 400;
+    private static final int TICK_IN_MILLIS = 1000;
+
+    @Param({ "50000" })
+    private int entities;
+
+    @Param({ "object", "store" })
+    private String model;
+
+    private ForkJoinPool pool;
+    private Map map;
+    private long tick;
+    private long bytesPerEntity;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+
+        public long bytesPerEntity;
+    }
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(1);
+
+        long before = getUsedHeap();
+
+        if (model.equals("store")) {
+            setupStore();
+        } else {
+            setupObjects();
+        }
+
+        bytesPerEntity = (getUsedHeap() - before) / entities;
+        tick = System.currentTimeMillis();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int tick(Heap heap) {
+        long tick = nextTick();
+
+        map.update(new LooperContext() {
+            {
+                setTick(tick);
+            }
+        });
+
+        heap.bytesPerEntity = bytesPerEntity;
+        return map.getEntities().size();
+    }
+
+    /*
+     * an animate counts its actions from when they started, a clock standing
+     * a second after the start gives it a second worth of them on every
+     * tick. a stored animate works off cooldowns, its clock has to move on
+     */
+    private long nextTick() {
+        return model.equals("store") ? (tick += TICK_IN_MILLIS) : tick + TICK_IN_MILLIS;
+    }
+
+    private void setupObjects() {
+        Random random = new Random(42);
+        int side = getSide();
+        List<Unit> units = new ArrayList<>();
+
+        map = newMap();
+
+        for (int i = 0; i < entities; i++) {
+            Unit unit = new Unit(random.nextInt(side), random.nextInt(side));
+
+            units.add(unit);
+            map.addEntity(unit);
+        }
+
+        for (int i = 0; i < entities; i++) {
+            Unit unit = units.get(i);
+            Unit neighbour = map.findNearestEntity(unit, NEARBY_RATIO, Unit.class).orElse(null);
+
+            if (i % 2 == 0 && neighbour != null) {
+                unit.attack(neighbour);
+            } else {
+                unit.move(newPosition(random.nextInt(side), random.nextInt(side)));
+            }
+        }
+    }
+
+    private void setupStore() {
+        Random random = new Random(42);
+        int side = getSide();
+        AnimateStore store = AnimateStore.builder()
+                .capacity(entities)
+                .build();
+        List<StoredAnimate> animates = new ArrayList<>();
+
+        map = newMap();
+        map.addSystem(store);
+
+        for (int i = 0; i < entities; i++) {
+            StoredAnimate animate = StoredAnimate.builder()
+                    .store(store)
+                    .name("unit")
+                    .position(newPosition(random.nextInt(side), random.nextInt(side)))
+                    .hp(Integer.MAX_VALUE)
+                    .attack(2)
+                    .defense(1)
+                    .moveSpeed(1)
+                    .attackRange(3)
+                    .attackSpeed(100)
+                    .build();
+
+            animates.add(animate);
+            map.addEntity(animate);
+        }
+
+        for (int i = 0; i < entities; i++) {
+            StoredAnimate animate = animates.get(i);
+            StoredAnimate neighbour = map.findNearestEntity(animate, NEARBY_RATIO, StoredAnimate.class)
+                    .orElse(null);
+
+            if (i % 2 == 0 && neighbour != null) {
+                animate.attack(neighbour);
+            } else {
+                animate.move(newPosition(random.nextInt(side), random.nextInt(side)));
+            }
+        }
+    }
+
+    private Map newMap() {
+        return Map.builder()
+                .name("benchmark")
+                .description("benchmark")
+                .nearbyRatio(NEARBY_RATIO)
+                .updatePool(pool)
+                .build();
+    }
+
+    private int getSide() {
+        return (int) Math.sqrt((double) entities * AREA_PER_ENTITY);
+    }
+
+    private static Position newPosition(long x, long y) {
+        return Position.builder()
+                .x(x)
+                .y(y)
+                .z(0L)
+                .build();
+    }
+
+    private static long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static class Unit extends Animate {
+
+        private final UUID instanceId = UUID.randomUUID();
+        private final Position position;
+        private final Attributes attributes = Attributes.builder()
+                .hp(Integer.MAX_VALUE)
+                .mp(0)
+                .attack(2)
+                .defense(1)
+                .magicDefense(0)
+                .hitRate(0)
+                .critical(0)
+                .dodgeRate(0)
+                .attackSpeed(100)
+                .moveSpeed(1)
+                .hpRecovery(0)
+                .mpRecovery(0)
+                .attackRange(3)
+                .build();
+
+        private Unit(long x, long y) {
+            position = newPosition(x, y);
+        }
+
+        @Override
+        public UUID getInstanceId() {
+            return instanceId;
+        }
+
+        @Override
+        public String getName() {
+            return "unit";
+        }
+
+        @Override
+        public Position getPosition() {
+            return position;
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return attributes;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.mmo.core.animate;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.mmo.core.looper.LooperContext;
+import com.mmo.core.map.Map;
+import com.mmo.core.map.Position;
+
+public class AnimateStoreTest {
+
+    @Test
+    public void attack() {
+        AnimateStore store = AnimateStore.builder().build();
+        StoredAnimate animate = newAnimate(store, 10L, 15L, 60, 33, 50);
+        StoredAnimate target = newAnimate(store, 20L, 25L, 42, 50, 38);
+        long now = System.currentTimeMillis();
+
+        animate.attack(target);
+
+        assertThat(animate.isAttacking(), equalTo(true));
+
+        store.update(newContext(now + 1000));
+
+        assertThat(animate.isMoving(), equalTo(true));
+        assertThat(animate.getPosition().getX(), equalTo(16L));
+        assertThat(animate.getPosition().getY(), equalTo(21L));
+        assertThat(target.getHP(), equalTo(30));
+
+        store.update(newContext(now + 2000));
+
+        assertThat(target.getHP(), equalTo(20));
+
+        store.update(newContext(now + 3000));
+
+        assertThat(animate.isMoving(), equalTo(false));
+        assertThat(animate.isAttacking(), equalTo(true));
+
+        store.update(newContext(now + 6000));
+
+        assertThat(target.getHP(), equalTo(0));
+        assertThat(target.isAlive(), equalTo(false));
+        assertThat(animate.isAttacking(), equalTo(false));
+    }
+
+    @Test
+    public void attackAtTheRateOfTheirSpeed() {
+        AnimateStore store = AnimateStore.builder().build();
+        StoredAnimate fast = newAnimate(store, 10L, 15L, 11, 10, 200);
+        StoredAnimate slow = newAnimate(store, 10L, 15L, 11, 10, 30);
+        StoredAnimate fastTarget = newAnimate(store, 10L, 15L, 42, 10, 38);
+        StoredAnimate slowTarget = newAnimate(store, 10L, 15L, 42, 10, 38);
+        long now = System.currentTimeMillis();
+
+        fast.attack(fastTarget);
+        slow.attack(slowTarget);
+        store.update(newContext(now + 2200));
+
+        assertThat(fastTarget.getHP(), equalTo(26));
+
+        store.update(newContext(now + 3200));
+
+        assertThat(slowTarget.getHP(), equalTo(30));
+
+        store.update(newContext(now + 3400));
+
+        assertThat(slowTarget.getHP(), equalTo(29));
+    }
+
+    @Test
+    public void rejectAttackSpeedNotPositive() {
+        AnimateStore store = AnimateStore.builder().build();
+
+        assertThrows(AnimateAttackSpeedException.class, () -> newAnimate(store, 10L, 15L, 42, 33, 0));
+        assertThat(store.getSize(), equalTo(0));
+    }
+
+    @Test
+    public void move() {
+        AnimateStore store = AnimateStore.builder().build();
+        StoredAnimate animate = newAnimate(store, 10L, 15L, 42, 33, 38);
+        Position expected = Position.builder()
+                .x(20L)
+                .y(25L)
+                .z(10L)
+                .build();
+        long now = System.currentTimeMillis();
+
+        animate.move(expected);
+
+        assertThat(animate.getTargetAnimate().isEmpty(), equalTo(true));
+        assertThat(animate.getTargetPosition().get(), equalTo(expected));
+
+        store.update(newContext(now + 2000));
+
+        assertThat(animate.isMoving(), equalTo(false));
+        assertThat(animate.getPosition(), equalTo(expected));
+    }
+
+    @Test
+    public void removeKeepsSlotsDense() {
+        AnimateStore store = AnimateStore.builder().capacity(1).build();
+        StoredAnimate first = newAnimate(store, 0L, 0L, 42, 33, 38);
+        StoredAnimate second = newAnimate(store, 100L, 0L, 42, 33, 38);
+        StoredAnimate third = newAnimate(store, 200L, 0L, 60, 33, 50);
+
+        third.attack(first);
+        store.remove(first);
+
+        assertThat(store.getSize(), equalTo(2));
+        assertThat(first.isStored(), equalTo(false));
+        assertThat(second.getHP(), equalTo(30));
+        assertThat(third.isAttacking(), equalTo(true));
+        assertThrows(AnimateNotStoredException.class, first::getHP);
+        assertThrows(AnimateNotStoredException.class, () -> second.attack(first));
+
+        store.update(newContext(System.currentTimeMillis()));
+
+        assertThat(third.isAttacking(), equalTo(false));
+        assertThat(third.getTargetAnimate().isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void addWhileOthersAreRemoved() throws InterruptedException {
+        AnimateStore store = AnimateStore.builder().capacity(1).build();
+        List<StoredAnimate> kept = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < 4; t++) {
+            int offset = t * 100000;
+
+            threads.add(new Thread(() -> {
+                StoredAnimate previous = null;
+
+                for (int i = 1; i <= 20000; i++) {
+                    StoredAnimate animate = newAnimate(store, offset + i);
+
+                    if (i % 2 == 0) {
+                        store.remove(previous);
+                        kept.add(animate);
+                    }
+
+                    previous = animate;
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Set<Integer> slots = new HashSet<>();
+
+        for (StoredAnimate animate : kept) {
+            slots.add(animate.slot);
+        }
+
+        assertThat(store.getSize(), equalTo(kept.size()));
+        assertThat(slots, hasSize(kept.size()));
+        assertThat(Collections.max(slots), lessThan(kept.size()));
+
+        for (StoredAnimate animate : kept) {
+            assertThat(animate.getHP(), equalTo((int) animate.getPosition().getX()));
+        }
+    }
+
+    @Test
+    public void updateAsMapSystem() {
+        AnimateStore store = AnimateStore.builder().build();
+        StoredAnimate animate = newAnimate(store, 10L, 15L, 42, 33, 38);
+        StoredAnimate other = newAnimate(store, 60L, 15L, 42, 33, 38);
+        Map map = Map.builder()
+                .name("map")
+                .description("description")
+                .nearbyRatio(10)
+                .build();
+
+        map.addSystem(store);
+        map.addEntity(animate);
+        map.addEntity(other);
+
+        assertThat(map.getNearbyEntities(animate), not(hasItem(other)));
+
+        animate.move(other.getPosition());
+        map.update(newContext(System.currentTimeMillis() + 10000));
+
+        assertThat(map.getNearbyEntities(animate), hasItem(other));
+    }
+
+    private static StoredAnimate newAnimate(AnimateStore store, int hp) {
+        return StoredAnimate.builder()
+                .store(store)
+                .name("animate")
+                .position(Position.builder()
+                        .x((long) hp)
+                        .y(0L)
+                        .z(0L)
+                        .build())
+                .hp(hp)
+                .attack(1)
+                .defense(1)
+                .moveSpeed(1)
+                .attackRange(1)
+                .attackSpeed(1)
+                .build();
+    }
+
+    private static StoredAnimate newAnimate(
+            AnimateStore store,
+            long x,
+            long y,
+            int attack,
+            int defense,
+            int attackSpeed) {
+
+        return StoredAnimate.builder()
+                .store(store)
+                .name("animate")
+                .position(Position.builder()
+                        .x(x)
+                        .y(y)
+                        .z(10L)
+                        .build())
+                .hp(30)
+                .attack(attack)
+                .defense(defense)
+                .moveSpeed(2)
+                .attackRange(3)
+                .attackSpeed(attackSpeed)
+                .build();
+    }
+
+    private static LooperContext newContext(long tick) {
+        return new LooperContext() {
+            {
+                setTick(tick);
+            }
+        };
+    }
+}
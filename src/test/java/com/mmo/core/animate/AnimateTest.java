@@ -3,15 +3,22 @@ package com.mmo.core.animate;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 
+import com.mmo.core.attribute.Attribute;
+import com.mmo.core.attribute.AttributeModifier;
 import com.mmo.core.attribute.Attributes;
 import com.mmo.core.looper.LooperContextMocker;
+import com.mmo.core.map.MapEntity;
 import com.mmo.core.map.Position;
+import com.mmo.core.property.PropertyModifierAction;
 
 public class AnimateTest {
 
@@ -126,6 +133,60 @@ public class AnimateTest {
         assertThat(result, equalTo(expected));
     }
 
+    @Test
+    public void idleUntilWokenUp() {
+        Animate animate = new AnimateImpl(
+                Position.builder()
+                        .x(10L)
+                        .y(15L)
+                        .z(10L)
+                        .build(),
+                Attributes.builder()
+                        .hp(30)
+                        .mp(31)
+                        .attack(42)
+                        .defense(33)
+                        .magicDefense(34)
+                        .hitRate(35)
+                        .critical(36)
+                        .dodgeRate(37)
+                        .attackSpeed(38)
+                        .moveSpeed(2)
+                        .hpRecovery(40)
+                        .mpRecovery(41)
+                        .attackRange(3)
+                        .build());
+
+        List<MapEntity> woken = new ArrayList<>();
+        OffsetDateTime expiration = OffsetDateTime.now().plusMinutes(1);
+
+        animate.setActivityListener(woken::add);
+
+        assertThat(animate.isIdle(), equalTo(true));
+
+        animate.move(Position.builder()
+                .x(20L)
+                .y(25L)
+                .z(10L)
+                .build());
+
+        assertThat(animate.isIdle(), equalTo(false));
+
+        animate.modify(AttributeModifier.builder()
+                .action(PropertyModifierAction.INCREMENT)
+                .attribute(Attribute.DEFENSE)
+                .value(7)
+                .expiration(expiration)
+                .persisted(true)
+                .build());
+
+        LooperContextMocker.update(animate, 0);
+
+        assertThat(woken, contains(animate, animate));
+        assertThat(animate.getWakeUpTick(), equalTo(expiration.toInstant().toEpochMilli()));
+        assertThat(animate.getAttributes().getFinalDefense(), equalTo(40));
+    }
+
     private class AnimateImpl extends Animate {
         UUID instanceId = UUID.randomUUID();
         String name = UUID.randomUUID().toString();
@@ -0,0 +1,103 @@
+package com.mmo.core.game;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.mockito.Mockito;
+
+import com.mmo.core.looper.LooperContext;
+import com.mmo.core.map.Map;
+
+public class WorldTest {
+
+    @Test
+    @Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+    public void hostManyMaps() throws InterruptedException {
+        Map plains = mockMap("plains");
+        Map caves = mockMap("caves");
+
+        World world = World.builder()
+                .workers(1)
+                .build();
+
+        try {
+            world.host(plains, 60);
+            world.host(caves, 10);
+
+            Thread.sleep(500);
+
+            assertThat(world.getMap("plains"), sameInstance(plains));
+            assertThat(world.getMap("caves"), sameInstance(caves));
+            assertThat(world.getMaps(), containsInAnyOrder(plains, caves));
+            assertThat(world.getLooper("plains").getUpdates(), greaterThan(world.getLooper("caves").getUpdates()));
+            verify(plains, atLeastOnce()).update(Mockito.any(LooperContext.class));
+            verify(caves, atLeastOnce()).update(Mockito.any(LooperContext.class));
+        } finally {
+            world.stop();
+        }
+
+        assertThat(world.isRunning(), equalTo(false));
+    }
+
+    @Test
+    public void hostAndUnhost() {
+        Map plains = mockMap("plains");
+
+        World world = World.builder()
+                .workers(1)
+                .build();
+
+        try {
+            world.host(plains, 60);
+
+            assertThrows(MapAlreadyHostedException.class, () -> world.host(mockMap("plains"), 60));
+
+            world.unhost("plains");
+
+            assertThat(world.findMap("plains").isEmpty(), equalTo(true));
+            assertThrows(MapNotHostedException.class, () -> world.getMap("plains"));
+            assertThrows(MapNotHostedException.class, () -> world.unhost("plains"));
+        } finally {
+            world.stop();
+        }
+    }
+
+    @Test
+    @Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+    public void reportFailingMap() throws InterruptedException {
+        Map plains = mockMap("plains");
+        IllegalStateException failure = new IllegalStateException("failure");
+        ConcurrentHashMap<Map, RuntimeException> failures = new ConcurrentHashMap<>();
+
+        doThrow(failure).when(plains).update(Mockito.any(LooperContext.class));
+
+        World world = World.builder()
+                .workers(1)
+                .onMapFailure(failures::put)
+                .build();
+
+        try {
+            world.host(plains, 60);
+
+            Thread.sleep(200);
+
+            assertThat(failures.get(plains), sameInstance(failure));
+            assertThat(world.getLooper("plains").isCancelled(), equalTo(true));
+        } finally {
+            world.stop();
+        }
+    }
+
+    private static Map mockMap(String name) {
+        Map map = mock(Map.class);
+        when(map.getName()).thenReturn(name);
+        return map;
+    }
+}
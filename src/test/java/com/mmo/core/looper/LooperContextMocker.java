@@ -13,6 +13,7 @@ public class LooperContextMocker {
             when(context.getLag()).thenReturn(16L);
             when(context.getDesiredLag()).thenReturn(16.0);
             when(context.getMillisDuration()).thenReturn(System.currentTimeMillis() - now);
+            doCallRealMethod().when(context).interact(any(), any());
             updater.update(context);
         } catch (InterruptedException exception) {
 
@@ -0,0 +1,120 @@
+package com.mmo.core.looper;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+public class LooperSchedulerTest {
+
+    @Test
+    @Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+    public void tickEveryUpdaterAtItsOwnFps() throws InterruptedException {
+        LooperScheduler scheduler = LooperScheduler.builder()
+                .workers(1)
+                .build();
+
+        try {
+            ScheduledLooper slow = scheduler.schedule(20, context -> {
+            });
+            ScheduledLooper fast = scheduler.schedule(50, context -> {
+            });
+
+            Thread.sleep(1000);
+
+            assertThat(slow.getUpdates(), allOf(greaterThanOrEqualTo(14L), lessThanOrEqualTo(21L)));
+            assertThat(fast.getUpdates(), allOf(greaterThanOrEqualTo(35L), lessThanOrEqualTo(51L)));
+        } finally {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    @Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+    public void overrunOnlyDelaysItsOwnUpdater() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+
+        LooperScheduler scheduler = LooperScheduler.builder()
+                .workers(2)
+                .build();
+
+        try {
+            ScheduledLooper slow = scheduler.schedule(100, context -> {
+                if (running.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+
+                sleep(30);
+                running.decrementAndGet();
+            });
+            ScheduledLooper fast = scheduler.schedule(100, context -> {
+            });
+
+            Thread.sleep(1000);
+
+            assertThat(slow.getOverruns(), greaterThan(0L));
+            assertThat(slow.getUpdates(), lessThanOrEqualTo(34L));
+            assertThat(fast.getUpdates(), greaterThanOrEqualTo(70L));
+            assertThat(overlaps.get(), equalTo(0));
+        } finally {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    @Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+    public void cancelFailingUpdater() throws InterruptedException {
+        AtomicReference<RuntimeException> reported = new AtomicReference<>();
+
+        LooperScheduler scheduler = LooperScheduler.builder()
+                .workers(1)
+                .build();
+
+        try {
+            ScheduledLooper failing = scheduler.schedule(50, context -> {
+                throw new IllegalStateException("failure");
+            }, reported::set);
+            ScheduledLooper healthy = scheduler.schedule(50, context -> {
+            });
+
+            Thread.sleep(500);
+
+            assertThat(failing.isCancelled(), equalTo(true));
+            assertThat(failing.getFailure().isPresent(), equalTo(true));
+            assertThat(reported.get(), sameInstance(failing.getFailure().get()));
+            assertThat(failing.getUpdates(), equalTo(0L));
+            assertThat(healthy.isCancelled(), equalTo(false));
+            assertThat(healthy.getUpdates(), greaterThan(10L));
+        } finally {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    public void scheduleOnStoppedScheduler() {
+        LooperScheduler scheduler = LooperScheduler.builder()
+                .workers(1)
+                .build();
+
+        scheduler.stop();
+
+        assertThat(scheduler.isRunning(), equalTo(false));
+        assertThrows(LooperSchedulerStoppedException.class, () -> scheduler.schedule(60, context -> {
+        }));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.mmo.core.map;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * entity lookups in random order and a walk over every entity, through the
+ * hash map of instance ids the map used to keep its entities in and through
+ * its registry, by instance id and by handle. run with -prof gc, lookups by
+ * handle and the walks of the registry are expected at zero bytes per
+ * operation
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class EntityRegistryBenchmark {
+
+    private static final int LOOKUPS = 1 << 16;
+
+    @Param({ "10000", "1000000" })
+    private int entities;
+
+    private ConcurrentHashMap<UUID, MapEntity> hashMap;
+    private Map map;
+    private UUID[] instanceIds;
+    private int[] handles;
+    private Consumer<MapEntity> counter;
+    private int count;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+
+        hashMap = new ConcurrentHashMap<>();
+        map = Map.builder()
+                .name("benchmark")
+                .description("benchmark")
+                .nearbyRatio(50)
+                .build();
+        instanceIds = new UUID[LOOKUPS];
+        handles = new int[LOOKUPS];
+        counter = entity -> count++;
+
+        TestEntity[] added = new TestEntity[entities];
+
+        for (int i = 0; i < entities; i++) {
+            added[i] = new TestEntity(Position.builder()
+                    .x((long) random.nextInt(10000))
+                    .y((long) random.nextInt(10000))
+                    .z(0L)
+                    .build());
+
+            hashMap.put(added[i].getInstanceId(), added[i]);
+            map.addEntity(added[i]);
+        }
+
+        for (int i = 0; i < LOOKUPS; i++) {
+            TestEntity entity = added[random.nextInt(entities)];
+
+            instanceIds[i] = entity.getInstanceId();
+            handles[i] = map.getHandle(entity.getInstanceId());
+        }
+    }
+
+    @Benchmark
+    public MapEntity lookupInHashMap() {
+        return hashMap.get(instanceIds[nextLookup()]);
+    }
+
+    @Benchmark
+    public MapEntity lookupByInstanceId() {
+        return map.getEntity(instanceIds[nextLookup()]);
+    }
+
+    @Benchmark
+    public MapEntity lookupByHandle() {
+        return map.getEntity(handles[nextLookup()]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int iterateHashMap() {
+        count = 0;
+        hashMap.values().forEach(counter);
+        return count;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int iterateHandles() {
+        count = 0;
+        map.forEachEntity(counter);
+        return count;
+    }
+
+    private int nextLookup() {
+        return next = (next + 1) & (LOOKUPS - 1);
+    }
+}
@@ -0,0 +1,124 @@
+package com.mmo.core.map;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class EntityRegistryTest {
+
+    @Test
+    public void reuseSlotsUnderNewGeneration() {
+        EntityRegistry registry = new EntityRegistry();
+        TestEntity first = new TestEntity(UUID.randomUUID());
+        TestEntity second = new TestEntity(UUID.randomUUID());
+
+        int firstHandle = registry.put(first);
+
+        assertThat(registry.get(firstHandle), sameInstance(first));
+        assertThat(registry.remove(first.getInstanceId()), sameInstance(first));
+
+        int secondHandle = registry.put(second);
+
+        assertThat(EntityRegistry.getIndex(secondHandle), equalTo(EntityRegistry.getIndex(firstHandle)));
+        assertThat(EntityRegistry.getGeneration(secondHandle), equalTo(EntityRegistry.getGeneration(firstHandle) + 1));
+        assertThat(registry.get(firstHandle), nullValue());
+        assertThat(registry.get(secondHandle), sameInstance(second));
+        assertThat(registry.get(first.getInstanceId()), nullValue());
+    }
+
+    @Test
+    public void replaceEntityWithSameInstanceId() {
+        EntityRegistry registry = new EntityRegistry();
+        UUID instanceId = UUID.randomUUID();
+        TestEntity first = new TestEntity(instanceId);
+        TestEntity second = new TestEntity(instanceId);
+
+        int firstHandle = registry.put(first);
+        int secondHandle = registry.put(second);
+
+        assertThat(secondHandle, not(equalTo(firstHandle)));
+        assertThat(registry.get(firstHandle), nullValue());
+        assertThat(registry.get(instanceId), sameInstance(second));
+        assertThat(registry, hasSize(1));
+    }
+
+    @Test
+    public void resolveThroughGrowthAndTombstones() {
+        EntityRegistry registry = new EntityRegistry();
+        List<TestEntity> entities = new ArrayList<>();
+        List<Integer> handles = new ArrayList<>();
+
+        for (int i = 0; i < 10000; i++) {
+            TestEntity entity = new TestEntity(UUID.randomUUID());
+
+            entities.add(entity);
+            handles.add(registry.put(entity));
+        }
+
+        for (int i = 0; i < entities.size(); i += 2) {
+            registry.remove(entities.get(i).getInstanceId());
+        }
+
+        for (int i = 0; i < entities.size(); i++) {
+            TestEntity expected = i % 2 == 0 ? null : entities.get(i);
+
+            assertThat(registry.get(entities.get(i).getInstanceId()), equalTo(expected));
+            assertThat(registry.get(handles.get(i)), equalTo(expected));
+        }
+
+        List<MapEntity> visited = new ArrayList<>();
+        registry.forEach(visited::add);
+
+        assertThat(registry, hasSize(5000));
+        assertThat(visited, hasSize(5000));
+        assertThat(new ArrayList<>(registry), equalTo(visited));
+        assertThat(registry.contains(entities.get(1)), equalTo(true));
+        assertThat(registry.contains(entities.get(0)), equalTo(false));
+    }
+
+    @Test
+    public void resolveWhileGrowing() throws InterruptedException {
+        EntityRegistry registry = new EntityRegistry();
+        TestEntity entity = new TestEntity(UUID.randomUUID());
+        int handle = registry.put(entity);
+        AtomicBoolean growing = new AtomicBoolean(true);
+        AtomicInteger missed = new AtomicInteger();
+
+        Thread reader = new Thread(() -> {
+            while (growing.get()) {
+                if (registry.get(handle) != entity || registry.get(entity.getInstanceId()) != entity) {
+                    missed.incrementAndGet();
+                }
+            }
+        });
+
+        reader.start();
+
+        for (int i = 0; i < 500000; i++) {
+            registry.put(new TestEntity(UUID.randomUUID()));
+        }
+
+        growing.set(false);
+        reader.join();
+
+        assertThat(missed.get(), equalTo(0));
+    }
+
+    @Test
+    public void ignoreForeignHandles() {
+        EntityRegistry registry = new EntityRegistry();
+
+        registry.put(new TestEntity(UUID.randomUUID()));
+
+        assertThat(registry.get(EntityRegistry.NO_HANDLE), nullValue());
+        assertThat(registry.get(1 << 19), nullValue());
+        assertThat(registry.getHandle(UUID.randomUUID()), equalTo(EntityRegistry.NO_HANDLE));
+    }
+}
@@ -0,0 +1,209 @@
+package com.mmo.core.map;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class GridSpatialIndexTest {
+
+    @Test
+    public void queryVisitsNeighbourCellsOnly() {
+        GridSpatialIndex index = GridSpatialIndex.builder().cellSize(10).build();
+        TestEntity center = new TestEntity(5, 5, 0);
+        TestEntity neighbour = new TestEntity(14, -4, 0);
+        TestEntity outside = new TestEntity(16, 5, 0);
+        TestEntity far = new TestEntity(500, 500, 0);
+
+        index.add(center);
+        index.add(neighbour);
+        index.add(outside);
+        index.add(far);
+
+        assertThat(query(index, center.getPosition(), 10), containsInAnyOrder(center, neighbour));
+        assertThat(index.size(), equalTo(4));
+    }
+
+    @Test
+    public void queryHandlesNegativeCoordinates() {
+        GridSpatialIndex index = GridSpatialIndex.builder().cellSize(10).build();
+        TestEntity center = new TestEntity(-1, -1, -1);
+        TestEntity entity = new TestEntity(1, 1, 1);
+
+        index.add(center);
+        index.add(entity);
+
+        assertThat(query(index, center.getPosition(), 2), containsInAnyOrder(center, entity));
+        assertThat(query(index, entity.getPosition(), 1), containsInAnyOrder(entity));
+    }
+
+    @Test
+    public void queryWiderThanOccupiedCells() {
+        GridSpatialIndex index = GridSpatialIndex.builder().cellSize(1).build();
+        TestEntity center = new TestEntity(0, 0, 0);
+        TestEntity entity = new TestEntity(900, 900, 900);
+
+        index.add(center);
+        index.add(entity);
+
+        assertThat(query(index, center.getPosition(), 1000), containsInAnyOrder(center, entity));
+    }
+
+    @Test
+    public void moveFollowsEntityAcrossCells() {
+        GridSpatialIndex index = GridSpatialIndex.builder().cellSize(10).build();
+        TestEntity center = new TestEntity(5, 5, 0);
+        TestEntity entity = new TestEntity(35, 5, 0);
+
+        index.add(center);
+        index.add(entity);
+
+        entity.getPosition().decrementX(25);
+        index.move(entity);
+
+        assertThat(query(index, center.getPosition(), 5), containsInAnyOrder(center, entity));
+
+        entity.getPosition().incrementX(25);
+        index.move(entity);
+
+        assertThat(query(index, center.getPosition(), 5), containsInAnyOrder(center));
+    }
+
+    @Test
+    public void removeEntity() {
+        GridSpatialIndex index = GridSpatialIndex.builder().cellSize(10).build();
+        TestEntity center = new TestEntity(5, 5, 0);
+        TestEntity entity = new TestEntity(6, 5, 0);
+
+        index.add(center);
+        index.add(entity);
+        index.remove(entity);
+        index.move(entity);
+
+        assertThat(query(index, center.getPosition(), 5), containsInAnyOrder(center));
+        assertThat(index.size(), equalTo(1));
+    }
+
+    @Test
+    public void rejectsNonPositiveCellSize() {
+        assertThrows(SpatialIndexException.class, () -> GridSpatialIndex.builder().cellSize(0).build());
+    }
+
+    @Test
+    public void findNearestOrdersByDistance() {
+        GridSpatialIndex index = GridSpatialIndex.builder().cellSize(10).build();
+        TestEntity center = new TestEntity(5, 5, 0);
+        TestEntity close = new TestEntity(8, 5, 0);
+        TestEntity next = new TestEntity(-12, 5, 0);
+        TestEntity far = new TestEntity(40, 40, 0);
+
+        index.add(far);
+        index.add(next);
+        index.add(center);
+        index.add(close);
+
+        NearestEntities<MapEntity> result = NearestEntities.builder().capacity(3).build();
+        index.findNearest(center.getPosition(), 100, entity -> entity != center, result);
+
+        assertThat(result.size(), equalTo(3));
+        assertThat(result.get(0), equalTo(close));
+        assertThat(result.get(1), equalTo(next));
+        assertThat(result.get(2), equalTo(far));
+        assertThat(result.getDistance(0), equalTo(3L));
+        assertThat(result.getDistance(1), equalTo(17L));
+        assertThat(result.getDistance(2), equalTo(35L));
+    }
+
+    @Test
+    public void findNearestWithinRatioAndPredicate() {
+        GridSpatialIndex index = GridSpatialIndex.builder().cellSize(10).build();
+        TestEntity center = new TestEntity(5, 5, 0);
+        TestEntity close = new TestEntity(8, 5, 0);
+        TestEntity match = new TestEntity(20, 5, 0);
+        TestEntity far = new TestEntity(80, 5, 0);
+
+        index.add(center);
+        index.add(close);
+        index.add(match);
+        index.add(far);
+
+        NearestEntities<MapEntity> result = NearestEntities.builder().capacity(2).build();
+        index.findNearest(center.getPosition(), 50, entity -> entity == match || entity == far, result);
+
+        assertThat(result.size(), equalTo(1));
+        assertThat(result.get(0), equalTo(match));
+    }
+
+    @Test
+    public void findNearestMatchesScan() {
+        Random random = new Random(7);
+        GridSpatialIndex grid = GridSpatialIndex.builder().cellSize(16).build();
+        ScanSpatialIndex scan = ScanSpatialIndex.builder().build();
+        List<TestEntity> entities = new ArrayList<>();
+
+        for (int i = 0; i < 3000; i++) {
+            TestEntity entity = new TestEntity(random.nextInt(640) - 320, random.nextInt(640) - 320, random.nextInt(16));
+            entities.add(entity);
+            grid.add(entity);
+            scan.add(entity);
+        }
+
+        NearestEntities<MapEntity> expected = NearestEntities.builder().capacity(5).build();
+        NearestEntities<MapEntity> result = NearestEntities.builder().capacity(5).build();
+
+        for (TestEntity center : entities.subList(0, 50)) {
+            int ratio = random.nextInt(80);
+
+            expected.clear();
+            result.clear();
+            scan.findNearest(center.getPosition(), ratio, entity -> entity != center, expected);
+            grid.findNearest(center.getPosition(), ratio, entity -> entity != center, result);
+
+            assertThat(result.size(), equalTo(expected.size()));
+
+            for (int i = 0; i < result.size(); i++) {
+                assertThat(result.getDistance(i), equalTo(expected.getDistance(i)));
+            }
+        }
+    }
+
+    @Test
+    public void findNearestWalksRingsBeforeOccupiedCells() {
+        GridSpatialIndex index = GridSpatialIndex.builder().cellSize(10).build();
+        TestEntity center = new TestEntity(5, 5, 0);
+        List<TestEntity> entities = new ArrayList<>();
+
+        for (int i = -20; i < 20; i++) {
+            TestEntity entity = new TestEntity(i * 10 + 5, 5, 0);
+            entities.add(entity);
+            index.add(entity);
+        }
+
+        NearestEntities<MapEntity> result = NearestEntities.builder().capacity(entities.size()).build();
+        index.findNearest(center.getPosition(), 1000, entity -> true, result);
+
+        Set<MapEntity> found = new HashSet<>();
+
+        for (int i = 0; i < result.size(); i++) {
+            found.add(result.get(i));
+        }
+
+        assertThat(result.size(), equalTo(entities.size()));
+        assertThat(found, hasSize(entities.size()));
+        assertThat(result.getDistance(0), equalTo(0L));
+        assertThat(result.getDistance(result.size() - 1), equalTo(200L));
+    }
+
+    private Set<MapEntity> query(SpatialIndex index, Position center, int ratio) {
+        Set<MapEntity> result = new HashSet<>();
+        index.query(center, ratio, result::add);
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+package com.mmo.core.map;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class InterestManagerTest {
+
+    @Test
+    public void enterAndLeaveWithHysteresis() {
+        TestEntity observer = new TestEntity(0L, 0L, 0L);
+        TestEntity entity = new TestEntity(20L, 0L, 0L);
+
+        Map map = Map.builder()
+                .name("name")
+                .description("description")
+                .nearbyRatio(10)
+                .build();
+
+        map.addEntity(observer);
+        map.addEntity(entity);
+
+        Listener listener = new Listener();
+
+        InterestManager interest = InterestManager.builder()
+                .map(map)
+                .listener(listener)
+                .hysteresis(3)
+                .build();
+
+        interest.update(observer);
+
+        assertThat(interest.getView(observer.getInstanceId()), contains(observer.getInstanceId()));
+        assertThat(listener.entered, contains(observer.getInstanceId()));
+
+        // moves inside enter radius
+        entity.getPosition().decrementX(10);
+        interest.update(observer);
+
+        assertThat(listener.entered, contains(observer.getInstanceId(), entity.getInstanceId()));
+        assertThat(interest.getObservers(entity.getInstanceId()), contains(observer.getInstanceId()));
+
+        // moves out of enter radius but still inside leave radius: no flapping
+        entity.getPosition().incrementX(2);
+        interest.update(observer);
+
+        assertThat(listener.left, empty());
+        assertThat(interest.getView(observer.getInstanceId()), hasItem(entity.getInstanceId()));
+
+        // moves out of leave radius
+        entity.getPosition().incrementX(2);
+        interest.update(observer);
+
+        assertThat(listener.left, contains(entity.getInstanceId()));
+        assertThat(interest.getObservers(entity.getInstanceId()), empty());
+
+        interest.removeObserver(observer.getInstanceId());
+
+        assertThat(interest.getView(observer.getInstanceId()), empty());
+        assertThat(interest.getObservers(observer.getInstanceId()), empty());
+    }
+
+    private class Listener implements InterestListener {
+
+        List<UUID> entered = new ArrayList<>();
+        List<UUID> left = new ArrayList<>();
+
+        @Override
+        public void onEnter(UUID observer, MapEntity entity) {
+            entered.add(entity.getInstanceId());
+        }
+
+        @Override
+        public void onLeave(UUID observer, UUID entity) {
+            left.add(entity);
+        }
+    }
+}
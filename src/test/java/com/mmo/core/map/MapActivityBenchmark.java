@@ -0,0 +1,163 @@
+package com.mmo.core.map;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mmo.core.animate.Animate;
+import com.mmo.core.attribute.Attributes;
+import com.mmo.core.looper.LooperContext;
+
+/*
+ * one tick of a town full of animates standing around, a few of them
+ * hitting a neighbour. polled animates never say they are idle and are
+ * updated on every tick the way every entity used to be, scheduled ones
+ * leave the active entities once they have nothing to do
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapActivityBenchmark {
+
+    private static final int NEARBY_RATIO = 50;
+    private static final int AREA_PER_ENTITY = 400;
+    private static final int ATTACK_RATE_IN_MILLIS = 1000;
+
+    @Param({ "50000" })
+    private int entities;
+
+    @Param({ "0", "500", "50000" })
+    private int busy;
+
+    @Param({ "polled", "scheduled" })
+    private String mode;
+
+    private ForkJoinPool pool;
+    private Map map;
+    private LooperContext context;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int side = (int) Math.sqrt((double) entities * AREA_PER_ENTITY);
+        boolean polled = mode.equals("polled");
+        List<Unit> units = new ArrayList<>();
+
+        pool = new ForkJoinPool(1);
+        map = Map.builder()
+                .name("benchmark")
+                .description("benchmark")
+                .nearbyRatio(NEARBY_RATIO)
+                .updatePool(pool)
+                .build();
+
+        for (int i = 0; i < entities; i++) {
+            Unit unit = new Unit(random.nextInt(side), random.nextInt(side), polled);
+
+            units.add(unit);
+            map.addEntity(unit);
+        }
+
+        for (int i = 0; i < busy; i++) {
+            Unit unit = units.get(i);
+
+            map.findNearestEntity(unit, NEARBY_RATIO * 4, Unit.class).ifPresent(unit::attack);
+        }
+
+        long tick = System.currentTimeMillis() + ATTACK_RATE_IN_MILLIS;
+
+        context = new LooperContext() {
+            {
+                setTick(tick);
+            }
+        };
+
+        map.update(context);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int tick() {
+        map.update(context);
+        return map.getActiveEntitiesSize();
+    }
+
+    private static class Unit extends Animate {
+
+        private final UUID instanceId = UUID.randomUUID();
+        private final Position position;
+        private final boolean polled;
+        private final Attributes attributes = Attributes.builder()
+                .hp(Integer.MAX_VALUE)
+                .mp(0)
+                .attack(2)
+                .defense(1)
+                .magicDefense(0)
+                .hitRate(0)
+                .critical(0)
+                .dodgeRate(0)
+                .attackSpeed(100)
+                .moveSpeed(1)
+                .hpRecovery(0)
+                .mpRecovery(0)
+                .attackRange(3)
+                .build();
+
+        private Unit(long x, long y, boolean polled) {
+            this.polled = polled;
+            this.position = Position.builder()
+                    .x(x)
+                    .y(y)
+                    .z(0L)
+                    .build();
+        }
+
+        @Override
+        public boolean isIdle() {
+            return !polled && super.isIdle();
+        }
+
+        @Override
+        public UUID getInstanceId() {
+            return instanceId;
+        }
+
+        @Override
+        public String getName() {
+            return instanceId.toString();
+        }
+
+        @Override
+        public Position getPosition() {
+            return position;
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return attributes;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.mmo.core.map;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class MapPartitionTest {
+
+    @Test
+    public void dealColumnsToNodesInTurn() {
+        MapPartition partition = partition("b");
+
+        assertThat(partition.getOwner(position(0)), equalTo("a"));
+        assertThat(partition.getOwner(position(99)), equalTo("a"));
+        assertThat(partition.getOwner(position(100)), equalTo("b"));
+        assertThat(partition.getOwner(position(250)), equalTo("c"));
+        assertThat(partition.getOwner(position(300)), equalTo("a"));
+        assertThat(partition.getOwner(position(-1)), equalTo("c"));
+        assertThat(partition.isLocal(position(150)), equalTo(true));
+        assertThat(partition.isLocal(position(50)), equalTo(false));
+    }
+
+    @Test
+    public void ghostAlongBorders() {
+        MapPartition partition = partition("b");
+
+        assertThat(partition.getGhostNodes(position(150)), empty());
+        assertThat(partition.getGhostNodes(position(105)), containsInAnyOrder("a"));
+        assertThat(partition.getGhostNodes(position(195)), containsInAnyOrder("c"));
+        assertThat(partition.getGhostNodes(position(110)), empty());
+        assertThat(partition.getGhostNodes(position(95)), containsInAnyOrder("a"));
+    }
+
+    @Test
+    public void rejectUnknownLocalNode() {
+        assertThrows(MapPartitionException.class, () -> partition("d"));
+    }
+
+    private static MapPartition partition(String localNode) {
+        return MapPartition.builder()
+                .cellSize(100L)
+                .ghostRange(10L)
+                .nodes(List.of("a", "b", "c"))
+                .localNode(localNode)
+                .build();
+    }
+
+    private static Position position(long x) {
+        return Position.builder()
+                .x(x)
+                .y(0L)
+                .z(0L)
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.mmo.core.map;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * the same nearby query collected into new sets, visited, or added to a
+ * list kept between queries. run with -prof gc, the visitor and the reused
+ * list are expected at zero bytes per operation
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapQueryBenchmark {
+
+    private static final int ENTITIES = 10000;
+    private static final int NEARBY_RATIO = 50;
+    private static final int AREA_PER_ENTITY = 400;
+
+    private Map map;
+    private MapEntity[] bases;
+    private List<Monster> monsters;
+    private Consumer<MapEntity> counter;
+    private int count;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int side = (int) Math.sqrt((double) ENTITIES * AREA_PER_ENTITY);
+
+        map = Map.builder()
+                .name("benchmark")
+                .description("benchmark")
+                .nearbyRatio(NEARBY_RATIO)
+                .build();
+        bases = new MapEntity[ENTITIES];
+        monsters = new ArrayList<>();
+        counter = entity -> count++;
+
+        for (int i = 0; i < ENTITIES; i++) {
+            Position position = Position.builder()
+                    .x((long) random.nextInt(side))
+                    .y((long) random.nextInt(side))
+                    .z(0L)
+                    .build();
+
+            bases[i] = random.nextBoolean() ? new TestEntity(position) : new Monster(position);
+            map.addEntity(bases[i]);
+        }
+    }
+
+    @Benchmark
+    public int nearbySet() {
+        return map.getNearbyEntities(nextBase()).size();
+    }
+
+    @Benchmark
+    public int typedNearbySet() {
+        return map.getNearbyEntities(nextBase(), Monster.class).size();
+    }
+
+    @Benchmark
+    public int visitor() {
+        count = 0;
+        map.forEachNearbyEntity(nextBase(), counter);
+        return count;
+    }
+
+    @Benchmark
+    public int typedVisitor() {
+        count = 0;
+        map.forEachNearbyEntity(nextBase(), NEARBY_RATIO, Monster.class, counter);
+        return count;
+    }
+
+    @Benchmark
+    public int reusedList() {
+        monsters.clear();
+        return map.getNearbyEntities(nextBase(), NEARBY_RATIO, Monster.class, monsters).size();
+    }
+
+    private MapEntity nextBase() {
+        next = next + 1 == bases.length ? 0 : next + 1;
+        return bases[next];
+    }
+
+    private static class Monster extends TestEntity {
+
+        Monster(Position position) {
+            super(position);
+        }
+    }
+}
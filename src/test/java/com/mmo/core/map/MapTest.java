@@ -2,33 +2,40 @@ package com.mmo.core.map;
 
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Test;
 
 import com.mmo.core.looper.LooperContext;
+import com.mmo.core.looper.LooperContextMocker;
 
 public class MapTest {
 
     @Test
     public void addEntity() {
-        Entity entityA = new Entity(Position.builder()
+        TestEntity entityA = new TestEntity(Position.builder()
                 .x(10L)
                 .y(15L)
                 .z(10L)
                 .build());
 
-        Entity entityB = new Entity(Position.builder()
+        TestEntity entityB = new TestEntity(Position.builder()
                 .x(11L)
                 .y(13L)
                 .z(10L)
                 .build());
 
-        Entity entityC = new Entity(Position.builder()
+        TestEntity entityC = new TestEntity(Position.builder()
                 .x(9L)
                 .y(17L)
                 .z(10L)
@@ -50,18 +57,18 @@ public class MapTest {
         assertThat(result, containsInAnyOrder(expected));
         assertThat(result.size(), equalTo(expected.length));
         assertThat(map.getEntity(entityA.getInstanceId()), equalTo(entityA));
-        assertThat(map.getEntity(entityA.getInstanceId(), Entity.class), equalTo(entityA));
+        assertThat(map.getEntity(entityA.getInstanceId(), TestEntity.class), equalTo(entityA));
     }
 
     @Test
     public void removeEntity() {
-        Entity entityA = new Entity(Position.builder()
+        TestEntity entityA = new TestEntity(Position.builder()
                 .x(10L)
                 .y(15L)
                 .z(10L)
                 .build());
 
-        Entity entityB = new Entity(Position.builder()
+        TestEntity entityB = new TestEntity(Position.builder()
                 .x(11L)
                 .y(13L)
                 .z(10L)
@@ -83,24 +90,52 @@ public class MapTest {
         assertThat(result, containsInAnyOrder(expected));
         assertThat(result.size(), equalTo(expected.length));
         assertThat(map.findEntity(entityA.getInstanceId()), equalTo(Optional.empty()));
-        assertThat(map.findEntity(entityA.getInstanceId(), Entity.class), equalTo(Optional.empty()));
+        assertThat(map.findEntity(entityA.getInstanceId(), TestEntity.class), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void getEntityByHandle() {
+        TestEntity entity = new TestEntity(Position.builder()
+                .x(10L)
+                .y(15L)
+                .z(10L)
+                .build());
+
+        Map map = Map.builder()
+                .name("map")
+                .description("description")
+                .nearbyRatio(10)
+                .build();
+
+        int handle = map.addEntity(entity);
+
+        assertThat(map.getHandle(entity.getInstanceId()), equalTo(handle));
+        assertThat(map.getEntity(handle), sameInstance(entity));
+        assertThat(map.getEntity(handle, TestEntity.class), sameInstance(entity));
+        assertThrows(MapEntityNotFoundException.class, () -> map.getEntity(handle, SubEntity.class));
+
+        map.removeEntity(entity);
+
+        assertThat(map.findEntity(handle), equalTo(Optional.empty()));
+        assertThat(map.findHandle(entity.getInstanceId()).isPresent(), equalTo(false));
+        assertThrows(MapEntityNotFoundException.class, () -> map.getEntity(handle));
     }
 
     @Test
     public void getNearbyEntities() {
-        Entity entityA = new Entity(Position.builder()
+        TestEntity entityA = new TestEntity(Position.builder()
                 .x(10L)
                 .y(15L)
                 .z(10L)
                 .build());
 
-        Entity entityB = new Entity(Position.builder()
+        TestEntity entityB = new TestEntity(Position.builder()
                 .x(11L)
                 .y(13L)
                 .z(10L)
                 .build());
 
-        Entity entityC = new Entity(Position.builder()
+        TestEntity entityC = new TestEntity(Position.builder()
                 .x(19L)
                 .y(27L)
                 .z(10L)
@@ -125,19 +160,19 @@ public class MapTest {
 
     @Test
     public void getTypedNearbyEntities() {
-        Entity entityA = new Entity(Position.builder()
+        TestEntity entityA = new TestEntity(Position.builder()
                 .x(10L)
                 .y(15L)
                 .z(10L)
                 .build());
 
-        Entity entityB = new Entity(Position.builder()
+        TestEntity entityB = new TestEntity(Position.builder()
                 .x(11L)
                 .y(13L)
                 .z(10L)
                 .build());
 
-        Entity entityC = new Entity(Position.builder()
+        TestEntity entityC = new TestEntity(Position.builder()
                 .x(19L)
                 .y(27L)
                 .z(10L)
@@ -167,41 +202,400 @@ public class MapTest {
         assertThat(result.size(), equalTo(expected.length));
     }
 
-    private class Entity implements MapEntity {
+    @Test
+    public void visitNearbyEntities() {
+        TestEntity entityA = new TestEntity(Position.builder()
+                .x(10L)
+                .y(15L)
+                .z(10L)
+                .build());
+
+        SubEntity entityB = new SubEntity(Position.builder()
+                .x(11L)
+                .y(13L)
+                .z(10L)
+                .build());
+
+        TestEntity entityC = new TestEntity(Position.builder()
+                .x(19L)
+                .y(27L)
+                .z(10L)
+                .build());
+
+        Map map = Map.builder()
+                .name("name")
+                .description("description")
+                .nearbyRatio(5)
+                .build();
+
+        map.addEntity(entityA);
+        map.addEntity(entityB);
+        map.addEntity(entityC);
+
+        List<MapEntity> visited = new ArrayList<>();
+        List<SubEntity> subEntities = new ArrayList<>();
+
+        map.forEachNearbyEntity(entityA, visited::add);
+        map.getNearbyEntities(entityA, 5, SubEntity.class, subEntities);
+        map.getNearbyEntities(entityA, 5, SubEntity.class, subEntities);
+
+        assertThat(visited, containsInAnyOrder(entityA, entityB));
+        assertThat(subEntities, contains(entityB, entityB));
+    }
+
+    @Test
+    public void getNearbyEntitiesAfterMove() {
+        TestEntity entityA = new TestEntity(Position.builder()
+                .x(10L)
+                .y(15L)
+                .z(10L)
+                .build());
 
-        UUID instanceId = UUID.randomUUID();
-        String name = UUID.randomUUID().toString();
-        Position position;
+        TestEntity entityB = new TestEntity(Position.builder()
+                .x(40L)
+                .y(15L)
+                .z(10L)
+                .build());
 
-        public Entity(Position position) {
-            this.position = position;
+        Map map = Map.builder()
+                .name("name")
+                .description("description")
+                .nearbyRatio(5)
+                .build();
+
+        map.addEntity(entityA);
+        map.addEntity(entityB);
+
+        entityB.getPosition().decrementX(27L);
+
+        assertThat(map.getNearbyEntities(entityA), containsInAnyOrder(entityA, entityB));
+
+        map.removeEntity(entityB);
+        entityB.getPosition().incrementX(1L);
+
+        assertThat(map.getNearbyEntities(entityA), containsInAnyOrder(entityA));
+    }
+
+    @Test
+    public void updateReindexesMovedEntitiesOncePerTick() {
+        TestEntity entityA = new TestEntity(Position.builder()
+                .x(10L)
+                .y(15L)
+                .z(10L)
+                .build());
+
+        TestEntity entityB = new TestEntity(Position.builder()
+                .x(40L)
+                .y(15L)
+                .z(10L)
+                .build());
+
+        SpatialIndex spatialIndex = spy(GridSpatialIndex.builder().cellSize(5).build());
+
+        Map map = Map.builder()
+                .name("name")
+                .description("description")
+                .nearbyRatio(5)
+                .spatialIndexFactory(() -> spatialIndex)
+                .build();
+
+        map.addEntity(entityA);
+        map.addEntity(entityB);
+
+        for (int step = 0; step < 9; step++) {
+            entityB.getPosition().decrementX(3L);
+        }
+
+        LooperContextMocker.update(map, 0);
+
+        verify(spatialIndex, times(1)).move(entityB);
+        verify(spatialIndex, never()).move(entityA);
+
+        entityB.getPosition().decrementX(1L);
+        LooperContextMocker.update(map, 0);
+
+        verify(spatialIndex, times(1)).move(entityB);
+
+        entityB.getPosition().decrementX(5L);
+        LooperContextMocker.update(map, 0);
+
+        verify(spatialIndex, times(2)).move(entityB);
+        assertThat(map.getNearbyEntities(entityA), containsInAnyOrder(entityA, entityB));
+    }
+
+    @Test
+    public void typedQueriesOnlyTouchTheirBuckets() {
+        TestEntity entityA = new TestEntity(Position.builder()
+                .x(10L)
+                .y(15L)
+                .z(10L)
+                .build());
+
+        SubEntity entityB = new SubEntity(Position.builder()
+                .x(11L)
+                .y(13L)
+                .z(10L)
+                .build());
+
+        List<SpatialIndex> spatialIndexes = new ArrayList<>();
+
+        Map map = Map.builder()
+                .name("name")
+                .description("description")
+                .nearbyRatio(5)
+                .spatialIndexFactory(() -> {
+                    SpatialIndex spatialIndex = spy(GridSpatialIndex.builder().cellSize(5).build());
+                    spatialIndexes.add(spatialIndex);
+                    return spatialIndex;
+                })
+                .build();
+
+        map.addEntity(entityA);
+        map.addEntity(entityB);
+
+        assertThat(map.getNearbyEntities(entityA, SubEntity.class), containsInAnyOrder(entityB));
+        assertThat(map.getNearbyEntities(entityA, TestEntity.class), containsInAnyOrder(entityA, entityB));
+        assertThat(map.getEntities(SubEntity.class), containsInAnyOrder(entityB));
+        assertThat(map.getEntities(TestEntity.class), containsInAnyOrder(entityA, entityB));
+        assertThat(spatialIndexes.size(), equalTo(2));
+
+        verify(spatialIndexes.get(0), times(1)).query(any(), anyInt(), any(), any(), any());
+        verify(spatialIndexes.get(1), times(2)).query(any(), anyInt(), any(), any(), any());
+
+        map.removeEntity(entityB);
+
+        assertThat(map.getEntities(SubEntity.class), empty());
+        assertThat(map.getNearbyEntities(entityA), containsInAnyOrder(entityA));
+    }
+
+    @Test
+    public void findNearestEntity() {
+        TestEntity entityA = new TestEntity(Position.builder()
+                .x(10L)
+                .y(15L)
+                .z(10L)
+                .build());
+
+        TestEntity entityB = new TestEntity(Position.builder()
+                .x(14L)
+                .y(13L)
+                .z(10L)
+                .build());
+
+        SubEntity entityC = new SubEntity(Position.builder()
+                .x(17L)
+                .y(15L)
+                .z(10L)
+                .build());
+
+        SubEntity entityD = new SubEntity(Position.builder()
+                .x(11L)
+                .y(13L)
+                .z(10L)
+                .build());
+
+        Map map = Map.builder()
+                .name("name")
+                .description("description")
+                .nearbyRatio(5)
+                .build();
+
+        map.addEntity(entityA);
+        map.addEntity(entityB);
+        map.addEntity(entityC);
+        map.addEntity(entityD);
+
+        NearestEntities<TestEntity> nearest = NearestEntities.<TestEntity>builder().capacity(3).build();
+        map.getNearestEntities(entityA, 10, TestEntity.class, nearest);
+
+        assertThat(nearest.size(), equalTo(3));
+        assertThat(nearest.get(0), equalTo(entityD));
+        assertThat(nearest.get(1), equalTo(entityB));
+        assertThat(nearest.get(2), equalTo(entityC));
+        assertThat(map.findNearestEntity(entityA, 10, TestEntity.class), equalTo(Optional.of(entityD)));
+        assertThat(map.findNearestEntity(entityA, 10, SubEntity.class, entity -> entity != entityD),
+                equalTo(Optional.of(entityC)));
+        assertThat(map.findNearestEntity(entityA, 5, SubEntity.class, entity -> entity != entityD),
+                equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void updateDefersInteractionsAcrossRegions() {
+        List<String> log = Collections.synchronizedList(new ArrayList<>());
+
+        InteractingEntity entityA = new InteractingEntity("A", log, Position.builder()
+                .x(5L)
+                .y(5L)
+                .z(5L)
+                .build());
+
+        InteractingEntity entityB = new InteractingEntity("B", log, Position.builder()
+                .x(6L)
+                .y(5L)
+                .z(5L)
+                .build());
+
+        InteractingEntity entityC = new InteractingEntity("C", log, Position.builder()
+                .x(1005L)
+                .y(5L)
+                .z(5L)
+                .build());
+
+        entityA.target = entityB;
+        entityC.target = entityA;
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+
+        try {
+            Map map = Map.builder()
+                    .name("name")
+                    .description("description")
+                    .nearbyRatio(5)
+                    .regionSize(10)
+                    .parallelThreshold(1)
+                    .updatePool(pool)
+                    .build();
+
+            map.addEntity(entityA);
+            map.addEntity(entityB);
+            map.addEntity(entityC);
+
+            LooperContextMocker.update(map, 0);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(log, hasSize(5));
+        assertThat(log.indexOf("A hits B"), equalTo(log.indexOf("A updates") + 1));
+        assertThat(log.get(4), equalTo("C hits A"));
+    }
+
+    @Test
+    public void updateActiveEntitiesOnly() {
+        IdlingEntity entity = new IdlingEntity(Position.builder()
+                .x(10L)
+                .y(15L)
+                .z(10L)
+                .build());
+
+        TestEntity busy = new TestEntity(Position.builder()
+                .x(11L)
+                .y(13L)
+                .z(10L)
+                .build());
+
+        Map map = Map.builder()
+                .name("map")
+                .description("description")
+                .nearbyRatio(10)
+                .build();
+
+        map.addEntity(entity);
+        map.addEntity(busy);
+        map.update(newContext(1000));
+
+        assertThat(entity.updates, equalTo(1));
+        assertThat(map.getActiveEntitiesSize(), equalTo(1));
+
+        map.update(newContext(2000));
+        entity.listener.onWake(entity);
+        map.update(newContext(3000));
+
+        assertThat(entity.updates, equalTo(2));
+
+        entity.wakeUpTick = 5000;
+        entity.listener.onWake(entity);
+        map.update(newContext(4000));
+        map.update(newContext(4500));
+
+        assertThat(entity.updates, equalTo(3));
+
+        map.update(newContext(5000));
+
+        assertThat(entity.updates, equalTo(4));
+
+        entity.wakeUpTick = 6000;
+        map.removeEntity(entity);
+        map.update(newContext(6000));
+
+        assertThat(entity.updates, equalTo(4));
+        assertThat(entity.listener, nullValue());
+        assertThat(map.getActiveEntitiesSize(), equalTo(1));
+    }
+
+    private static LooperContext newContext(long tick) {
+        return new LooperContext() {
+            {
+                setTick(tick);
+            }
+        };
+    }
+
+    private class IdlingEntity extends TestEntity {
+
+        ActivityListener listener;
+        long wakeUpTick = Long.MAX_VALUE;
+        int updates;
+
+        public IdlingEntity(Position position) {
+            super(position);
         }
 
         @Override
-        public UUID getInstanceId() {
-            return instanceId;
+        public boolean isIdle() {
+            return true;
         }
 
         @Override
-        public String getName() {
-            return name;
+        public long getWakeUpTick() {
+            return wakeUpTick;
         }
 
         @Override
-        public Position getPosition() {
-            return position;
+        public void setActivityListener(ActivityListener listener) {
+            this.listener = listener;
         }
 
         @Override
         public void update(LooperContext context) {
-
+            updates++;
         }
     }
 
-    private class SubEntity extends Entity {
+    private class SubEntity extends TestEntity {
 
         public SubEntity(Position position) {
             super(position);
         }
     }
+
+    private class InteractingEntity extends TestEntity {
+
+        final String name;
+        final List<String> log;
+        TestEntity target;
+
+        public InteractingEntity(String name, List<String> log, Position position) {
+            super(position);
+            this.name = name;
+            this.log = log;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        /* holding the log keeps the other shard from logging between an update and its hit */
+        @Override
+        public void update(LooperContext context) {
+            synchronized (log) {
+                log.add(name + " updates");
+
+                if (Objects.nonNull(target)) {
+                    context.interact(target, () -> log.add(name + " hits " + target.getName()));
+                }
+            }
+        }
+    }
 }
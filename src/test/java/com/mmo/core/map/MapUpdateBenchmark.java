@@ -0,0 +1,163 @@
+package com.mmo.core.map;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mmo.core.animate.Animate;
+import com.mmo.core.attribute.Attributes;
+import com.mmo.core.looper.LooperContext;
+
+/*
+ * one tick of a map full of animates, half of them chasing and hitting a
+ * neighbour, the other half walking to a far away spot. one worker updates
+ * the map in place, more workers update it by regions on a pool of that
+ * size, the hits landing on another region waiting for the merge
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapUpdateBenchmark {
+
+    private static final int NEARBY_RATIO = 50;
+    private static final int AREA_PER_ENTITY = 400;
+    private static final int ATTACK_RATE_IN_MILLIS = 1000;
+
+    @Param({ "50000" })
+    private int entities;
+
+    @Param({ "1", "2", "4", "8" })
+    private int workers;
+
+    private ForkJoinPool pool;
+    private Map map;
+    private LooperContext context;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int side = (int) Math.sqrt((double) entities * AREA_PER_ENTITY);
+        List<Unit> units = new ArrayList<>();
+
+        pool = new ForkJoinPool(workers);
+        map = Map.builder()
+                .name("benchmark")
+                .description("benchmark")
+                .nearbyRatio(NEARBY_RATIO)
+                .updatePool(pool)
+                .build();
+
+        for (int i = 0; i < entities; i++) {
+            Unit unit = new Unit(random.nextInt(side), random.nextInt(side));
+
+            units.add(unit);
+            map.addEntity(unit);
+        }
+
+        for (int i = 0; i < entities; i++) {
+            Unit unit = units.get(i);
+
+            Optional<Unit> neighbour = map.findNearestEntity(unit, NEARBY_RATIO, Unit.class);
+
+            if (i % 2 == 0 && neighbour.isPresent()) {
+                unit.attack(neighbour.get());
+            } else {
+                unit.move(Position.builder()
+                        .x((long) random.nextInt(side))
+                        .y((long) random.nextInt(side))
+                        .z(0L)
+                        .build());
+            }
+        }
+
+        long tick = System.currentTimeMillis() + ATTACK_RATE_IN_MILLIS;
+
+        context = new LooperContext() {
+            {
+                setTick(tick);
+                setLag(0L);
+                setDesiredLag(0.0);
+            }
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int tick() {
+        map.update(context);
+        return map.getEntities().size();
+    }
+
+    private static class Unit extends Animate {
+
+        private final UUID instanceId = UUID.randomUUID();
+        private final Position position;
+        private final Attributes attributes = Attributes.builder()
+                .hp(Integer.MAX_VALUE)
+                .mp(0)
+                .attack(2)
+                .defense(1)
+                .magicDefense(0)
+                .hitRate(0)
+                .critical(0)
+                .dodgeRate(0)
+                .attackSpeed(100)
+                .moveSpeed(1)
+                .hpRecovery(0)
+                .mpRecovery(0)
+                .attackRange(3)
+                .build();
+
+        private Unit(long x, long y) {
+            position = Position.builder()
+                    .x(x)
+                    .y(y)
+                    .z(0L)
+                    .build();
+        }
+
+        @Override
+        public UUID getInstanceId() {
+            return instanceId;
+        }
+
+        @Override
+        public String getName() {
+            return instanceId.toString();
+        }
+
+        @Override
+        public Position getPosition() {
+            return position;
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return attributes;
+        }
+    }
+}
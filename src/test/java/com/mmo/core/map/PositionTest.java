@@ -136,4 +136,22 @@ public class PositionTest {
 
         assertThat(result, equalTo(expected));
     }
+
+    @Test
+    public void getDistance() {
+        Position position = Position.builder()
+                .x(10L)
+                .y(10L)
+                .z(10L)
+                .build();
+
+        Position other = Position.builder()
+                .x(13L)
+                .y(2L)
+                .z(10L)
+                .build();
+
+        assertThat(position.getDistance(other), equalTo(8L));
+        assertThat(other.getDistance(position), equalTo(8L));
+    }
 }
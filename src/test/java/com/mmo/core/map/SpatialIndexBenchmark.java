@@ -0,0 +1,88 @@
+package com.mmo.core.map;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * one nearby query around a random entity, the world grows with the entity
+ * count so every query finds about the same crowd and only the entities the
+ * index has to walk past change
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialIndexBenchmark {
+
+    private static final int NEARBY_RATIO = 50;
+    private static final int AREA_PER_ENTITY = 400;
+
+    @Param({ "1000", "10000", "100000" })
+    private int entities;
+
+    private Map scan;
+    private Map grid;
+    private MapEntity[] bases;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int side = (int) Math.sqrt((double) entities * AREA_PER_ENTITY);
+
+        scan = createMap(() -> ScanSpatialIndex.builder().build());
+        grid = createMap(() -> GridSpatialIndex.builder().cellSize(NEARBY_RATIO).build());
+        bases = new MapEntity[entities];
+
+        for (int i = 0; i < entities; i++) {
+            Position position = Position.builder()
+                    .x((long) random.nextInt(side))
+                    .y((long) random.nextInt(side))
+                    .z(0L)
+                    .build();
+
+            bases[i] = new TestEntity(position);
+            scan.addEntity(bases[i]);
+            grid.addEntity(bases[i]);
+        }
+    }
+
+    @Benchmark
+    public int scan() {
+        return scan.getNearbyEntities(nextBase()).size();
+    }
+
+    @Benchmark
+    public int grid() {
+        return grid.getNearbyEntities(nextBase()).size();
+    }
+
+    private MapEntity nextBase() {
+        next = next + 1 == bases.length ? 0 : next + 1;
+        return bases[next];
+    }
+
+    private static Map createMap(Supplier<SpatialIndex> spatialIndexFactory) {
+        return Map.builder()
+                .name("benchmark")
+                .description("benchmark")
+                .nearbyRatio(NEARBY_RATIO)
+                .spatialIndexFactory(spatialIndexFactory)
+                .build();
+    }
+}
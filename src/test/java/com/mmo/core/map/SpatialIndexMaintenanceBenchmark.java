@@ -0,0 +1,133 @@
+package com.mmo.core.map;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mmo.core.looper.LooperContext;
+
+/*
+ * one tick in which every entity takes a step on each axis, either keeping
+ * the grid of the map current through the moves it queued, or moving loose
+ * entities and building a new grid, the way an index without move tracking
+ * has to. tick and move measure the same steps without any index work so
+ * they can be subtracted. with a cell of 50 a step of 1 makes about one
+ * entity in twenty cross a cell boundary every tick, a step of 5 one in five
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialIndexMaintenanceBenchmark {
+
+    private static final int NEARBY_RATIO = 50;
+    private static final int AREA_PER_ENTITY = 400;
+
+    @Param({ "50000" })
+    private int entities;
+
+    @Param({ "1", "5" })
+    private int step;
+
+    private Map tracked;
+    private Map untracked;
+    private MovingEntity[] loose;
+    private LooperContext context;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int side = (int) Math.sqrt((double) entities * AREA_PER_ENTITY);
+
+        tracked = createMap(() -> GridSpatialIndex.builder().cellSize(NEARBY_RATIO).build());
+        untracked = createMap(() -> ScanSpatialIndex.builder().build());
+        loose = new MovingEntity[entities];
+        context = new LooperContext() {
+        };
+
+        for (int i = 0; i < entities; i++) {
+            long x = random.nextInt(side);
+            long y = random.nextInt(side);
+            int direction = random.nextBoolean() ? step : -step;
+
+            tracked.addEntity(new MovingEntity(x, y, direction));
+            untracked.addEntity(new MovingEntity(x, y, direction));
+            loose[i] = new MovingEntity(x, y, direction);
+        }
+    }
+
+    @Benchmark
+    public int tick() {
+        untracked.update(context);
+        return untracked.getEntities().size();
+    }
+
+    @Benchmark
+    public int incremental() {
+        tracked.update(context);
+        return tracked.getEntities().size();
+    }
+
+    @Benchmark
+    public int move() {
+        for (MovingEntity entity : loose) {
+            entity.update(context);
+        }
+
+        return loose.length;
+    }
+
+    @Benchmark
+    public int rebuild() {
+        SpatialIndex spatialIndex = GridSpatialIndex.builder().cellSize(NEARBY_RATIO).build();
+
+        for (MovingEntity entity : loose) {
+            entity.update(context);
+        }
+
+        for (MovingEntity entity : loose) {
+            spatialIndex.add(entity);
+        }
+
+        return spatialIndex.size();
+    }
+
+    private static Map createMap(Supplier<SpatialIndex> spatialIndexFactory) {
+        return Map.builder()
+                .name("benchmark")
+                .description("benchmark")
+                .nearbyRatio(NEARBY_RATIO)
+                .spatialIndexFactory(spatialIndexFactory)
+                .build();
+    }
+
+    private static class MovingEntity extends TestEntity {
+
+        private final int step;
+
+        MovingEntity(long x, long y, int step) {
+            super(x, y, 0L);
+            this.step = step;
+        }
+
+        @Override
+        public void update(LooperContext context) {
+            getPosition().incrementX(step);
+            getPosition().incrementY(step);
+        }
+    }
+}
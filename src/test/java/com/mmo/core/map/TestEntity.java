@@ -0,0 +1,52 @@
+package com.mmo.core.map;
+
+import java.util.UUID;
+
+import com.mmo.core.looper.LooperContext;
+
+/*
+ * a map entity that only sits where it is put, shared by the map tests and
+ * benchmarks
+ */
+public class TestEntity implements MapEntity {
+
+    private final UUID instanceId;
+    private final Position position;
+
+    public TestEntity(UUID instanceId, Position position) {
+        this.instanceId = instanceId;
+        this.position = position;
+    }
+
+    public TestEntity(Position position) {
+        this(UUID.randomUUID(), position);
+    }
+
+    public TestEntity(UUID instanceId) {
+        this(instanceId, Position.builder().x(0L).y(0L).z(0L).build());
+    }
+
+    public TestEntity(long x, long y, long z) {
+        this(Position.builder().x(x).y(y).z(z).build());
+    }
+
+    @Override
+    public UUID getInstanceId() {
+        return instanceId;
+    }
+
+    @Override
+    public String getName() {
+        return instanceId.toString();
+    }
+
+    @Override
+    public Position getPosition() {
+        return position;
+    }
+
+    @Override
+    public void update(LooperContext context) {
+
+    }
+}
@@ -56,4 +56,33 @@ public class PropertyTest {
 
         assertThat(str.getFinalValue(), equalTo(48));
     }
+
+    @Test
+    public void releaveExpiredModifierBeforeOthers() {
+        Property str = Property.builder()
+                .name("str")
+                .value(34)
+                .build();
+
+        OffsetDateTime later = OffsetDateTime.now().plusMinutes(1);
+
+        str.modify(PropertyModifier.builder()
+                .action(PropertyModifierAction.DECREMENT)
+                .value(5)
+                .expiration(OffsetDateTime.now().minusSeconds(1))
+                .persisted(true)
+                .build());
+        str.modify(PropertyModifier.builder()
+                .action(PropertyModifierAction.INCREMENT)
+                .value(10)
+                .expiration(later)
+                .persisted(true)
+                .build());
+
+        LooperContextMocker.update(str, 0);
+
+        assertThat(str.getFinalValue(), equalTo(44));
+        assertThat(str.getModifiers().size(), equalTo(1));
+        assertThat(str.getNextExpiration(), equalTo(later.toInstant().toEpochMilli()));
+    }
 }
@@ -0,0 +1,84 @@
+package com.mmo.core.security;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChannelCipherBenchmark {
+
+    private static final String KEY = "Bar12345Bar12345";
+
+    @Param({ "64", "1024" })
+    private int payloadSize;
+
+    private byte[] payload;
+    private UUID source;
+    private Encryptor encryptor;
+    private Decryptor decryptor;
+    private ChannelCipher aesGcmSending;
+    private ChannelCipher aesGcmReceiving;
+    private ChannelCipher chaChaSending;
+    private ChannelCipher chaChaReceiving;
+
+    @Setup
+    public void setup() {
+        payload = new byte[payloadSize];
+        source = UUID.randomUUID();
+        encryptor = Encryptor.builder().key(KEY).build();
+        decryptor = Decryptor.builder().key(KEY).build();
+
+        ChannelHandshake aesGcmInitiator = newHandshake(true, ChannelCipherAlgorithm.AES_GCM);
+        ChannelHandshake aesGcmAcceptor = newHandshake(false, ChannelCipherAlgorithm.AES_GCM);
+        aesGcmSending = aesGcmInitiator.newSendingCipher(aesGcmAcceptor.getNonce());
+        aesGcmReceiving = aesGcmAcceptor.newReceivingCipher(aesGcmInitiator.getNonce());
+
+        ChannelHandshake chaChaInitiator = newHandshake(true, ChannelCipherAlgorithm.CHACHA20_POLY1305);
+        ChannelHandshake chaChaAcceptor = newHandshake(false, ChannelCipherAlgorithm.CHACHA20_POLY1305);
+        chaChaSending = chaChaInitiator.newSendingCipher(chaChaAcceptor.getNonce());
+        chaChaReceiving = chaChaAcceptor.newReceivingCipher(chaChaInitiator.getNonce());
+    }
+
+    /*
+     * what every frame paid before channel encryption: an AES/ECB token with
+     * Base64 and string parsing, while the payload itself stayed in clear
+     */
+    @Benchmark
+    public String[] tokenEncryption() {
+        return TokenBenchmark.legacyToken(source, encryptor, decryptor);
+    }
+
+    @Benchmark
+    public byte[] aesGcmChannel() {
+        return aesGcmReceiving.decrypt(aesGcmSending.encrypt(payload));
+    }
+
+    @Benchmark
+    public byte[] chaCha20Poly1305Channel() {
+        return chaChaReceiving.decrypt(chaChaSending.encrypt(payload));
+    }
+
+    private static ChannelHandshake newHandshake(boolean initiator, ChannelCipherAlgorithm algorithm) {
+        return ChannelHandshake.builder()
+                .key(KEY)
+                .initiator(initiator)
+                .algorithm(algorithm)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.mmo.core.security;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class ChannelHandshakeTest {
+
+    @Test
+    public void aesGcm() {
+        handshakeAndExchange(ChannelCipherAlgorithm.AES_GCM);
+    }
+
+    @Test
+    public void chaCha20Poly1305() {
+        handshakeAndExchange(ChannelCipherAlgorithm.CHACHA20_POLY1305);
+    }
+
+    @Test
+    public void rejectTamperedFrame() {
+        ChannelHandshake initiator = newHandshake(true, ChannelCipherAlgorithm.AES_GCM);
+        ChannelHandshake acceptor = newHandshake(false, ChannelCipherAlgorithm.AES_GCM);
+
+        ChannelCipher sending = initiator.newSendingCipher(acceptor.getNonce());
+        ChannelCipher receiving = acceptor.newReceivingCipher(initiator.getNonce());
+
+        byte[] encrypted = sending.encrypt("my cool string".getBytes());
+        encrypted[0] ^= 1;
+
+        assertThrows(DecryptionException.class, () -> receiving.decrypt(encrypted));
+    }
+
+    private void handshakeAndExchange(ChannelCipherAlgorithm algorithm) {
+        ChannelHandshake initiator = newHandshake(true, algorithm);
+        ChannelHandshake acceptor = newHandshake(false, algorithm);
+
+        ChannelCipher initiatorSending = initiator.newSendingCipher(acceptor.getNonce());
+        ChannelCipher initiatorReceiving = initiator.newReceivingCipher(acceptor.getNonce());
+        ChannelCipher acceptorSending = acceptor.newSendingCipher(initiator.getNonce());
+        ChannelCipher acceptorReceiving = acceptor.newReceivingCipher(initiator.getNonce());
+
+        for (int i = 0; i < 3; i++) {
+            byte[] request = ("request " + i).getBytes();
+            byte[] response = ("response " + i).getBytes();
+
+            byte[] encryptedRequest = initiatorSending.encrypt(request);
+            byte[] encryptedResponse = acceptorSending.encrypt(response);
+
+            assertThat(encryptedRequest.length, equalTo(request.length + ChannelCipher.TAG_SIZE));
+            assertThat(acceptorReceiving.decrypt(encryptedRequest), equalTo(request));
+            assertThat(initiatorReceiving.decrypt(encryptedResponse), equalTo(response));
+        }
+    }
+
+    private ChannelHandshake newHandshake(boolean initiator, ChannelCipherAlgorithm algorithm) {
+        return ChannelHandshake.builder()
+                .key("Bar12345Bar12345")
+                .initiator(initiator)
+                .algorithm(algorithm)
+                .build();
+    }
+}
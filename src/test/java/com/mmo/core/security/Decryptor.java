@@ -9,6 +9,10 @@ import javax.crypto.spec.SecretKeySpec;
 import lombok.Builder;
 import lombok.NonNull;
 
+/*
+ * the AES/ECB string cipher tokens used before they were HMAC signed, kept
+ * for the benchmarks to compare against
+ */
 public class Decryptor {
 
     private static final String CIPHER_TRANSFORMATION = "AES";
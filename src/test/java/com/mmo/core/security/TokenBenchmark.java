@@ -0,0 +1,80 @@
+package com.mmo.core.security;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBenchmark {
+
+    private static final String KEY = "Bar12345Bar12345";
+
+    private UUID source;
+    private Encryptor encryptor;
+    private Decryptor decryptor;
+    private TokenSigner signer;
+    private TokenSigner verifier;
+    private byte[] token;
+
+    @Setup
+    public void setup() {
+        source = UUID.randomUUID();
+        encryptor = Encryptor.builder().key(KEY).build();
+        decryptor = Decryptor.builder().key(KEY).build();
+        signer = TokenSigner.builder().key(KEY).build();
+        verifier = TokenSigner.builder().key(KEY).build();
+        token = signer.sign(TokenData.create(source));
+    }
+
+    @Benchmark
+    public String[] legacy() {
+        return legacyToken(source, encryptor, decryptor);
+    }
+
+    @Benchmark
+    public boolean signAndVerify() {
+        signer.sign(TokenData.create(source), token, 0);
+        return verifier.verify(token, 0) && !TokenSigner.isExpired(token, 0);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return verifier.verify(token, 0) && !TokenSigner.isExpired(token, 0);
+    }
+
+    /*
+     * the string token every frame carried before binary tokens: formatted,
+     * AES/ECB encrypted and Base64 encoded on send, then reversed and parsed
+     * with a regex split and two date parses on receive
+     */
+    static String[] legacyToken(UUID source, Encryptor encryptor, Decryptor decryptor) {
+        OffsetDateTime now = OffsetDateTime.now();
+        String token = encryptor.encrypt(String.format("%s@%s@%s", source, now, now.plusMinutes(15)));
+        String[] parts = decryptor.decrypt(token).split("\\@");
+
+        UUID.fromString(parts[0]);
+        OffsetDateTime.parse(parts[1]);
+
+        if (OffsetDateTime.parse(parts[2]).isBefore(OffsetDateTime.now())) {
+            throw new IllegalStateException("Token is expired");
+        }
+
+        return parts;
+    }
+}
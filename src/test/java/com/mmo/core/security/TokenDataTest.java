@@ -3,7 +3,6 @@ package com.mmo.core.security;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
 
-import java.time.OffsetDateTime;
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
@@ -11,12 +10,10 @@ import org.junit.jupiter.api.Test;
 public class TokenDataTest {
 
     @Test
-    public void parse() {
+    public void read() {
         UUID source = UUID.randomUUID();
-        OffsetDateTime creation = OffsetDateTime.now();
-        OffsetDateTime expiration = creation.plusDays(1);
-
-        String token = String.format("%s@%s@%s", source, creation, expiration);
+        long creation = TokenClock.nowInSeconds();
+        long expiration = creation + 24 * 60 * 60;
 
         TokenData expected = TokenData.builder()
                 .source(source)
@@ -24,11 +21,15 @@ public class TokenDataTest {
                 .expiration(expiration)
                 .build();
 
-        TokenData result = TokenData.parse(token);
+        byte[] token = TokenSigner.builder()
+                .key("Bar12345Bar12345")
+                .build()
+                .sign(expected);
+
+        TokenData result = TokenData.read(token, 0);
 
         assertThat(expected, equalTo(result));
         assertThat(result.isExpired(), equalTo(false));
-        assertThat(token, equalTo(result.getToken()));
     }
 
     @Test
@@ -40,13 +41,23 @@ public class TokenDataTest {
         TokenData expected = TokenData.builder()
                 .source(source)
                 .creation(result.getCreation())
-                .expiration(result.getExpiration())
+                .expiration(result.getCreation() + 15 * 60)
                 .build();
 
-        String token = String.format("%s@%s@%s", source, expected.getCreation(), expected.getExpiration());
-
         assertThat(expected, equalTo(result));
         assertThat(false, equalTo(result.isExpired()));
-        assertThat(token, equalTo(result.getToken()));
+    }
+
+    @Test
+    public void expired() {
+        long now = TokenClock.nowInSeconds();
+
+        TokenData result = TokenData.builder()
+                .source(UUID.randomUUID())
+                .creation(now - 20)
+                .expiration(now - 10)
+                .build();
+
+        assertThat(result.isExpired(), equalTo(true));
     }
 }
@@ -0,0 +1,55 @@
+package com.mmo.core.security;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class TokenSignerTest {
+
+    private static final String KEY = "Bar12345Bar12345";
+
+    @Test
+    public void signAndVerify() {
+        TokenData tokenData = TokenData.create(UUID.randomUUID());
+
+        byte[] token = new byte[TokenSigner.TOKEN_SIZE + 3];
+        TokenSigner.builder().key(KEY).build().sign(tokenData, token, 3);
+
+        TokenSigner verifier = TokenSigner.builder().key(KEY).build();
+
+        assertThat(token.length, equalTo(51));
+        assertThat(verifier.verify(token, 3), equalTo(true));
+        assertThat(TokenSigner.isExpired(token, 3), equalTo(false));
+        assertThat(TokenSigner.getSource(token, 3), equalTo(tokenData.getSource()));
+        assertThat(TokenSigner.getCreation(token, 3), equalTo(tokenData.getCreation()));
+        assertThat(TokenSigner.getExpiration(token, 3), equalTo(tokenData.getExpiration()));
+    }
+
+    @Test
+    public void rejectTamperedToken() {
+        TokenSigner signer = TokenSigner.builder().key(KEY).build();
+        byte[] token = signer.sign(TokenData.create(UUID.randomUUID()));
+
+        // pushing expiration forward
+        token[30]++;
+
+        assertThat(signer.verify(token, 0), equalTo(false));
+    }
+
+    @Test
+    public void rejectOtherKey() {
+        byte[] token = TokenSigner.builder()
+                .key(KEY)
+                .build()
+                .sign(TokenData.create(UUID.randomUUID()));
+
+        TokenSigner verifier = TokenSigner.builder()
+                .key("Foo12345Foo12345")
+                .build();
+
+        assertThat(verifier.verify(token, 0), equalTo(false));
+    }
+}
@@ -0,0 +1,247 @@
+package com.mmo.infrastructure.map;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mmo.core.attribute.Attribute;
+import com.mmo.core.attribute.AttributeModifier;
+import com.mmo.core.attribute.Attributes;
+import com.mmo.core.map.Map;
+import com.mmo.core.map.MapPartition;
+import com.mmo.core.map.Position;
+import com.mmo.core.player.Player;
+import com.mmo.core.property.PropertyModifierAction;
+import com.mmo.core.stat.Stats;
+import com.mmo.infrastructure.map.packet.GhostPacket;
+import com.mmo.infrastructure.map.packet.MigrateAckPacket;
+import com.mmo.infrastructure.map.packet.MigratePacket;
+import com.mmo.infrastructure.server.Packet;
+
+public class MapClusterTest {
+
+    private final HashMap<String, MapCluster> clusters = new HashMap<>();
+    private final HashMap<String, Map> maps = new HashMap<>();
+    private final List<String> migrations = new ArrayList<>();
+    private final Set<String> failing = new HashSet<>();
+    private final Set<String> dropped = new HashSet<>();
+
+    @BeforeEach
+    public void setup() {
+        for (String node : List.of("a", "b")) {
+            Map map = Map.builder()
+                    .name("plains")
+                    .description("description")
+                    .nearbyRatio(10)
+                    .build();
+
+            maps.put(node, map);
+            clusters.put(node, MapCluster.builder()
+                    .map(map)
+                    .partition(MapPartition.builder()
+                            .cellSize(100L)
+                            .ghostRange(10L)
+                            .nodes(List.of("a", "b"))
+                            .localNode(node)
+                            .build())
+                    .source(UUID.randomUUID())
+                    .sender((target, packet) -> deliver(node, target, packet))
+                    .onMigrate((player, target) -> migrations.add(node + ">" + target))
+                    .ghostTimeoutInMillis(50L)
+                    .migrateTimeoutInMillis(50L)
+                    .build());
+        }
+    }
+
+    @Test
+    public void ghostBorderEntities() {
+        Player inside = newPlayer(50);
+        Player border = newPlayer(95);
+
+        maps.get("a").addEntity(inside);
+        maps.get("a").addEntity(border);
+        clusters.get("a").replicate();
+
+        assertThat(clusters.get("b").findGhost(inside.getInstanceId()).isPresent(), equalTo(false));
+        assertThat(clusters.get("b").findGhost(border.getInstanceId()).isPresent(), equalTo(true));
+        assertThat(maps.get("b").getEntity(border.getInstanceId()).getPosition().getX(), equalTo(95L));
+
+        border.getPosition().incrementX(2L);
+        clusters.get("a").replicate();
+
+        assertThat(maps.get("b").getEntity(border.getInstanceId()).getPosition().getX(), equalTo(97L));
+        assertThat(maps.get("b").getNearbyEntities(maps.get("b").getEntity(border.getInstanceId())),
+                hasSize(1));
+    }
+
+    @Test
+    public void migratePlayersWithTheirState() {
+        Player player = newPlayer(95);
+        OffsetDateTime expiration = OffsetDateTime.now().plusHours(1);
+
+        player.getAttributes().modify(AttributeModifier.builder()
+                .action(PropertyModifierAction.DECREMENT)
+                .attribute(Attribute.HP)
+                .value(12)
+                .build());
+        player.getAttributes().modify(AttributeModifier.builder()
+                .action(PropertyModifierAction.INCREMENT)
+                .attribute(Attribute.ATTACK)
+                .value(5)
+                .expiration(expiration)
+                .persisted(true)
+                .build());
+
+        maps.get("a").addEntity(player);
+        clusters.get("a").replicate();
+
+        player.getPosition().incrementX(10L);
+        clusters.get("a").replicate();
+
+        Player migrated = maps.get("b").getEntity(player.getInstanceId(), Player.class);
+
+        assertThat(maps.get("a").findEntity(player.getInstanceId()).isPresent(), equalTo(false));
+        assertThat(clusters.get("b").findGhost(player.getInstanceId()).isPresent(), equalTo(false));
+        assertThat(migrations, contains("a>b"));
+        assertThat(migrated, not(sameInstance(player)));
+        assertThat(migrated.getPosition(), equalTo(player.getPosition()));
+        assertThat(migrated.getAttributes().getFinalHP(), equalTo(18));
+        assertThat(migrated.getAttributes().getFinalAttack(), equalTo(25));
+        assertThat(migrated.getAttributes().getProperty(Attribute.ATTACK).getModifiers(), hasSize(1));
+        assertThat(migrated.getStats().getFinalStrength(), equalTo(player.getStats().getFinalStrength()));
+
+        clusters.get("b").replicate();
+
+        assertThat(clusters.get("a").findGhost(player.getInstanceId()).isPresent(), equalTo(true));
+    }
+
+    @Test
+    public void keepPlayersWhoseHandoffFails() {
+        Player player = newPlayer(105);
+
+        maps.get("a").addEntity(player);
+        failing.add(MigratePacket.ALIAS);
+        clusters.get("a").replicate();
+
+        assertThat(maps.get("a").findEntity(player.getInstanceId()).isPresent(), equalTo(true));
+        assertThat(maps.get("b").findEntity(player.getInstanceId()).isPresent(), equalTo(false));
+        assertThat(clusters.get("a").isMigrating(player.getInstanceId()), equalTo(false));
+        assertThat(migrations, empty());
+
+        failing.clear();
+        clusters.get("a").replicate();
+
+        assertThat(maps.get("a").findEntity(player.getInstanceId()).isPresent(), equalTo(false));
+        assertThat(maps.get("b").findEntity(player.getInstanceId()).isPresent(), equalTo(true));
+        assertThat(migrations, contains("a>b"));
+    }
+
+    @Test
+    public void keepPlayersUntilTheirHandoffIsAcked() throws InterruptedException {
+        Player player = newPlayer(105);
+
+        maps.get("a").addEntity(player);
+        dropped.add(MigrateAckPacket.ALIAS);
+        clusters.get("a").replicate();
+
+        assertThat(maps.get("a").findEntity(player.getInstanceId()).isPresent(), equalTo(true));
+        assertThat(maps.get("b").findEntity(player.getInstanceId()).isPresent(), equalTo(true));
+        assertThat(clusters.get("a").isMigrating(player.getInstanceId()), equalTo(true));
+        assertThat(migrations, empty());
+
+        dropped.clear();
+        clusters.get("a").replicate();
+
+        assertThat(maps.get("a").findEntity(player.getInstanceId()).isPresent(), equalTo(true));
+
+        Thread.sleep(100);
+        clusters.get("a").replicate();
+
+        assertThat(maps.get("a").findEntity(player.getInstanceId()).isPresent(), equalTo(false));
+        assertThat(maps.get("b").getEntities(), hasSize(1));
+        assertThat(clusters.get("a").isMigrating(player.getInstanceId()), equalTo(false));
+        assertThat(migrations, contains("a>b"));
+    }
+
+    @Test
+    public void dropGhostsNoLongerSent() throws InterruptedException {
+        Player player = newPlayer(95);
+
+        maps.get("a").addEntity(player);
+        clusters.get("a").replicate();
+
+        player.getPosition().decrementX(45L);
+        clusters.get("a").replicate();
+        Thread.sleep(100);
+        clusters.get("b").replicate();
+
+        assertThat(clusters.get("b").findGhost(player.getInstanceId()).isPresent(), equalTo(false));
+        assertThat(maps.get("b").getEntities(), empty());
+    }
+
+    private boolean deliver(String from, String node, Packet packet) {
+        MapCluster cluster = clusters.get(node);
+
+        if (failing.contains(packet.getAlias())) {
+            return false;
+        }
+
+        if (dropped.contains(packet.getAlias())) {
+            return true;
+        }
+
+        if (packet instanceof MigratePacket) {
+            cluster.receive(from, MigratePacket.builder().build(packet.getSource(), packet.toBytes()));
+        } else if (packet instanceof MigrateAckPacket) {
+            cluster.receive(from, MigrateAckPacket.builder().build(packet.getSource(), packet.toBytes()));
+        } else if (packet instanceof GhostPacket) {
+            cluster.receive(GhostPacket.builder().build(packet.getSource(), packet.toBytes()));
+        }
+
+        return true;
+    }
+
+    private static Player newPlayer(long x) {
+        return Player.builder()
+                .name("player")
+                .position(Position.builder()
+                        .x(x)
+                        .y(10L)
+                        .z(0L)
+                        .build())
+                .stats(Stats.builder()
+                        .strength(1)
+                        .dexterity(2)
+                        .intelligence(3)
+                        .concentration(4)
+                        .sense(5)
+                        .charm(6)
+                        .build())
+                .attributes(Attributes.builder()
+                        .hp(30)
+                        .mp(31)
+                        .attack(20)
+                        .defense(33)
+                        .magicDefense(34)
+                        .hitRate(35)
+                        .critical(36)
+                        .dodgeRate(37)
+                        .attackSpeed(38)
+                        .moveSpeed(2)
+                        .hpRecovery(40)
+                        .mpRecovery(41)
+                        .attackRange(3)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,184 @@
+package com.mmo.infrastructure.map;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mmo.core.attribute.Attributes;
+import com.mmo.core.map.Map;
+import com.mmo.core.map.MapPartition;
+import com.mmo.core.map.Position;
+import com.mmo.core.player.Player;
+import com.mmo.core.stat.Stats;
+import com.mmo.infrastructure.map.packet.MapPacketModule;
+import com.mmo.infrastructure.map.packet.MigratePacket;
+import com.mmo.infrastructure.server.PacketFactory;
+import com.mmo.infrastructure.server.Server;
+import com.mmo.infrastructure.server.transport.LoopbackTransport;
+
+public class MapNodeLinksTest {
+
+    private static final String CIPHER_KEY = "Bar12345Bar12345";
+
+    private final LoopbackTransport transport = LoopbackTransport.builder().build();
+    private final List<MapNode> nodes = List.of(
+            MapNode.builder().id("a").host("localhost").port(5601).build(),
+            MapNode.builder().id("b").host("localhost").port(5602).build());
+    private final HashMap<String, Map> maps = new HashMap<>();
+    private final HashMap<String, MapCluster> clusters = new HashMap<>();
+    private final HashMap<String, MapNodeLinks> links = new HashMap<>();
+    private final List<Server> servers = new ArrayList<>();
+    private final List<String> migrations = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    public void setup() throws InterruptedException {
+        new MapPacketModule().register(PacketFactory.getInstance());
+
+        for (MapNode node : nodes) {
+            Map map = Map.builder()
+                    .name("plains")
+                    .description("description")
+                    .nearbyRatio(10)
+                    .build();
+            MapNodeLinks link = newLinks(node.getId(), "key");
+
+            maps.put(node.getId(), map);
+            links.put(node.getId(), link);
+            clusters.put(node.getId(), MapCluster.builder()
+                    .map(map)
+                    .partition(MapPartition.builder()
+                            .cellSize(100L)
+                            .ghostRange(10L)
+                            .nodes(List.of("a", "b"))
+                            .localNode(node.getId())
+                            .build())
+                    .source(UUID.randomUUID())
+                    .sender(link::send)
+                    .onMigrate((player, target) -> migrations.add(node.getId() + ">" + target))
+                    .build());
+            servers.add(newServer(node.getPort(), link));
+        }
+
+        for (Server server : servers) {
+            while (!server.isRunning()) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        servers.forEach(Server::stop);
+    }
+
+    @Test
+    public void migratePlayersOverTheLinks() throws InterruptedException {
+        Player player = newPlayer(105);
+
+        maps.get("a").addEntity(player);
+        clusters.get("a").replicate();
+
+        for (int i = 0; i < 200 && migrations.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+
+        assertThat(migrations, contains("a>b"));
+        assertThat(maps.get("a").findEntity(player.getInstanceId()).isPresent(), equalTo(false));
+        assertThat(maps.get("b").getEntity(player.getInstanceId()).getPosition(), equalTo(player.getPosition()));
+    }
+
+    @Test
+    public void keepPlayersWhenTheNodeIsDown() {
+        Player player = newPlayer(105);
+
+        servers.get(1).stop();
+        maps.get("a").addEntity(player);
+        clusters.get("a").replicate();
+
+        assertThat(maps.get("a").findEntity(player.getInstanceId()).isPresent(), equalTo(true));
+        assertThat(clusters.get("a").isMigrating(player.getInstanceId()), equalTo(false));
+        assertThat(migrations, empty());
+    }
+
+    @Test
+    public void ignoreNodesWithAnotherKey() throws InterruptedException {
+        Player player = newPlayer(105);
+
+        newLinks("a", "wrong").send("b", MigratePacket.builder().build(player));
+        Thread.sleep(100);
+
+        assertThat(maps.get("b").findEntity(player.getInstanceId()).isPresent(), equalTo(false));
+    }
+
+    private MapNodeLinks newLinks(String node, String key) {
+        return MapNodeLinks.builder()
+                .nodes(nodes)
+                .localNode(node)
+                .key(key)
+                .cipherKey(CIPHER_KEY)
+                .source(UUID.randomUUID())
+                .onReceive((from, packet) -> clusters.get(node).receive(from, packet))
+                .transport(transport)
+                .build();
+    }
+
+    private Server newServer(int port, MapNodeLinks link) {
+        Server server = Server.builder()
+                .port(port)
+                .tokenKey(CIPHER_KEY)
+                .channelKey(CIPHER_KEY)
+                .transport(transport)
+                .onClientConnect(client -> {})
+                .onClientDisconnect(link::unlink)
+                .sendSubscriber((client, packet) -> {})
+                .receiveSubscriber((client, packet) -> link.receive(client, packet))
+                .build();
+
+        new Thread(server::run).start();
+
+        return server;
+    }
+
+    private static Player newPlayer(long x) {
+        return Player.builder()
+                .name("player")
+                .position(Position.builder()
+                        .x(x)
+                        .y(10L)
+                        .z(0L)
+                        .build())
+                .stats(Stats.builder()
+                        .strength(1)
+                        .dexterity(2)
+                        .intelligence(3)
+                        .concentration(4)
+                        .sense(5)
+                        .charm(6)
+                        .build())
+                .attributes(Attributes.builder()
+                        .hp(30)
+                        .mp(31)
+                        .attack(20)
+                        .defense(33)
+                        .magicDefense(34)
+                        .hitRate(35)
+                        .critical(36)
+                        .dodgeRate(37)
+                        .attackSpeed(38)
+                        .moveSpeed(2)
+                        .hpRecovery(40)
+                        .mpRecovery(41)
+                        .attackRange(3)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,247 @@
+package com.mmo.infrastructure.map;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.mmo.core.map.InterestListener;
+import com.mmo.core.map.InterestManager;
+import com.mmo.core.map.Map;
+import com.mmo.core.map.MapEntity;
+import com.mmo.core.map.Position;
+import com.mmo.infrastructure.map.packet.HelloPacket;
+import com.mmo.infrastructure.map.packet.SnapshotEntity;
+import com.mmo.infrastructure.map.packet.SnapshotPacket;
+import com.mmo.infrastructure.server.Client;
+import com.mmo.infrastructure.server.Packet;
+
+public class SnapshotStageTest {
+
+    @Test
+    public void flush() {
+        Map map = Map.builder()
+                .name("name")
+                .description("description")
+                .nearbyRatio(5)
+                .build();
+
+        MapEntity observer = mockEntity(10L);
+        MapEntity nearby = mockEntity(12L);
+        MapEntity far = mockEntity(100L);
+
+        map.addEntity(observer);
+        map.addEntity(nearby);
+        map.addEntity(far);
+
+        Client client = mock(Client.class);
+        SnapshotStage stage = newStage(map);
+
+        Packet eventA = HelloPacket.builder().build(UUID.randomUUID(), new byte[0]);
+        Packet eventB = HelloPacket.builder().build(UUID.randomUUID(), new byte[0]);
+
+        stage.enqueue(client, eventA);
+        stage.enqueue(client, eventB);
+        stage.flush(client, observer.getInstanceId());
+
+        ArgumentCaptor<Packet> captor = ArgumentCaptor.forClass(Packet.class);
+        verify(client, times(1)).send(captor.capture());
+
+        SnapshotPacket snapshot = (SnapshotPacket) captor.getValue();
+
+        assertThat(snapshot.isFull(), equalTo(true));
+        assertThat(snapshot.getEvents(), contains(eventA, eventB));
+        assertThat(snapshot.getEntities().size(), equalTo(2));
+
+        // not acknowledged yet: full snapshot again
+        stage.flush(client, observer.getInstanceId());
+        verify(client, times(2)).send(captor.capture());
+
+        assertThat(((SnapshotPacket) captor.getValue()).isFull(), equalTo(true));
+
+        stage.acknowledge(client, ((SnapshotPacket) captor.getValue()).getSequence());
+
+        // nothing changed since the baseline, nothing queued: no packet
+        stage.flush(client, observer.getInstanceId());
+        verify(client, times(2)).send(any());
+
+        nearby.getPosition().incrementX(1);
+        stage.flush(client, observer.getInstanceId());
+
+        verify(client, times(3)).send(captor.capture());
+        snapshot = (SnapshotPacket) captor.getValue();
+
+        assertThat(snapshot.isFull(), equalTo(false));
+        assertThat(snapshot.getEvents(), empty());
+        assertThat(snapshot.getEntities().size(), equalTo(1));
+        assertThat(snapshot.getEntities().get(0).getInstanceId(), equalTo(nearby.getInstanceId()));
+    }
+
+    @Test
+    public void deltasAgainstAcknowledgedBaselineInCrowd() {
+        long fullBytes = runCrowd(false);
+        long deltaBytes = runCrowd(true);
+
+        assertThat(deltaBytes * 4, lessThan(fullBytes));
+    }
+
+    @Test
+    public void budgetSendsClosestFirstWithoutStarvingFarEntities() {
+        Map map = Map.builder()
+                .name("name")
+                .description("description")
+                .nearbyRatio(200)
+                .build();
+
+        MapEntity observer = mockEntity(0L);
+        List<MapEntity> near = new ArrayList<>();
+        MapEntity far = mockEntity(150L);
+
+        map.addEntity(observer);
+        map.addEntity(far);
+
+        for (int i = 1; i <= 20; i++) {
+            MapEntity entity = mockEntity(i);
+            near.add(entity);
+            map.addEntity(entity);
+        }
+
+        int budget = 20 + 45 * 10;
+        List<SnapshotPacket> sent = new ArrayList<>();
+        Client client = mock(Client.class);
+        doAnswer(invocation -> sent.add((SnapshotPacket) invocation.getArguments()[0])).when(client).send(any());
+
+        InterestManager interest = InterestManager.builder()
+                .map(map)
+                .listener(mock(InterestListener.class))
+                .build();
+
+        SnapshotStage stage = SnapshotStage.builder()
+                .map(map)
+                .interest(interest)
+                .source(UUID.randomUUID())
+                .budget(budget)
+                .build();
+
+        SnapshotReceiver receiver = SnapshotReceiver.builder().build();
+
+        stage.flush(client, observer.getInstanceId());
+        receiver.apply(sent.get(0));
+
+        assertThat(sent.get(0).toBytes().length, lessThanOrEqualTo(budget));
+        assertThat(receiver.getEntities().keySet(), hasItem(observer.getInstanceId()));
+        assertThat(receiver.getEntities().keySet(), not(hasItem(far.getInstanceId())));
+
+        int ticks = 1;
+
+        for (; ticks < 500 && !receiver.getEntities().containsKey(far.getInstanceId()); ticks++) {
+            near.forEach(entity -> entity.getPosition().incrementY(1));
+
+            stage.acknowledge(client, receiver.getSequence());
+            stage.flush(client, observer.getInstanceId());
+
+            SnapshotPacket packet = sent.get(sent.size() - 1);
+
+            assertThat(packet.toBytes().length, lessThanOrEqualTo(budget));
+
+            receiver.apply(packet);
+        }
+
+        assertThat(receiver.getEntities().keySet(), hasItem(far.getInstanceId()));
+        assertThat(ticks, lessThan(500));
+    }
+
+    /*
+     * a bot observing a crowd of 300 entities for one second of 20Hz
+     * snapshots, a tenth of the crowd moves every tick
+     */
+    private long runCrowd(boolean acknowledging) {
+        Random random = new Random(7);
+        Map map = Map.builder()
+                .name("name")
+                .description("description")
+                .nearbyRatio(50)
+                .build();
+
+        MapEntity observer = mockEntity(0L);
+        List<MapEntity> crowd = new ArrayList<>();
+
+        map.addEntity(observer);
+
+        for (int i = 0; i < 300; i++) {
+            MapEntity entity = mockEntity(random.nextInt(30));
+            crowd.add(entity);
+            map.addEntity(entity);
+        }
+
+        List<SnapshotPacket> sent = new ArrayList<>();
+        Client client = mock(Client.class);
+        doAnswer(invocation -> sent.add((SnapshotPacket) invocation.getArguments()[0])).when(client).send(any());
+
+        SnapshotStage stage = newStage(map);
+        SnapshotReceiver receiver = SnapshotReceiver.builder().build();
+        long bytes = 0;
+
+        for (int tick = 0; tick < 20; tick++) {
+            for (int i = 0; i < crowd.size() / 10; i++) {
+                crowd.get(random.nextInt(crowd.size())).getPosition().incrementX(1);
+            }
+
+            stage.flush(client, observer.getInstanceId());
+
+            for (SnapshotPacket packet : sent) {
+                bytes += packet.toBytes().length;
+                receiver.apply(packet);
+            }
+
+            sent.clear();
+
+            if (acknowledging) {
+                stage.acknowledge(client, receiver.acknowledge(observer.getInstanceId()).getSequence());
+            }
+        }
+
+        java.util.Map<UUID, SnapshotEntity> expected = new HashMap<>();
+        expected.put(observer.getInstanceId(), SnapshotEntity.of(observer));
+        crowd.forEach(entity -> expected.put(entity.getInstanceId(), SnapshotEntity.of(entity)));
+
+        assertThat(receiver.getEntities(), equalTo(expected));
+
+        return bytes;
+    }
+
+    private SnapshotStage newStage(Map map) {
+        InterestManager interest = InterestManager.builder()
+                .map(map)
+                .listener(mock(InterestListener.class))
+                .build();
+
+        return SnapshotStage.builder()
+                .map(map)
+                .interest(interest)
+                .source(UUID.randomUUID())
+                .build();
+    }
+
+    private MapEntity mockEntity(long coordinate) {
+        MapEntity entity = mock(MapEntity.class);
+        Position position = Position.builder()
+                .x(coordinate)
+                .y(coordinate)
+                .z(coordinate)
+                .build();
+
+        when(entity.getInstanceId()).thenReturn(UUID.randomUUID());
+        when(entity.getPosition()).thenReturn(position);
+
+        return entity;
+    }
+}
@@ -0,0 +1,24 @@
+package com.mmo.infrastructure.map.packet;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class DespawnPacketTest {
+
+    @Test
+    public void serializeAndDeserialize() {
+        UUID source = UUID.randomUUID();
+
+        DespawnPacket expected = new DespawnPacket(source);
+
+        DespawnPacket result = DespawnPacket.builder()
+                .build(source, expected.toBytes());
+
+        assertThat(result, equalTo(expected));
+        assertThat(result.getAlias(), equalTo("DESPAWN"));
+    }
+}
@@ -0,0 +1,34 @@
+package com.mmo.infrastructure.map.packet;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class GhostPacketTest {
+
+    @Test
+    public void serializeAndDeserialize() {
+        UUID source = UUID.randomUUID();
+
+        SnapshotEntity entity = SnapshotEntity.builder()
+                .instanceId(UUID.randomUUID())
+                .x(10L)
+                .y(-20L)
+                .z(30L)
+                .hp(40)
+                .build();
+
+        GhostPacket expected = GhostPacket.builder()
+                .build(source, List.of(entity));
+
+        GhostPacket result = GhostPacket.builder()
+                .build(source, expected.toBytes());
+
+        assertThat(result, equalTo(expected));
+        assertThat(result.getAlias(), equalTo("GHOST"));
+    }
+}
@@ -21,4 +21,17 @@ public class HelloPacketTest {
         assertThat(result, equalTo(expected));
         assertThat(result.getAlias(), equalTo("HELLO"));
     }
+
+    @Test
+    public void serializeAndDeserializeWithMap() {
+        UUID source = UUID.randomUUID();
+
+        HelloPacket expected = new HelloPacket(source, "adventure_plains");
+
+        HelloPacket result = HelloPacket.builder()
+                .build(source, expected.toBytes());
+
+        assertThat(result, equalTo(expected));
+        assertThat(result.getMap().orElseThrow(), equalTo("adventure_plains"));
+    }
 }
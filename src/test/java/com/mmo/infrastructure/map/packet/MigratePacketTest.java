@@ -0,0 +1,73 @@
+package com.mmo.infrastructure.map.packet;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.time.OffsetDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.mmo.core.attribute.Attribute;
+import com.mmo.core.attribute.AttributeModifier;
+import com.mmo.core.attribute.Attributes;
+import com.mmo.core.map.Position;
+import com.mmo.core.player.Player;
+import com.mmo.core.property.PropertyModifierAction;
+import com.mmo.core.stat.Stats;
+
+public class MigratePacketTest {
+
+    @Test
+    public void serializeAndDeserialize() {
+        Player player = Player.builder()
+                .name("player")
+                .position(Position.builder()
+                        .x(1L)
+                        .y(-2L)
+                        .z(3L)
+                        .build())
+                .stats(Stats.builder()
+                        .strength(1)
+                        .dexterity(2)
+                        .intelligence(3)
+                        .concentration(4)
+                        .sense(5)
+                        .charm(6)
+                        .build())
+                .attributes(Attributes.builder()
+                        .hp(30)
+                        .mp(31)
+                        .attack(32)
+                        .defense(33)
+                        .magicDefense(34)
+                        .hitRate(35)
+                        .critical(36)
+                        .dodgeRate(37)
+                        .attackSpeed(38)
+                        .moveSpeed(39)
+                        .hpRecovery(40)
+                        .mpRecovery(41)
+                        .attackRange(42)
+                        .build())
+                .build();
+
+        player.getAttributes().modify(AttributeModifier.builder()
+                .action(PropertyModifierAction.INCREMENT)
+                .attribute(Attribute.DEFENSE)
+                .value(7)
+                .expiration(OffsetDateTime.now().plusMinutes(5))
+                .persisted(true)
+                .build());
+
+        MigratePacket expected = MigratePacket.builder()
+                .build(player);
+
+        MigratePacket result = MigratePacket.builder()
+                .build(player.getInstanceId(), expected.toBytes());
+
+        assertThat(result, equalTo(expected));
+        assertThat(result.getAlias(), equalTo("MIGRATE"));
+        assertThat(result.toPlayer().getInstanceId(), equalTo(player.getInstanceId()));
+        assertThat(result.toPlayer().getAttributes().getFinalDefense(), equalTo(40));
+    }
+}
@@ -0,0 +1,26 @@
+package com.mmo.infrastructure.map.packet;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class NodeHelloPacketTest {
+
+    @Test
+    public void serializeAndDeserialize() {
+        UUID source = UUID.randomUUID();
+
+        NodeHelloPacket expected = NodeHelloPacket.builder()
+                .build(source, "a", "secret");
+
+        NodeHelloPacket result = NodeHelloPacket.builder()
+                .build(source, expected.toBytes());
+
+        assertThat(result, equalTo(expected));
+        assertThat(result.getAlias(), equalTo("NODE_HELLO"));
+        assertThat(result.toString(), not(containsString("secret")));
+    }
+}
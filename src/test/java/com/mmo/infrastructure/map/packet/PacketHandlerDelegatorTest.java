@@ -2,8 +2,12 @@ package com.mmo.infrastructure.map.packet;
 
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeAll;
@@ -38,4 +42,66 @@ public class PacketHandlerDelegatorTest {
         assertThat(handler.getServer(), equalTo(server));
         assertThat(handler.getPacket(), equalTo(packet));
     }
+
+    @Test
+    public void interceptAndMeasure() {
+        List<String> calls = new ArrayList<>();
+        TestPacketHandler handler = new TestPacketHandler();
+
+        PacketHandlerDelegator delegator = new PacketHandlerDelegator();
+        delegator.bind(TestPacket.class, handler);
+        delegator.intercept((server, packet, chain) -> {
+            calls.add("first");
+            chain.proceed(server, packet);
+        });
+        delegator.intercept((server, packet, chain) -> {
+            calls.add("second");
+            chain.proceed(server, packet);
+        });
+
+        delegator.delegate(server, packet);
+        delegator.delegate(server, packet);
+
+        PacketHandlerMetrics metrics = delegator.getMetrics(TestPacket.class);
+
+        assertThat(calls, contains("first", "second", "first", "second"));
+        assertThat(handler.getPacket(), equalTo(packet));
+        assertThat(metrics.getInvocations(), equalTo(2L));
+        assertThat(metrics.getErrors(), equalTo(0L));
+        assertThat(Arrays.stream(metrics.getHistogram()).sum(), equalTo(2L));
+        assertThat(delegator.getMetrics().keySet(), hasSize(1));
+        assertThat(delegator.getMetrics().keySet(), hasItem(TestPacket.class));
+    }
+
+    @Test
+    public void interceptorCanStopChain() {
+        TestPacketHandler handler = new TestPacketHandler();
+
+        PacketHandlerDelegator delegator = new PacketHandlerDelegator();
+        delegator.intercept((server, packet, chain) -> {
+        });
+        delegator.bind(TestPacket.class, handler);
+        delegator.delegate(server, packet);
+
+        assertThat(handler.getPacket(), nullValue());
+        assertThat(delegator.getMetrics(TestPacket.class).getInvocations(), equalTo(0L));
+    }
+
+    @Test
+    public void countErrors() {
+        PacketHandlerDelegator delegator = new PacketHandlerDelegator();
+        delegator.bind(TestPacket.class, (server, packet) -> {
+            throw new IllegalStateException();
+        });
+
+        assertThrows(IllegalStateException.class, () -> delegator.delegate(server, packet));
+        assertThat(delegator.getMetrics(TestPacket.class).getErrors(), equalTo(1L));
+    }
+
+    @Test
+    public void notBinded() {
+        PacketHandlerDelegator delegator = new PacketHandlerDelegator();
+
+        assertThrows(PacketHandlerNotBindedException.class, () -> delegator.delegate(server, packet));
+    }
 }
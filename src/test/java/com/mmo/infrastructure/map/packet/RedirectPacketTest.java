@@ -0,0 +1,25 @@
+package com.mmo.infrastructure.map.packet;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class RedirectPacketTest {
+
+    @Test
+    public void serializeAndDeserialize() {
+        UUID source = UUID.randomUUID();
+
+        RedirectPacket expected = RedirectPacket.builder()
+                .build(source, "10.0.0.2", 5556);
+
+        RedirectPacket result = RedirectPacket.builder()
+                .build(source, expected.toBytes());
+
+        assertThat(result, equalTo(expected));
+        assertThat(result.getAlias(), equalTo("REDIRECT"));
+    }
+}
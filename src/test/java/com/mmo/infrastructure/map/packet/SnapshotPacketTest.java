@@ -0,0 +1,60 @@
+package com.mmo.infrastructure.map.packet;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.mmo.infrastructure.server.PacketFactory;
+
+public class SnapshotPacketTest {
+
+    @Test
+    public void serializeAndDeserialize() {
+        PacketFactory.getInstance().register("HELLO", HelloPacket.builder());
+
+        UUID source = UUID.randomUUID();
+
+        SnapshotEntity baseline = SnapshotEntity.builder()
+                .instanceId(UUID.randomUUID())
+                .x(10L)
+                .y(20L)
+                .z(30L)
+                .hp(40)
+                .build();
+
+        SnapshotEntity entity = SnapshotEntity.builder()
+                .instanceId(baseline.getInstanceId())
+                .x(11L)
+                .y(20L)
+                .z(30L)
+                .hp(35)
+                .build();
+
+        SnapshotDelta full = SnapshotDelta.of(null, baseline);
+        SnapshotDelta delta = SnapshotDelta.of(baseline, entity);
+
+        assertThat(full.getMask(), equalTo(SnapshotDelta.ALL));
+        assertThat(delta.getMask(), equalTo(SnapshotDelta.X | SnapshotDelta.HP));
+        assertThat(delta.apply(baseline), equalTo(entity));
+
+        HelloPacket event = new HelloPacket(UUID.randomUUID());
+
+        SnapshotPacket expected = new SnapshotPacket(
+                source, 7, 5, List.of(full, delta), List.of(UUID.randomUUID()), List.of(event));
+
+        SnapshotPacket result = SnapshotPacket.builder()
+                .build(source, expected.toBytes());
+
+        assertThat(result, equalTo(expected));
+        assertThat(result.getAlias(), equalTo("SNAPSHOT"));
+        assertThat(result.toBytes(), equalTo(expected.toBytes()));
+        assertThat(SnapshotPacket.builder()
+                .build(source, 7, 5, List.of(full, delta), expected.getRemoved(), List.of(event),
+                        List.of(event.toBytes()))
+                .toBytes(), equalTo(expected.toBytes()));
+    }
+}
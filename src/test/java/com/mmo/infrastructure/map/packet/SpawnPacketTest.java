@@ -0,0 +1,31 @@
+package com.mmo.infrastructure.map.packet;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class SpawnPacketTest {
+
+    @Test
+    public void serializeAndDeserialize() {
+        SnapshotEntity entity = SnapshotEntity.builder()
+                .instanceId(UUID.randomUUID())
+                .x(1L)
+                .y(2L)
+                .z(3L)
+                .hp(4)
+                .build();
+
+        SpawnPacket expected = SpawnPacket.builder().build(entity);
+
+        SpawnPacket result = SpawnPacket.builder()
+                .build(entity.getInstanceId(), expected.toBytes());
+
+        assertThat(result, equalTo(expected));
+        assertThat(result.getSource(), equalTo(entity.getInstanceId()));
+        assertThat(result.getAlias(), equalTo("SPAWN"));
+    }
+}
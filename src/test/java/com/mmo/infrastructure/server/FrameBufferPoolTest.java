@@ -0,0 +1,46 @@
+package com.mmo.infrastructure.server;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import org.junit.jupiter.api.Test;
+
+public class FrameBufferPoolTest {
+
+    @Test
+    public void acquireRoundsUpToSizeClass() {
+        FrameBufferPool pool = FrameBufferPool.builder().build();
+
+        assertThat(pool.acquire(1).length, equalTo(256));
+        assertThat(pool.acquire(300).length, equalTo(512));
+        assertThat(pool.acquire(4096).length, equalTo(4096));
+    }
+
+    @Test
+    public void releasedBufferIsReused() {
+        FrameBufferPool pool = FrameBufferPool.builder().build();
+
+        byte[] buffer = pool.acquire(1000);
+
+        assertThat(pool.release(buffer), equalTo(true));
+        assertThat(pool.acquire(600), sameInstance(buffer));
+    }
+
+    @Test
+    public void oversizedBufferIsNotPooled() {
+        FrameBufferPool pool = FrameBufferPool.builder().maxPooledSize(1024).build();
+
+        byte[] buffer = pool.acquire(5000);
+
+        assertThat(buffer.length, equalTo(5000));
+        assertThat(pool.release(buffer), equalTo(false));
+    }
+
+    @Test
+    public void releaseIsBoundedPerSizeClass() {
+        FrameBufferPool pool = FrameBufferPool.builder().maxBuffersPerSize(1).build();
+
+        assertThat(pool.release(new byte[256]), equalTo(true));
+        assertThat(pool.release(new byte[256]), equalTo(false));
+    }
+}
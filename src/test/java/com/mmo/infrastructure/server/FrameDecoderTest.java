@@ -0,0 +1,158 @@
+package com.mmo.infrastructure.server;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FrameDecoderTest {
+
+    private FrameMetrics metrics;
+    private FrameDecoder decoder;
+    private List<String> frames;
+
+    @BeforeEach
+    public void setUp() {
+        PacketFactory.getInstance().register(TestPacket.class, TestPacket.ALIAS, TestPacket.builder(), 1024 * 1024);
+
+        metrics = new FrameMetrics();
+        decoder = FrameDecoder.builder()
+                .bufferPool(FrameBufferPool.builder().build())
+                .metrics(metrics)
+                .readAheadSize(1024)
+                .build();
+        frames = new ArrayList<>();
+    }
+
+    /*
+     * the factory is shared by every test, the max size set here must not
+     * outlive it
+     */
+    @AfterEach
+    public void restorePacketFactory() {
+        PacketFactory.getInstance().register(TestPacket.class, TestPacket.ALIAS, TestPacket.builder());
+    }
+
+    @Test
+    public void decodesManyFramesFromOneChunk() {
+        ByteBuffer chunk = ByteBuffer.allocate(1024);
+        chunk.put(frame("abc")).put(frame("def")).put(frame("ghi")).flip();
+
+        decoder.feed(chunk);
+
+        assertThat(decoder.decode(this::onFrame), equalTo(3));
+        assertThat(frames, contains("abc", "def", "ghi"));
+        assertThat(decoder.getBufferedBytes(), equalTo(0));
+        assertThat(metrics.getReceivedFrames(), equalTo(3L));
+    }
+
+    @Test
+    public void keepsPartialFrameAcrossChunks() {
+        byte[] first = frame("abc");
+        byte[] second = frame("def");
+        ByteBuffer chunk = ByteBuffer.allocate(first.length + second.length);
+        chunk.put(first).put(second).flip();
+
+        ByteBuffer head = ByteBuffer.wrap(Arrays.copyOfRange(chunk.array(), 0, first.length + 5));
+        ByteBuffer tail = ByteBuffer.wrap(Arrays.copyOfRange(chunk.array(), first.length + 5, chunk.limit()));
+
+        decoder.feed(head);
+
+        assertThat(decoder.decode(this::onFrame), equalTo(1));
+        assertThat(decoder.getBufferedBytes(), equalTo(5));
+
+        decoder.feed(tail);
+
+        assertThat(decoder.decode(this::onFrame), equalTo(1));
+        assertThat(frames, contains("abc", "def"));
+    }
+
+    @Test
+    public void reassemblesFrameLargerThanReadAhead() {
+        String payload = "a".repeat(10 * 1024);
+        ByteBuffer source = ByteBuffer.wrap(frame(payload));
+
+        while (source.hasRemaining()) {
+            decoder.feed(source);
+            decoder.decode(this::onFrame);
+        }
+
+        assertThat(frames, contains(payload));
+        assertThat(metrics.getStreamedFrames(), equalTo(1L));
+    }
+
+    @Test
+    public void rejectsFrameOverMaxSize() {
+        PacketFactory.getInstance().register(TestPacket.class, TestPacket.ALIAS, TestPacket.builder(), 2);
+
+        decoder.feed(ByteBuffer.wrap(frame("abc")));
+
+        assertThrows(ClientFrameRejectedException.class, () -> decoder.decode(this::onFrame));
+        assertThat(metrics.getRejectedFrames(), equalTo(1L));
+    }
+
+    @Test
+    public void rejectsFrameOverBudget() {
+        decoder = FrameDecoder.builder()
+                .bufferPool(FrameBufferPool.builder().build())
+                .metrics(metrics)
+                .readAheadSize(1024)
+                .budget(2048)
+                .build();
+
+        ByteBuffer source = ByteBuffer.wrap(frame("a".repeat(10 * 1024)));
+
+        assertThrows(ClientFrameRejectedException.class, () -> {
+            while (source.hasRemaining()) {
+                decoder.feed(source);
+                decoder.decode(this::onFrame);
+            }
+        });
+        assertThat(metrics.getBudgetOverflows(), equalTo(1L));
+    }
+
+    @Test
+    public void chargesWorkingBuffersToBudget() {
+        decoder = FrameDecoder.builder()
+                .bufferPool(FrameBufferPool.builder().build())
+                .metrics(metrics)
+                .readAheadSize(1024)
+                .budget(2048)
+                .build();
+
+        byte[] workingBuffer = decoder.acquireWorkingBuffer(1024);
+
+        assertThat(decoder.getHeldBytes(), equalTo(2048));
+        assertThrows(ClientFrameRejectedException.class, () -> decoder.acquireWorkingBuffer(1));
+        assertThat(metrics.getBudgetOverflows(), equalTo(1L));
+
+        decoder.releaseWorkingBuffer(workingBuffer);
+
+        assertThat(decoder.getHeldBytes(), equalTo(1024));
+    }
+
+    private void onFrame(int packetId, UUID alias, byte[] aliasBytes, byte[] buffer, int offset, int length) {
+        frames.add(new String(buffer, offset, length));
+    }
+
+    private static byte[] frame(String payload) {
+        UUID alias = UUID.nameUUIDFromBytes(TestPacket.ALIAS.getBytes());
+        byte[] bytes = payload.getBytes();
+
+        return ByteBuffer.allocate(FrameDecoder.HEADER_SIZE + bytes.length)
+                .putInt(bytes.length)
+                .putLong(alias.getMostSignificantBits())
+                .putLong(alias.getLeastSignificantBits())
+                .put(bytes)
+                .array();
+    }
+}
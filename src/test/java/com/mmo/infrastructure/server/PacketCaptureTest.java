@@ -0,0 +1,112 @@
+package com.mmo.infrastructure.server;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class PacketCaptureTest {
+
+    @Test
+    public void recordAndRead() throws Exception {
+        Path path = Files.createTempFile("capture", ".bin");
+        UUID client = UUID.randomUUID();
+        UUID source = UUID.randomUUID();
+        TestPacket packet = TestPacket.builder().build(source, "abc", 3);
+
+        try (PacketCapture capture = PacketCapture.builder()
+                .path(path)
+                .regionSize(64)
+                .build()) {
+
+            for (int i = 0; i < 10; i++) {
+                capture.record(client, source, packet.getAliasAsUUID(), packet.toBytes());
+            }
+        }
+
+        assertThat(Files.size(path), equalTo(10L * (PacketCapture.RECORD_HEADER_SIZE + packet.toBytes().length)));
+
+        List<PacketCaptureRecord> records = new ArrayList<>();
+
+        try (PacketCaptureReader reader = new PacketCaptureReader(path)) {
+            reader.forEachRemaining(records::add);
+        }
+
+        assertThat(records.size(), equalTo(10));
+        assertThat(records.get(0).getClient(), equalTo(client));
+        assertThat(records.get(0).getSource(), equalTo(source));
+        assertThat(records.get(0).getAlias(), equalTo(packet.getAliasAsUUID()));
+        assertThat(records.get(0).getBytes(), equalTo(packet.toBytes()));
+        assertThat(records.get(9).getTimestamp(), greaterThanOrEqualTo(records.get(0).getTimestamp()));
+
+        Files.delete(path);
+    }
+
+    @Test
+    public void readUnclosedCapture() throws Exception {
+        Path path = Files.createTempFile("capture", ".bin");
+        UUID client = UUID.randomUUID();
+        UUID source = UUID.randomUUID();
+        TestPacket packet = TestPacket.builder().build(source, "abc", 3);
+        PacketCapture capture = PacketCapture.builder()
+                .path(path)
+                .regionSize(1024)
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            capture.record(client, source, packet.getAliasAsUUID(), packet.toBytes());
+        }
+
+        List<PacketCaptureRecord> records = new ArrayList<>();
+
+        try (PacketCaptureReader reader = new PacketCaptureReader(path)) {
+            reader.forEachRemaining(records::add);
+        } finally {
+            capture.close();
+        }
+
+        assertThat(records.size(), equalTo(3));
+        assertThat(records.get(2).getBytes(), equalTo(packet.toBytes()));
+
+        Files.delete(path);
+    }
+
+    @Test
+    public void replay() throws Exception {
+        PacketFactory.getInstance().register(TestPacket.ALIAS, TestPacket.builder());
+
+        Path path = Files.createTempFile("capture", ".bin");
+        UUID client = UUID.randomUUID();
+        TestPacket packetA = TestPacket.builder().build(UUID.randomUUID(), "abc", 3);
+        TestPacket packetB = TestPacket.builder().build(UUID.randomUUID(), "def", 4);
+
+        try (PacketCapture capture = PacketCapture.builder()
+                .path(path)
+                .build()) {
+
+            capture.record(client, packetA.getSource(), packetA.getAliasAsUUID(), packetA.toBytes());
+            capture.record(client, packetB.getSource(), packetB.getAliasAsUUID(), packetB.toBytes());
+        }
+
+        List<Packet> packets = new ArrayList<>();
+
+        PacketReplayer.builder()
+                .path(path)
+                .realTime(true)
+                .build()
+                .replay((replayedClient, packet) -> {
+                    assertThat(replayedClient, equalTo(client));
+                    packets.add(packet);
+                });
+
+        assertThat(packets, contains(packetA, packetB));
+
+        Files.delete(path);
+    }
+}
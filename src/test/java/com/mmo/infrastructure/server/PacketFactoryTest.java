@@ -2,11 +2,14 @@ package com.mmo.infrastructure.server;
 
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
 
+import com.mmo.infrastructure.map.packet.AttackPacket.AttackPacketBuilder;
+import com.mmo.infrastructure.map.packet.HelloPacket.HelloPacketBuilder;
 import com.mmo.infrastructure.server.TestPacket.TestPacketBuilder;
 
 public class PacketFactoryTest {
@@ -88,4 +91,39 @@ public class PacketFactoryTest {
         assertThat(result1, equalTo(expected));
         assertThat(result2, equalTo(expected));
     }
+
+    @Test
+    public void registerAssignsDenseIds() {
+        PacketFactory factory = new PacketFactory();
+
+        int idA = factory.register("A", TestPacket.builder());
+        int idB = factory.register("B", TestPacket.builder());
+        int idC = factory.register("A", TestPacket.builder());
+
+        assertThat(idA, equalTo(0));
+        assertThat(idB, equalTo(1));
+        assertThat(idC, equalTo(idA));
+        assertThat(factory.getId("B"), equalTo(idB));
+    }
+
+    @Test
+    public void freeze() {
+        PacketFactory factory = new PacketFactory();
+        factory.register(TestPacket.class, TestPacket.ALIAS, TestPacket.builder());
+        factory.freeze();
+
+        assertThat(factory.isFrozen(), equalTo(true));
+        assertThrows(PacketFactoryFrozenException.class, () -> factory.register("other", TestPacket.builder()));
+        assertThrows(PacketBuilderNotFoundException.class, () -> factory.getBuilder(1));
+        assertThrows(PacketBuilderNotFoundException.class, () -> factory.getId("other"));
+    }
+
+    @Test
+    public void loadModules() {
+        PacketFactory factory = new PacketFactory();
+        factory.loadModules();
+
+        assertThat(factory.getBuilder(UUID.nameUUIDFromBytes("HELLO".getBytes())), instanceOf(HelloPacketBuilder.class));
+        assertThat(factory.getBuilder(UUID.nameUUIDFromBytes("ATTACK".getBytes())), instanceOf(AttackPacketBuilder.class));
+    }
 }
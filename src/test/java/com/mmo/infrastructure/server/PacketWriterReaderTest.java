@@ -21,6 +21,7 @@ public class PacketWriterReaderTest {
         short expectedValue8 = 88;
         String expectedValue9 = "ûTf stríng";
         UUID expectedValue10 = UUID.randomUUID();
+        byte[] expectedValue11 = { 1, 2, 3, 4 };
 
         int resultValue1;
         boolean resultValue2;
@@ -32,6 +33,7 @@ public class PacketWriterReaderTest {
         short resultValue8;
         String resultValue9;
         UUID resultValue10;
+        byte[] resultValue11;
 
         byte[] bytes;
 
@@ -46,6 +48,7 @@ public class PacketWriterReaderTest {
             writer.writeShort(expectedValue8);
             writer.writeUTF(expectedValue9);
             writer.writeUUID(expectedValue10);
+            writer.write(expectedValue11);
 
             bytes = writer.toBytes();
         }
@@ -61,6 +64,7 @@ public class PacketWriterReaderTest {
             resultValue8 = reader.readShort();
             resultValue9 = reader.readUTF();
             resultValue10 = reader.readUUID();
+            resultValue11 = reader.read(expectedValue11.length);
         }
 
         assertThat(resultValue1, equalTo(expectedValue1));
@@ -73,5 +77,6 @@ public class PacketWriterReaderTest {
         assertThat(resultValue8, equalTo(expectedValue8));
         assertThat(resultValue9, equalTo(expectedValue9));
         assertThat(resultValue10, equalTo(expectedValue10));
+        assertThat(resultValue11, equalTo(expectedValue11));
     }
 }
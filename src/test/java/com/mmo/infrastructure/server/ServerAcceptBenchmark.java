@@ -0,0 +1,84 @@
+package com.mmo.infrastructure.server;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mmo.core.security.ChannelHandshake;
+
+/*
+ * a reconnect storm, every operation is a fresh connection that waits for the
+ * server side channel handshake, so it only completes once the connection was
+ * accepted and its client set up
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class ServerAcceptBenchmark {
+
+    private static final int PORT = 5601;
+    private static final String KEY = "Bar12345Bar12345";
+
+    @Param({ "1", "4" })
+    private int acceptors;
+
+    private Server server;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        server = Server.builder()
+                .port(PORT)
+                .tokenKey(KEY)
+                .channelKey(KEY)
+                .acceptors(acceptors)
+                .onClientConnect(client -> {})
+                .onClientDisconnect(client -> {})
+                .sendSubscriber((client, packet) -> {})
+                .receiveSubscriber((client, packet) -> {})
+                .build();
+
+        new Thread(server::run).start();
+
+        Thread.sleep(500);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public byte[] connect() throws Exception {
+        byte[] nonce = new byte[ChannelHandshake.NONCE_SIZE];
+
+        try (Socket socket = new Socket("localhost", PORT)) {
+            OutputStream outputStream = socket.getOutputStream();
+            outputStream.write(nonce);
+            outputStream.flush();
+
+            new DataInputStream(socket.getInputStream()).readFully(nonce);
+        }
+
+        return nonce;
+    }
+}
@@ -3,31 +3,362 @@ package com.mmo.infrastructure.server;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
-import com.mmo.core.security.Decryptor;
-import com.mmo.core.security.Encryptor;
+import com.mmo.infrastructure.server.transport.LoopbackTransport;
+import com.mmo.infrastructure.server.transport.TransportConnection;
 
 import lombok.Data;
 
 public class ServerClientTest {
 
+    /*
+     * the factory is shared by every test, the max size set here must not
+     * outlive it
+     */
+    @AfterEach
+    public void restorePacketFactory() {
+        PacketFactory.getInstance().register(TestPacket.class, TestPacket.ALIAS, TestPacket.builder());
+    }
+
     @Test
     public void successfully() throws InterruptedException {
-        PacketFactory.getInstance().register(TestPacket.ALIAS, TestPacket.builder());
+        run(null);
+    }
+
+    @Test
+    public void successfullyWithChannelEncryption() throws InterruptedException {
+        run("Foo12345Foo12345");
+    }
+
+    @Test
+    public void acceptsOnSeveralAcceptors() throws InterruptedException {
+        PacketFactory.getInstance().register(TestPacket.class, TestPacket.ALIAS, TestPacket.builder());
+
+        Set<Client> connected = ConcurrentHashMap.newKeySet();
+        ClientPacketSubscriber serverClientReceiveSubscriber = new ClientPacketSubscriber();
+
+        Server server = Server.builder()
+                .port(5555)
+                .tokenKey("Bar12345Bar12345")
+                .acceptors(4)
+                .onClientConnect(connected::add)
+                .onClientDisconnect(connected::remove)
+                .sendSubscriber(new ClientPacketSubscriber())
+                .receiveSubscriber(serverClientReceiveSubscriber)
+                .build();
+
+        new Thread(server::run).start();
+
+        Thread.sleep(1000);
+
+        List<Client> clients = new ArrayList<>();
+
+        for (int i = 0; i < 16; i++) {
+            clients.add(Client.clientBuilder()
+                    .host("localhost")
+                    .port(5555)
+                    .tokenKey("Bar12345Bar12345")
+                    .clientBuild());
+        }
+
+        Thread.sleep(1000);
+
+        assertThat(server.getAcceptors(), equalTo(4));
+        assertThat(connected, hasSize(16));
+
+        TestPacket clientPacket = TestPacket.builder().build(UUID.randomUUID(), "abc", 3);
+        clients.get(15).send(clientPacket);
+
+        Thread.sleep(1000);
+
+        assertThat(serverClientReceiveSubscriber.packet, equalTo(clientPacket));
+
+        clients.forEach(Client::disconnect);
+
+        Thread.sleep(1000);
+
+        assertThat(connected, empty());
+
+        server.stop();
+    }
+
+    @Test
+    public void exchangesPacketsWithManyLoopbackClientsOnSharedThreads() throws InterruptedException {
+        PacketFactory.getInstance().register(TestPacket.class, TestPacket.ALIAS, TestPacket.builder());
+
+        LoopbackTransport transport = LoopbackTransport.builder().ringSize(4096).build();
+        Set<Client> connected = ConcurrentHashMap.newKeySet();
+        AtomicInteger received = new AtomicInteger();
+
+        Server server = Server.builder()
+                .port(5555)
+                .tokenKey("Bar12345Bar12345")
+                .transport(transport)
+                .onClientConnect(connected::add)
+                .onClientDisconnect(connected::remove)
+                .sendSubscriber((client, packet) -> {})
+                .receiveSubscriber((client, packet) -> received.incrementAndGet())
+                .build();
+
+        new Thread(server::run).start();
+
+        while (!server.isRunning()) {
+            Thread.sleep(10);
+        }
+
+        List<Client> clients = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            clients.add(Client.clientBuilder()
+                    .host("localhost")
+                    .port(5555)
+                    .tokenKey("Bar12345Bar12345")
+                    .transport(transport)
+                    .clientBuild());
+        }
+
+        clients.forEach(client -> client.send(TestPacket.builder().build(UUID.randomUUID(), "abc", 3)));
+
+        for (int i = 0; i < 500 && received.get() < clients.size(); i++) {
+            Thread.sleep(10);
+        }
+
+        assertThat(received.get(), equalTo(clients.size()));
+        assertThat(connected, hasSize(clients.size()));
+        assertThat(Thread.activeCount(), lessThan(clients.size() / 10));
+
+        clients.forEach(Client::disconnect);
+        server.stop();
+    }
+
+    @Test
+    public void sendsBurstsInEnvelopes() throws InterruptedException {
+        PacketFactory.getInstance().register(TestPacket.class, TestPacket.ALIAS, TestPacket.builder());
+
+        LoopbackTransport transport = LoopbackTransport.builder().build();
+        List<Packet> received = Collections.synchronizedList(new ArrayList<>());
+
+        Server server = Server.builder()
+                .port(5555)
+                .tokenKey("Bar12345Bar12345")
+                .channelKey("Foo12345Foo12345")
+                .transport(transport)
+                .onClientConnect(client -> {})
+                .onClientDisconnect(client -> {})
+                .sendSubscriber((client, packet) -> {})
+                .receiveSubscriber((client, packet) -> received.add(packet))
+                .build();
+
+        new Thread(server::run).start();
+
+        while (!server.isRunning()) {
+            Thread.sleep(10);
+        }
+
+        Client client = Client.clientBuilder()
+                .host("localhost")
+                .port(5555)
+                .tokenKey("Bar12345Bar12345")
+                .channelKey("Foo12345Foo12345")
+                .transport(transport)
+                .clientBuild();
+
+        List<Packet> sent = new ArrayList<>();
+        List<UUID> sources = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+        for (int i = 0; i < 1000; i++) {
+            TestPacket packet = TestPacket.builder().build(sources.get(i / 100 % 2), "packet" + i, i % 10);
+            sent.add(packet);
+            client.send(packet);
+        }
+
+        for (int i = 0; i < 500 && received.size() < sent.size(); i++) {
+            Thread.sleep(10);
+        }
+
+        assertThat(received, equalTo(sent));
+        assertThat(server.getFrameMetrics().getReceivedEnvelopes(), greaterThan(0L));
+        assertThat(server.getFrameMetrics().getReceivedFrames(), lessThan((long) sent.size()));
+
+        client.disconnect();
+        server.stop();
+    }
+
+    @Test
+    public void dropsSilentPeerAfterHandshakeTimeout() throws Exception {
+        LoopbackTransport transport = LoopbackTransport.builder().build();
+        Set<Client> connected = ConcurrentHashMap.newKeySet();
+
+        Server server = Server.builder()
+                .port(5555)
+                .tokenKey("Bar12345Bar12345")
+                .channelKey("Foo12345Foo12345")
+                .handshakeTimeout(200)
+                .setupThreads(1)
+                .transport(transport)
+                .onClientConnect(connected::add)
+                .onClientDisconnect(connected::remove)
+                .sendSubscriber((client, packet) -> {})
+                .receiveSubscriber((client, packet) -> {})
+                .build();
+
+        new Thread(server::run).start();
+
+        while (!server.isRunning()) {
+            Thread.sleep(10);
+        }
+
+        TransportConnection silent = transport.connect("localhost", 5555);
+        Client client = Client.clientBuilder()
+                .host("localhost")
+                .port(5555)
+                .tokenKey("Bar12345Bar12345")
+                .channelKey("Foo12345Foo12345")
+                .transport(transport)
+                .clientBuild();
 
-        String cipherKey = "Bar12345Bar12345";
+        for (int i = 0; i < 100 && connected.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+
+        assertThat(connected, hasSize(1));
+
+        silent.close();
+        client.disconnect();
+        server.stop();
+    }
 
-        Encryptor encryptor = Encryptor.builder()
-                .key(cipherKey)
+    @Test
+    public void closesConnectionsOverSetupQueue() throws Exception {
+        LoopbackTransport transport = LoopbackTransport.builder().build();
+
+        Server server = Server.builder()
+                .port(5555)
+                .tokenKey("Bar12345Bar12345")
+                .channelKey("Foo12345Foo12345")
+                .setupThreads(1)
+                .setupQueueSize(1)
+                .transport(transport)
+                .onClientConnect(client -> {})
+                .onClientDisconnect(client -> {})
+                .sendSubscriber((client, packet) -> {})
+                .receiveSubscriber((client, packet) -> {})
                 .build();
 
-        Decryptor decryptor = Decryptor.builder()
-                .key(cipherKey)
+        new Thread(server::run).start();
+
+        while (!server.isRunning()) {
+            Thread.sleep(10);
+        }
+
+        List<TransportConnection> silent = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            silent.add(transport.connect("localhost", 5555));
+        }
+
+        TransportConnection rejected = silent.get(2);
+        rejected.setReadTimeout(2000);
+
+        assertThat(rejected.getInputStream().read(), equalTo(-1));
+
+        for (TransportConnection connection : silent) {
+            connection.close();
+        }
+
+        server.stop();
+    }
+
+    @Test
+    public void rejectsFrameOverPacketMaxSize() throws InterruptedException {
+        PacketFactory.getInstance().register(TestPacket.class, TestPacket.ALIAS, TestPacket.builder(), 4);
+
+        ClientWrapper clientDisconnected = new ClientWrapper();
+        ClientPacketSubscriber serverClientReceiveSubscriber = new ClientPacketSubscriber();
+        Server server = startServer(clientDisconnected, serverClientReceiveSubscriber);
+        Client client = connectClient();
+
+        client.send(TestPacket.builder().build(UUID.randomUUID(), "abcdef", 4));
+
+        Thread.sleep(1000);
+
+        assertThat(serverClientReceiveSubscriber.packet, nullValue());
+        assertThat(server.getFrameMetrics().getRejectedFrames(), equalTo(1L));
+        assertThat(clientDisconnected.value, notNullValue());
+
+        client.disconnect();
+        server.stop();
+    }
+
+    @Test
+    public void streamsFrameOverPooledSize() throws InterruptedException {
+        PacketFactory.getInstance().register(TestPacket.class, TestPacket.ALIAS, TestPacket.builder(), 1024 * 1024);
+
+        ClientWrapper clientDisconnected = new ClientWrapper();
+        ClientPacketSubscriber serverClientReceiveSubscriber = new ClientPacketSubscriber();
+        Server server = startServer(clientDisconnected, serverClientReceiveSubscriber);
+        Client client = connectClient();
+
+        TestPacket clientPacket = TestPacket.builder().build(UUID.randomUUID(), "a".repeat(200 * 1024), 4);
+        client.send(clientPacket);
+
+        Thread.sleep(1000);
+
+        assertThat(serverClientReceiveSubscriber.packet, equalTo(clientPacket));
+        assertThat(server.getFrameMetrics().getStreamedFrames(), equalTo(1L));
+        assertThat(server.getFrameMetrics().getRejectedFrames(), equalTo(0L));
+        assertThat(clientDisconnected.value, nullValue());
+
+        client.disconnect();
+        server.stop();
+    }
+
+    private Server startServer(ClientWrapper clientDisconnected, ClientPacketSubscriber receiveSubscriber)
+            throws InterruptedException {
+
+        Server server = Server.builder()
+                .port(5555)
+                .tokenKey("Bar12345Bar12345")
+                .onClientConnect(client -> {})
+                .onClientDisconnect(clientDisconnected::setValue)
+                .sendSubscriber(new ClientPacketSubscriber())
+                .receiveSubscriber(receiveSubscriber)
                 .build();
 
+        new Thread(server::run).start();
+
+        Thread.sleep(1000);
+
+        return server;
+    }
+
+    private Client connectClient() throws InterruptedException {
+        Client client = Client.clientBuilder()
+                .host("localhost")
+                .port(5555)
+                .tokenKey("Bar12345Bar12345")
+                .clientBuild();
+
+        Thread.sleep(1000);
+
+        return client;
+    }
+
+    private void run(String channelKey) throws InterruptedException {
+        PacketFactory.getInstance().register(TestPacket.ALIAS, TestPacket.builder());
+
+        String tokenKey = "Bar12345Bar12345";
+
         ClientWrapper clientConnected = new ClientWrapper();
         ClientWrapper clientDisconnected = new ClientWrapper();
         ClientPacketSubscriber serverClientSendSubscriber = new ClientPacketSubscriber();
@@ -35,12 +366,12 @@ public class ServerClientTest {
 
         Server server = Server.builder()
                 .port(5555)
-                .encryptor(encryptor)
-                .decryptor(decryptor)
+                .tokenKey(tokenKey)
                 .onClientConnect(clientConnected::setValue)
                 .onClientDisconnect(clientDisconnected::setValue)
                 .sendSubscriber(serverClientSendSubscriber)
                 .receiveSubscriber(serverClientReceiveSubscriber)
+                .channelKey(channelKey)
                 .build();
 
         new Thread() {
@@ -62,10 +393,10 @@ public class ServerClientTest {
         Client client = Client.clientBuilder()
                 .host("localhost")
                 .port(5555)
-                .encryptor(encryptor)
-                .decryptor(decryptor)
+                .tokenKey(tokenKey)
                 .sendSubscriber(clientSendSubscriber)
                 .receiveSubscriber(clientReceiveSubscriber)
+                .channelKey(channelKey)
                 .clientBuild();
 
         Thread.sleep(1000);
@@ -0,0 +1,74 @@
+package com.mmo.infrastructure.server.transport;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class LoopbackTransportTest {
+
+    @Test
+    public void carriesBytesAcrossRingWrapAround() throws Exception {
+        LoopbackTransport transport = LoopbackTransport.builder().ringSize(64).build();
+        TransportListener listener = transport.listen(7000, 1).get(0);
+        TransportConnection client = transport.connect("localhost", 7000);
+        TransportConnection server = listener.accept();
+
+        byte[] sent = new byte[100_000];
+        new Random(1).nextBytes(sent);
+
+        Thread writer = new Thread(() -> {
+            try {
+                for (int offset = 0; offset < sent.length; offset += 37) {
+                    client.getOutputStream().write(sent, offset, Math.min(37, sent.length - offset));
+                }
+            } catch (IOException exception) {
+                throw new RuntimeException(exception);
+            }
+        });
+        writer.start();
+
+        byte[] received = new byte[sent.length];
+        new DataInputStream(server.getInputStream()).readFully(received);
+        writer.join();
+
+        assertThat(received, equalTo(sent));
+
+        listener.close();
+    }
+
+    @Test
+    public void peerSeesEndOfStreamAfterClose() throws Exception {
+        LoopbackTransport transport = LoopbackTransport.builder().build();
+        TransportListener listener = transport.listen(7000, 1).get(0);
+        TransportConnection client = transport.connect("localhost", 7000);
+        TransportConnection server = listener.accept();
+
+        client.getOutputStream().write(new byte[] { 1, 2 });
+        client.close();
+
+        assertThat(server.getInputStream().read(), equalTo(1));
+        assertThat(server.getInputStream().read(), equalTo(2));
+        assertThat(server.getInputStream().read(), equalTo(-1));
+        assertThrows(IOException.class, () -> server.getOutputStream().write(3));
+
+        listener.close();
+    }
+
+    @Test
+    public void connectFailsWithoutListener() throws Exception {
+        LoopbackTransport transport = LoopbackTransport.builder().build();
+        TransportListener listener = transport.listen(7000, 1).get(0);
+
+        listener.close();
+
+        assertThrows(ConnectException.class, () -> transport.connect("localhost", 7000));
+        assertThrows(IOException.class, listener::accept);
+    }
+}